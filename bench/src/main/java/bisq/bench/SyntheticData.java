@@ -0,0 +1,254 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.bench;
+
+import bisq.core.account.witness.AccountAgeWitness;
+import bisq.core.dao.node.full.RawBlock;
+import bisq.core.dao.node.full.RawTx;
+import bisq.core.dao.node.full.RawTxOutput;
+import bisq.core.dao.state.model.blockchain.TxInput;
+
+import bisq.network.p2p.NodeAddress;
+import bisq.network.p2p.PrefixedSealedAndSignedMessage;
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.payload.MailboxStoragePayload;
+import bisq.network.p2p.storage.payload.ProtectedMailboxStorageEntry;
+import bisq.network.p2p.storage.persistence.SequenceNumberMap;
+
+import bisq.common.app.Version;
+import bisq.common.crypto.CryptoException;
+import bisq.common.crypto.SealedAndSigned;
+import bisq.common.crypto.Sig;
+
+import com.google.protobuf.ByteString;
+
+import com.google.common.collect.ImmutableList;
+
+import java.security.KeyPair;
+import java.security.PublicKey;
+
+import java.time.Clock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Deterministic generators for the data sets used by the benchmarks. All random data is derived from a fixed seed so
+ * that runs on different machines or different commits operate on comparable inputs.
+ */
+public class SyntheticData {
+    public static final long SEED = 42;
+
+    static {
+        // Messages get the P2P message version set at construction, which requires a base currency network id. If an
+        // application has set it already (e.g. the seed node started by the load simulator) we keep its network.
+        if (Version.getP2PMessageVersion() == 0)
+            Version.setBaseCryptoNetworkId(0);
+    }
+
+    private final Random random;
+
+    public SyntheticData() {
+        this(SEED);
+    }
+
+    public SyntheticData(long seed) {
+        random = new Random(seed);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Generic
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    public String randomHex(int numBytes) {
+        return org.bitcoinj.core.Utils.HEX.encode(randomBytes(numBytes));
+    }
+
+    // DSA key generation is slow so callers should reuse the key pairs where possible
+    public static List<KeyPair> createSigKeyPairs(int count) {
+        List<KeyPair> keyPairs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            keyPairs.add(Sig.generateKeyPair());
+        }
+        return keyPairs;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // P2P network payloads
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public List<AccountAgeWitness> createAccountAgeWitnesses(int count) {
+        List<AccountAgeWitness> list = new ArrayList<>(count);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < count; i++) {
+            // The hash of an AccountAgeWitness is a 20 byte sha256Ripemd160 hash
+            list.add(new AccountAgeWitness(randomBytes(20), now - random.nextInt(Integer.MAX_VALUE)));
+        }
+        return list;
+    }
+
+    public MailboxStoragePayload createMailboxStoragePayload(PublicKey senderPubKey,
+                                                             PublicKey receiverPubKey,
+                                                             int encryptedPayloadSize) {
+        SealedAndSigned sealedAndSigned = new SealedAndSigned(randomBytes(256),
+                randomBytes(encryptedPayloadSize),
+                randomBytes(46),
+                senderPubKey);
+        PrefixedSealedAndSignedMessage message = new PrefixedSealedAndSignedMessage(
+                new NodeAddress(randomHex(8) + ".onion", 9999),
+                sealedAndSigned,
+                randomBytes(2),
+                UUID.randomUUID().toString());
+        return new MailboxStoragePayload(message, senderPubKey, receiverPubKey);
+    }
+
+    /**
+     * Creates a signed entry like P2PDataStorage.getMailboxDataWithSignedSeqNr but without requiring a
+     * P2PDataStorage instance, so entries with any sequence number can be prepared up front.
+     */
+    public static ProtectedMailboxStorageEntry createMailboxEntry(MailboxStoragePayload payload,
+                                                                  KeyPair signerKeyPair,
+                                                                  PublicKey receiversPubKey,
+                                                                  int sequenceNumber,
+                                                                  Clock clock) throws CryptoException {
+        byte[] hashOfDataAndSeqNr = P2PDataStorage.get32ByteHash(
+                new P2PDataStorage.DataAndSeqNrPair(payload, sequenceNumber));
+        byte[] signature = Sig.sign(signerKeyPair.getPrivate(), hashOfDataAndSeqNr);
+        return new ProtectedMailboxStorageEntry(payload, signerKeyPair.getPublic(), sequenceNumber, signature,
+                receiversPubKey, clock);
+    }
+
+    public SequenceNumberMap createSequenceNumberMap(int size) {
+        long now = System.currentTimeMillis();
+        protobuf.SequenceNumberMap.Builder builder = protobuf.SequenceNumberMap.newBuilder();
+        for (int i = 0; i < size; i++) {
+            builder.addSequenceNumberEntries(protobuf.SequenceNumberEntry.newBuilder()
+                    .setBytes(protobuf.ByteArray.newBuilder().setBytes(ByteString.copyFrom(randomBytes(32))))
+                    .setMapValue(protobuf.MapValue.newBuilder()
+                            .setSequenceNr(1 + random.nextInt(100))
+                            .setTimeStamp(now - random.nextInt(Integer.MAX_VALUE))));
+        }
+        return SequenceNumberMap.fromProto(builder.build());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // DAO
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Creates a chain of raw blocks starting with the genesis block. The genesis tx has one output per lineage and
+     * each following block contains one tx per lineage which spends the first output of the lineage's previous tx,
+     * sends a small BSQ amount to a second output and pays a small BSQ fee. All txs are valid BSQ txs.
+     *
+     * @param genesisTxId        Id used for the genesis tx
+     * @param genesisBlockHeight Height of the first block
+     * @param genesisTotalSupply Total amount issued in the genesis tx
+     * @param numBlocks          Number of blocks after the genesis block
+     * @param txsPerBlock        Number of txs in each block after the genesis block
+     * @return The genesis block followed by numBlocks blocks
+     */
+    public List<RawBlock> createBsqChain(String genesisTxId,
+                                         int genesisBlockHeight,
+                                         long genesisTotalSupply,
+                                         int numBlocks,
+                                         int txsPerBlock) {
+        long transferAmount = 10000;
+        long fee = 100;
+        long valuePerLineage = genesisTotalSupply / txsPerBlock;
+        if (valuePerLineage <= numBlocks * (transferAmount + fee))
+            throw new IllegalArgumentException("genesisTotalSupply is too small for the requested chain");
+
+        List<RawBlock> blocks = new ArrayList<>(numBlocks + 1);
+        long time = 1534800000;
+        String blockHash = randomHex(32);
+
+        List<RawTxOutput> genesisOutputs = new ArrayList<>(txsPerBlock);
+        for (int i = 0; i < txsPerBlock; i++) {
+            long value = i == txsPerBlock - 1 ?
+                    genesisTotalSupply - valuePerLineage * (txsPerBlock - 1) :
+                    valuePerLineage;
+            genesisOutputs.add(createRawTxOutput(i, value, genesisTxId, genesisBlockHeight));
+        }
+        RawTx genesisTx = new RawTx(genesisTxId, genesisBlockHeight, blockHash, time,
+                ImmutableList.of(), ImmutableList.copyOf(genesisOutputs));
+        blocks.add(createRawBlock(genesisBlockHeight, time, blockHash, null, ImmutableList.of(genesisTx)));
+
+        List<TxInput> spendableInputs = new ArrayList<>(txsPerBlock);
+        List<Long> spendableValues = new ArrayList<>(txsPerBlock);
+        for (RawTxOutput output : genesisOutputs) {
+            spendableInputs.add(new TxInput(genesisTxId, output.getIndex(), null));
+            spendableValues.add(output.getValue());
+        }
+
+        for (int height = genesisBlockHeight + 1; height <= genesisBlockHeight + numBlocks; height++) {
+            String previousBlockHash = blockHash;
+            blockHash = randomHex(32);
+            time += 600;
+            List<RawTx> txs = new ArrayList<>(txsPerBlock);
+            for (int i = 0; i < txsPerBlock; i++) {
+                String txId = randomHex(32);
+                long inputValue = spendableValues.get(i);
+                RawTxOutput firstOutput = createRawTxOutput(0, inputValue - transferAmount - fee, txId, height);
+                RawTxOutput secondOutput = createRawTxOutput(1, transferAmount, txId, height);
+                txs.add(new RawTx(txId, height, blockHash, time,
+                        ImmutableList.of(spendableInputs.get(i)),
+                        ImmutableList.of(firstOutput, secondOutput)));
+
+                spendableInputs.set(i, new TxInput(txId, 0, null));
+                spendableValues.set(i, firstOutput.getValue());
+            }
+            blocks.add(createRawBlock(height, time, blockHash, previousBlockHash, ImmutableList.copyOf(txs)));
+        }
+        return blocks;
+    }
+
+    private RawTxOutput createRawTxOutput(int index, long value, String txId, int blockHeight) {
+        return new RawTxOutput(index, value, txId, null, "B" + randomHex(16), null, blockHeight);
+    }
+
+    // The RawBlock constructor is package private so we go via the protobuf representation
+    private static RawBlock createRawBlock(int height,
+                                           long time,
+                                           String hash,
+                                           String previousBlockHash,
+                                           ImmutableList<RawTx> rawTxs) {
+        protobuf.BaseBlock.Builder builder = protobuf.BaseBlock.newBuilder()
+                .setHeight(height)
+                .setTime(time)
+                .setHash(hash)
+                .setRawBlock(protobuf.RawBlock.newBuilder()
+                        .addAllRawTxs(rawTxs.stream()
+                                .map(RawTx::toProtoMessage)
+                                .collect(Collectors.toList())));
+        if (previousBlockHash != null)
+            builder.setPreviousBlockHash(previousBlockHash);
+        return RawBlock.fromProto(builder.build());
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.bench.seednode;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.Value;
+
+/**
+ * Collects the throughput and latencies of the operations sent by the simulated clients. Results are reported per
+ * interval (since the last interval report) and in total (since the last reset), together with the heap, thread and GC
+ * statistics of the JVM which runs the seed node.
+ */
+class LoadStatistics {
+    private final Map<Operation, OperationStatistics> operationStatisticsMap = new EnumMap<>(Operation.class);
+    private final LongAdder receivedBroadcastMessages = new LongAdder();
+    private long totalStartNanos;
+    private long intervalStartNanos;
+
+    LoadStatistics() {
+        for (Operation operation : Operation.values()) {
+            operationStatisticsMap.put(operation, new OperationStatistics());
+        }
+        reset();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    synchronized void reset() {
+        operationStatisticsMap.values().forEach(OperationStatistics::reset);
+        receivedBroadcastMessages.reset();
+        totalStartNanos = System.nanoTime();
+        intervalStartNanos = totalStartNanos;
+    }
+
+    void onSent(Operation operation) {
+        operationStatisticsMap.get(operation).onSent();
+    }
+
+    void onCompleted(Operation operation, long latencyNanos) {
+        operationStatisticsMap.get(operation).onCompleted(latencyNanos);
+    }
+
+    void onFailed(Operation operation) {
+        operationStatisticsMap.get(operation).onFailed();
+    }
+
+    // The operation was not sent as the client had still a request of the same kind pending or nothing to refresh
+    // or remove
+    void onSkipped(Operation operation) {
+        operationStatisticsMap.get(operation).onSkipped();
+    }
+
+    // A broadcast message which the seed node has relayed to one of the clients
+    void onBroadcastMessageReceived() {
+        receivedBroadcastMessages.increment();
+    }
+
+    synchronized Report createIntervalReport() {
+        long now = System.nanoTime();
+        Map<Operation, OperationReport> operationReports = new EnumMap<>(Operation.class);
+        double seconds = (now - intervalStartNanos) / 1e9;
+        operationStatisticsMap.forEach((operation, statistics) ->
+                operationReports.put(operation, statistics.createIntervalReport(seconds)));
+        intervalStartNanos = now;
+        return new Report(TimeUnit.NANOSECONDS.toSeconds(now - totalStartNanos),
+                operationReports,
+                receivedBroadcastMessages.sum());
+    }
+
+    synchronized Report createTotalReport() {
+        long now = System.nanoTime();
+        Map<Operation, OperationReport> operationReports = new EnumMap<>(Operation.class);
+        double seconds = (now - totalStartNanos) / 1e9;
+        operationStatisticsMap.forEach((operation, statistics) ->
+                operationReports.put(operation, statistics.createTotalReport(seconds)));
+        return new Report(TimeUnit.NANOSECONDS.toSeconds(now - totalStartNanos),
+                operationReports,
+                receivedBroadcastMessages.sum());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Reports
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Value
+    static class Report {
+        private final long elapsedSec;
+        private final Map<Operation, OperationReport> operations;
+        private final long receivedBroadcastMessages;
+        private final long usedHeapMb;
+        private final long committedHeapMb;
+        private final int threadCount;
+        private final int peakThreadCount;
+        private final long gcCount;
+        private final long gcTimeMs;
+
+        Report(long elapsedSec, Map<Operation, OperationReport> operations, long receivedBroadcastMessages) {
+            this.elapsedSec = elapsedSec;
+            this.operations = Collections.unmodifiableMap(operations);
+            this.receivedBroadcastMessages = receivedBroadcastMessages;
+
+            MemoryUsage heapMemoryUsage = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+            usedHeapMb = heapMemoryUsage.getUsed() / 1024 / 1024;
+            committedHeapMb = heapMemoryUsage.getCommitted() / 1024 / 1024;
+            threadCount = ManagementFactory.getThreadMXBean().getThreadCount();
+            peakThreadCount = ManagementFactory.getThreadMXBean().getPeakThreadCount();
+            long gcCount = 0;
+            long gcTimeMs = 0;
+            for (GarbageCollectorMXBean garbageCollectorMXBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+                gcCount += Math.max(0, garbageCollectorMXBean.getCollectionCount());
+                gcTimeMs += Math.max(0, garbageCollectorMXBean.getCollectionTime());
+            }
+            this.gcCount = gcCount;
+            this.gcTimeMs = gcTimeMs;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            operations.forEach((operation, operationReport) -> {
+                if (operationReport.getSent() > 0 || operationReport.getSkipped() > 0)
+                    sb.append(String.format("%n  %-20s %s", operation, operationReport));
+            });
+            sb.append(String.format("%n  %-20s %d received by clients", "BROADCASTS", receivedBroadcastMessages));
+            sb.append(String.format("%n  %-20s heap %d/%d MB, threads %d (peak %d), GC %d runs (%d ms)",
+                    "JVM", usedHeapMb, committedHeapMb, threadCount, peakThreadCount, gcCount, gcTimeMs));
+            return sb.toString();
+        }
+    }
+
+    @Value
+    static class OperationReport {
+        private final long sent;
+        private final long completed;
+        private final long failed;
+        private final long skipped;
+        private final double throughputPerSec;
+        private final double p50LatencyMs;
+        private final double p99LatencyMs;
+        private final double maxLatencyMs;
+
+        @Override
+        public String toString() {
+            return String.format("%d sent, %d completed (%.1f/s), %d failed, %d skipped, " +
+                            "latency p50 %.1f ms, p99 %.1f ms, max %.1f ms",
+                    sent, completed, throughputPerSec, failed, skipped, p50LatencyMs, p99LatencyMs, maxLatencyMs);
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // OperationStatistics
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static class OperationStatistics {
+        private final Counts interval = new Counts();
+        private final Counts total = new Counts();
+
+        synchronized void reset() {
+            interval.reset();
+            total.reset();
+        }
+
+        synchronized void onSent() {
+            interval.sent++;
+            total.sent++;
+        }
+
+        synchronized void onCompleted(long latencyNanos) {
+            interval.addLatency(latencyNanos);
+            total.addLatency(latencyNanos);
+        }
+
+        synchronized void onFailed() {
+            interval.failed++;
+            total.failed++;
+        }
+
+        synchronized void onSkipped() {
+            interval.skipped++;
+            total.skipped++;
+        }
+
+        synchronized OperationReport createIntervalReport(double seconds) {
+            OperationReport report = interval.createReport(seconds);
+            interval.reset();
+            return report;
+        }
+
+        synchronized OperationReport createTotalReport(double seconds) {
+            return total.createReport(seconds);
+        }
+    }
+
+    private static class Counts {
+        private long sent;
+        private long failed;
+        private long skipped;
+        private long[] latencies;
+        private int numLatencies;
+
+        Counts() {
+            reset();
+        }
+
+        void reset() {
+            sent = 0;
+            failed = 0;
+            skipped = 0;
+            latencies = new long[1024];
+            numLatencies = 0;
+        }
+
+        void addLatency(long latencyNanos) {
+            if (numLatencies == latencies.length)
+                latencies = Arrays.copyOf(latencies, latencies.length * 2);
+            latencies[numLatencies++] = latencyNanos;
+        }
+
+        OperationReport createReport(double seconds) {
+            long[] sorted = Arrays.copyOf(latencies, numLatencies);
+            Arrays.sort(sorted);
+            return new OperationReport(sent,
+                    numLatencies,
+                    failed,
+                    skipped,
+                    seconds > 0 ? numLatencies / seconds : 0,
+                    getPercentileMs(sorted, 0.5),
+                    getPercentileMs(sorted, 0.99),
+                    getPercentileMs(sorted, 1));
+        }
+
+        private static double getPercentileMs(long[] sorted, double percentile) {
+            if (sorted.length == 0)
+                return 0;
+
+            int index = Math.max(0, (int) Math.ceil(percentile * sorted.length) - 1);
+            return sorted[index] / 1e6;
+        }
+    }
+}
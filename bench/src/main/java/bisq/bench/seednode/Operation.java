@@ -0,0 +1,47 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.bench.seednode;
+
+import lombok.Getter;
+
+/**
+ * The requests and broadcasts a simulated client sends to the seed node. Each operation is sent at its own rate which
+ * can be set with the option of the same name.
+ */
+enum Operation {
+    // The initial request of a client which has not persisted any data yet
+    PRELIMINARY_GET_DATA("preliminaryGetDataRate", 1),
+    // The request a client sends after it knows its own onion address
+    GET_UPDATED_DATA("getUpdatedDataRate", 2),
+    ADD_OFFER("addOfferRate", 5),
+    REFRESH_OFFER("refreshOfferRate", 5),
+    REMOVE_OFFER("removeOfferRate", 2),
+    ADD_MAILBOX_MESSAGE("addMailboxMessageRate", 5),
+    GET_BLOCKS("getBlocksRate", 1);
+
+    // Operations per second across all clients
+    @Getter
+    private final String rateOptionKey;
+    @Getter
+    private final double defaultRate;
+
+    Operation(String rateOptionKey, double defaultRate) {
+        this.rateOptionKey = rateOptionKey;
+        this.defaultRate = defaultRate;
+    }
+}
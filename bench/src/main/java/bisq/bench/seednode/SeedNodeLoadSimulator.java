@@ -0,0 +1,474 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.bench.seednode;
+
+import bisq.bench.SyntheticData;
+
+import bisq.core.app.AppOptionKeys;
+import bisq.core.app.BisqEnvironment;
+import bisq.core.app.BisqExecutable;
+import bisq.core.btc.BtcOptionKeys;
+import bisq.core.dao.DaoOptionKeys;
+import bisq.core.dao.node.full.RawBlock;
+import bisq.core.dao.node.full.network.FullNodeNetworkService;
+import bisq.core.dao.node.parser.BlockParser;
+import bisq.core.dao.node.parser.BlockParserBenchmark;
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.proto.network.CoreNetworkProtoResolver;
+
+import bisq.network.NetworkOptionKeys;
+import bisq.network.p2p.NodeAddress;
+import bisq.network.p2p.network.LocalhostNetworkNode;
+
+import bisq.common.CommonOptionKeys;
+import bisq.common.crypto.Encryption;
+import bisq.common.util.Utilities;
+
+import com.google.inject.Injector;
+
+import joptsimple.OptionException;
+import joptsimple.OptionParser;
+import joptsimple.OptionSet;
+import joptsimple.OptionSpec;
+
+import java.security.KeyPair;
+
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import java.io.IOException;
+
+import java.time.Clock;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Starts a seed node on the localhost network together with a number of simulated clients in the same JVM and lets
+ * the clients send get data requests, offer broadcasts, mailbox messages and get blocks requests to the seed node at
+ * configurable rates. Throughput and latencies per operation and the heap, thread and GC statistics of the JVM are
+ * reported periodically and at the end of the run.
+ * <p/>
+ * Options after a "--" argument are passed to the seed node, e.g. "-- --msgThrottlePerSec=500". The seed node serves
+ * the blocks of a synthetic BSQ chain, as there is no Bitcoin node to parse blocks from.
+ * <p/>
+ * The seed node and the clients share the JVM and the UserThread, so the client side message handling adds to the
+ * measured latencies. The connection throttle settings are JVM wide as well.
+ */
+@Slf4j
+public class SeedNodeLoadSimulator {
+    private static final String HELP_KEY = "help";
+    private static final String SEED_NODE_PORT = "seedNodePort";
+    private static final String CLIENTS = "clients";
+    private static final String CLIENT_BASE_PORT = "clientBasePort";
+    private static final String DURATION = "duration";
+    private static final String REPORT_INTERVAL = "reportInterval";
+    private static final String REQUEST_TIMEOUT = "requestTimeout";
+    private static final String NUM_BLOCKS = "numBlocks";
+    private static final String TXS_PER_BLOCK = "txsPerBlock";
+    private static final String GET_BLOCKS_DEPTH = "getBlocksDepth";
+    private static final String MAILBOX_PAYLOAD_SIZE = "mailboxPayloadSize";
+    private static final String REPORT_FILE = "reportFile";
+
+    private static final int EXIT_SUCCESS = 0;
+    private static final int EXIT_FAILURE = 1;
+
+    public static void main(String[] args) throws Exception {
+        OptionParser parser = new OptionParser();
+        parser.accepts(HELP_KEY, "This help text").forHelp();
+        OptionSpec<Integer> seedNodePortOption = parser.accepts(SEED_NODE_PORT, "Port of the seed node")
+                .withRequiredArg().ofType(int.class).defaultsTo(2010);
+        OptionSpec<Integer> clientsOption = parser.accepts(CLIENTS, "Number of simulated clients")
+                .withRequiredArg().ofType(int.class).defaultsTo(20);
+        OptionSpec<Integer> clientBasePortOption = parser.accepts(CLIENT_BASE_PORT,
+                "Port of the first client, the other clients use the following ports")
+                .withRequiredArg().ofType(int.class).defaultsTo(4000);
+        OptionSpec<Integer> durationOption = parser.accepts(DURATION, "Duration of the load phase in seconds")
+                .withRequiredArg().ofType(int.class).defaultsTo(60);
+        OptionSpec<Integer> reportIntervalOption = parser.accepts(REPORT_INTERVAL, "Report interval in seconds")
+                .withRequiredArg().ofType(int.class).defaultsTo(10);
+        OptionSpec<Integer> requestTimeoutOption = parser.accepts(REQUEST_TIMEOUT,
+                "Seconds after which a pending request counts as failed")
+                .withRequiredArg().ofType(int.class).defaultsTo(90);
+        OptionSpec<Integer> numBlocksOption = parser.accepts(NUM_BLOCKS,
+                "Number of BSQ blocks after the genesis block the seed node serves")
+                .withRequiredArg().ofType(int.class).defaultsTo(1000);
+        OptionSpec<Integer> txsPerBlockOption = parser.accepts(TXS_PER_BLOCK, "Number of BSQ txs per block")
+                .withRequiredArg().ofType(int.class).defaultsTo(10);
+        OptionSpec<Integer> getBlocksDepthOption = parser.accepts(GET_BLOCKS_DEPTH,
+                "Get blocks requests start at a random height up to that many blocks below the chain tip")
+                .withRequiredArg().ofType(int.class).defaultsTo(100);
+        OptionSpec<Integer> mailboxPayloadSizeOption = parser.accepts(MAILBOX_PAYLOAD_SIZE,
+                "Size of the encrypted payload of mailbox messages in bytes")
+                .withRequiredArg().ofType(int.class).defaultsTo(2000);
+        OptionSpec<String> reportFileOption = parser.accepts(REPORT_FILE,
+                "Write the interval and total reports as JSON to that file")
+                .withRequiredArg();
+        Map<Operation, OptionSpec<Double>> rateOptions = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            rateOptions.put(operation, parser.accepts(operation.getRateOptionKey(),
+                    "Operations per second across all clients, 0 disables the operation")
+                    .withRequiredArg().ofType(double.class).defaultsTo(operation.getDefaultRate()));
+        }
+
+        OptionSet options;
+        try {
+            options = parser.parse(args);
+        } catch (OptionException ex) {
+            System.err.println("error: " + ex.getMessage());
+            System.exit(EXIT_FAILURE);
+            return;
+        }
+        if (options.has(HELP_KEY)) {
+            parser.printHelpOn(System.out);
+            System.out.println("\nOptions after a \"--\" argument are passed to the seed node.");
+            System.exit(EXIT_SUCCESS);
+            return;
+        }
+
+        Map<Operation, Double> rates = new EnumMap<>(Operation.class);
+        rateOptions.forEach((operation, option) -> rates.put(operation, options.valueOf(option)));
+        List<String> seedNodeArgs = new ArrayList<>();
+        options.nonOptionArguments().forEach(argument -> seedNodeArgs.add(argument.toString()));
+
+        new SeedNodeLoadSimulator(options.valueOf(seedNodePortOption),
+                options.valueOf(clientsOption),
+                options.valueOf(clientBasePortOption),
+                options.valueOf(durationOption),
+                options.valueOf(reportIntervalOption),
+                options.valueOf(requestTimeoutOption),
+                options.valueOf(numBlocksOption),
+                options.valueOf(txsPerBlockOption),
+                options.valueOf(getBlocksDepthOption),
+                options.valueOf(mailboxPayloadSizeOption),
+                options.has(reportFileOption) ? Paths.get(options.valueOf(reportFileOption)) : null,
+                rates,
+                seedNodeArgs).run();
+    }
+
+
+    private final int seedNodePort;
+    private final int numClients;
+    private final int clientBasePort;
+    private final int durationSec;
+    private final int reportIntervalSec;
+    private final int requestTimeoutSec;
+    private final int numBlocks;
+    private final int txsPerBlock;
+    private final int getBlocksDepth;
+    private final int mailboxPayloadSize;
+    private final Path reportFile;
+    private final Map<Operation, Double> rates;
+    private final List<String> seedNodeArgs;
+
+    private final LoadStatistics statistics = new LoadStatistics();
+    private final List<SimulatedClient> clients = new ArrayList<>();
+    private final List<LoadStatistics.Report> reports = new ArrayList<>();
+    private SimulatedSeedNode seedNode;
+    private int chainHeight;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private SeedNodeLoadSimulator(int seedNodePort,
+                                  int numClients,
+                                  int clientBasePort,
+                                  int durationSec,
+                                  int reportIntervalSec,
+                                  int requestTimeoutSec,
+                                  int numBlocks,
+                                  int txsPerBlock,
+                                  int getBlocksDepth,
+                                  int mailboxPayloadSize,
+                                  Path reportFile,
+                                  Map<Operation, Double> rates,
+                                  List<String> seedNodeArgs) {
+        this.seedNodePort = seedNodePort;
+        this.numClients = numClients;
+        this.clientBasePort = clientBasePort;
+        this.durationSec = durationSec;
+        this.reportIntervalSec = reportIntervalSec;
+        this.requestTimeoutSec = requestTimeoutSec;
+        this.numBlocks = numBlocks;
+        this.txsPerBlock = txsPerBlock;
+        this.getBlocksDepth = getBlocksDepth;
+        this.mailboxPayloadSize = mailboxPayloadSize;
+        this.reportFile = reportFile;
+        this.rates = rates;
+        this.seedNodeArgs = seedNodeArgs;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Run
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void run() throws Exception {
+        // No need to simulate the tor startup delays
+        LocalhostNetworkNode.setSimulateTorDelayTorNode(0);
+        LocalhostNetworkNode.setSimulateTorDelayHiddenService(0);
+
+        startSeedNode();
+        startClients();
+        syncClients();
+        applyLoad();
+
+        LoadStatistics.Report totalReport = statistics.createTotalReport();
+        log.info("Total after {} sec:{}", totalReport.getElapsedSec(), totalReport);
+        if (reportFile != null)
+            writeReportFile(totalReport);
+
+        shutDown();
+    }
+
+    private void startSeedNode() throws Exception {
+        Path appDataDir = Files.createTempDirectory("bisq-seednode-load");
+        long maxMemoryInMb = Runtime.getRuntime().maxMemory() / 1024 / 1024;
+        // Defaults which are not overridden by the passed seed node options
+        Map<String, String> defaultSeedNodeOptions = new LinkedHashMap<>();
+        defaultSeedNodeOptions.put(BtcOptionKeys.BASE_CURRENCY_NETWORK, "BTC_REGTEST");
+        defaultSeedNodeOptions.put(NetworkOptionKeys.USE_LOCALHOST_FOR_P2P, "true");
+        defaultSeedNodeOptions.put(NetworkOptionKeys.PORT_KEY, String.valueOf(seedNodePort));
+        defaultSeedNodeOptions.put(NetworkOptionKeys.MAX_CONNECTIONS, String.valueOf(numClients + 10));
+        defaultSeedNodeOptions.put(AppOptionKeys.APP_NAME_KEY, "bisq_seednode_load");
+        defaultSeedNodeOptions.put(AppOptionKeys.APP_DATA_DIR_KEY, appDataDir.toString());
+        // The seed node shuts down if it exceeds maxMemory, we want to see the JVM's limit instead
+        defaultSeedNodeOptions.put(AppOptionKeys.MAX_MEMORY, String.valueOf(maxMemoryInMb));
+        defaultSeedNodeOptions.put(CommonOptionKeys.LOG_LEVEL_KEY, "WARN");
+        // Same genesis tx as the synthetic chain
+        defaultSeedNodeOptions.put(DaoOptionKeys.GENESIS_TX_ID, BlockParserBenchmark.GENESIS_TX_ID);
+        defaultSeedNodeOptions.put(DaoOptionKeys.GENESIS_BLOCK_HEIGHT,
+                String.valueOf(BlockParserBenchmark.GENESIS_BLOCK_HEIGHT));
+        defaultSeedNodeOptions.put(DaoOptionKeys.GENESIS_TOTAL_SUPPLY,
+                String.valueOf(BlockParserBenchmark.GENESIS_TOTAL_SUPPLY));
+
+        List<String> args = new ArrayList<>();
+        defaultSeedNodeOptions.forEach((key, value) -> {
+            if (seedNodeArgs.stream().noneMatch(arg -> arg.equals("--" + key) || arg.startsWith("--" + key + "=")))
+                args.add("--" + key + "=" + value);
+        });
+        args.addAll(seedNodeArgs);
+        String[] seedNodeArgsArray = args.toArray(new String[0]);
+        log.info("Starting seed node with options {}", args);
+
+        CompletableFuture<Integer> seedNodeReady = new CompletableFuture<>();
+        seedNode = new SimulatedSeedNode(injector -> {
+            try {
+                seedNodeReady.complete(parseSyntheticBlocks(injector));
+            } catch (Throwable t) {
+                seedNodeReady.completeExceptionally(t);
+            }
+        });
+
+        BisqEnvironment.setDefaultAppName("bisq_seednode_load");
+        if (!BisqExecutable.setupInitialOptionParser(seedNodeArgsArray))
+            throw new IllegalArgumentException("Invalid seed node options " + args);
+
+        // SeedNodeMain.execute does not return as it keeps the seed node running
+        Thread seedNodeThread = new Thread(() -> {
+            try {
+                seedNode.execute(seedNodeArgsArray);
+            } catch (Throwable t) {
+                seedNodeReady.completeExceptionally(t);
+            }
+        }, "SeedNodeMain");
+        seedNodeThread.setDaemon(true);
+        seedNodeThread.start();
+
+        chainHeight = seedNodeReady.get(120, TimeUnit.SECONDS);
+        awaitSeedNodeListening();
+        log.info("Seed node is running at port {} with chain height {}", seedNodePort, chainHeight);
+    }
+
+    // Called on the UserThread once the P2P network of the seed node is initialized
+    private int parseSyntheticBlocks(Injector injector) throws Exception {
+        BlockParser blockParser = injector.getInstance(BlockParser.class);
+        List<RawBlock> rawBlocks = new SyntheticData().createBsqChain(BlockParserBenchmark.GENESIS_TX_ID,
+                BlockParserBenchmark.GENESIS_BLOCK_HEIGHT, BlockParserBenchmark.GENESIS_TOTAL_SUPPLY,
+                numBlocks, txsPerBlock);
+        for (RawBlock rawBlock : rawBlocks) {
+            blockParser.parseBlock(rawBlock);
+        }
+
+        // The seed node runs as lite node, the full node network service lets it answer get blocks requests
+        injector.getInstance(FullNodeNetworkService.class).start();
+        return injector.getInstance(DaoStateService.class).getChainHeight();
+    }
+
+    private void awaitSeedNodeListening() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (true) {
+            try (Socket socket = new Socket()) {
+                socket.connect(new InetSocketAddress("localhost", seedNodePort), 1000);
+                return;
+            } catch (IOException e) {
+                if (System.currentTimeMillis() > deadline)
+                    throw new IllegalStateException("Seed node does not accept connections at port " + seedNodePort);
+                Thread.sleep(100);
+            }
+        }
+    }
+
+    private void startClients() throws InterruptedException {
+        Clock clock = Clock.systemDefaultZone();
+        CoreNetworkProtoResolver networkProtoResolver = new CoreNetworkProtoResolver(clock);
+        NodeAddress seedNodeAddress = new NodeAddress("localhost", seedNodePort);
+        // RSA key generation is slow and the encryption key is not used by the seed node, so clients share one key
+        KeyPair encryptionKeyPair = Encryption.generateKeyPair();
+        List<KeyPair> signatureKeyPairs = SyntheticData.createSigKeyPairs(numClients);
+
+        CountDownLatch clientsStarted = new CountDownLatch(numClients);
+        for (int i = 0; i < numClients; i++) {
+            SimulatedClient client = new SimulatedClient(clientBasePort + i,
+                    seedNodeAddress,
+                    networkProtoResolver,
+                    statistics,
+                    signatureKeyPairs.get(i),
+                    encryptionKeyPair.getPublic(),
+                    clock,
+                    mailboxPayloadSize);
+            clients.add(client);
+            client.start(clientsStarted::countDown);
+        }
+        if (!clientsStarted.await(60, TimeUnit.SECONDS))
+            throw new IllegalStateException("Not all clients could be started");
+
+        log.info("Started {} clients", numClients);
+    }
+
+    // Each client gets the data once like at startup. That makes the client's address known to the seed node, which
+    // is required for broadcasts to be accepted.
+    private void syncClients() throws InterruptedException {
+        clients.forEach(SimulatedClient::requestUpdatedData);
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(requestTimeoutSec);
+        while (clients.stream().anyMatch(SimulatedClient::hasPendingRequests)) {
+            if (System.currentTimeMillis() > deadline) {
+                clients.forEach(client -> client.failTimedOutRequests(0));
+                break;
+            }
+            Thread.sleep(100);
+        }
+
+        LoadStatistics.Report syncReport = statistics.createTotalReport();
+        log.info("Initial sync of {} clients:{}", numClients, syncReport);
+        statistics.reset();
+    }
+
+    private void applyLoad() throws InterruptedException {
+        ScheduledExecutorService executor = Executors.newScheduledThreadPool(Operation.values().length + 2,
+                runnable -> {
+                    Thread thread = new Thread(runnable, "SeedNodeLoadSimulator");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        rates.forEach((operation, rate) -> {
+            if (rate > 0) {
+                long periodMicros = Math.max(1, (long) (1_000_000 / rate));
+                executor.scheduleAtFixedRate(() -> execute(operation), 0, periodMicros, TimeUnit.MICROSECONDS);
+            }
+        });
+        executor.scheduleAtFixedRate(() -> clients.forEach(client ->
+                        client.failTimedOutRequests(TimeUnit.SECONDS.toNanos(requestTimeoutSec))),
+                1, 1, TimeUnit.SECONDS);
+        executor.scheduleAtFixedRate(() -> {
+            LoadStatistics.Report report = statistics.createIntervalReport();
+            reports.add(report);
+            log.info("Interval ending at {} sec:{}", report.getElapsedSec(), report);
+        }, reportIntervalSec, reportIntervalSec, TimeUnit.SECONDS);
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(durationSec));
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    // Called from the executor's threads, exceptions would cancel the periodic execution so we only log them
+    private void execute(Operation operation) {
+        try {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            SimulatedClient client = clients.get(random.nextInt(clients.size()));
+            switch (operation) {
+                case PRELIMINARY_GET_DATA:
+                    client.requestPreliminaryData();
+                    break;
+                case GET_UPDATED_DATA:
+                    client.requestUpdatedData();
+                    break;
+                case ADD_OFFER:
+                    client.addOffer();
+                    break;
+                case REFRESH_OFFER:
+                    client.refreshOffer();
+                    break;
+                case REMOVE_OFFER:
+                    client.removeOffer();
+                    break;
+                case ADD_MAILBOX_MESSAGE:
+                    SimulatedClient receiver = clients.get(random.nextInt(clients.size()));
+                    client.addMailboxMessage(receiver.getPubKeyRing().getSignaturePubKey());
+                    break;
+                case GET_BLOCKS:
+                    int fromBlockHeight = chainHeight - random.nextInt(Math.max(1, getBlocksDepth));
+                    client.requestBlocks(Math.max(BlockParserBenchmark.GENESIS_BLOCK_HEIGHT, fromBlockHeight));
+                    break;
+            }
+        } catch (Throwable t) {
+            log.error("Executing {} failed", operation, t);
+        }
+    }
+
+    private void writeReportFile(LoadStatistics.Report totalReport) throws IOException {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("clients", numClients);
+        json.put("durationSec", durationSec);
+        json.put("rates", rates);
+        json.put("seedNodeArgs", seedNodeArgs);
+        json.put("intervals", reports);
+        json.put("total", totalReport);
+        Path parent = reportFile.toAbsolutePath().getParent();
+        if (parent != null)
+            Files.createDirectories(parent);
+        Files.write(reportFile, Utilities.objectToJson(json).getBytes(StandardCharsets.UTF_8));
+        log.info("Report written to {}", reportFile.toAbsolutePath());
+    }
+
+    private void shutDown() throws InterruptedException {
+        CountDownLatch clientsShutDown = new CountDownLatch(clients.size());
+        clients.forEach(client -> client.shutDown(clientsShutDown::countDown));
+        clientsShutDown.await(10, TimeUnit.SECONDS);
+        seedNode.gracefulShutDown(() -> System.exit(EXIT_SUCCESS));
+    }
+}
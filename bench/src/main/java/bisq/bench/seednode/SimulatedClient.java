@@ -0,0 +1,407 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.bench.seednode;
+
+import bisq.bench.SyntheticData;
+
+import bisq.core.dao.node.messages.GetBlocksRequest;
+import bisq.core.dao.node.messages.GetBlocksResponse;
+import bisq.core.offer.OfferPayload;
+import bisq.core.payment.payload.PaymentMethod;
+
+import bisq.network.p2p.NodeAddress;
+import bisq.network.p2p.network.Connection;
+import bisq.network.p2p.network.LocalhostNetworkNode;
+import bisq.network.p2p.network.MessageListener;
+import bisq.network.p2p.network.NetworkNode;
+import bisq.network.p2p.network.SetupListener;
+import bisq.network.p2p.peers.getdata.messages.GetDataResponse;
+import bisq.network.p2p.peers.getdata.messages.GetUpdatedDataRequest;
+import bisq.network.p2p.peers.getdata.messages.PreliminaryGetDataRequest;
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.messages.AddDataMessage;
+import bisq.network.p2p.storage.messages.BroadcastMessage;
+import bisq.network.p2p.storage.messages.RefreshOfferMessage;
+import bisq.network.p2p.storage.messages.RemoveDataMessage;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+
+import bisq.common.app.Version;
+import bisq.common.crypto.CryptoException;
+import bisq.common.crypto.PubKeyRing;
+import bisq.common.crypto.Sig;
+import bisq.common.proto.network.NetworkEnvelope;
+import bisq.common.proto.network.NetworkProtoResolver;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.SettableFuture;
+
+import java.security.KeyPair;
+import java.security.PublicKey;
+
+import java.time.Clock;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A client which only consists of a network node and sends the same messages to the seed node as a Bisq app does.
+ * Clients do not persist any data, so each get data request is answered with the complete data set of the seed node.
+ * <p/>
+ * Like the request handlers at the seed node a client has at most one get data and one get blocks request pending.
+ * Request latencies are measured until the response is received, broadcast latencies until the message is written to
+ * the connection.
+ */
+@Slf4j
+class SimulatedClient implements MessageListener {
+    private final NetworkNode networkNode;
+    private final NodeAddress seedNodeAddress;
+    private final LoadStatistics statistics;
+    private final KeyPair signatureKeyPair;
+    @Getter
+    private final PubKeyRing pubKeyRing;
+    private final Clock clock;
+    private final SyntheticData syntheticData;
+    private final int mailboxPayloadSize;
+
+    private final Map<Integer, PendingRequest> pendingRequests = new ConcurrentHashMap<>();
+    private final AtomicBoolean getDataRequestPending = new AtomicBoolean();
+    private final AtomicBoolean getBlocksRequestPending = new AtomicBoolean();
+    // Offers are taken out of the queue while they get refreshed or removed, so only one thread works on an offer
+    private final Queue<OwnOffer> ownOffers = new ConcurrentLinkedQueue<>();
+
+    SimulatedClient(int port,
+                    NodeAddress seedNodeAddress,
+                    NetworkProtoResolver networkProtoResolver,
+                    LoadStatistics statistics,
+                    KeyPair signatureKeyPair,
+                    PublicKey encryptionPubKey,
+                    Clock clock,
+                    int mailboxPayloadSize) {
+        this.seedNodeAddress = seedNodeAddress;
+        this.statistics = statistics;
+        this.signatureKeyPair = signatureKeyPair;
+        this.clock = clock;
+        this.mailboxPayloadSize = mailboxPayloadSize;
+        pubKeyRing = new PubKeyRing(signatureKeyPair.getPublic(), encryptionPubKey);
+        syntheticData = new SyntheticData(SyntheticData.SEED + port);
+        networkNode = new LocalhostNetworkNode(port, networkProtoResolver);
+        networkNode.addMessageListener(this);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Lifecycle
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void start(Runnable readyHandler) {
+        networkNode.start(new SetupListener() {
+            @Override
+            public void onTorNodeReady() {
+            }
+
+            @Override
+            public void onHiddenServicePublished() {
+                readyHandler.run();
+            }
+
+            @Override
+            public void onSetupFailed(Throwable throwable) {
+                log.error("Setup of client {} failed", networkNode.getNodeAddress(), throwable);
+            }
+
+            @Override
+            public void onRequestCustomBridges() {
+            }
+        });
+    }
+
+    void shutDown(Runnable shutDownCompleteHandler) {
+        networkNode.removeMessageListener(this);
+        networkNode.shutDown(shutDownCompleteHandler);
+    }
+
+    boolean hasPendingRequests() {
+        return !pendingRequests.isEmpty();
+    }
+
+    void failTimedOutRequests(long timeoutNanos) {
+        long now = System.nanoTime();
+        pendingRequests.forEach((nonce, pendingRequest) -> {
+            if (now - pendingRequest.getStartNanos() > timeoutNanos && pendingRequests.remove(nonce) != null) {
+                statistics.onFailed(pendingRequest.getOperation());
+                getPendingFlag(pendingRequest.getOperation()).set(false);
+            }
+        });
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Operations
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void requestPreliminaryData() {
+        if (!getDataRequestPending.compareAndSet(false, true)) {
+            statistics.onSkipped(Operation.PRELIMINARY_GET_DATA);
+            return;
+        }
+
+        int nonce = ThreadLocalRandom.current().nextInt();
+        sendRequest(Operation.PRELIMINARY_GET_DATA, nonce, new PreliminaryGetDataRequest(nonce, new HashSet<>()));
+    }
+
+    // Must be sent before any broadcast as the seed node only accepts broadcasts from peers with a known address
+    void requestUpdatedData() {
+        if (!getDataRequestPending.compareAndSet(false, true)) {
+            statistics.onSkipped(Operation.GET_UPDATED_DATA);
+            return;
+        }
+
+        int nonce = ThreadLocalRandom.current().nextInt();
+        sendRequest(Operation.GET_UPDATED_DATA, nonce,
+                new GetUpdatedDataRequest(networkNode.getNodeAddress(), nonce, new HashSet<>()));
+    }
+
+    void requestBlocks(int fromBlockHeight) {
+        if (!getBlocksRequestPending.compareAndSet(false, true)) {
+            statistics.onSkipped(Operation.GET_BLOCKS);
+            return;
+        }
+
+        int nonce = ThreadLocalRandom.current().nextInt();
+        sendRequest(Operation.GET_BLOCKS, nonce,
+                new GetBlocksRequest(fromBlockHeight, nonce, networkNode.getNodeAddress()));
+    }
+
+    void addOffer() throws CryptoException {
+        OwnOffer ownOffer = new OwnOffer(createOfferPayload());
+        ProtectedStorageEntry entry = createProtectedStorageEntry(ownOffer.getOfferPayload(),
+                ownOffer.getSequenceNumber());
+        sendBroadcast(Operation.ADD_OFFER, new AddDataMessage(entry), () -> ownOffers.add(ownOffer));
+    }
+
+    void refreshOffer() throws CryptoException {
+        OwnOffer ownOffer = ownOffers.poll();
+        if (ownOffer == null) {
+            statistics.onSkipped(Operation.REFRESH_OFFER);
+            return;
+        }
+
+        // Same as P2PDataStorage.getRefreshTTLMessage
+        int sequenceNumber = ownOffer.incrementSequenceNumber();
+        byte[] hashOfDataAndSeqNr = P2PDataStorage.get32ByteHash(
+                new P2PDataStorage.DataAndSeqNrPair(ownOffer.getOfferPayload(), sequenceNumber));
+        byte[] signature = Sig.sign(signatureKeyPair.getPrivate(), hashOfDataAndSeqNr);
+        byte[] hashOfPayload = P2PDataStorage.get32ByteHash(ownOffer.getOfferPayload());
+        sendBroadcast(Operation.REFRESH_OFFER,
+                new RefreshOfferMessage(hashOfDataAndSeqNr, signature, hashOfPayload, sequenceNumber),
+                () -> ownOffers.add(ownOffer));
+    }
+
+    void removeOffer() throws CryptoException {
+        OwnOffer ownOffer = ownOffers.poll();
+        if (ownOffer == null) {
+            statistics.onSkipped(Operation.REMOVE_OFFER);
+            return;
+        }
+
+        ProtectedStorageEntry entry = createProtectedStorageEntry(ownOffer.getOfferPayload(),
+                ownOffer.incrementSequenceNumber());
+        sendBroadcast(Operation.REMOVE_OFFER, new RemoveDataMessage(entry), () -> {
+        });
+    }
+
+    void addMailboxMessage(PublicKey receiversPubKey) throws CryptoException {
+        ProtectedStorageEntry entry = SyntheticData.createMailboxEntry(
+                syntheticData.createMailboxStoragePayload(signatureKeyPair.getPublic(), receiversPubKey,
+                        mailboxPayloadSize),
+                signatureKeyPair,
+                receiversPubKey,
+                1,
+                clock);
+        sendBroadcast(Operation.ADD_MAILBOX_MESSAGE, new AddDataMessage(entry), () -> {
+        });
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // MessageListener implementation
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void onMessage(NetworkEnvelope networkEnvelope, Connection connection) {
+        if (networkEnvelope instanceof GetDataResponse) {
+            onResponse(((GetDataResponse) networkEnvelope).getRequestNonce());
+        } else if (networkEnvelope instanceof GetBlocksResponse) {
+            onResponse(((GetBlocksResponse) networkEnvelope).getRequestNonce());
+        } else if (networkEnvelope instanceof BroadcastMessage) {
+            statistics.onBroadcastMessageReceived();
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void sendRequest(Operation operation, int nonce, NetworkEnvelope request) {
+        pendingRequests.put(nonce, new PendingRequest(operation, System.nanoTime()));
+        statistics.onSent(operation);
+        Futures.addCallback(networkNode.sendMessage(seedNodeAddress, request), new FutureCallback<>() {
+            @Override
+            public void onSuccess(Connection connection) {
+            }
+
+            @Override
+            public void onFailure(@NotNull Throwable throwable) {
+                if (pendingRequests.remove(nonce) != null) {
+                    log.debug("Sending {} failed: {}", operation, throwable.toString());
+                    statistics.onFailed(operation);
+                    getPendingFlag(operation).set(false);
+                }
+            }
+        });
+    }
+
+    private void onResponse(int requestNonce) {
+        PendingRequest pendingRequest = pendingRequests.remove(requestNonce);
+        if (pendingRequest != null) {
+            statistics.onCompleted(pendingRequest.getOperation(), System.nanoTime() - pendingRequest.getStartNanos());
+            getPendingFlag(pendingRequest.getOperation()).set(false);
+        }
+    }
+
+    private void sendBroadcast(Operation operation, NetworkEnvelope message, Runnable resultHandler) {
+        long startNanos = System.nanoTime();
+        statistics.onSent(operation);
+        SettableFuture<Connection> future = networkNode.sendMessage(seedNodeAddress, message);
+        Futures.addCallback(future, new FutureCallback<>() {
+            @Override
+            public void onSuccess(Connection connection) {
+                statistics.onCompleted(operation, System.nanoTime() - startNanos);
+                resultHandler.run();
+            }
+
+            @Override
+            public void onFailure(@NotNull Throwable throwable) {
+                log.debug("Sending {} failed: {}", operation, throwable.toString());
+                statistics.onFailed(operation);
+            }
+        });
+    }
+
+    private AtomicBoolean getPendingFlag(Operation operation) {
+        return operation == Operation.GET_BLOCKS ? getBlocksRequestPending : getDataRequestPending;
+    }
+
+    // Same as P2PDataStorage.getProtectedStorageEntry but without the need of a P2PDataStorage
+    private ProtectedStorageEntry createProtectedStorageEntry(OfferPayload offerPayload, int sequenceNumber)
+            throws CryptoException {
+        byte[] hashOfDataAndSeqNr = P2PDataStorage.get32ByteHash(
+                new P2PDataStorage.DataAndSeqNrPair(offerPayload, sequenceNumber));
+        byte[] signature = Sig.sign(signatureKeyPair.getPrivate(), hashOfDataAndSeqNr);
+        return new ProtectedStorageEntry(offerPayload, signatureKeyPair.getPublic(), sequenceNumber, signature, clock);
+    }
+
+    private OfferPayload createOfferPayload() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long amount = 1_000_000 + random.nextInt(10_000_000);
+        return new OfferPayload(UUID.randomUUID().toString(),
+                clock.millis(),
+                networkNode.getNodeAddress(),
+                pubKeyRing,
+                random.nextBoolean() ? OfferPayload.Direction.BUY : OfferPayload.Direction.SELL,
+                90_000_000 + random.nextInt(10_000_000),
+                0,
+                false,
+                amount,
+                amount / 2,
+                "BTC",
+                "EUR",
+                new ArrayList<>(),
+                new ArrayList<>(),
+                PaymentMethod.SEPA_ID,
+                UUID.randomUUID().toString(),
+                syntheticData.randomHex(32),
+                "DE",
+                new ArrayList<>(Collections.singletonList("DE")),
+                null,
+                null,
+                Version.VERSION,
+                600_000,
+                10_000,
+                5_000,
+                true,
+                amount / 10,
+                amount / 10,
+                100_000_000,
+                PaymentMethod.SEPA.getMaxTradePeriod(),
+                false,
+                false,
+                0,
+                0,
+                false,
+                null,
+                null,
+                Version.TRADE_PROTOCOL_VERSION);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Inner classes
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Getter
+    private static class PendingRequest {
+        private final Operation operation;
+        private final long startNanos;
+
+        PendingRequest(Operation operation, long startNanos) {
+            this.operation = operation;
+            this.startNanos = startNanos;
+        }
+    }
+
+    @Getter
+    private static class OwnOffer {
+        private final OfferPayload offerPayload;
+        private int sequenceNumber = 1;
+
+        OwnOffer(OfferPayload offerPayload) {
+            this.offerPayload = offerPayload;
+        }
+
+        int incrementSequenceNumber() {
+            return ++sequenceNumber;
+        }
+    }
+}
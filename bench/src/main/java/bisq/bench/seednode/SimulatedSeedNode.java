@@ -0,0 +1,98 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.bench.seednode;
+
+import bisq.seednode.SeedNodeMain;
+
+import bisq.network.p2p.P2PService;
+import bisq.network.p2p.P2PServiceListener;
+
+import bisq.common.UserThread;
+
+import com.google.inject.Injector;
+
+import java.util.function.Consumer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A seed node with the same setup as SeedNodeMain which notifies the load simulator once the P2P network is
+ * initialized. As there are no other seed nodes that happens after the requests to the configured seed nodes failed.
+ */
+@Slf4j
+class SimulatedSeedNode extends SeedNodeMain {
+    private final Consumer<Injector> readyHandler;
+    private boolean ready;
+
+    SimulatedSeedNode(Consumer<Injector> readyHandler) {
+        this.readyHandler = readyHandler;
+    }
+
+    @Override
+    protected void startApplication() {
+        // Added before the P2PService is started so we get called before the app setup continues with the DAO setup
+        injector.getInstance(P2PService.class).addP2PServiceListener(new P2PServiceListener() {
+            @Override
+            public void onDataReceived() {
+                onP2PNetworkInitialized();
+            }
+
+            @Override
+            public void onNoSeedNodeAvailable() {
+                onP2PNetworkInitialized();
+            }
+
+            @Override
+            public void onNoPeersAvailable() {
+                onP2PNetworkInitialized();
+            }
+
+            @Override
+            public void onUpdatedDataReceived() {
+            }
+
+            @Override
+            public void onTorNodeReady() {
+            }
+
+            @Override
+            public void onHiddenServicePublished() {
+            }
+
+            @Override
+            public void onSetupFailed(Throwable throwable) {
+                log.error("Seed node setup failed", throwable);
+            }
+
+            @Override
+            public void onRequestCustomBridges() {
+            }
+        });
+
+        super.startApplication();
+    }
+
+    private void onP2PNetworkInitialized() {
+        if (ready)
+            return;
+
+        ready = true;
+        // We let the app setup complete its listeners (DAO setup) first
+        UserThread.execute(() -> readyHandler.accept(injector));
+    }
+}
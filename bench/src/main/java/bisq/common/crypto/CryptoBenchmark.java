@@ -0,0 +1,120 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.crypto;
+
+import bisq.bench.SyntheticData;
+
+import javax.crypto.SecretKey;
+
+import java.security.KeyPair;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the signature and encryption primitives used for storage entries and direct/mailbox messages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CryptoBenchmark {
+    // Typical sizes of a storage entry hash, an offer payload and a large mailbox message
+    @Param({"32", "2000", "20000"})
+    public int payloadSize;
+
+    private byte[] payload;
+    private KeyPair sigKeyPair;
+    private byte[] signature;
+    private KeyPair encryptionKeyPair;
+    private SecretKey secretKey;
+    private byte[] encryptedPayloadWithHmac;
+    private byte[] encryptedSecretKey;
+
+    @Setup(Level.Trial)
+    public void setUp() throws CryptoException {
+        payload = new SyntheticData().randomBytes(payloadSize);
+        sigKeyPair = Sig.generateKeyPair();
+        signature = Sig.sign(sigKeyPair.getPrivate(), payload);
+        encryptionKeyPair = Encryption.generateKeyPair();
+        secretKey = Encryption.generateSecretKey(256);
+        encryptedPayloadWithHmac = Encryption.encryptPayloadWithHmac(payload, secretKey);
+        encryptedSecretKey = Encryption.encryptSecretKey(secretKey, encryptionKeyPair.getPublic());
+    }
+
+    @Benchmark
+    public byte[] sign() throws CryptoException {
+        return Sig.sign(sigKeyPair.getPrivate(), payload);
+    }
+
+    @Benchmark
+    public boolean verify() throws CryptoException {
+        return Sig.verify(sigKeyPair.getPublic(), payload, signature);
+    }
+
+    @Benchmark
+    public byte[] encryptPayloadWithHmac() throws CryptoException {
+        return Encryption.encryptPayloadWithHmac(payload, secretKey);
+    }
+
+    @Benchmark
+    public byte[] decryptPayloadWithHmac() throws CryptoException {
+        return Encryption.decryptPayloadWithHmac(encryptedPayloadWithHmac, secretKey);
+    }
+
+    @Benchmark
+    public byte[] encryptSecretKey() throws CryptoException {
+        return Encryption.encryptSecretKey(secretKey, encryptionKeyPair.getPublic());
+    }
+
+    @Benchmark
+    public SecretKey decryptSecretKey() throws CryptoException {
+        return Encryption.decryptSecretKey(encryptedSecretKey, encryptionKeyPair.getPrivate());
+    }
+
+    @Benchmark
+    public SecretKey generateSecretKey() {
+        return Encryption.generateSecretKey(256);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public KeyPair generateSigKeyPair() {
+        return Sig.generateKeyPair();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public KeyPair generateEncryptionKeyPair() {
+        return Encryption.generateKeyPair();
+    }
+}
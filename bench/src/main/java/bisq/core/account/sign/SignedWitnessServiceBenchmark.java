@@ -0,0 +1,161 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.account.sign;
+
+import bisq.bench.SyntheticData;
+
+import bisq.core.account.witness.AccountAgeWitness;
+import bisq.core.support.dispute.arbitration.arbitrator.ArbitratorManager;
+
+import bisq.network.p2p.P2PService;
+import bisq.network.p2p.storage.persistence.AppendOnlyDataStoreService;
+
+import bisq.common.crypto.CryptoException;
+import bisq.common.crypto.KeyRing;
+import bisq.common.crypto.Sig;
+import bisq.common.util.Utilities;
+
+import org.bitcoinj.core.ECKey;
+
+import com.google.common.base.Charsets;
+
+import java.security.KeyPair;
+
+import java.time.temporal.ChronoUnit;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Measures the verification of account signing chains. The service holds a chain of chainDepth accounts where the
+ * first one is signed by an arbitrator and each other one by the owner of the previous account, plus
+ * numUnrelatedWitnesses witnesses which are not part of the chain but have to be searched through.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SignedWitnessServiceBenchmark {
+    @Param({"1", "10", "50"})
+    public int chainDepth;
+
+    @Param({"1000", "10000"})
+    public int numUnrelatedWitnesses;
+
+    private SignedWitnessService signedWitnessService;
+    private AccountAgeWitness leafAccountAgeWitness;
+    private SignedWitness arbitratorSignedWitness;
+    private SignedWitness peerSignedWitness;
+
+    @Setup(Level.Trial)
+    public void setUp() throws CryptoException {
+        ArbitratorManager arbitratorManager = mock(ArbitratorManager.class, withSettings().stubOnly());
+        when(arbitratorManager.isPublicKeyInList(any())).thenReturn(true);
+        signedWitnessService = new SignedWitnessService(mock(KeyRing.class, withSettings().stubOnly()),
+                mock(P2PService.class, withSettings().stubOnly()),
+                arbitratorManager,
+                null,
+                mock(AppendOnlyDataStoreService.class, withSettings().stubOnly()),
+                null);
+
+        SyntheticData data = new SyntheticData();
+        long now = System.currentTimeMillis();
+        long signingInterval = SignedWitnessService.SIGNER_AGE + ChronoUnit.DAYS.getDuration().toMillis();
+        List<KeyPair> ownerKeyPairs = SyntheticData.createSigKeyPairs(chainDepth);
+        ECKey arbitratorKey = new ECKey();
+
+        for (int i = 0; i < chainDepth; i++) {
+            AccountAgeWitness accountAgeWitness = data.createAccountAgeWitnesses(1).get(0);
+            byte[] witnessOwnerPubKey = Sig.getPublicKeyBytes(ownerKeyPairs.get(i).getPublic());
+            // Each signer must have been signed SIGNER_AGE before it signs the next account
+            long date = now - (chainDepth - i) * signingInterval;
+            SignedWitness signedWitness;
+            if (i == 0) {
+                String signatureBase64 = arbitratorKey.signMessage(Utilities.encodeToHex(accountAgeWitness.getHash()));
+                signedWitness = new SignedWitness(SignedWitness.VerificationMethod.ARBITRATOR,
+                        accountAgeWitness.getHash(),
+                        signatureBase64.getBytes(Charsets.UTF_8),
+                        arbitratorKey.getPubKey(),
+                        witnessOwnerPubKey,
+                        date,
+                        1000000);
+                arbitratorSignedWitness = signedWitness;
+            } else {
+                KeyPair signerKeyPair = ownerKeyPairs.get(i - 1);
+                signedWitness = new SignedWitness(SignedWitness.VerificationMethod.TRADE,
+                        accountAgeWitness.getHash(),
+                        Sig.sign(signerKeyPair.getPrivate(), accountAgeWitness.getHash()),
+                        Sig.getPublicKeyBytes(signerKeyPair.getPublic()),
+                        witnessOwnerPubKey,
+                        date,
+                        1000000);
+                peerSignedWitness = signedWitness;
+            }
+            signedWitnessService.addToMap(signedWitness);
+            leafAccountAgeWitness = accountAgeWitness;
+        }
+
+        // Unrelated witnesses are never verified so they don't need valid signatures or keys
+        for (int i = 0; i < numUnrelatedWitnesses; i++) {
+            signedWitnessService.addToMap(new SignedWitness(SignedWitness.VerificationMethod.TRADE,
+                    data.randomBytes(20),
+                    data.randomBytes(46),
+                    data.randomBytes(444),
+                    data.randomBytes(444),
+                    now - i,
+                    1000000));
+        }
+    }
+
+    @Benchmark
+    public boolean isSignerAccountAgeWitness() {
+        return signedWitnessService.isSignerAccountAgeWitness(leafAccountAgeWitness);
+    }
+
+    @Benchmark
+    public boolean verifyArbitratorSignature() {
+        return signedWitnessService.verifySignature(arbitratorSignedWitness);
+    }
+
+    @Benchmark
+    public boolean verifyPeerSignature() {
+        // With a chain depth of 1 there is no peer signed witness, so we verify the arbitrator signature instead
+        return signedWitnessService.verifySignature(peerSignedWitness != null ? peerSignedWitness :
+                arbitratorSignedWitness);
+    }
+}
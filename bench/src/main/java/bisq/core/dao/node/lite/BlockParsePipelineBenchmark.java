@@ -0,0 +1,151 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.lite;
+
+import bisq.bench.SyntheticData;
+
+import bisq.core.dao.node.full.RawBlock;
+import bisq.core.dao.node.parser.BlockParser;
+import bisq.core.dao.node.parser.BlockParserBenchmark;
+import bisq.core.dao.node.parser.exceptions.BlockHashNotConnectingException;
+import bisq.core.dao.node.parser.exceptions.BlockHeightNotConnectingException;
+import bisq.core.dao.state.DaoStateListener;
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.model.blockchain.Block;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares parsing the blocks of a GetBlocksResponse with the BlockParsePipeline to the previous LiteNode
+ * implementation which removed one block at a time from an ArrayList and went through the user thread for each block.
+ * The user thread is simulated by a task queue which is drained in the benchmark thread. The blocks are parsed after
+ * the initial sync, so DAO state clients get notified, e.g. when we request missing blocks or after a reorg. Each
+ * notification consumes listenerTokens of CPU to simulate the cost of a client.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BlockParsePipelineBenchmark {
+    @Param({"6000"})
+    public int numBlocks;
+
+    @Param({"2"})
+    public int txsPerBlock;
+
+    @Param({"0", "10000"})
+    public long listenerTokens;
+
+    private List<RawBlock> rawBlocks;
+    private DaoStateService daoStateService;
+    private BlockParser blockParser;
+    private final Deque<Runnable> userThreadTasks = new ArrayDeque<>();
+    private final Executor userThreadExecutor = userThreadTasks::add;
+
+    @Setup(Level.Trial)
+    public void createChain() {
+        rawBlocks = new SyntheticData().createBsqChain(BlockParserBenchmark.GENESIS_TX_ID,
+                BlockParserBenchmark.GENESIS_BLOCK_HEIGHT, BlockParserBenchmark.GENESIS_TOTAL_SUPPLY,
+                numBlocks, txsPerBlock);
+    }
+
+    // Every invocation starts from a state which only contains the genesis block
+    @Setup(Level.Invocation)
+    public void createDaoState() throws BlockHashNotConnectingException, BlockHeightNotConnectingException {
+        daoStateService = BlockParserBenchmark.createDaoStateService();
+        blockParser = BlockParserBenchmark.createBlockParser(daoStateService);
+        blockParser.parseBlock(rawBlocks.get(0));
+        daoStateService.onParseBlockChainComplete();
+        daoStateService.addDaoStateListener(new DaoStateListener() {
+            @Override
+            public void onParseBlockCompleteAfterBatchProcessing(Block block) {
+                Blackhole.consumeCPU(listenerTokens);
+            }
+        });
+    }
+
+    @Benchmark
+    public int parseBlocksOneByOne() {
+        runDelayedBatchProcessing(new ArrayList<>(rawBlocks.subList(1, rawBlocks.size())), () -> {
+        });
+        return runUserThreadTasks();
+    }
+
+    @Benchmark
+    public int parseBlocksInChunks() {
+        BlockParsePipeline pipeline = new BlockParsePipeline(daoStateService, this::parseBlock, userThreadExecutor,
+                BlockParsePipeline.DEFAULT_MAX_CHUNK_DURATION_MS);
+        pipeline.parseBlocks(rawBlocks.subList(1, rawBlocks.size()), () -> {
+        });
+        return runUserThreadTasks();
+    }
+
+    // The implementation of LiteNode before the BlockParsePipeline was added
+    private void runDelayedBatchProcessing(List<RawBlock> blocks, Runnable resultHandler) {
+        userThreadExecutor.execute(() -> {
+            if (blocks.isEmpty()) {
+                resultHandler.run();
+                return;
+            }
+
+            RawBlock block = blocks.remove(0);
+            parseBlock(block);
+            runDelayedBatchProcessing(blocks, resultHandler);
+        });
+    }
+
+    private void parseBlock(RawBlock rawBlock) {
+        try {
+            blockParser.parseBlock(rawBlock);
+        } catch (BlockHashNotConnectingException | BlockHeightNotConnectingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Returns the number of user thread tasks, which is the number of times we would have blocked the UI
+    private int runUserThreadTasks() {
+        int numTasks = 0;
+        Runnable task;
+        while ((task = userThreadTasks.poll()) != null) {
+            task.run();
+            numTasks++;
+        }
+        return numTasks;
+    }
+}
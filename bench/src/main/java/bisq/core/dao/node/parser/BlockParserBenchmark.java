@@ -0,0 +1,107 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.parser;
+
+import bisq.bench.SyntheticData;
+
+import bisq.core.dao.governance.period.PeriodService;
+import bisq.core.dao.node.full.RawBlock;
+import bisq.core.dao.node.parser.exceptions.BlockHashNotConnectingException;
+import bisq.core.dao.node.parser.exceptions.BlockHeightNotConnectingException;
+import bisq.core.dao.state.DaoStateBlockArchive;
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.GenesisTxInfo;
+import bisq.core.dao.state.model.DaoState;
+import bisq.core.util.coin.BsqFormatter;
+
+import java.io.File;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures parsing a chain of synthetic BSQ blocks into a fresh DAO state, which is what a full or lite node does
+ * when it syncs. The reported time is for the whole chain (numBlocks * txsPerBlock txs).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BlockParserBenchmark {
+    public static final String GENESIS_TX_ID = "genesisTxId";
+    public static final int GENESIS_BLOCK_HEIGHT = 100;
+    public static final long GENESIS_TOTAL_SUPPLY = 2_500_000_000_00L;
+
+    @Param({"100"})
+    public int numBlocks;
+
+    @Param({"10", "200"})
+    public int txsPerBlock;
+
+    private List<RawBlock> rawBlocks;
+    private BlockParser blockParser;
+
+    @Setup(Level.Trial)
+    public void createChain() {
+        rawBlocks = new SyntheticData().createBsqChain(GENESIS_TX_ID, GENESIS_BLOCK_HEIGHT, GENESIS_TOTAL_SUPPLY,
+                numBlocks, txsPerBlock);
+    }
+
+    // Every invocation starts from a state which only contains the genesis block
+    @Setup(Level.Invocation)
+    public void createDaoState() throws BlockHashNotConnectingException, BlockHeightNotConnectingException {
+        blockParser = createBlockParser(createDaoStateService());
+        blockParser.parseBlock(rawBlocks.get(0));
+    }
+
+    @Benchmark
+    public void parseBlocks(Blackhole blackhole) throws BlockHashNotConnectingException,
+            BlockHeightNotConnectingException {
+        for (int i = 1; i < rawBlocks.size(); i++) {
+            blackhole.consume(blockParser.parseBlock(rawBlocks.get(i)));
+        }
+    }
+
+    public static DaoStateService createDaoStateService() {
+        // We never persist a snapshot in the benchmarks, so the block archive stays empty
+        return new DaoStateService(new DaoState(),
+                new GenesisTxInfo(GENESIS_TX_ID, GENESIS_BLOCK_HEIGHT, GENESIS_TOTAL_SUPPLY),
+                new BsqFormatter(),
+                new DaoStateBlockArchive(new File(System.getProperty("java.io.tmpdir"), "BlockParserBenchmark")));
+    }
+
+    public static BlockParser createBlockParser(DaoStateService daoStateService) {
+        return new BlockParser(new TxParser(new PeriodService(daoStateService), daoStateService), daoStateService);
+    }
+}
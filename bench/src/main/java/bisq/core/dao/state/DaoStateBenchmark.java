@@ -0,0 +1,97 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.state;
+
+import bisq.bench.SyntheticData;
+
+import bisq.core.dao.node.full.RawBlock;
+import bisq.core.dao.node.parser.BlockParser;
+import bisq.core.dao.node.parser.BlockParserBenchmark;
+import bisq.core.dao.node.parser.exceptions.BlockHashNotConnectingException;
+import bisq.core.dao.node.parser.exceptions.BlockHeightNotConnectingException;
+import bisq.core.dao.state.model.DaoState;
+
+import bisq.common.crypto.Hash;
+
+import org.apache.commons.lang3.ArrayUtils;
+
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the per block work done on the DAO state besides parsing: cloning it for snapshots, building the next
+ * entry of the DAO state hash chain and serializing the DaoStateStore for persistence.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DaoStateBenchmark {
+    @Param({"1000"})
+    public int numBlocks;
+
+    @Param({"10", "100"})
+    public int txsPerBlock;
+
+    private DaoStateService daoStateService;
+    private byte[] prevHash;
+
+    @Setup(Level.Trial)
+    public void setUp() throws BlockHashNotConnectingException, BlockHeightNotConnectingException {
+        daoStateService = BlockParserBenchmark.createDaoStateService();
+        BlockParser blockParser = BlockParserBenchmark.createBlockParser(daoStateService);
+        for (RawBlock rawBlock : new SyntheticData().createBsqChain(BlockParserBenchmark.GENESIS_TX_ID,
+                BlockParserBenchmark.GENESIS_BLOCK_HEIGHT, BlockParserBenchmark.GENESIS_TOTAL_SUPPLY,
+                numBlocks, txsPerBlock)) {
+            blockParser.parseBlock(rawBlock);
+        }
+        prevHash = new SyntheticData().randomBytes(20);
+    }
+
+    @Benchmark
+    public DaoState getClone() {
+        return daoStateService.getClone();
+    }
+
+    // Same as in DaoStateMonitoringService.updateHashChain
+    @Benchmark
+    public byte[] createHashChainEntry() {
+        byte[] stateHash = daoStateService.getSerializedStateForHashChain();
+        return Hash.getSha256Ripemd160hash(ArrayUtils.addAll(prevHash, stateHash));
+    }
+
+    @Benchmark
+    public byte[] serializeDaoStateStore() {
+        return new DaoStateStore(daoStateService.getClone(), new LinkedList<>()).toProtoMessage().toByteArray();
+    }
+}
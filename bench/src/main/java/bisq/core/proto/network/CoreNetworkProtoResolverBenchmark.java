@@ -0,0 +1,109 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.proto.network;
+
+import bisq.bench.SyntheticData;
+
+import bisq.network.p2p.peers.getdata.messages.GetDataResponse;
+import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+
+import bisq.common.crypto.CryptoException;
+import bisq.common.proto.ProtobufferException;
+import bisq.common.proto.network.NetworkEnvelope;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import java.security.KeyPair;
+
+import java.time.Clock;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the serialization and deserialization of a GetDataResponse, the largest message a seed node sends, via
+ * the same path as Connection uses (NetworkEnvelope -> bytes -> NetworkEnvelope via CoreNetworkProtoResolver).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CoreNetworkProtoResolverBenchmark {
+    private static final int MAILBOX_PAYLOAD_SIZE = 2000;
+
+    @Param({"1000", "10000"})
+    public int numPersistableNetworkPayloads;
+
+    @Param({"100", "1000"})
+    public int numProtectedStorageEntries;
+
+    private CoreNetworkProtoResolver coreNetworkProtoResolver;
+    private GetDataResponse getDataResponse;
+    private byte[] serializedGetDataResponse;
+
+    @Setup(Level.Trial)
+    public void setUp() throws CryptoException {
+        Clock clock = Clock.systemDefaultZone();
+        coreNetworkProtoResolver = new CoreNetworkProtoResolver(clock);
+
+        SyntheticData data = new SyntheticData();
+        Set<PersistableNetworkPayload> persistableNetworkPayloads =
+                new HashSet<>(data.createAccountAgeWitnesses(numPersistableNetworkPayloads));
+
+        List<KeyPair> keyPairs = SyntheticData.createSigKeyPairs(2);
+        KeyPair sender = keyPairs.get(0);
+        KeyPair receiver = keyPairs.get(1);
+        Set<ProtectedStorageEntry> protectedStorageEntries = new HashSet<>();
+        for (int i = 0; i < numProtectedStorageEntries; i++) {
+            protectedStorageEntries.add(SyntheticData.createMailboxEntry(
+                    data.createMailboxStoragePayload(sender.getPublic(), receiver.getPublic(), MAILBOX_PAYLOAD_SIZE),
+                    sender, receiver.getPublic(), 1, clock));
+        }
+
+        getDataResponse = new GetDataResponse(protectedStorageEntries, persistableNetworkPayloads, 1, false);
+        serializedGetDataResponse = getDataResponse.toProtoNetworkEnvelope().toByteArray();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return getDataResponse.toProtoNetworkEnvelope().toByteArray();
+    }
+
+    @Benchmark
+    public NetworkEnvelope deserialize() throws InvalidProtocolBufferException, ProtobufferException {
+        return coreNetworkProtoResolver.fromProto(protobuf.NetworkEnvelope.parseFrom(serializedGetDataResponse));
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage;
+
+import bisq.bench.SyntheticData;
+
+import bisq.core.account.witness.AccountAgeWitness;
+
+import bisq.network.p2p.network.NetworkNode;
+import bisq.network.p2p.peers.Broadcaster;
+import bisq.network.p2p.peers.getdata.messages.GetDataResponse;
+import bisq.network.p2p.peers.getdata.messages.PreliminaryGetDataRequest;
+import bisq.network.p2p.storage.mocks.AppendOnlyDataStoreServiceFake;
+import bisq.network.p2p.storage.mocks.MapStoreServiceFake;
+import bisq.network.p2p.storage.payload.MailboxStoragePayload;
+import bisq.network.p2p.storage.payload.ProtectedMailboxStorageEntry;
+import bisq.network.p2p.storage.persistence.ProtectedDataStoreService;
+import bisq.network.p2p.storage.persistence.ResourceDataStoreService;
+import bisq.network.p2p.storage.persistence.SequenceNumberMap;
+
+import bisq.common.app.Capabilities;
+import bisq.common.crypto.CryptoException;
+import bisq.common.storage.Storage;
+
+import java.security.KeyPair;
+
+import java.time.Clock;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Measures the P2PDataStorage hot paths used by seed nodes: adding append-only and protected data and answering
+ * GetDataRequests. Operations which mutate the store work on a freshly populated instance per invocation and process
+ * BATCH_SIZE items, so the reported times are per item.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class P2PDataStorageBenchmark {
+    private static final int BATCH_SIZE = 100;
+    private static final int MAX_ENTRIES = 10000;
+    private static final int MAILBOX_PAYLOAD_SIZE = 2000;
+
+    @Param({"10000", "100000"})
+    public int numPersistableNetworkPayloads;
+
+    @Param({"1000"})
+    public int numProtectedStorageEntries;
+
+    private final Clock clock = Clock.systemDefaultZone();
+    private List<AccountAgeWitness> storedPersistableNetworkPayloads;
+    private List<ProtectedMailboxStorageEntry> storedProtectedStorageEntries;
+    private List<AccountAgeWitness> newPersistableNetworkPayloads;
+    private List<ProtectedMailboxStorageEntry> addEntries;
+    private List<ProtectedMailboxStorageEntry> removeEntries;
+    private PreliminaryGetDataRequest getDataRequest;
+
+    @Setup(Level.Trial)
+    public void createData() throws CryptoException {
+        SyntheticData data = new SyntheticData();
+        storedPersistableNetworkPayloads = data.createAccountAgeWitnesses(numPersistableNetworkPayloads);
+        newPersistableNetworkPayloads = data.createAccountAgeWitnesses(BATCH_SIZE);
+
+        List<KeyPair> keyPairs = SyntheticData.createSigKeyPairs(2);
+        KeyPair sender = keyPairs.get(0);
+        KeyPair receiver = keyPairs.get(1);
+        storedProtectedStorageEntries = new ArrayList<>(numProtectedStorageEntries);
+        for (int i = 0; i < numProtectedStorageEntries; i++) {
+            MailboxStoragePayload payload = data.createMailboxStoragePayload(sender.getPublic(),
+                    receiver.getPublic(), MAILBOX_PAYLOAD_SIZE);
+            storedProtectedStorageEntries.add(SyntheticData.createMailboxEntry(payload, sender,
+                    receiver.getPublic(), 1, clock));
+        }
+
+        // Entries are added by the sender and removed by the receiver once the message was processed
+        addEntries = new ArrayList<>(BATCH_SIZE);
+        removeEntries = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            MailboxStoragePayload payload = data.createMailboxStoragePayload(sender.getPublic(),
+                    receiver.getPublic(), MAILBOX_PAYLOAD_SIZE);
+            addEntries.add(SyntheticData.createMailboxEntry(payload, sender, receiver.getPublic(), 1, clock));
+            removeEntries.add(SyntheticData.createMailboxEntry(payload, receiver, receiver.getPublic(), 2, clock));
+        }
+
+        // A requester which already knows half of our data
+        Set<byte[]> excludedKeys = new HashSet<>();
+        for (int i = 0; i < storedPersistableNetworkPayloads.size(); i += 2) {
+            excludedKeys.add(storedPersistableNetworkPayloads.get(i).getHash());
+        }
+        for (int i = 0; i < storedProtectedStorageEntries.size(); i += 2) {
+            excludedKeys.add(P2PDataStorage.get32ByteHash(
+                    storedProtectedStorageEntries.get(i).getProtectedStoragePayload()));
+        }
+        getDataRequest = new PreliminaryGetDataRequest(1, excludedKeys);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // States
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @State(Scope.Thread)
+    public static class PopulatedStorage {
+        P2PDataStorage p2PDataStorage;
+
+        @Setup(Level.Trial)
+        public void setUp(P2PDataStorageBenchmark benchmark) {
+            p2PDataStorage = benchmark.createPopulatedStorage();
+        }
+    }
+
+    // Recreated for each invocation so that every invocation adds and removes data which is not yet known
+    @State(Scope.Thread)
+    public static class FreshStorage {
+        P2PDataStorage p2PDataStorage;
+
+        @Setup(Level.Invocation)
+        public void setUp(P2PDataStorageBenchmark benchmark) {
+            p2PDataStorage = benchmark.createPopulatedStorage();
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Benchmarks
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public GetDataResponse buildGetDataResponse(PopulatedStorage state) {
+        return state.p2PDataStorage.buildGetDataResponse(getDataRequest,
+                MAX_ENTRIES,
+                new AtomicBoolean(),
+                new AtomicBoolean(),
+                Capabilities.app);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void addPersistableNetworkPayload(FreshStorage state, Blackhole blackhole) {
+        for (AccountAgeWitness payload : newPersistableNetworkPayloads) {
+            blackhole.consume(state.p2PDataStorage.addPersistableNetworkPayload(payload, null, false));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void addProtectedStorageEntry(FreshStorage state, Blackhole blackhole) {
+        for (ProtectedMailboxStorageEntry entry : addEntries) {
+            blackhole.consume(state.p2PDataStorage.addProtectedStorageEntry(entry, null, null));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void addAndRemoveProtectedStorageEntry(FreshStorage state, Blackhole blackhole) {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            blackhole.consume(state.p2PDataStorage.addProtectedStorageEntry(addEntries.get(i), null, null));
+            blackhole.consume(state.p2PDataStorage.remove(removeEntries.get(i), null));
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @SuppressWarnings("unchecked")
+    private P2PDataStorage createPopulatedStorage() {
+        // Stub only mocks do not record invocations, so they don't grow while the benchmark runs
+        AppendOnlyDataStoreServiceFake appendOnlyDataStoreService = new AppendOnlyDataStoreServiceFake();
+        storedPersistableNetworkPayloads.forEach(payload ->
+                appendOnlyDataStoreService.put(new P2PDataStorage.ByteArray(payload.getHash()), payload));
+
+        MapStoreServiceFake mapStoreService = new MapStoreServiceFake();
+        storedProtectedStorageEntries.forEach(entry -> mapStoreService.getMap().put(
+                P2PDataStorage.get32ByteHashAsByteArray(entry.getProtectedStoragePayload()), entry));
+        ProtectedDataStoreService protectedDataStoreService = new ProtectedDataStoreService();
+        protectedDataStoreService.addService(mapStoreService);
+
+        P2PDataStorage p2PDataStorage = new P2PDataStorage(mock(NetworkNode.class, withSettings().stubOnly()),
+                mock(Broadcaster.class, withSettings().stubOnly()),
+                appendOnlyDataStoreService,
+                protectedDataStoreService,
+                mock(ResourceDataStoreService.class, withSettings().stubOnly()),
+                (Storage<SequenceNumberMap>) mock(Storage.class, withSettings().stubOnly()),
+                clock,
+                MAX_ENTRIES);
+        p2PDataStorage.readFromResources("unused");
+        return p2PDataStorage;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage.persistence;
+
+import bisq.bench.SyntheticData;
+
+import bisq.core.account.witness.AccountAgeWitness;
+
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+
+import bisq.common.proto.persistable.PersistableEnvelope;
+import bisq.common.storage.Storage;
+
+import java.io.File;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Measures AppendOnlyDataStoreService.getMap which merges the maps of all registered stores and is called for each
+ * GetDataRequest and on many lookups of append-only data.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AppendOnlyDataStoreServiceBenchmark {
+    @Param({"10000", "100000"})
+    public int numPayloads;
+
+    // Mainnet seed nodes use 2 stores (AccountAgeWitness and TradeStatistics2)
+    @Param({"2"})
+    public int numServices;
+
+    private AppendOnlyDataStoreService appendOnlyDataStoreService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        appendOnlyDataStoreService = new AppendOnlyDataStoreService(null);
+        InMemoryMapStoreService[] services = new InMemoryMapStoreService[numServices];
+        for (int i = 0; i < numServices; i++) {
+            services[i] = new InMemoryMapStoreService();
+            appendOnlyDataStoreService.addService(services[i]);
+        }
+
+        List<AccountAgeWitness> payloads = new SyntheticData().createAccountAgeWitnesses(numPayloads);
+        for (int i = 0; i < payloads.size(); i++) {
+            AccountAgeWitness payload = payloads.get(i);
+            services[i % numServices].getMap().put(new P2PDataStorage.ByteArray(payload.getHash()), payload);
+        }
+    }
+
+    @Benchmark
+    public Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> getMap() {
+        return appendOnlyDataStoreService.getMap();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Store
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static class InMemoryMapStoreService extends MapStoreService<PersistableEnvelope, PersistableNetworkPayload> {
+        private final Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> map = new HashMap<>();
+
+        @SuppressWarnings("unchecked")
+        InMemoryMapStoreService() {
+            super(new File("unused"), mock(Storage.class, withSettings().stubOnly()));
+        }
+
+        @Override
+        public Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> getMap() {
+            return map;
+        }
+
+        @Override
+        public boolean canHandle(PersistableNetworkPayload payload) {
+            return true;
+        }
+
+        @Override
+        public String getFileName() {
+            return "unused";
+        }
+
+        @Override
+        protected PersistableEnvelope createStore() {
+            return null;
+        }
+
+        @Override
+        protected void readFromResources(String postFix) {
+        }
+    }
+}
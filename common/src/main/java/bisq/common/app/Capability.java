@@ -40,5 +40,9 @@ public enum Capability {
     SIGNED_ACCOUNT_AGE_WITNESS,         // Supports the signed account age witness feature
     MEDIATION,                          // Supports mediation feature
     REFUND_AGENT,                       // Supports refund agents
-    TRADE_STATISTICS_HASH_UPDATE        // We changed the hash method in 1.2.0 and that requires update to 1.2.2 for handling it correctly, otherwise the seed nodes have to process too much data.
+    TRADE_STATISTICS_HASH_UPDATE,       // We changed the hash method in 1.2.0 and that requires update to 1.2.2 for handling it correctly, otherwise the seed nodes have to process too much data.
+    GET_DATA_SKETCH,                    // Supports a sketch of the known PersistableNetworkPayload keys instead of the full key list in GetDataRequests
+    GET_DATA_PAGINATION,                // Supports receiving a GetDataResponse in pages which are requested with a continuation cursor
+    GET_BLOCKS_RANGE,                   // Supports a to block height in GetBlocksRequests, so lite nodes can request block ranges from multiple full nodes
+    GET_STORE_DIGEST                    // Supports GetStoreDigestRequests for auditing the consistency of the P2P data stores
 }
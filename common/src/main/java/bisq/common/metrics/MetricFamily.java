@@ -0,0 +1,78 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import lombok.Getter;
+
+import javax.annotation.Nullable;
+
+/**
+ * A named metric with one child per value of its label, e.g. bisq_p2p_received_messages_total with one counter per
+ * message type. Families without label have a single child which is returned by get().
+ */
+public final class MetricFamily<T> {
+    public enum Type {
+        COUNTER,
+        GAUGE,
+        // Exported as Prometheus summary with quantiles, sum and count
+        HISTOGRAM
+    }
+
+    private static final String NO_LABEL_VALUE = "";
+
+    @Getter
+    private final String name;
+    @Getter
+    private final String help;
+    @Getter
+    private final Type type;
+    @Getter
+    @Nullable
+    private final String labelName;
+    private final Supplier<T> factory;
+    private final Map<String, T> children = new ConcurrentHashMap<>();
+
+    MetricFamily(String name, String help, Type type, @Nullable String labelName, Supplier<T> factory) {
+        this.name = name;
+        this.help = help;
+        this.type = type;
+        this.labelName = labelName;
+        this.factory = factory;
+    }
+
+    public T get() {
+        return labels(NO_LABEL_VALUE);
+    }
+
+    public T labels(String labelValue) {
+        // The lookup of an existing child does not lock, computeIfAbsent is only used to create a new one
+        T child = children.get(labelValue);
+        return child != null ? child : children.computeIfAbsent(labelValue, value -> factory.get());
+    }
+
+    // Sorted by label value for a stable output
+    public Map<String, T> getChildren() {
+        return Collections.unmodifiableMap(new TreeMap<>(children));
+    }
+}
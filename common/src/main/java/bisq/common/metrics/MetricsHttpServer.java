@@ -0,0 +1,98 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+
+import java.nio.charset.StandardCharsets;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serves a MetricsRegistry in the Prometheus text format at http://127.0.0.1:port/metrics and a dump of its span
+ * recorders at http://127.0.0.1:port/spans. The server only binds to the loopback interface, a Prometheus instance on
+ * another host needs a tunnel or a reverse proxy.
+ */
+@Slf4j
+public class MetricsHttpServer {
+    public static final String PATH = "/metrics";
+    public static final String SPANS_PATH = "/spans";
+    private static final String SPANS_CONTENT_TYPE = "text/plain; charset=utf-8";
+
+    private final HttpServer server;
+
+    public MetricsHttpServer(MetricsRegistry registry, int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext(PATH, exchange -> respond(exchange, PrometheusFormatter.CONTENT_TYPE,
+                () -> PrometheusFormatter.format(registry)));
+        server.createContext(SPANS_PATH, exchange -> respond(exchange, SPANS_CONTENT_TYPE,
+                () -> registry.getSpanRecorders().stream()
+                        .map(SpanRecorder::dump)
+                        .collect(Collectors.joining("\n"))));
+        // A single thread is enough for scrapes and keeps the exporter from competing with the node
+        server.setExecutor(Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("MetricsHttpServer")
+                .setDaemon(true)
+                .build()));
+    }
+
+    public void start() {
+        server.start();
+        log.info("Metrics are served at http://{}:{}{}", server.getAddress().getHostString(),
+                server.getAddress().getPort(), PATH);
+    }
+
+    public void stop() {
+        server.stop(0);
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private static void respond(HttpExchange exchange, String contentType, Supplier<String> content) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            byte[] response = content.get().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(response);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.metrics;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Registry of the metrics of the P2P network, storage, DAO parsing and persistence. Recording a value only touches
+ * lock free counters and histograms, so it can be done from any thread without posting to the UserThread. Metrics
+ * are registered once and kept for the lifetime of the application. Hot paths should keep a reference to the
+ * family or metric instead of looking it up by name for each recording.
+ * <p/>
+ * The registry can be exported in the Prometheus text format with PrometheusFormatter.
+ */
+@Slf4j
+public class MetricsRegistry {
+    private static final MetricsRegistry DEFAULT = createDefault();
+
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    private static MetricsRegistry createDefault() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.gauge("jvm_memory_heap_used_bytes", "Used heap memory",
+                () -> ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+        registry.gauge("jvm_memory_heap_committed_bytes", "Committed heap memory",
+                () -> ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getCommitted());
+        registry.gauge("jvm_threads_live", "Number of live threads",
+                () -> ManagementFactory.getThreadMXBean().getThreadCount());
+        registry.gauge("jvm_gc_collections", "Number of garbage collections",
+                () -> ManagementFactory.getGarbageCollectorMXBeans().stream()
+                        .mapToLong(GarbageCollectorMXBean::getCollectionCount)
+                        .filter(count -> count > 0)
+                        .sum());
+        registry.gauge("jvm_gc_collection_milliseconds", "Accumulated time spent in garbage collections",
+                () -> ManagementFactory.getGarbageCollectorMXBeans().stream()
+                        .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+                        .filter(time -> time > 0)
+                        .sum());
+        return registry;
+    }
+
+    private final Map<String, MetricFamily<?>> families = new ConcurrentHashMap<>();
+    private final Map<String, SpanRecorder> spanRecorders = new ConcurrentHashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Registration
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public Counter counter(String name, String help) {
+        return counterFamily(name, help, null).get();
+    }
+
+    public MetricFamily<Counter> counterFamily(String name, String help, @Nullable String labelName) {
+        return getOrRegister(name, help, MetricFamily.Type.COUNTER, labelName, Counter::new);
+    }
+
+    public Histogram histogram(String name, String help) {
+        return histogramFamily(name, help, null).get();
+    }
+
+    public MetricFamily<Histogram> histogramFamily(String name, String help, @Nullable String labelName) {
+        return getOrRegister(name, help, MetricFamily.Type.HISTOGRAM, labelName, Histogram::new);
+    }
+
+    // The supplier is called when the registry gets exported, it must be thread safe and fast
+    public void gauge(String name, String help, LongSupplier supplier) {
+        getOrRegister(name, help, MetricFamily.Type.GAUGE, null, () -> supplier).get();
+    }
+
+    // The durations of the spans are registered as histogram family with the given name
+    public SpanRecorder spanRecorder(String name, String help, String labelName, int capacity) {
+        MetricFamily<Histogram> durations = histogramFamily(name, help, labelName);
+        return spanRecorders.computeIfAbsent(name, key -> new SpanRecorder(name, durations, capacity));
+    }
+
+    public Collection<SpanRecorder> getSpanRecorders() {
+        return Collections.unmodifiableCollection(new ArrayList<>(spanRecorders.values()));
+    }
+
+    public Collection<MetricFamily<?>> getFamilies() {
+        return Collections.unmodifiableCollection(new ArrayList<>(families.values()));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @SuppressWarnings("unchecked")
+    private <T> MetricFamily<T> getOrRegister(String name,
+                                              String help,
+                                              MetricFamily.Type type,
+                                              @Nullable String labelName,
+                                              Supplier<T> factory) {
+        MetricFamily<?> family = families.computeIfAbsent(name,
+                key -> new MetricFamily<>(name, help, type, labelName, factory));
+        checkArgument(family.getType() == type, "Metric %s is already registered as %s", name, family.getType());
+        return (MetricFamily<T>) family;
+    }
+}
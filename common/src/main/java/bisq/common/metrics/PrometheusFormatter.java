@@ -0,0 +1,108 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.metrics;
+
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Formats a MetricsRegistry in the Prometheus text exposition format (version 0.0.4). Histograms are exported as
+ * summaries with the 0.5, 0.9, 0.99 and 1 quantiles.
+ */
+public class PrometheusFormatter {
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 1};
+
+    public static String format(MetricsRegistry registry) {
+        StringBuilder sb = new StringBuilder();
+        registry.getFamilies().stream()
+                .sorted((o1, o2) -> o1.getName().compareTo(o2.getName()))
+                .forEach(family -> appendFamily(sb, family));
+        return sb.toString();
+    }
+
+    private static void appendFamily(StringBuilder sb, MetricFamily<?> family) {
+        String name = family.getName();
+        sb.append("# HELP ").append(name).append(' ').append(escapeHelp(family.getHelp())).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(getTypeName(family.getType())).append('\n');
+        for (Map.Entry<String, ?> entry : family.getChildren().entrySet()) {
+            String labelValue = entry.getKey();
+            Object metric = entry.getValue();
+            switch (family.getType()) {
+                case COUNTER:
+                    appendSample(sb, name, family.getLabelName(), labelValue, null, ((Counter) metric).get());
+                    break;
+                case GAUGE:
+                    appendSample(sb, name, family.getLabelName(), labelValue, null,
+                            ((LongSupplier) metric).getAsLong());
+                    break;
+                case HISTOGRAM:
+                    Histogram histogram = (Histogram) metric;
+                    for (double quantile : QUANTILES) {
+                        appendSample(sb, name, family.getLabelName(), labelValue, quantile,
+                                histogram.getValueAtPercentile(quantile * 100));
+                    }
+                    appendSample(sb, name + "_sum", family.getLabelName(), labelValue, null, histogram.getSum());
+                    appendSample(sb, name + "_count", family.getLabelName(), labelValue, null, histogram.getCount());
+                    break;
+            }
+        }
+    }
+
+    private static void appendSample(StringBuilder sb,
+                                     String name,
+                                     String labelName,
+                                     String labelValue,
+                                     Double quantile,
+                                     long value) {
+        sb.append(name);
+        boolean hasLabel = labelName != null;
+        if (hasLabel || quantile != null) {
+            sb.append('{');
+            if (hasLabel)
+                sb.append(labelName).append("=\"").append(escapeLabelValue(labelValue)).append('"');
+            if (quantile != null) {
+                if (hasLabel)
+                    sb.append(',');
+                sb.append("quantile=\"").append(quantile).append('"');
+            }
+            sb.append('}');
+        }
+        sb.append(' ').append(value).append('\n');
+    }
+
+    private static String getTypeName(MetricFamily.Type type) {
+        switch (type) {
+            case COUNTER:
+                return "counter";
+            case GAUGE:
+                return "gauge";
+            default:
+                return "summary";
+        }
+    }
+
+    private static String escapeHelp(String help) {
+        return help.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+
+    private static String escapeLabelValue(String labelValue) {
+        return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
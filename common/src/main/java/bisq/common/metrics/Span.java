@@ -0,0 +1,44 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.metrics;
+
+import lombok.Value;
+
+import javax.annotation.Nullable;
+
+/**
+ * A timed step of a process, e.g. a task of a trade protocol or the round trip of a message. The traceId groups the
+ * spans of one process (e.g. the trade ID) and the phase is the state of the process when the span was started.
+ */
+@Value
+public class Span {
+    public enum Outcome {
+        SUCCESS,
+        FAILED,
+        CANCELED
+    }
+
+    private final String name;
+    @Nullable
+    private final String traceId;
+    @Nullable
+    private final String phase;
+    private final long startTime;
+    private final long durationMillis;
+    private final Outcome outcome;
+}
@@ -0,0 +1,136 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.metrics;
+
+import java.text.SimpleDateFormat;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import lombok.Getter;
+
+import javax.annotation.Nullable;
+
+/**
+ * Keeps the most recent spans in a ring buffer and records their durations in a histogram family with the span name
+ * as label, so percentiles per span name are exported with the other metrics. Recording is thread safe.
+ */
+public final class SpanRecorder {
+    private static final double[] PERCENTILES = {50, 90, 99};
+
+    @Getter
+    private final String name;
+    private final MetricFamily<Histogram> durations;
+    private final Span[] spans;
+    private int nextIndex;
+    private long numRecorded;
+
+    SpanRecorder(String name, MetricFamily<Histogram> durations, int capacity) {
+        this.name = name;
+        this.durations = durations;
+        this.spans = new Span[capacity];
+    }
+
+    /**
+     * Starts a span which gets recorded when it is ended.
+     */
+    public RunningSpan start(String spanName, @Nullable String traceId, @Nullable String phase) {
+        return new RunningSpan(spanName, traceId, phase);
+    }
+
+    public void record(Span span) {
+        durations.labels(span.getName()).record(span.getDurationMillis());
+        synchronized (spans) {
+            spans[nextIndex] = span;
+            nextIndex = (nextIndex + 1) % spans.length;
+            numRecorded++;
+        }
+    }
+
+    // Oldest first
+    public List<Span> getSpans() {
+        synchronized (spans) {
+            int size = (int) Math.min(numRecorded, spans.length);
+            List<Span> result = new ArrayList<>(size);
+            int startIndex = numRecorded > spans.length ? nextIndex : 0;
+            for (int i = 0; i < size; i++) {
+                result.add(spans[(startIndex + i) % spans.length]);
+            }
+            return result;
+        }
+    }
+
+    public Histogram getHistogram(String spanName) {
+        return durations.labels(spanName);
+    }
+
+    /**
+     * @return The percentiles of the durations per span name and the recent spans as text.
+     */
+    public String dump() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(name).append('\n');
+        sb.append(String.format("%-50s %8s %8s %8s %8s %8s%n", "name", "count", "p50", "p90", "p99", "max"));
+        for (Map.Entry<String, Histogram> entry : durations.getChildren().entrySet()) {
+            Histogram histogram = entry.getValue();
+            sb.append(String.format("%-50s %8d", entry.getKey(), histogram.getCount()));
+            for (double percentile : PERCENTILES) {
+                sb.append(String.format(" %8d", histogram.getValueAtPercentile(percentile)));
+            }
+            sb.append(String.format(" %8d%n", histogram.getMax()));
+        }
+
+        sb.append("Recent spans:\n");
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+        getSpans().forEach(span -> sb.append(String.format("%s %-50s %8d ms %-8s traceId=%s phase=%s%n",
+                dateFormat.format(new Date(span.getStartTime())), span.getName(), span.getDurationMillis(),
+                span.getOutcome(), span.getTraceId(), span.getPhase())));
+        return sb.toString();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // RunningSpan
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public final class RunningSpan {
+        private final String spanName;
+        @Nullable
+        private final String traceId;
+        @Nullable
+        private final String phase;
+        private final long startTime = System.currentTimeMillis();
+        private final AtomicBoolean ended = new AtomicBoolean();
+
+        private RunningSpan(String spanName, @Nullable String traceId, @Nullable String phase) {
+            this.spanName = spanName;
+            this.traceId = traceId;
+            this.phase = phase;
+        }
+
+        // Only the first call records the span
+        public void end(Span.Outcome outcome) {
+            if (ended.compareAndSet(false, true)) {
+                record(new Span(spanName, traceId, phase, startTime, System.currentTimeMillis() - startTime, outcome));
+            }
+        }
+    }
+}
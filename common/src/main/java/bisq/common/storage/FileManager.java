@@ -18,6 +18,10 @@
 package bisq.common.storage;
 
 import bisq.common.UserThread;
+import bisq.common.metrics.Counter;
+import bisq.common.metrics.Histogram;
+import bisq.common.metrics.MetricFamily;
+import bisq.common.metrics.MetricsRegistry;
 import bisq.common.proto.persistable.PersistableEnvelope;
 import bisq.common.proto.persistable.PersistenceProtoResolver;
 import bisq.common.util.Utilities;
@@ -41,6 +45,11 @@ import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public class FileManager<T extends PersistableEnvelope> {
+    private static final MetricFamily<Histogram> saveDurations = MetricsRegistry.getDefault().histogramFamily(
+            "bisq_persistence_save_milliseconds", "Duration of serializing and writing a persisted file", "file");
+    private static final MetricFamily<Counter> writtenBytes = MetricsRegistry.getDefault().counterFamily(
+            "bisq_persistence_written_bytes_total", "Bytes written to persisted files", "file");
+
     private final File dir;
     private final File storageFile;
     private final ScheduledThreadPoolExecutor executor;
@@ -112,6 +121,13 @@ public class FileManager<T extends PersistableEnvelope> {
         executor.schedule(saveFileTask, delayInMilli, TimeUnit.MILLISECONDS);
     }
 
+    /**
+     * Writes the persistable synchronously on the calling thread, bypassing the auto-save executor.
+     */
+    void saveNow(T persistable) {
+        saveToFile(persistable, dir, storageFile);
+    }
+
     @SuppressWarnings("unchecked")
     public synchronized T read(File file) {
         log.debug("Read from disc: {}", file.getName());
@@ -185,6 +201,7 @@ public class FileManager<T extends PersistableEnvelope> {
         FileOutputStream fileOutputStream = null;
         PrintWriter printWriter = null;
 
+        long startTs = System.currentTimeMillis();
         try {
             log.debug("Write to disc: {}", storageFile.getName());
             protobuf.PersistableEnvelope protoPersistable;
@@ -223,6 +240,9 @@ public class FileManager<T extends PersistableEnvelope> {
 
             FileUtil.renameFile(tempFile, storageFile);
             usedTempFilePath = tempFile.toPath();
+
+            writtenBytes.labels(storageFile.getName()).add(protoPersistable.getSerializedSize());
+            saveDurations.labels(storageFile.getName()).record(System.currentTimeMillis() - startTs);
         } catch (Throwable t) {
             // If an error occurred, don't attempt to reuse this path again, in case temp file cleanup fails.
             usedTempFilePath = null;
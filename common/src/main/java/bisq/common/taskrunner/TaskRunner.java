@@ -19,24 +19,53 @@ package bisq.common.taskrunner;
 
 import bisq.common.handlers.ErrorMessageHandler;
 import bisq.common.handlers.ResultHandler;
+import bisq.common.metrics.MetricsRegistry;
+import bisq.common.metrics.Span;
+import bisq.common.metrics.SpanRecorder;
+
+import java.lang.reflect.Constructor;
 
 import java.util.Arrays;
+import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
 
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
+/**
+ * Runs the tasks in sequence. The model is not persisted after each task but only marked as changed and persisted
+ * once when all tasks are completed, when a task failed or the runner got canceled, and before a task implementing
+ * {@link PersistBeforeRun} gets executed.
+ * <p>
+ * Each task is recorded as span with its duration and outcome.
+ */
 @Slf4j
 public class TaskRunner<T extends Model> {
-    private final Queue<Class<? extends Task>> tasks = new LinkedBlockingQueue<>();
+    // Constructors by task class and model class. Tasks are created for each protocol step so we avoid the reflective
+    // lookup each time.
+    private static final Map<Class<?>, Map<Class<?>, Constructor<?>>> CONSTRUCTORS = new ConcurrentHashMap<>();
+    private static final SpanRecorder taskSpans = MetricsRegistry.getDefault().spanRecorder(
+            "bisq_task_duration_milliseconds", "Duration of tasks run by a TaskRunner", "task", 2000);
+
+    public static SpanRecorder getTaskSpans() {
+        return taskSpans;
+    }
+
+    private final Queue<Class<? extends Task<T>>> tasks = new LinkedBlockingQueue<>();
     private final T sharedModel;
     private final Class<T> sharedModelClass;
     private final ResultHandler resultHandler;
     private final ErrorMessageHandler errorMessageHandler;
     private boolean failed = false;
     private boolean isCanceled;
+    private boolean isModelChanged;
 
-    private Class<? extends Task> currentTask;
+    private Class<? extends Task<T>> currentTask;
+    @Nullable
+    private SpanRecorder.RunningSpan currentTaskSpan;
 
 
     public TaskRunner(T sharedModel, ResultHandler resultHandler, ErrorMessageHandler errorMessageHandler) {
@@ -66,12 +95,16 @@ public class TaskRunner<T extends Model> {
                 try {
                     currentTask = tasks.poll();
                     log.info("Run task: " + currentTask.getSimpleName());
-                    currentTask.getDeclaredConstructor(TaskRunner.class, sharedModelClass).newInstance(this, sharedModel).run();
+                    if (PersistBeforeRun.class.isAssignableFrom(currentTask))
+                        persistIfChanged();
+                    currentTaskSpan = taskSpans.start(currentTask.getSimpleName(), getTraceId(), getPhase());
+                    createTask(currentTask).run();
                 } catch (Throwable throwable) {
                     throwable.printStackTrace();
                     handleErrorMessage("Error at taskRunner: " + throwable.getMessage());
                 }
             } else {
+                persistIfChanged();
                 resultHandler.handleResult();
             }
         }
@@ -79,16 +112,58 @@ public class TaskRunner<T extends Model> {
 
     public void cancel() {
         isCanceled = true;
+        endCurrentTaskSpan(Span.Outcome.CANCELED);
+        persistIfChanged();
+    }
+
+    // Used to group the task spans, e.g. by the trade ID
+    @Nullable
+    protected String getTraceId() {
+        return null;
+    }
+
+    // The phase of the model at the start of a task
+    @Nullable
+    protected String getPhase() {
+        return null;
     }
 
     void handleComplete() {
-        sharedModel.persist();
+        endCurrentTaskSpan(Span.Outcome.SUCCESS);
+        isModelChanged = true;
         next();
     }
 
     void handleErrorMessage(String errorMessage) {
         log.error("Task failed: " + currentTask.getSimpleName() + " / errorMessage: " + errorMessage);
         failed = true;
+        endCurrentTaskSpan(Span.Outcome.FAILED);
+        persistIfChanged();
         errorMessageHandler.handleErrorMessage(errorMessage);
     }
+
+    private void endCurrentTaskSpan(Span.Outcome outcome) {
+        if (currentTaskSpan != null) {
+            currentTaskSpan.end(outcome);
+            currentTaskSpan = null;
+        }
+    }
+
+    private void persistIfChanged() {
+        if (isModelChanged) {
+            isModelChanged = false;
+            sharedModel.persist();
+        }
+    }
+
+    private Task<T> createTask(Class<? extends Task<T>> taskClass) throws ReflectiveOperationException {
+        Map<Class<?>, Constructor<?>> constructorsByModelClass =
+                CONSTRUCTORS.computeIfAbsent(taskClass, key -> new ConcurrentHashMap<>());
+        Constructor<?> constructor = constructorsByModelClass.get(sharedModelClass);
+        if (constructor == null) {
+            constructor = taskClass.getDeclaredConstructor(TaskRunner.class, sharedModelClass);
+            constructorsByModelClass.put(sharedModelClass, constructor);
+        }
+        return taskClass.cast(constructor.newInstance(this, sharedModel));
+    }
 }
@@ -78,15 +78,22 @@ import static java.awt.Desktop.isDesktopSupported;
 
 @Slf4j
 public class Utilities {
+    // Gson instances are thread safe, so we share one instead of building a new one for each object.
+    private static final Gson JSON_GSON = new GsonBuilder()
+            .setExclusionStrategies(new AnnotationExclusionStrategy())
+            /*.excludeFieldsWithModifiers(Modifier.TRANSIENT)*/
+            /*  .setFieldNamingPolicy(FieldNamingPolicy.UPPER_CAMEL_CASE)*/
+            .setPrettyPrinting()
+            .create();
+
     // TODO check out Jackson lib
     public static String objectToJson(Object object) {
-        Gson gson = new GsonBuilder()
-                .setExclusionStrategies(new AnnotationExclusionStrategy())
-                /*.excludeFieldsWithModifiers(Modifier.TRANSIENT)*/
-                /*  .setFieldNamingPolicy(FieldNamingPolicy.UPPER_CAMEL_CASE)*/
-                .setPrettyPrinting()
-                .create();
-        return gson.toJson(object);
+        return JSON_GSON.toJson(object);
+    }
+
+    // Used for streaming json to a writer
+    public static Gson getJsonGson() {
+        return JSON_GSON;
     }
 
     public static ListeningExecutorService getSingleThreadExecutor(String name) {
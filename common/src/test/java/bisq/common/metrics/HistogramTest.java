@@ -0,0 +1,66 @@
+/*
+ * This file is part of Bisq.
+ *
+ * bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HistogramTest {
+
+    @Test
+    public void testBucketIndex() {
+        for (int i = 0; i < 16; i++) {
+            assertEquals(i, Histogram.getBucketIndex(i));
+            assertEquals(i, Histogram.getHighestValueOfBucket(i));
+        }
+
+        // Each value has to be in the range of its bucket
+        long[] values = {16, 17, 31, 32, 33, 1000, 123456789, Integer.MAX_VALUE, Long.MAX_VALUE / 3, Long.MAX_VALUE};
+        for (long value : values) {
+            int index = Histogram.getBucketIndex(value);
+            assertTrue(value <= Histogram.getHighestValueOfBucket(index));
+            assertTrue(value > Histogram.getHighestValueOfBucket(index - 1));
+        }
+        assertEquals(Long.MAX_VALUE, Histogram.getHighestValueOfBucket(Histogram.getBucketIndex(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void testPercentiles() {
+        Histogram histogram = new Histogram();
+        assertEquals(0, histogram.getValueAtPercentile(50));
+
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        histogram.record(-5);
+
+        assertEquals(1001, histogram.getCount());
+        assertEquals(500500, histogram.getSum());
+        assertEquals(1000, histogram.getMax());
+        assertEquals(0, histogram.getValueAtPercentile(0));
+        assertEquals(1000, histogram.getValueAtPercentile(100));
+
+        // Relative error is below 1/16
+        long median = histogram.getValueAtPercentile(50);
+        assertTrue(median >= 500 && median < 500 + 500 / 16);
+        long p99 = histogram.getValueAtPercentile(99);
+        assertTrue(p99 >= 990 && p99 <= 1000);
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * This file is part of Bisq.
+ *
+ * bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class PrometheusFormatterTest {
+
+    @Test
+    public void testFormat() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("b_total", "Counter\\help").add(3);
+        MetricFamily<Counter> family = registry.counterFamily("a_total", "Labelled counter", "message");
+        family.labels("Ping").inc();
+        family.labels("Say \"hi\"").add(2);
+        registry.gauge("c_bytes", "Gauge", () -> 42);
+        registry.histogram("d_millis", "Histogram").record(7);
+
+        assertEquals("# HELP a_total Labelled counter\n" +
+                        "# TYPE a_total counter\n" +
+                        "a_total{message=\"Ping\"} 1\n" +
+                        "a_total{message=\"Say \\\"hi\\\"\"} 2\n" +
+                        "# HELP b_total Counter\\\\help\n" +
+                        "# TYPE b_total counter\n" +
+                        "b_total 3\n" +
+                        "# HELP c_bytes Gauge\n" +
+                        "# TYPE c_bytes gauge\n" +
+                        "c_bytes 42\n" +
+                        "# HELP d_millis Histogram\n" +
+                        "# TYPE d_millis summary\n" +
+                        "d_millis{quantile=\"0.5\"} 7\n" +
+                        "d_millis{quantile=\"0.9\"} 7\n" +
+                        "d_millis{quantile=\"0.99\"} 7\n" +
+                        "d_millis{quantile=\"1.0\"} 7\n" +
+                        "d_millis_sum 7\n" +
+                        "d_millis_count 1\n",
+                PrometheusFormatter.format(registry));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTypeMismatch() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("metric", "Counter");
+        registry.histogram("metric", "Histogram");
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.metrics;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SpanRecorderTest {
+
+    @Test
+    public void testRingBuffer() {
+        MetricsRegistry registry = new MetricsRegistry();
+        SpanRecorder recorder = registry.spanRecorder("test_span_milliseconds", "Test spans", "span", 3);
+        assertTrue(recorder.getSpans().isEmpty());
+
+        for (int i = 0; i < 5; i++) {
+            recorder.record(new Span("span" + (i % 2), "traceId", "phase", i, i * 10, Span.Outcome.SUCCESS));
+        }
+
+        // Only the most recent spans are kept, oldest first
+        List<Span> spans = recorder.getSpans();
+        assertEquals(3, spans.size());
+        assertEquals(2, spans.get(0).getStartTime());
+        assertEquals(4, spans.get(2).getStartTime());
+
+        // The durations of all spans are in the histograms
+        assertEquals(3, recorder.getHistogram("span0").getCount());
+        assertEquals(2, recorder.getHistogram("span1").getCount());
+        assertEquals(40, recorder.getHistogram("span0").getMax());
+        assertEquals(1, registry.getSpanRecorders().size());
+        assertTrue(registry.getFamilies().stream().anyMatch(family -> family.getName().equals("test_span_milliseconds")));
+    }
+
+    @Test
+    public void testRunningSpan() {
+        SpanRecorder recorder = new MetricsRegistry().spanRecorder("test_span_milliseconds", "Test spans", "span", 10);
+        SpanRecorder.RunningSpan runningSpan = recorder.start("task", "tradeId", "INIT");
+        runningSpan.end(Span.Outcome.FAILED);
+        // Only the first end gets recorded
+        runningSpan.end(Span.Outcome.SUCCESS);
+
+        List<Span> spans = recorder.getSpans();
+        assertEquals(1, spans.size());
+        assertEquals("task", spans.get(0).getName());
+        assertEquals("tradeId", spans.get(0).getTraceId());
+        assertEquals(Span.Outcome.FAILED, spans.get(0).getOutcome());
+
+        String dump = recorder.dump();
+        assertTrue(dump.contains("test_span_milliseconds"));
+        assertTrue(dump.contains("traceId=tradeId phase=INIT"));
+    }
+}
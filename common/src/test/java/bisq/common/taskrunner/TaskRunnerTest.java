@@ -0,0 +1,130 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.taskrunner;
+
+import bisq.common.metrics.Span;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TaskRunnerTest {
+
+    @Test
+    public void testPersistOnceAtEnd() {
+        TestModel model = new TestModel();
+        List<String> results = new ArrayList<>();
+        TaskRunner<TestModel> taskRunner = new TaskRunner<>(model, () -> results.add("done"), results::add);
+        taskRunner.addTasks(CompletingTask.class, CompletingTask.class, CompletingTask.class);
+        taskRunner.run();
+
+        assertEquals(3, model.numTasksRun);
+        assertEquals(1, model.numPersisted);
+        assertEquals("done", results.get(0));
+    }
+
+    @Test
+    public void testPersistBeforeRun() {
+        TestModel model = new TestModel();
+        TaskRunner<TestModel> taskRunner = new TaskRunner<>(model, () -> {
+        }, errorMessage -> {
+        });
+        taskRunner.addTasks(CompletingTask.class, CompletingTask.class, SendingTask.class, CompletingTask.class);
+        taskRunner.run();
+
+        assertEquals(4, model.numTasksRun);
+        // Once before the SendingTask and once at the end
+        assertEquals(2, model.numPersisted);
+        assertEquals(1, model.numPersistedAtSending);
+    }
+
+    @Test
+    public void testPersistOnFailure() {
+        TestModel model = new TestModel();
+        List<String> errorMessages = new ArrayList<>();
+        TaskRunner<TestModel> taskRunner = new TaskRunner<>(model, () -> {
+        }, errorMessages::add);
+        taskRunner.addTasks(CompletingTask.class, FailingTask.class, CompletingTask.class);
+        taskRunner.run();
+
+        assertEquals(2, model.numTasksRun);
+        assertEquals(1, model.numPersisted);
+        assertTrue(errorMessages.get(0).contains("FailingTask"));
+
+        List<Span> spans = TaskRunner.getTaskSpans().getSpans();
+        assertEquals(Span.Outcome.FAILED, spans.get(spans.size() - 1).getOutcome());
+        assertEquals("FailingTask", spans.get(spans.size() - 1).getName());
+        assertEquals(Span.Outcome.SUCCESS, spans.get(spans.size() - 2).getOutcome());
+    }
+
+    static class TestModel implements Model {
+        int numTasksRun;
+        int numPersisted;
+        int numPersistedAtSending;
+
+        @Override
+        public void persist() {
+            numPersisted++;
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+
+    static class CompletingTask extends Task<TestModel> {
+        public CompletingTask(TaskRunner taskHandler, TestModel model) {
+            super(taskHandler, model);
+        }
+
+        @Override
+        protected void run() {
+            model.numTasksRun++;
+            complete();
+        }
+    }
+
+    static class SendingTask extends Task<TestModel> implements PersistBeforeRun {
+        public SendingTask(TaskRunner taskHandler, TestModel model) {
+            super(taskHandler, model);
+        }
+
+        @Override
+        protected void run() {
+            model.numTasksRun++;
+            model.numPersistedAtSending = model.numPersisted;
+            complete();
+        }
+    }
+
+    static class FailingTask extends Task<TestModel> {
+        public FailingTask(TaskRunner taskHandler, TestModel model) {
+            super(taskHandler, model);
+        }
+
+        @Override
+        protected void run() {
+            model.numTasksRun++;
+            failed();
+        }
+    }
+}
@@ -24,6 +24,7 @@ import bisq.core.btc.wallet.BsqWalletService;
 import bisq.core.btc.wallet.BtcWalletService;
 import bisq.core.dao.DaoOptionKeys;
 import bisq.core.dao.DaoSetup;
+import bisq.core.dao.state.DaoStateStorageService;
 import bisq.core.exceptions.BisqException;
 import bisq.core.offer.OpenOfferManager;
 import bisq.core.setup.CorePersistedDataHost;
@@ -436,6 +437,11 @@ public abstract class BisqExecutable implements GracefulShutDownHandler, BisqSet
                 format("Max. permitted memory (used only at headless versions) (default: %s)", "600"))
                 .withRequiredArg();
 
+        parser.accepts(AppOptionKeys.METRICS_PORT,
+                "Port of the local Prometheus metrics endpoint (used only at headless versions, disabled if not set)")
+                .withRequiredArg()
+                .ofType(int.class);
+
         parser.accepts(AppOptionKeys.APP_DATA_DIR_KEY,
                 format("Application data directory (default: %s)", BisqEnvironment.DEFAULT_APP_DATA_DIR))
                 .withRequiredArg();
@@ -574,6 +580,13 @@ public abstract class BisqExecutable implements GracefulShutDownHandler, BisqSet
                 format("Genesis total supply when not using the hard coded one (default: %s)", "-1"))
                 .withRequiredArg();
 
+        parser.accepts(DaoOptionKeys.BLOCK_ARCHIVE_DEPTH,
+                format("Number of blocks behind the chain tip after which blocks are moved from the DAO state " +
+                        "snapshot to the block archive. 0 disables the archive. (default: %s)",
+                        DaoStateStorageService.DEFAULT_BLOCK_ARCHIVE_DEPTH))
+                .withRequiredArg()
+                .ofType(int.class);
+
         parser.accepts(DaoOptionKeys.DAO_ACTIVATED,
                 format("Developer flag. If true it enables dao phase 2 features. (default: %s)", "true"))
                 .withRequiredArg()
@@ -30,6 +30,8 @@ import bisq.network.p2p.P2PService;
 
 import bisq.common.UserThread;
 import bisq.common.handlers.ResultHandler;
+import bisq.common.metrics.MetricsHttpServer;
+import bisq.common.metrics.MetricsRegistry;
 import bisq.common.setup.GracefulShutDownHandler;
 import bisq.common.setup.UncaughtExceptionHandler;
 import bisq.common.util.Profiler;
@@ -138,6 +140,17 @@ public abstract class ExecutableForAppWithP2p extends BisqExecutable implements
         }, CHECK_SHUTDOWN_SEC);
     }
 
+    protected void startMetricsServer(BisqEnvironment environment) {
+        String metricsPortOption = environment.getProperty(AppOptionKeys.METRICS_PORT);
+        if (metricsPortOption != null && !metricsPortOption.isEmpty()) {
+            try {
+                new MetricsHttpServer(MetricsRegistry.getDefault(), Integer.parseInt(metricsPortOption)).start();
+            } catch (Throwable t) {
+                log.error("Could not start metrics server at port {}: {}", metricsPortOption, t.toString());
+            }
+        }
+    }
+
     protected void checkMemory(BisqEnvironment environment, GracefulShutDownHandler gracefulShutDownHandler) {
         String maxMemoryOption = environment.getProperty(AppOptionKeys.MAX_MEMORY);
         if (maxMemoryOption != null && !maxMemoryOption.isEmpty()) {
@@ -30,8 +30,13 @@ import org.bitcoinj.wallet.Wallet;
 import com.google.inject.Inject;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -39,6 +44,8 @@ import lombok.Getter;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 /**
  * The List supporting our persistence solution.
  */
@@ -50,6 +57,15 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
     @Getter
     private List<AddressEntry> list;
 
+    // Indexes of the list to avoid iterating all entries at lookups. They are kept consistent with the list in add
+    // and remove. Entries are only indexed by address once their key is set.
+    @ToString.Exclude
+    transient private final Map<String, List<AddressEntry>> entriesByOfferId = new HashMap<>();
+    @ToString.Exclude
+    transient private final Map<AddressEntry.Context, List<AddressEntry>> entriesByContext = new EnumMap<>(AddressEntry.Context.class);
+    @ToString.Exclude
+    transient private final Map<String, List<AddressEntry>> entriesByAddress = new HashMap<>();
+
     @Inject
     public AddressEntryList(Storage<AddressEntryList> storage) {
         this.storage = storage;
@@ -58,8 +74,10 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
     @Override
     public void readPersisted() {
         AddressEntryList persisted = storage.initAndGetPersisted(this, 50);
-        if (persisted != null)
+        if (persisted != null) {
             list = new ArrayList<>(persisted.getList());
+            rebuildIndexes();
+        }
     }
 
 
@@ -69,6 +87,7 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
 
     private AddressEntryList(List<AddressEntry> list) {
         this.list = list;
+        rebuildIndexes();
     }
 
     public static AddressEntryList fromProto(protobuf.AddressEntryList proto) {
@@ -106,6 +125,8 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
                     log.error("Key from addressEntry not found in that wallet " + addressEntry.toString());
                 }
             });
+            // The addresses are known only now as they are derived from the keys
+            rebuildIndexes();
         } else {
             list = new ArrayList<>();
             add(new AddressEntry(wallet.freshReceiveKey(), AddressEntry.Context.ARBITRATOR));
@@ -144,19 +165,70 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
                 .map(address -> (DeterministicKey) wallet.findKeyFromPubHash(address.getHash160()))
                 .filter(Objects::nonNull)
                 .map(deterministicKey -> new AddressEntry(deterministicKey, AddressEntry.Context.AVAILABLE))
-                .forEach(addressEntry -> list.add(addressEntry));
+                .forEach(this::add);
+    }
+
+    private synchronized boolean listContainsEntryWithAddress(String addressString) {
+        return entriesByAddress.containsKey(addressString);
+    }
+
+    private synchronized boolean add(AddressEntry addressEntry) {
+        boolean changed = list.add(addressEntry);
+        if (changed)
+            addToIndexes(addressEntry);
+        return changed;
+    }
+
+    private synchronized boolean remove(AddressEntry addressEntry) {
+        // We prefer to remove the same instance, otherwise an equal one as List.remove would do
+        int index = -1;
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == addressEntry) {
+                index = i;
+                break;
+            }
+        }
+        if (index == -1)
+            index = list.indexOf(addressEntry);
+        if (index == -1)
+            return false;
+
+        removeFromIndexes(list.remove(index));
+        return true;
+    }
+
+    private synchronized void rebuildIndexes() {
+        entriesByOfferId.clear();
+        entriesByContext.clear();
+        entriesByAddress.clear();
+        list.forEach(this::addToIndexes);
     }
 
-    private boolean listContainsEntryWithAddress(String addressString) {
-        return list.stream().anyMatch(addressEntry -> Objects.equals(addressEntry.getAddressString(), addressString));
+    private void addToIndexes(AddressEntry addressEntry) {
+        if (addressEntry.getOfferId() != null)
+            entriesByOfferId.computeIfAbsent(addressEntry.getOfferId(), key -> new ArrayList<>()).add(addressEntry);
+        entriesByContext.computeIfAbsent(addressEntry.getContext(), key -> new ArrayList<>()).add(addressEntry);
+        String addressString = addressEntry.getAddressString();
+        if (addressString != null)
+            entriesByAddress.computeIfAbsent(addressString, key -> new ArrayList<>()).add(addressEntry);
     }
 
-    private boolean add(AddressEntry addressEntry) {
-        return list.add(addressEntry);
+    private void removeFromIndexes(AddressEntry addressEntry) {
+        removeFromIndex(entriesByOfferId, addressEntry.getOfferId(), addressEntry);
+        removeFromIndex(entriesByContext, addressEntry.getContext(), addressEntry);
+        removeFromIndex(entriesByAddress, addressEntry.getAddressString(), addressEntry);
     }
 
-    private boolean remove(AddressEntry addressEntry) {
-        return list.remove(addressEntry);
+    private static <K> void removeFromIndex(Map<K, List<AddressEntry>> index, @Nullable K key, AddressEntry addressEntry) {
+        if (key == null)
+            return;
+
+        List<AddressEntry> entries = index.get(key);
+        if (entries != null) {
+            entries.removeIf(entry -> entry == addressEntry);
+            if (entries.isEmpty())
+                index.remove(key);
+        }
     }
 
     public AddressEntry addAddressEntry(AddressEntry addressEntry) {
@@ -167,8 +239,11 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
     }
 
     public void swapTradeToSavings(String offerId) {
-        list.stream().filter(addressEntry -> offerId.equals(addressEntry.getOfferId()))
-                .findAny().ifPresent(this::swapToAvailable);
+        Optional<AddressEntry> addressEntry;
+        synchronized (this) {
+            addressEntry = entriesByOfferId.getOrDefault(offerId, Collections.emptyList()).stream().findFirst();
+        }
+        addressEntry.ifPresent(this::swapToAvailable);
     }
 
     public void swapToAvailable(AddressEntry addressEntry) {
@@ -195,4 +270,22 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
     public Stream<AddressEntry> stream() {
         return list.stream();
     }
+
+    public synchronized Optional<AddressEntry> findAddressEntry(String offerId, AddressEntry.Context context) {
+        return entriesByOfferId.getOrDefault(offerId, Collections.emptyList()).stream()
+                .filter(addressEntry -> addressEntry.getContext() == context)
+                .findFirst();
+    }
+
+    public synchronized Optional<AddressEntry> findAddressEntryByAddress(String addressString,
+                                                                         AddressEntry.Context context) {
+        return entriesByAddress.getOrDefault(addressString, Collections.emptyList()).stream()
+                .filter(addressEntry -> addressEntry.getContext() == context)
+                .findFirst();
+    }
+
+    // Returns a copy in the order of the list
+    public synchronized List<AddressEntry> getAddressEntries(AddressEntry.Context context) {
+        return new ArrayList<>(entriesByContext.getOrDefault(context, Collections.emptyList()));
+    }
 }
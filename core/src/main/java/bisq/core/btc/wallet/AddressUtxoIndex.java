@@ -0,0 +1,267 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.btc.wallet;
+
+import org.bitcoinj.core.Address;
+import org.bitcoinj.core.Coin;
+import org.bitcoinj.core.Sha256Hash;
+import org.bitcoinj.core.Transaction;
+import org.bitcoinj.core.TransactionConfidence;
+import org.bitcoinj.core.TransactionInput;
+import org.bitcoinj.core.TransactionOutPoint;
+import org.bitcoinj.core.TransactionOutput;
+import org.bitcoinj.core.listeners.TransactionConfidenceEventListener;
+import org.bitcoinj.utils.Threading;
+import org.bitcoinj.wallet.Wallet;
+import org.bitcoinj.wallet.WalletTransaction;
+import org.bitcoinj.wallet.listeners.WalletCoinsReceivedEventListener;
+import org.bitcoinj.wallet.listeners.WalletCoinsSentEventListener;
+import org.bitcoinj.wallet.listeners.WalletReorganizeEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Index of the outputs of the wallet transactions by address. It is updated from the wallet events, so the balance
+ * and the number of outputs of an address do not require to iterate all wallet transactions.
+ * <p>
+ * The spend candidates are the same outputs as returned by wallet.calculateAllSpendCandidates(): Outputs of
+ * confirmed or pending transactions which are ours, not spent and spendable. The output count contains all outputs of
+ * not dead wallet transactions, like wallet.getTransactions(false).
+ * <p>
+ * The wallet listeners are executed on the thread which changes the wallet while it holds the wallet lock, so the
+ * index is up to date when the change is visible in the wallet. We never call the wallet while we hold the lock of the
+ * index to avoid deadlocks with threads holding the wallet lock.
+ * <p>
+ * As we cannot hold the wallet lock while we read the wallet for a rebuild, the listeners can change the index while
+ * we read. We only replace the index if no listener has changed it in the meantime and read the wallet again
+ * otherwise.
+ */
+@Slf4j
+class AddressUtxoIndex implements WalletCoinsReceivedEventListener, WalletCoinsSentEventListener,
+        WalletReorganizeEventListener, TransactionConfidenceEventListener {
+
+    private static class AddressOutputs {
+        private final Map<TransactionOutPoint, TransactionOutput> spendCandidates = new HashMap<>();
+        private final Set<TransactionOutPoint> outputs = new HashSet<>();
+
+        private boolean isEmpty() {
+            return spendCandidates.isEmpty() && outputs.isEmpty();
+        }
+    }
+
+    // State of a single output as read from the wallet
+    private static class OutputUpdate {
+        private final Address address;
+        private final TransactionOutput output;
+        private final boolean isWalletTxOutput;
+        private final boolean isSpendCandidate;
+
+        private OutputUpdate(Address address, TransactionOutput output, boolean isWalletTxOutput, boolean isSpendCandidate) {
+            this.address = address;
+            this.output = output;
+            this.isWalletTxOutput = isWalletTxOutput;
+            this.isSpendCandidate = isSpendCandidate;
+        }
+    }
+
+    private final Wallet wallet;
+    private Map<Address, AddressOutputs> outputsByAddress = new HashMap<>();
+    // Number of changes of outputsByAddress, used to detect changes while a rebuild reads the wallet
+    private long numIndexUpdates;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    AddressUtxoIndex(Wallet wallet) {
+        this.wallet = wallet;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Lifecycle
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // We add the listeners before we read the wallet, so we don't miss changes which happen while we build the index
+    void start() {
+        wallet.addCoinsReceivedEventListener(Threading.SAME_THREAD, this);
+        wallet.addCoinsSentEventListener(Threading.SAME_THREAD, this);
+        wallet.addReorganizeEventListener(Threading.SAME_THREAD, this);
+        wallet.addTransactionConfidenceEventListener(Threading.SAME_THREAD, this);
+        rebuild();
+    }
+
+    void shutDown() {
+        wallet.removeCoinsReceivedEventListener(this);
+        wallet.removeCoinsSentEventListener(this);
+        wallet.removeReorganizeEventListener(this);
+        wallet.removeTransactionConfidenceEventListener(this);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Wallet listeners
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void onCoinsReceived(Wallet wallet, Transaction tx, Coin prevBalance, Coin newBalance) {
+        onTransactionChanged(tx);
+    }
+
+    @Override
+    public void onCoinsSent(Wallet wallet, Transaction tx, Coin prevBalance, Coin newBalance) {
+        onTransactionChanged(tx);
+    }
+
+    @Override
+    public void onReorganize(Wallet wallet) {
+        rebuild();
+    }
+
+    @Override
+    public void onTransactionConfidenceChanged(Wallet wallet, Transaction tx) {
+        // Gets called at each new block for all transactions as the depth changes. We only need to update if the
+        // transaction got confirmed or dead (then the outputs it spent are available again) or for coinbase maturity.
+        TransactionConfidence confidence = tx.getConfidence();
+        if (confidence.getConfidenceType() != TransactionConfidence.ConfidenceType.BUILDING ||
+                confidence.getDepthInBlocks() <= 1 ||
+                tx.isCoinBase())
+            onTransactionChanged(tx);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    synchronized List<TransactionOutput> getSpendCandidates(Address address) {
+        AddressOutputs addressOutputs = outputsByAddress.get(address);
+        return addressOutputs != null ?
+                new ArrayList<>(addressOutputs.spendCandidates.values()) :
+                Collections.emptyList();
+    }
+
+    synchronized int getNumTxOutputs(Address address) {
+        AddressOutputs addressOutputs = outputsByAddress.get(address);
+        return addressOutputs != null ? addressOutputs.outputs.size() : 0;
+    }
+
+    // We read the state from the wallet first and apply it with our lock held afterwards. If a wallet listener has
+    // updated the index while we read the wallet our state might miss that change, so we read the wallet again.
+    void rebuild() {
+        int numAttempts = 0;
+        while (true) {
+            numAttempts++;
+            long numIndexUpdatesAtStart;
+            synchronized (this) {
+                numIndexUpdatesAtStart = numIndexUpdates;
+            }
+
+            List<OutputUpdate> updates = new ArrayList<>();
+            wallet.getTransactions(true).forEach(tx -> addOutputUpdates(tx, updates));
+            Map<Address, AddressOutputs> newOutputsByAddress = new HashMap<>();
+            updates.forEach(update -> applyOutputUpdate(newOutputsByAddress, update));
+            synchronized (this) {
+                if (numIndexUpdates == numIndexUpdatesAtStart) {
+                    outputsByAddress = newOutputsByAddress;
+                    numIndexUpdates++;
+                    log.info("Rebuilt address index with {} addresses from {} outputs after {} attempt(s)",
+                            newOutputsByAddress.size(), updates.size(), numAttempts);
+                    return;
+                }
+            }
+            log.debug("The wallet has changed while we rebuilt the address index. We read the wallet again.");
+        }
+    }
+
+    void onTransactionChanged(Transaction tx) {
+        List<OutputUpdate> updates = new ArrayList<>();
+        addOutputUpdates(tx, updates);
+        // The spent state of the outputs connected to our inputs changes with the state of our transaction
+        if (!tx.isCoinBase()) {
+            Set<Sha256Hash> connectedTxIds = new HashSet<>();
+            for (TransactionInput input : tx.getInputs()) {
+                Sha256Hash connectedTxId = input.getOutpoint().getHash();
+                if (connectedTxIds.add(connectedTxId)) {
+                    Transaction connectedTx = wallet.getTransaction(connectedTxId);
+                    if (connectedTx != null)
+                        addOutputUpdates(connectedTx, updates);
+                }
+            }
+        }
+
+        synchronized (this) {
+            updates.forEach(update -> applyOutputUpdate(outputsByAddress, update));
+            numIndexUpdates++;
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void addOutputUpdates(Transaction tx, List<OutputUpdate> updates) {
+        Sha256Hash txId = tx.getHash();
+        boolean isSpendable = wallet.getTransactionPool(WalletTransaction.Pool.UNSPENT).containsKey(txId) ||
+                wallet.getTransactionPool(WalletTransaction.Pool.PENDING).containsKey(txId);
+        boolean isWalletTx = isSpendable || wallet.getTransactionPool(WalletTransaction.Pool.SPENT).containsKey(txId);
+        for (TransactionOutput output : tx.getOutputs()) {
+            if (WalletService.isOutputScriptConvertibleToAddress(output)) {
+                boolean isSpendCandidate = isSpendable && isSpendCandidate(tx, output);
+                updates.add(new OutputUpdate(WalletService.getAddressFromOutput(output), output, isWalletTx,
+                        isSpendCandidate));
+            }
+        }
+    }
+
+    // Same conditions as in wallet.calculateAllSpendCandidates()
+    private boolean isSpendCandidate(Transaction tx, TransactionOutput output) {
+        return output.isAvailableForSpending() &&
+                output.isMine(wallet) &&
+                (!tx.isCoinBase() || tx.isMature()) &&
+                wallet.canSignFor(output.getScriptPubKey());
+    }
+
+    private static void applyOutputUpdate(Map<Address, AddressOutputs> outputsByAddress, OutputUpdate update) {
+        TransactionOutPoint outPoint = update.output.getOutPointFor();
+        AddressOutputs addressOutputs = outputsByAddress.computeIfAbsent(update.address, key -> new AddressOutputs());
+        if (update.isWalletTxOutput)
+            addressOutputs.outputs.add(outPoint);
+        else
+            addressOutputs.outputs.remove(outPoint);
+
+        if (update.isSpendCandidate)
+            addressOutputs.spendCandidates.put(outPoint, update.output);
+        else
+            addressOutputs.spendCandidates.remove(outPoint);
+
+        if (addressOutputs.isEmpty())
+            outputsByAddress.remove(update.address);
+    }
+}
@@ -0,0 +1,361 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.btc.wallet;
+
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.blockchain.Tx;
+import bisq.core.dao.state.model.blockchain.TxOutput;
+import bisq.core.dao.state.model.blockchain.TxOutputKey;
+import bisq.core.dao.state.model.blockchain.TxOutputType;
+import bisq.core.dao.state.unconfirmed.UnconfirmedBsqChangeOutputListService;
+
+import org.bitcoinj.core.Coin;
+import org.bitcoinj.core.NetworkParameters;
+import org.bitcoinj.core.Sha256Hash;
+import org.bitcoinj.core.Transaction;
+import org.bitcoinj.core.TransactionConfidence;
+import org.bitcoinj.core.TransactionInput;
+import org.bitcoinj.core.TransactionOutput;
+import org.bitcoinj.wallet.Wallet;
+import org.bitcoinj.wallet.WalletTransaction;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the BSQ wallet balances as sum of the contributions of the wallet transactions. If a transaction changes in
+ * the wallet or in the DAO state only its contribution gets recalculated instead of iterating all wallet transactions
+ * and DAO outputs.
+ * <p>
+ * The contribution of a transaction depends on its own state, the state of its outputs in the DAO state and for
+ * unverified balance on the outputs its inputs spend. The caller is responsible to pass the transactions affected by a
+ * change, the pending transactions and the transactions with bond or vote stake outputs get recalculated at each
+ * update as their state depends on the chain height. A full recalculation is used at startup and after a reorg and
+ * can be used to check the consistency of the ledger.
+ * <p>
+ * Changes of the balances are kept in a short history per category and reported to the listeners.
+ * Not thread safe, is expected to be used on the user thread.
+ */
+@Slf4j
+public class BsqBalanceLedger {
+    public enum Category {
+        AVAILABLE_CONFIRMED,
+        AVAILABLE_NON_BSQ,
+        UNVERIFIED,
+        UNCONFIRMED_CHANGE,
+        LOCKED_FOR_VOTING,
+        LOCKUP_BONDS,
+        UNLOCKING_BONDS
+    }
+
+    @Value
+    public static class BalanceChange {
+        private final Category category;
+        private final Coin previousBalance;
+        private final Coin balance;
+        private final long date;
+    }
+
+    public interface BalanceChangeListener {
+        void onBalanceChanged(BalanceChange balanceChange);
+    }
+
+    static final int MAX_HISTORY_SIZE = 100;
+    private static final int NUM_CATEGORIES = Category.values().length;
+
+    private final DaoStateService daoStateService;
+    private final BsqCoinSelector bsqCoinSelector;
+    private final NonBsqCoinSelector nonBsqCoinSelector;
+    private final UnconfirmedBsqChangeOutputListService unconfirmedBsqChangeOutputListService;
+
+    private final Map<Sha256Hash, long[]> contributionByTxId = new HashMap<>();
+    // Txs with bond or vote stake outputs, their contribution changes with the chain height or by confiscation
+    private final Set<Sha256Hash> daoSensitiveTxIds = new HashSet<>();
+    private final long[] balances = new long[NUM_CATEGORIES];
+    private final Map<Category, Deque<BalanceChange>> historyByCategory = new EnumMap<>(Category.class);
+    private final CopyOnWriteArraySet<BalanceChangeListener> balanceChangeListeners = new CopyOnWriteArraySet<>();
+    private boolean initialized;
+    // Height of the last DAO block we have reported the wallet txs for
+    private int lastParsedDaoBlockHeight = -1;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    BsqBalanceLedger(DaoStateService daoStateService,
+                     BsqCoinSelector bsqCoinSelector,
+                     NonBsqCoinSelector nonBsqCoinSelector,
+                     UnconfirmedBsqChangeOutputListService unconfirmedBsqChangeOutputListService) {
+        this.daoStateService = daoStateService;
+        this.bsqCoinSelector = bsqCoinSelector;
+        this.nonBsqCoinSelector = nonBsqCoinSelector;
+        this.unconfirmedBsqChangeOutputListService = unconfirmedBsqChangeOutputListService;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public Coin getBalance(Category category) {
+        return Coin.valueOf(balances[category.ordinal()]);
+    }
+
+    // Most recent change last
+    public List<BalanceChange> getHistory(Category category) {
+        return new ArrayList<>(historyByCategory.getOrDefault(category, new ArrayDeque<>()));
+    }
+
+    public void addBalanceChangeListener(BalanceChangeListener listener) {
+        balanceChangeListeners.add(listener);
+    }
+
+    public void removeBalanceChangeListener(BalanceChangeListener listener) {
+        balanceChangeListeners.remove(listener);
+    }
+
+    // Recalculates the contributions of the given and of the pending and DAO sensitive wallet transactions
+    void update(Wallet wallet, Collection<Transaction> changedTxs) {
+        if (!initialized) {
+            recalculate(wallet);
+            return;
+        }
+
+        Map<Sha256Hash, Transaction> txs = new HashMap<>();
+        changedTxs.forEach(tx -> {
+            txs.put(tx.getHash(), tx);
+            // Spending a tx changes the available outputs of the connected txs
+            tx.getInputs().stream()
+                    .map(TransactionInput::getConnectedOutput)
+                    .filter(Objects::nonNull)
+                    .map(TransactionOutput::getParentTransaction)
+                    .filter(Objects::nonNull)
+                    .forEach(parentTx -> txs.put(parentTx.getHash(), parentTx));
+        });
+        wallet.getTransactionPool(WalletTransaction.Pool.PENDING).values().forEach(tx -> txs.put(tx.getHash(), tx));
+        daoSensitiveTxIds.forEach(txId -> {
+            Transaction tx = wallet.getTransaction(txId);
+            if (tx != null)
+                txs.put(txId, tx);
+        });
+
+        long[] newBalances = Arrays.copyOf(balances, NUM_CATEGORIES);
+        txs.values().forEach(tx -> applyContribution(contributionByTxId, daoSensitiveTxIds, newBalances,
+                tx.getHash(), getContribution(wallet, tx)));
+        // Txs which are not in the wallet anymore (e.g. removed at a reset) are handled by the full recalculation
+        newBalances[Category.UNCONFIRMED_CHANGE.ordinal()] = unconfirmedBsqChangeOutputListService.getBalance().value;
+        applyBalances(newBalances);
+    }
+
+    // Recalculates the contributions of all wallet transactions
+    void recalculate(Wallet wallet) {
+        Map<Sha256Hash, long[]> newContributionByTxId = new HashMap<>();
+        Set<Sha256Hash> newDaoSensitiveTxIds = new HashSet<>();
+        long[] newBalances = new long[NUM_CATEGORIES];
+        wallet.getTransactions(false).forEach(tx -> applyContribution(newContributionByTxId, newDaoSensitiveTxIds,
+                newBalances, tx.getHash(), getContribution(wallet, tx)));
+        newBalances[Category.UNCONFIRMED_CHANGE.ordinal()] = unconfirmedBsqChangeOutputListService.getBalance().value;
+
+        contributionByTxId.clear();
+        contributionByTxId.putAll(newContributionByTxId);
+        daoSensitiveTxIds.clear();
+        daoSensitiveTxIds.addAll(newDaoSensitiveTxIds);
+        initialized = true;
+        applyBalances(newBalances);
+    }
+
+    // Returns the wallet txs which are part of the DAO blocks parsed since the last call. If a chunk of blocks gets
+    // parsed the DAO state listeners only get called for the last block, so we cannot use the txs of the given block
+    // only. Returns empty if a full recalculation is required as the blocks since the last call are not known, which
+    // is the case at the first call and after a reorg.
+    Optional<Set<Transaction>> getTxsOfParsedDaoBlocks(Wallet wallet, Block block) {
+        int previousHeight = lastParsedDaoBlockHeight;
+        int height = block.getHeight();
+        lastParsedDaoBlockHeight = height;
+        if (previousHeight < 0 || height < previousHeight)
+            return Optional.empty();
+
+        Set<Transaction> txs = new HashSet<>();
+        wallet.getTransactions(false).forEach(tx -> daoStateService.getTx(tx.getHashAsString())
+                .map(Tx::getBlockHeight)
+                .filter(blockHeight -> blockHeight > previousHeight && blockHeight <= height)
+                .ifPresent(blockHeight -> txs.add(tx)));
+        return Optional.of(txs);
+    }
+
+    // Returns true if the incrementally updated balances match a full recalculation. Otherwise we apply the result of
+    // the recalculation.
+    boolean checkConsistency(Wallet wallet) {
+        if (!initialized)
+            return true;
+
+        long[] previousBalances = Arrays.copyOf(balances, NUM_CATEGORIES);
+        recalculate(wallet);
+        boolean isConsistent = Arrays.equals(previousBalances, balances);
+        if (!isConsistent) {
+            log.warn("BSQ balances were not consistent with the wallet and DAO state. previousBalances={}, balances={}",
+                    Arrays.toString(previousBalances), Arrays.toString(balances));
+        }
+        return isConsistent;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static void applyContribution(Map<Sha256Hash, long[]> contributionByTxId,
+                                          Set<Sha256Hash> daoSensitiveTxIds,
+                                          long[] balances,
+                                          Sha256Hash txId,
+                                          Optional<long[]> contribution) {
+        long[] previous = contributionByTxId.remove(txId);
+        if (previous != null) {
+            for (int i = 0; i < NUM_CATEGORIES; i++) {
+                balances[i] -= previous[i];
+            }
+        }
+        daoSensitiveTxIds.remove(txId);
+
+        contribution.ifPresent(values -> {
+            contributionByTxId.put(txId, values);
+            for (int i = 0; i < NUM_CATEGORIES; i++) {
+                balances[i] += values[i];
+            }
+            if (values[Category.LOCKED_FOR_VOTING.ordinal()] != 0 ||
+                    values[Category.LOCKUP_BONDS.ordinal()] != 0 ||
+                    values[Category.UNLOCKING_BONDS.ordinal()] != 0)
+                daoSensitiveTxIds.add(txId);
+        });
+    }
+
+    private void applyBalances(long[] newBalances) {
+        long date = System.currentTimeMillis();
+        for (Category category : Category.values()) {
+            int index = category.ordinal();
+            if (balances[index] != newBalances[index]) {
+                BalanceChange balanceChange = new BalanceChange(category, Coin.valueOf(balances[index]),
+                        Coin.valueOf(newBalances[index]), date);
+                balances[index] = newBalances[index];
+                Deque<BalanceChange> history = historyByCategory.computeIfAbsent(category, key -> new ArrayDeque<>());
+                history.addLast(balanceChange);
+                if (history.size() > MAX_HISTORY_SIZE)
+                    history.removeFirst();
+                balanceChangeListeners.forEach(listener -> listener.onBalanceChanged(balanceChange));
+            }
+        }
+    }
+
+    // Empty if the tx does not contribute to any balance
+    private Optional<long[]> getContribution(Wallet wallet, Transaction tx) {
+        Sha256Hash txId = tx.getHash();
+        if (wallet.getTransaction(txId) == null ||
+                wallet.getTransactionPool(WalletTransaction.Pool.DEAD).containsKey(txId))
+            return Optional.empty();
+
+        long[] contribution = new long[NUM_CATEGORIES];
+        TransactionConfidence.ConfidenceType confidenceType = tx.getConfidence().getConfidenceType();
+        if (confidenceType == TransactionConfidence.ConfidenceType.PENDING)
+            contribution[Category.UNVERIFIED.ordinal()] = getUnverifiedValue(wallet, tx);
+
+        if (confidenceType == TransactionConfidence.ConfidenceType.BUILDING)
+            daoStateService.getTx(tx.getHashAsString()).ifPresent(daoTx -> addDaoOutputs(daoTx, contribution));
+
+        boolean isSpendable = wallet.getTransactionPool(WalletTransaction.Pool.UNSPENT).containsKey(txId) ||
+                wallet.getTransactionPool(WalletTransaction.Pool.PENDING).containsKey(txId);
+        if (isSpendable) {
+            // Same as the spend candidates of wallet.calculateAllSpendCandidates() for that tx
+            List<TransactionOutput> spendCandidates = new ArrayList<>();
+            for (TransactionOutput output : tx.getOutputs()) {
+                if (output.isAvailableForSpending() &&
+                        output.isMine(wallet) &&
+                        (!tx.isCoinBase() || tx.isMature()) &&
+                        wallet.canSignFor(output.getScriptPubKey()))
+                    spendCandidates.add(output);
+            }
+            if (!spendCandidates.isEmpty()) {
+                contribution[Category.AVAILABLE_CONFIRMED.ordinal()] =
+                        bsqCoinSelector.select(NetworkParameters.MAX_MONEY, spendCandidates).valueGathered.value;
+                contribution[Category.AVAILABLE_NON_BSQ.ordinal()] =
+                        nonBsqCoinSelector.select(NetworkParameters.MAX_MONEY, spendCandidates).valueGathered.value;
+            }
+        }
+
+        boolean isEmpty = Arrays.stream(contribution).allMatch(value -> value == 0);
+        return isEmpty ? Optional.empty() : Optional.of(contribution);
+    }
+
+    // Sum up outputs into BSQ wallet and subtract the inputs using lockup or unlocking outputs since those inputs will
+    // be accounted for in lockupBondsBalance and unlockingBondsBalance
+    private long getUnverifiedValue(Wallet wallet, Transaction tx) {
+        long outputs = tx.getOutputs().stream()
+                .filter(out -> out.isMine(wallet))
+                .filter(TransactionOutput::isAvailableForSpending)
+                .mapToLong(out -> out.getValue().value)
+                .sum();
+        long lockedInputs = tx.getInputs().stream()
+                .filter(in -> {
+                    TransactionOutput connectedOutput = in.getConnectedOutput();
+                    if (connectedOutput != null && connectedOutput.getParentTransaction() != null) {
+                        TxOutputKey key = new TxOutputKey(connectedOutput.getParentTransaction().getHashAsString(),
+                                connectedOutput.getIndex());
+                        return connectedOutput.isMine(wallet) &&
+                                (daoStateService.isLockupOutput(key) || daoStateService.isUnlockingAndUnspent(key));
+                    }
+                    return false;
+                })
+                .mapToLong(in -> in.getValue() != null ? in.getValue().value : 0)
+                .sum();
+        return outputs - lockedInputs;
+    }
+
+    private void addDaoOutputs(Tx daoTx, long[] contribution) {
+        for (TxOutput txOutput : daoTx.getTxOutputs()) {
+            TxOutputType txOutputType = txOutput.getTxOutputType();
+            if (txOutputType == TxOutputType.BLIND_VOTE_LOCK_STAKE_OUTPUT) {
+                if (daoStateService.isUnspent(txOutput.getKey()))
+                    contribution[Category.LOCKED_FOR_VOTING.ordinal()] += txOutput.getValue();
+            } else if (txOutputType == TxOutputType.LOCKUP_OUTPUT) {
+                if (daoStateService.isUnspent(txOutput.getKey()) &&
+                        !daoStateService.isConfiscatedLockupTxOutput(txOutput.getTxId()))
+                    contribution[Category.LOCKUP_BONDS.ordinal()] += txOutput.getValue();
+            } else if (txOutputType == TxOutputType.UNLOCK_OUTPUT) {
+                if (daoStateService.isUnlockingAndUnspent(txOutput) &&
+                        !daoStateService.isConfiscatedUnlockTxOutput(txOutput.getTxId()))
+                    contribution[Category.UNLOCKING_BONDS.ordinal()] += txOutput.getValue();
+            }
+        }
+    }
+}
@@ -29,7 +29,6 @@ import bisq.core.dao.state.DaoStateService;
 import bisq.core.dao.state.model.blockchain.Block;
 import bisq.core.dao.state.model.blockchain.Tx;
 import bisq.core.dao.state.model.blockchain.TxOutput;
-import bisq.core.dao.state.model.blockchain.TxOutputKey;
 import bisq.core.dao.state.model.blockchain.TxType;
 import bisq.core.dao.state.unconfirmed.UnconfirmedBsqChangeOutputListService;
 import bisq.core.provider.fee.FeeService;
@@ -43,7 +42,6 @@ import org.bitcoinj.core.BlockChain;
 import org.bitcoinj.core.Coin;
 import org.bitcoinj.core.ECKey;
 import org.bitcoinj.core.InsufficientMoneyException;
-import org.bitcoinj.core.NetworkParameters;
 import org.bitcoinj.core.ScriptException;
 import org.bitcoinj.core.Transaction;
 import org.bitcoinj.core.TransactionConfidence;
@@ -76,7 +74,6 @@ import lombok.extern.slf4j.Slf4j;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
-import static org.bitcoinj.core.TransactionConfidence.ConfidenceType.BUILDING;
 import static org.bitcoinj.core.TransactionConfidence.ConfidenceType.PENDING;
 
 @Slf4j
@@ -88,6 +85,9 @@ public class BsqWalletService extends WalletService implements DaoStateListener
         void onWalletTransactionsChange();
     }
 
+    // The incrementally updated balances get compared with a full recalculation in that interval
+    private static final long BALANCE_CONSISTENCY_CHECK_INTERVAL_SEC = 600;
+
     private final DaoKillSwitch daoKillSwitch;
     private final BsqCoinSelector bsqCoinSelector;
     private final NonBsqCoinSelector nonBsqCoinSelector;
@@ -96,7 +96,11 @@ public class BsqWalletService extends WalletService implements DaoStateListener
     private final List<Transaction> walletTransactions = new ArrayList<>();
     private final CopyOnWriteArraySet<BsqBalanceListener> bsqBalanceListeners = new CopyOnWriteArraySet<>();
     private final List<WalletTransactionsChangeListener> walletTransactionsChangeListeners = new ArrayList<>();
+    private final BsqBalanceLedger bsqBalanceLedger;
+    // Txs changed since the last balance update
+    private final Set<Transaction> changedTransactions = new HashSet<>();
     private boolean updateBsqWalletTransactionsPending;
+    private boolean fullBsqBalanceUpdatePending = true;
 
     // balance of non BSQ satoshis
     @Getter
@@ -138,27 +142,32 @@ public class BsqWalletService extends WalletService implements DaoStateListener
         this.unconfirmedBsqChangeOutputListService = unconfirmedBsqChangeOutputListService;
         this.daoKillSwitch = daoKillSwitch;
 
+        bsqBalanceLedger = new BsqBalanceLedger(daoStateService, bsqCoinSelector, nonBsqCoinSelector,
+                unconfirmedBsqChangeOutputListService);
+
         walletsSetup.addSetupCompletedHandler(() -> {
             wallet = walletsSetup.getBsqWallet();
             if (wallet != null) {
                 wallet.setCoinSelector(bsqCoinSelector);
                 wallet.addEventListener(walletEventListener);
+                startAddressUtxoIndex();
 
                 //noinspection deprecation
                 wallet.addEventListener(new AbstractWalletEventListener() {
                     @Override
                     public void onCoinsReceived(Wallet wallet, Transaction tx, Coin prevBalance, Coin newBalance) {
-                        updateBsqWalletTransactions();
+                        updateBsqWalletTransactions(tx);
                     }
 
                     @Override
                     public void onCoinsSent(Wallet wallet, Transaction tx, Coin prevBalance, Coin newBalance) {
-                        updateBsqWalletTransactions();
+                        updateBsqWalletTransactions(tx);
                     }
 
                     @Override
                     public void onReorganize(Wallet wallet) {
                         log.warn("onReorganize ");
+                        fullBsqBalanceUpdatePending = true;
                         updateBsqWalletTransactions();
                         unconfirmedBsqChangeOutputListService.onReorganize();
                     }
@@ -170,18 +179,20 @@ public class BsqWalletService extends WalletService implements DaoStateListener
                         // updateBsqWalletTransactions for each tx as the block depth changes for all.
                         if (tx != null && tx.getConfidence() != null && tx.getConfidence().getDepthInBlocks() <= 1 &&
                                 daoStateService.isParseBlockChainComplete()) {
-                            updateBsqWalletTransactions();
+                            updateBsqWalletTransactions(tx);
                         }
                         unconfirmedBsqChangeOutputListService.onTransactionConfidenceChanged(tx);
                     }
 
                     @Override
                     public void onKeysAdded(List<ECKey> keys) {
+                        fullBsqBalanceUpdatePending = true;
                         updateBsqWalletTransactions();
                     }
 
                     @Override
                     public void onScriptsChanged(Wallet wallet, List<Script> scripts, boolean isAddingScripts) {
+                        fullBsqBalanceUpdatePending = true;
                         updateBsqWalletTransactions();
                     }
 
@@ -191,6 +202,8 @@ public class BsqWalletService extends WalletService implements DaoStateListener
                     }
 
                 });
+
+                UserThread.runPeriodically(this::checkBsqBalanceConsistency, BALANCE_CONSISTENCY_CHECK_INTERVAL_SEC);
             }
 
             BlockChain chain = walletsSetup.getChain();
@@ -212,6 +225,14 @@ public class BsqWalletService extends WalletService implements DaoStateListener
     public void onParseBlockCompleteAfterBatchProcessing(Block block) {
         if (isWalletReady()) {
             wallet.getTransactions(false).forEach(unconfirmedBsqChangeOutputListService::onTransactionConfidenceChanged);
+            // Only the wallet txs of the blocks parsed since the last call changed their state in the DAO. Spent
+            // outputs of earlier txs are covered by the ledger as it updates the txs connected to the inputs of a
+            // changed tx as well.
+            Optional<Set<Transaction>> txsOfParsedBlocks = bsqBalanceLedger.getTxsOfParsedDaoBlocks(wallet, block);
+            if (txsOfParsedBlocks.isPresent())
+                changedTransactions.addAll(txsOfParsedBlocks.get());
+            else
+                fullBsqBalanceUpdatePending = true;
             updateBsqWalletTransactions();
         }
     }
@@ -233,83 +254,51 @@ public class BsqWalletService extends WalletService implements DaoStateListener
     // Balance
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private void updateBsqBalance() {
+    private void updateBsqBalance(Set<Transaction> changedTxs, boolean isFullUpdate) {
         long ts = System.currentTimeMillis();
-        unverifiedBalance = Coin.valueOf(
-                getTransactions(false).stream()
-                        .filter(tx -> tx.getConfidence().getConfidenceType() == PENDING)
-                        .mapToLong(tx -> {
-                            // Sum up outputs into BSQ wallet and subtract the inputs using lockup or unlocking
-                            // outputs since those inputs will be accounted for in lockupBondsBalance and
-                            // unlockingBondsBalance
-                            long outputs = tx.getOutputs().stream()
-                                    .filter(out -> out.isMine(wallet))
-                                    .filter(TransactionOutput::isAvailableForSpending)
-                                    .mapToLong(out -> out.getValue().value)
-                                    .sum();
-                            // Account for spending of locked connectedOutputs
-                            long lockedInputs = tx.getInputs().stream()
-                                    .filter(in -> {
-                                        TransactionOutput connectedOutput = in.getConnectedOutput();
-                                        if (connectedOutput != null) {
-                                            Transaction parentTransaction = connectedOutput.getParentTransaction();
-                                            // TODO SQ
-                                            if (parentTransaction != null/* &&
-                                                    parentTransaction.getConfidence().getConfidenceType() == BUILDING*/) {
-                                                TxOutputKey key = new TxOutputKey(parentTransaction.getHashAsString(),
-                                                        connectedOutput.getIndex());
-
-                                                return (connectedOutput.isMine(wallet)
-                                                        && (daoStateService.isLockupOutput(key)
-                                                        || daoStateService.isUnlockingAndUnspent(key)));
-                                            }
-                                        }
-                                        return false;
-                                    })
-                                    .mapToLong(in -> in.getValue() != null ? in.getValue().value : 0)
-                                    .sum();
-                            return outputs - lockedInputs;
-                        })
-                        .sum()
-        );
-
-        Set<String> confirmedTxIdSet = getTransactions(false).stream()
-                .filter(tx -> tx.getConfidence().getConfidenceType() == BUILDING)
-                .map(Transaction::getHashAsString)
-                .collect(Collectors.toSet());
-
-        lockedForVotingBalance = Coin.valueOf(daoStateService.getUnspentBlindVoteStakeTxOutputs().stream()
-                .filter(txOutput -> confirmedTxIdSet.contains(txOutput.getTxId()))
-                .mapToLong(TxOutput::getValue)
-                .sum());
-
-        lockupBondsBalance = Coin.valueOf(daoStateService.getLockupTxOutputs().stream()
-                .filter(txOutput -> daoStateService.isUnspent(txOutput.getKey()))
-                .filter(txOutput -> !daoStateService.isConfiscatedLockupTxOutput(txOutput.getTxId()))
-                .filter(txOutput -> confirmedTxIdSet.contains(txOutput.getTxId()))
-                .mapToLong(TxOutput::getValue)
-                .sum());
+        if (isFullUpdate)
+            bsqBalanceLedger.recalculate(wallet);
+        else
+            bsqBalanceLedger.update(wallet, changedTxs);
 
-        unlockingBondsBalance = Coin.valueOf(daoStateService.getUnspentUnlockingTxOutputsStream()
-                .filter(txOutput -> confirmedTxIdSet.contains(txOutput.getTxId()))
-                .filter(txOutput -> !daoStateService.isConfiscatedUnlockTxOutput(txOutput.getTxId()))
-                .mapToLong(TxOutput::getValue)
-                .sum());
+        applyBsqBalances();
+        log.info("updateBsqBalance took {} ms. isFullUpdate={}, changedTxs={}",
+                System.currentTimeMillis() - ts, isFullUpdate, changedTxs.size());
+    }
 
-        availableConfirmedBalance = bsqCoinSelector.select(NetworkParameters.MAX_MONEY,
-                wallet.calculateAllSpendCandidates()).valueGathered;
+    private void checkBsqBalanceConsistency() {
+        if (isWalletReady() && daoStateService.isParseBlockChainComplete() && !updateBsqWalletTransactionsPending) {
+            if (!bsqBalanceLedger.checkConsistency(wallet))
+                applyBsqBalances();
+        }
+    }
 
+    private void applyBsqBalances() {
+        availableConfirmedBalance = bsqBalanceLedger.getBalance(BsqBalanceLedger.Category.AVAILABLE_CONFIRMED);
         if (availableConfirmedBalance.isNegative())
             availableConfirmedBalance = Coin.ZERO;
 
-        unconfirmedChangeBalance = unconfirmedBsqChangeOutputListService.getBalance();
-
-        availableNonBsqBalance = nonBsqCoinSelector.select(NetworkParameters.MAX_MONEY,
-                wallet.calculateAllSpendCandidates()).valueGathered;
+        availableNonBsqBalance = bsqBalanceLedger.getBalance(BsqBalanceLedger.Category.AVAILABLE_NON_BSQ);
+        unverifiedBalance = bsqBalanceLedger.getBalance(BsqBalanceLedger.Category.UNVERIFIED);
+        unconfirmedChangeBalance = bsqBalanceLedger.getBalance(BsqBalanceLedger.Category.UNCONFIRMED_CHANGE);
+        lockedForVotingBalance = bsqBalanceLedger.getBalance(BsqBalanceLedger.Category.LOCKED_FOR_VOTING);
+        lockupBondsBalance = bsqBalanceLedger.getBalance(BsqBalanceLedger.Category.LOCKUP_BONDS);
+        unlockingBondsBalance = bsqBalanceLedger.getBalance(BsqBalanceLedger.Category.UNLOCKING_BONDS);
 
         bsqBalanceListeners.forEach(e -> e.onUpdateBalances(availableConfirmedBalance, availableNonBsqBalance, unverifiedBalance,
                 unconfirmedChangeBalance, lockedForVotingBalance, lockupBondsBalance, unlockingBondsBalance));
-        log.info("updateBsqBalance took {} ms", System.currentTimeMillis() - ts);
+    }
+
+    public List<BsqBalanceLedger.BalanceChange> getBsqBalanceHistory(BsqBalanceLedger.Category category) {
+        return bsqBalanceLedger.getHistory(category);
+    }
+
+    public void addBsqBalanceChangeListener(BsqBalanceLedger.BalanceChangeListener listener) {
+        bsqBalanceLedger.addBalanceChangeListener(listener);
+    }
+
+    public void removeBsqBalanceChangeListener(BsqBalanceLedger.BalanceChangeListener listener) {
+        bsqBalanceLedger.removeBalanceChangeListener(listener);
     }
 
     public void addBsqBalanceListener(BsqBalanceListener listener) {
@@ -342,19 +331,30 @@ public class BsqWalletService extends WalletService implements DaoStateListener
                 .filter(transaction -> transaction.getConfidence().getConfidenceType() == TransactionConfidence.ConfidenceType.PENDING);
     }
 
+    private void updateBsqWalletTransactions(Transaction changedTx) {
+        if (changedTx != null)
+            changedTransactions.add(changedTx);
+        updateBsqWalletTransactions();
+    }
+
     private void updateBsqWalletTransactions() {
         if (daoStateService.isParseBlockChainComplete()) {
             // We get called updateBsqWalletTransactions multiple times from onWalletChanged, onTransactionConfidenceChanged
             // and from onParseBlockCompleteAfterBatchProcessing. But as updateBsqBalance is an expensive operation we do
             // not want to call it in a short interval series so we use a flag and a delay to not call it multiple times
-            // in a 100 ms period.
+            // in a 100 ms period. The txs changed in that period are collected so that only their contribution to the
+            // balances gets updated.
             if (!updateBsqWalletTransactionsPending) {
                 updateBsqWalletTransactionsPending = true;
                 UserThread.runAfter(() -> {
                     walletTransactions.clear();
                     walletTransactions.addAll(getTransactions(false));
                     walletTransactionsChangeListeners.forEach(WalletTransactionsChangeListener::onWalletTransactionsChange);
-                    updateBsqBalance();
+                    Set<Transaction> changedTxs = new HashSet<>(changedTransactions);
+                    changedTransactions.clear();
+                    boolean isFullUpdate = fullBsqBalanceUpdatePending;
+                    fullBsqBalanceUpdatePending = false;
+                    updateBsqBalance(changedTxs, isFullUpdate);
                     updateBsqWalletTransactionsPending = false;
                 }, 100, TimeUnit.MILLISECONDS);
             }
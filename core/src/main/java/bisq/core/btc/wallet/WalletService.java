@@ -110,6 +110,8 @@ public abstract class WalletService {
     protected KeyParameter aesKey;
     @Getter
     protected IntegerProperty chainHeightProperty = new SimpleIntegerProperty();
+    @Nullable
+    private AddressUtxoIndex addressUtxoIndex;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -136,6 +138,8 @@ public abstract class WalletService {
         if (wallet != null)
             //noinspection deprecation
             wallet.removeEventListener(walletEventListener);
+        if (addressUtxoIndex != null)
+            addressUtxoIndex.shutDown();
     }
 
 
@@ -165,6 +169,12 @@ public abstract class WalletService {
 
     abstract String getWalletAsString(boolean includePrivKeys);
 
+    // Called after the wallet is set up
+    void startAddressUtxoIndex() {
+        addressUtxoIndex = new AddressUtxoIndex(wallet);
+        addressUtxoIndex.start();
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Listener
@@ -427,6 +437,9 @@ public abstract class WalletService {
     }
 
     public Coin getBalanceForAddress(Address address) {
+        if (addressUtxoIndex != null)
+            return getBalance(addressUtxoIndex.getSpendCandidates(address), address);
+
         return wallet != null ? getBalance(wallet.calculateAllSpendCandidates(), address) : Coin.ZERO;
     }
 
@@ -463,6 +476,9 @@ public abstract class WalletService {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public int getNumTxOutputsForAddress(Address address) {
+        if (addressUtxoIndex != null)
+            return address != null ? addressUtxoIndex.getNumTxOutputs(address) : 0;
+
         List<TransactionOutput> transactionOutputs = new ArrayList<>();
         wallet.getTransactions(false).forEach(t -> transactionOutputs.addAll(t.getOutputs()));
         int outputs = 0;
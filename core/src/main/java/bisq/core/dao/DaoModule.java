@@ -79,6 +79,7 @@ import bisq.core.dao.node.lite.LiteNode;
 import bisq.core.dao.node.lite.network.LiteNodeNetworkService;
 import bisq.core.dao.node.parser.BlockParser;
 import bisq.core.dao.node.parser.TxParser;
+import bisq.core.dao.state.DaoStateBlockArchive;
 import bisq.core.dao.state.DaoStateService;
 import bisq.core.dao.state.DaoStateSnapshotService;
 import bisq.core.dao.state.DaoStateStorageService;
@@ -123,6 +124,7 @@ public class DaoModule extends AppModule {
         bind(DaoStateService.class).in(Singleton.class);
         bind(DaoStateSnapshotService.class).in(Singleton.class);
         bind(DaoStateStorageService.class).in(Singleton.class);
+        bind(DaoStateBlockArchive.class).in(Singleton.class);
         bind(DaoStateMonitoringService.class).in(Singleton.class);
         bind(DaoStateNetworkService.class).in(Singleton.class);
         bind(ProposalStateMonitoringService.class).in(Singleton.class);
@@ -207,6 +209,10 @@ public class DaoModule extends AppModule {
         Long genesisTotalSupply = environment.getProperty(DaoOptionKeys.GENESIS_TOTAL_SUPPLY, Long.class, -1L);
         bind(Long.class).annotatedWith(Names.named(DaoOptionKeys.GENESIS_TOTAL_SUPPLY)).toInstance(genesisTotalSupply);
 
+        Integer blockArchiveDepth = environment.getProperty(DaoOptionKeys.BLOCK_ARCHIVE_DEPTH, Integer.class,
+                DaoStateStorageService.DEFAULT_BLOCK_ARCHIVE_DEPTH);
+        bind(Integer.class).annotatedWith(Names.named(DaoOptionKeys.BLOCK_ARCHIVE_DEPTH)).toInstance(blockArchiveDepth);
+
         // Bonds
         bind(LockupTxService.class).in(Singleton.class);
         bind(UnlockTxService.class).in(Singleton.class);
@@ -34,4 +34,5 @@ public class DaoOptionKeys {
     public static final String GENESIS_BLOCK_HEIGHT = "genesisBlockHeight";
     public static final String GENESIS_TOTAL_SUPPLY = "genesisTotalSupply";
     public static final String DAO_ACTIVATED = "daoActivated";
+    public static final String BLOCK_ARCHIVE_DEPTH = "daoBlockArchiveDepth";
 }
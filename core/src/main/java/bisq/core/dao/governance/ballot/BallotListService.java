@@ -18,10 +18,12 @@
 package bisq.core.dao.governance.ballot;
 
 import bisq.core.dao.DaoSetupService;
+import bisq.core.dao.governance.period.CycleIndex;
 import bisq.core.dao.governance.period.PeriodService;
 import bisq.core.dao.governance.proposal.ProposalService;
 import bisq.core.dao.governance.proposal.ProposalValidatorProvider;
 import bisq.core.dao.governance.proposal.storage.appendonly.ProposalPayload;
+import bisq.core.dao.state.DaoStateService;
 import bisq.core.dao.state.model.governance.Ballot;
 import bisq.core.dao.state.model.governance.BallotList;
 import bisq.core.dao.state.model.governance.Proposal;
@@ -36,7 +38,9 @@ import javax.inject.Inject;
 import javafx.collections.ListChangeListener.Change;
 import javafx.collections.ObservableList;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
@@ -57,21 +61,28 @@ public class BallotListService implements PersistedDataHost, DaoSetupService {
 
     private final ProposalService proposalService;
     private final PeriodService periodService;
-    private final ProposalValidatorProvider validatorProvider;
     private final Storage<BallotList> storage;
 
     private final BallotList ballotList = new BallotList();
+    // Lookup set for the proposals of the ballots in ballotList and index of the ballots by cycle
+    private final Set<Proposal> ballotProposals = new HashSet<>();
+    private final CycleIndex<Ballot> ballotIndex;
     private final List<BallotListChangeListener> listeners = new CopyOnWriteArrayList<>();
 
     @Inject
     public BallotListService(ProposalService proposalService,
                              PeriodService periodService,
                              ProposalValidatorProvider validatorProvider,
+                             DaoStateService daoStateService,
                              Storage<BallotList> storage) {
         this.proposalService = proposalService;
         this.periodService = periodService;
-        this.validatorProvider = validatorProvider;
         this.storage = storage;
+
+        ballotIndex = new CycleIndex<>(periodService,
+                daoStateService,
+                Ballot::getTxId,
+                ballot -> validatorProvider.getValidator(ballot.getProposal()).isTxTypeValid(ballot.getProposal()));
     }
 
 
@@ -98,9 +109,7 @@ public class BallotListService implements PersistedDataHost, DaoSetupService {
     }
 
     private boolean isNewProposal(Proposal proposal) {
-        return ballotList.stream()
-                .map(Ballot::getProposal)
-                .noneMatch(proposal::equals);
+        return !ballotProposals.contains(proposal);
     }
 
     private void registerProposalAsBallot(Proposal proposal) {
@@ -113,6 +122,7 @@ public class BallotListService implements PersistedDataHost, DaoSetupService {
             log.warn("Ballot {} already exists on our ballotList", ballot);
         } else {
             ballotList.add(ballot);
+            addToIndex(ballot);
             listeners.forEach(listener -> listener.onListChanged(ballotList.getList()));
         }
     }
@@ -133,6 +143,9 @@ public class BallotListService implements PersistedDataHost, DaoSetupService {
             if (persisted != null) {
                 ballotList.clear();
                 ballotList.addAll(persisted.getList());
+                ballotProposals.clear();
+                ballotIndex.clear();
+                ballotList.forEach(this::addToIndex);
                 listeners.forEach(l -> l.onListChanged(ballotList.getList()));
             }
         }
@@ -154,14 +167,15 @@ public class BallotListService implements PersistedDataHost, DaoSetupService {
 
     public List<Ballot> getValidatedBallotList() {
         return ballotList.stream()
-                .filter(ballot -> validatorProvider.getValidator(ballot.getProposal()).isTxTypeValid(ballot.getProposal()))
+                .filter(ballotIndex::isValid)
                 .collect(Collectors.toList());
     }
 
     public List<Ballot> getValidBallotsOfCycle() {
-        return ballotList.stream()
-                .filter(ballot -> validatorProvider.getValidator(ballot.getProposal()).isTxTypeValid(ballot.getProposal()))
-                .filter(ballot -> periodService.isTxInCorrectCycle(ballot.getTxId(), periodService.getChainHeight()))
+        int chainHeight = periodService.getChainHeight();
+        return ballotIndex.getItemsOfCycle(chainHeight).stream()
+                .filter(ballotIndex::isValid)
+                .filter(ballot -> periodService.isTxInCorrectCycle(ballot.getTxId(), chainHeight))
                 .collect(Collectors.toList());
     }
 
@@ -170,6 +184,11 @@ public class BallotListService implements PersistedDataHost, DaoSetupService {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    private void addToIndex(Ballot ballot) {
+        ballotProposals.add(ballot.getProposal());
+        ballotIndex.add(ballot);
+    }
+
     private void persist() {
         storage.queueUpForSave();
     }
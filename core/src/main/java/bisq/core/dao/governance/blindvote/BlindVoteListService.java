@@ -21,6 +21,7 @@ import bisq.core.dao.DaoOptionKeys;
 import bisq.core.dao.DaoSetupService;
 import bisq.core.dao.governance.blindvote.storage.BlindVotePayload;
 import bisq.core.dao.governance.blindvote.storage.BlindVoteStorageService;
+import bisq.core.dao.governance.period.CycleIndex;
 import bisq.core.dao.governance.period.PeriodService;
 import bisq.core.dao.state.DaoStateListener;
 import bisq.core.dao.state.DaoStateService;
@@ -37,7 +38,9 @@ import javax.inject.Named;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import lombok.Getter;
@@ -55,6 +58,9 @@ public class BlindVoteListService implements AppendOnlyDataStoreListener, DaoSta
     private final BlindVoteValidator blindVoteValidator;
     @Getter
     private final ObservableList<BlindVotePayload> blindVotePayloads = FXCollections.observableArrayList();
+    // Lookup set for blindVotePayloads and index of their blind votes by cycle
+    private final Set<BlindVotePayload> blindVotePayloadSet = new HashSet<>();
+    private final CycleIndex<BlindVote> blindVoteIndex;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -75,6 +81,11 @@ public class BlindVoteListService implements AppendOnlyDataStoreListener, DaoSta
         this.blindVoteStorageService = blindVoteStorageService;
         this.blindVoteValidator = blindVoteValidator;
 
+        blindVoteIndex = new CycleIndex<>(periodService,
+                daoStateService,
+                BlindVote::getTxId,
+                blindVoteValidator::isTxInPhaseAndCycle);
+
         if (daoActivated)
             appendOnlyDataStoreService.addService(blindVoteStorageService);
     }
@@ -129,9 +140,9 @@ public class BlindVoteListService implements AppendOnlyDataStoreListener, DaoSta
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public List<BlindVote> getBlindVotesInPhaseAndCycle() {
-        return blindVotePayloads.stream()
-                .filter(blindVotePayload -> blindVoteValidator.isTxInPhaseAndCycle(blindVotePayload.getBlindVote()))
-                .map(BlindVotePayload::getBlindVote)
+        // Blind votes of past cycles cannot be in the current cycle so we only check those of the current cycle
+        return blindVoteIndex.getItemsOfCycle(daoStateService.getChainHeight()).stream()
+                .filter(blindVoteIndex::isValid)
                 .collect(Collectors.toList());
     }
 
@@ -154,7 +165,7 @@ public class BlindVoteListService implements AppendOnlyDataStoreListener, DaoSta
     private void onAppendOnlyDataAdded(PersistableNetworkPayload persistableNetworkPayload, boolean fromBroadcastMessage) {
         if (persistableNetworkPayload instanceof BlindVotePayload) {
             BlindVotePayload blindVotePayload = (BlindVotePayload) persistableNetworkPayload;
-            if (!blindVotePayloads.contains(blindVotePayload)) {
+            if (!blindVotePayloadSet.contains(blindVotePayload)) {
                 BlindVote blindVote = blindVotePayload.getBlindVote();
                 String txId = blindVote.getTxId();
 
@@ -166,12 +177,12 @@ public class BlindVoteListService implements AppendOnlyDataStoreListener, DaoSta
                             // publishing attack where the attacker tries to pollute the data view of the voters and
                             // render the whole voting cycle invalid if the majority hash is not at least 80% of the
                             // vote stake.
-                            blindVotePayloads.add(blindVotePayload);
+                            addBlindVotePayload(blindVotePayload);
                         }
                     } else {
                         // In case we received the data from the seed node at startup we cannot apply the phase check as
                         // even in the vote reveal phase we want to receive missed blind votes.
-                        blindVotePayloads.add(blindVotePayload);
+                        addBlindVotePayload(blindVotePayload);
                     }
                 } else {
                     log.warn("We received an invalid blindVotePayload. blindVoteTxId={}", txId);
@@ -180,6 +191,12 @@ public class BlindVoteListService implements AppendOnlyDataStoreListener, DaoSta
         }
     }
 
+    private void addBlindVotePayload(BlindVotePayload blindVotePayload) {
+        blindVotePayloadSet.add(blindVotePayload);
+        blindVoteIndex.add(blindVotePayload.getBlindVote());
+        blindVotePayloads.add(blindVotePayload);
+    }
+
     private boolean notInVoteRevealPhase(int blockHeight) {
         return !periodService.isInPhase(blockHeight, DaoPhase.Phase.VOTE_REVEAL);
     }
@@ -39,9 +39,12 @@ import javafx.collections.ObservableList;
 
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -138,6 +141,14 @@ public abstract class BondRepository<T extends Bond, R extends BondedAsset> impl
     @Getter
     protected final ObservableList<T> bonds = FXCollections.observableArrayList();
 
+    // Lookup for the bonds by their lockup txId. It gets rebuilt with the bonds list and allows us to only re-apply
+    // the bond state of the bonds which are affected by the txs of a new block.
+    private final Map<String, T> bondByLockupTxId = new HashMap<>();
+    // Bonds in UNLOCKING state need to be re-checked at each block as they become UNLOCKED once the lock time is over.
+    private final Set<String> unlockingLockupTxIds = new HashSet<>();
+    private int numEvaluatedProposals;
+    private int numConfiscatedLockupTxs;
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -158,7 +169,7 @@ public abstract class BondRepository<T extends Bond, R extends BondedAsset> impl
         daoStateService.addDaoStateListener(new DaoStateListener() {
             @Override
             public void onParseBlockCompleteAfterBatchProcessing(Block block) {
-                update();
+                onBlockParsed(block);
             }
         });
         bsqWalletService.addWalletTransactionsChangeListener(this);
@@ -193,6 +204,10 @@ public abstract class BondRepository<T extends Bond, R extends BondedAsset> impl
         return bonds.stream().filter(Bond::isActive).collect(Collectors.toList());
     }
 
+    public Optional<T> findBondByLockupTxId(String lockupTxId) {
+        return Optional.ofNullable(bondByLockupTxId.get(lockupTxId));
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Protected
@@ -211,14 +226,27 @@ public abstract class BondRepository<T extends Bond, R extends BondedAsset> impl
             bondByUidMap.putIfAbsent(uid, createBond(bondedAsset));
             T bond = bondByUidMap.get(uid);
 
-            daoStateService.getLockupTxOutputs().forEach(lockupTxOutput -> {
-                updateBond(bond, bondedAsset, lockupTxOutput);
-            });
+            // We only look at the lockup txs which carry the hash of our bonded asset
+            daoStateService.getLockupTxIdsByBondHash(bondedAsset.getHash()).stream()
+                    .map(daoStateService::getLockupTxOutput)
+                    .filter(Optional::isPresent)
+                    .map(Optional::get)
+                    .forEach(lockupTxOutput -> updateBond(bond, bondedAsset, lockupTxOutput));
         });
 
         updateBondStateFromUnconfirmedLockupTxs();
         updateBondStateFromUnconfirmedUnlockTxs();
 
+        setBonds();
+    }
+
+    protected void setBonds() {
+        bondByLockupTxId.clear();
+        unlockingLockupTxIds.clear();
+        bondByUidMap.values().forEach(this::addToLookups);
+        numEvaluatedProposals = daoStateService.getEvaluatedProposalList().size();
+        numConfiscatedLockupTxs = daoStateService.getConfiscatedLockupTxList().size();
+
         bonds.setAll(bondByUidMap.values());
     }
 
@@ -227,6 +255,52 @@ public abstract class BondRepository<T extends Bond, R extends BondedAsset> impl
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    private void onBlockParsed(Block block) {
+        // A new lockup tx might create a new bond and a new evaluated proposal might add a new bonded asset. A
+        // shorter confiscatedLockupTxList is only expected after a snapshot got applied. In those cases we rebuild
+        // all bonds, otherwise we only re-apply the state of the bonds which are affected by the new block.
+        boolean hasLockupTx = block.getTxs().stream().anyMatch(tx -> tx.getTxType() == TxType.LOCKUP);
+        int confiscatedListSize = daoStateService.getConfiscatedLockupTxList().size();
+        if (hasLockupTx ||
+                daoStateService.getEvaluatedProposalList().size() != numEvaluatedProposals ||
+                confiscatedListSize < numConfiscatedLockupTxs) {
+            update();
+            return;
+        }
+
+        // The lockup txIds of the bonds which might have changed their state with the new block
+        Set<String> lockupTxIds = new HashSet<>(unlockingLockupTxIds);
+        block.getTxs().stream()
+                .filter(tx -> tx.getTxType() == TxType.UNLOCK)
+                .flatMap(tx -> tx.getTxInputs().stream())
+                .forEach(txInput -> lockupTxIds.add(txInput.getConnectedTxOutputTxId()));
+        lockupTxIds.addAll(daoStateService.getConfiscatedLockupTxList().subList(numConfiscatedLockupTxs, confiscatedListSize));
+        numConfiscatedLockupTxs = confiscatedListSize;
+
+        List<T> affectedBonds = lockupTxIds.stream()
+                .map(bondByLockupTxId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        if (affectedBonds.isEmpty())
+            return;
+
+        affectedBonds.forEach(bond -> {
+            String lockupTxId = bond.getLockupTxId();
+            daoStateService.getTx(lockupTxId).ifPresent(lockupTx -> daoStateService.getLockupTxOutput(lockupTxId)
+                    .ifPresent(lockupTxOutput -> applyBondState(daoStateService, bond, lockupTx, lockupTxOutput)));
+            unlockingLockupTxIds.remove(lockupTxId);
+            addToLookups(bond);
+        });
+        bonds.setAll(bondByUidMap.values());
+    }
+
+    private void addToLookups(T bond) {
+        if (bond.getLockupTxId() != null)
+            bondByLockupTxId.put(bond.getLockupTxId(), bond);
+        if (bond.getLockupTxId() != null && bond.getBondState() == BondState.UNLOCKING)
+            unlockingLockupTxIds.add(bond.getLockupTxId());
+    }
+
     private void updateBondStateFromUnconfirmedLockupTxs() {
         getBondedAssetStream().filter(bondedAsset -> isLockupTxUnconfirmed(bsqWalletService, bondedAsset))
                 .map(bondedAsset -> bondByUidMap.get(bondedAsset.getUid()))
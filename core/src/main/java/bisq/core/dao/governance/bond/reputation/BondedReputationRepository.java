@@ -30,6 +30,7 @@ import javax.inject.Inject;
 
 import javafx.collections.ListChangeListener;
 
+import java.util.HashSet;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -47,6 +48,7 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class BondedReputationRepository extends BondRepository<BondedReputation, Reputation> {
     private final BondedRolesRepository bondedRolesRepository;
+    private Set<String> bondedRolesLockupTxIdSet = new HashSet<>();
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -74,7 +76,11 @@ public class BondedReputationRepository extends BondRepository<BondedReputation,
         // listeners and update our data with stale data from bondedRolesRepository. After that the bondedRolesRepository
         // gets triggered the listeners and we would miss the current state if we would not listen here as well on the
         // bond list.
-        bondedRolesRepository.getBonds().addListener((ListChangeListener<BondedRole>) c -> update());
+        // We only need to rebuild our bonds if the lockup txs of the bonded roles have changed.
+        bondedRolesRepository.getBonds().addListener((ListChangeListener<BondedRole>) c -> {
+            if (!getBondedRolesLockupTxIdSet().equals(bondedRolesLockupTxIdSet))
+                update();
+        });
     }
 
 
@@ -89,14 +95,15 @@ public class BondedReputationRepository extends BondRepository<BondedReputation,
 
     @Override
     protected Stream<Reputation> getBondedAssetStream() {
-        return getBondedReputationStream().map(Bond::getBondedAsset);
+        return bondByUidMap.values().stream().map(Bond::getBondedAsset);
     }
 
     @Override
     protected void update() {
+        bondedRolesLockupTxIdSet = getBondedRolesLockupTxIdSet();
         bondByUidMap.clear();
         getBondedReputationStream().forEach(bondedReputation -> bondByUidMap.put(bondedReputation.getBondedAsset().getUid(), bondedReputation));
-        bonds.setAll(bondByUidMap.values());
+        setBonds();
     }
 
     private Stream<BondedReputation> getBondedReputationStream() {
@@ -120,12 +127,15 @@ public class BondedReputationRepository extends BondRepository<BondedReputation,
     }
 
     private Stream<TxOutput> getLockupTxOutputsForBondedReputation() {
-        // We exclude bonded roles, so we store those in a lookup set.
-        Set<String> bondedRolesLockupTxIdSet = bondedRolesRepository.getBonds().stream().map(Bond::getLockupTxId).collect(Collectors.toSet());
+        // We exclude bonded roles, so we use the lookup set from the last update.
         return daoStateService.getLockupTxOutputs().stream()
                 .filter(e -> !bondedRolesLockupTxIdSet.contains(e.getTxId()));
     }
 
+    private Set<String> getBondedRolesLockupTxIdSet() {
+        return bondedRolesRepository.getBonds().stream().map(Bond::getLockupTxId).collect(Collectors.toSet());
+    }
+
     @Override
     protected void updateBond(BondedReputation bond, Reputation bondedAsset, TxOutput lockupTxOutput) {
         // Lets see if we have a lock up tx.
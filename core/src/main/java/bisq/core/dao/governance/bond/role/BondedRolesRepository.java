@@ -27,14 +27,15 @@ import bisq.core.dao.state.model.governance.Proposal;
 import bisq.core.dao.state.model.governance.Role;
 import bisq.core.dao.state.model.governance.RoleProposal;
 
-import org.bitcoinj.core.Transaction;
+import bisq.common.util.Utilities;
 
 import javax.inject.Inject;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -45,6 +46,12 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class BondedRolesRepository extends BondRepository<BondedRole, Role> {
+    // Lookups derived from the evaluatedProposalList. As evaluated proposals only get added (or the list gets
+    // replaced by an older snapshot) we rebuild them when the size of the list changes.
+    private final List<RoleProposal> bondedRoleProposals = new ArrayList<>();
+    private final Map<String, RoleProposal> acceptedBondedRoleProposalByUid = new HashMap<>();
+    private final Map<String, Role> roleByHash = new HashMap<>();
+    private int numEvaluatedProposals = -1;
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -61,17 +68,16 @@ public class BondedRolesRepository extends BondRepository<BondedRole, Role> {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public boolean isMyRole(Role role) {
-        Set<String> myWalletTransactionIds = bsqWalletService.getClonedWalletTransactions().stream()
-                .map(Transaction::getHashAsString)
-                .collect(Collectors.toSet());
-        return getAcceptedBondedRoleProposalStream()
+        return getAcceptedBondedRoleProposal(role)
                 .filter(roleProposal -> roleProposal.getRole().equals(role))
                 .map(Proposal::getTxId)
-                .anyMatch(myWalletTransactionIds::contains);
+                .map(bsqWalletService::getTransaction)
+                .isPresent();
     }
 
     public Optional<RoleProposal> getAcceptedBondedRoleProposal(Role role) {
-        return getAcceptedBondedRoleProposalStream().filter(e -> e.getRole().getUid().equals(role.getUid())).findAny();
+        maybeUpdateLookups();
+        return Optional.ofNullable(acceptedBondedRoleProposalByUid.get(role.getUid()));
     }
 
 
@@ -112,21 +118,33 @@ public class BondedRolesRepository extends BondRepository<BondedRole, Role> {
     }
 
     private Optional<Role> findBondedAssetByHash(byte[] hash) {
-        return getBondedAssetStream()
-                .filter(bondedAsset -> Arrays.equals(bondedAsset.getHash(), hash))
-                .findAny();
+        maybeUpdateLookups();
+        return Optional.ofNullable(roleByHash.get(Utilities.encodeToHex(hash)));
     }
 
     private Stream<RoleProposal> getBondedRoleProposalStream() {
-        return daoStateService.getEvaluatedProposalList().stream()
-                .filter(evaluatedProposal -> evaluatedProposal.getProposal() instanceof RoleProposal)
-                .map(e -> ((RoleProposal) e.getProposal()));
+        maybeUpdateLookups();
+        return bondedRoleProposals.stream();
     }
 
-    private Stream<RoleProposal> getAcceptedBondedRoleProposalStream() {
-        return daoStateService.getEvaluatedProposalList().stream()
+    private void maybeUpdateLookups() {
+        List<EvaluatedProposal> evaluatedProposalList = daoStateService.getEvaluatedProposalList();
+        if (evaluatedProposalList.size() == numEvaluatedProposals)
+            return;
+
+        numEvaluatedProposals = evaluatedProposalList.size();
+        bondedRoleProposals.clear();
+        acceptedBondedRoleProposalByUid.clear();
+        roleByHash.clear();
+        evaluatedProposalList.stream()
                 .filter(evaluatedProposal -> evaluatedProposal.getProposal() instanceof RoleProposal)
-                .filter(EvaluatedProposal::isAccepted)
-                .map(e -> ((RoleProposal) e.getProposal()));
+                .forEach(evaluatedProposal -> {
+                    RoleProposal roleProposal = (RoleProposal) evaluatedProposal.getProposal();
+                    Role role = roleProposal.getRole();
+                    bondedRoleProposals.add(roleProposal);
+                    roleByHash.putIfAbsent(Utilities.encodeToHex(role.getHash()), role);
+                    if (evaluatedProposal.isAccepted())
+                        acceptedBondedRoleProposalByUid.putIfAbsent(role.getUid(), roleProposal);
+                });
     }
 }
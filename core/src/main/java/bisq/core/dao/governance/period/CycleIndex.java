@@ -0,0 +1,126 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.governance.period;
+
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.model.blockchain.Tx;
+import bisq.core.dao.state.model.governance.Cycle;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Indexes governance items like proposals, ballots or blind votes by the cycle their tx got confirmed in, so that
+ * lookups for one cycle do not need to look up the txs of the items of all past cycles. Items with a tx which is not
+ * in the DAO state yet are assigned once their tx got parsed.
+ * <p>
+ * The result of the validator is memoized per item as long as neither the chain height nor the number of txs in the
+ * DAO state has changed. Validators must only depend on the DAO state.
+ * <p>
+ * Not thread safe, all calls are expected from the UserThread.
+ */
+public class CycleIndex<T> {
+    private final PeriodService periodService;
+    private final DaoStateService daoStateService;
+    private final Function<T, String> txIdFunction;
+    private final Predicate<T> validator;
+
+    // Key is the height of the first block of the cycle
+    private final Map<Integer, List<T>> itemsByCycle = new HashMap<>();
+    private final List<T> unassignedItems = new ArrayList<>();
+
+    // We don't want to hash large payloads at each lookup so we use the identity of the items
+    private final Map<T, Boolean> validationResults = new IdentityHashMap<>();
+    private int validationChainHeight = -1;
+    private int validationNumTxs = -1;
+
+    public CycleIndex(PeriodService periodService,
+                      DaoStateService daoStateService,
+                      Function<T, String> txIdFunction,
+                      Predicate<T> validator) {
+        this.periodService = periodService;
+        this.daoStateService = daoStateService;
+        this.txIdFunction = txIdFunction;
+        this.validator = validator;
+    }
+
+    public void add(T item) {
+        unassignedItems.add(item);
+    }
+
+    public void clear() {
+        itemsByCycle.clear();
+        unassignedItems.clear();
+        validationResults.clear();
+    }
+
+    /**
+     * @param height    Any height of the requested cycle
+     * @return The items with a tx in the cycle of the given height in the order they got assigned.
+     */
+    public List<T> getItemsOfCycle(int height) {
+        assignItems();
+        return periodService.getCycle(height)
+                .map(cycle -> itemsByCycle.getOrDefault(cycle.getHeightOfFirstBlock(), Collections.emptyList()))
+                .map(Collections::unmodifiableList)
+                .orElse(Collections.emptyList());
+    }
+
+    public boolean isValid(T item) {
+        int chainHeight = daoStateService.getChainHeight();
+        int numTxs = daoStateService.getNumTxs();
+        if (chainHeight != validationChainHeight || numTxs != validationNumTxs) {
+            validationResults.clear();
+            validationChainHeight = chainHeight;
+            validationNumTxs = numTxs;
+        }
+        return validationResults.computeIfAbsent(item, validator::test);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void assignItems() {
+        Iterator<T> iterator = unassignedItems.iterator();
+        while (iterator.hasNext()) {
+            T item = iterator.next();
+            String txId = txIdFunction.apply(item);
+            if (txId == null)
+                continue;
+
+            Optional<Integer> cycleStartHeight = daoStateService.getTx(txId)
+                    .map(Tx::getBlockHeight)
+                    .flatMap(periodService::getCycle)
+                    .map(Cycle::getHeightOfFirstBlock);
+            if (cycleStartHeight.isPresent()) {
+                itemsByCycle.computeIfAbsent(cycleStartHeight.get(), k -> new ArrayList<>()).add(item);
+                iterator.remove();
+            }
+        }
+    }
+}
@@ -19,6 +19,7 @@ package bisq.core.dao.governance.proposal;
 
 import bisq.core.dao.DaoOptionKeys;
 import bisq.core.dao.DaoSetupService;
+import bisq.core.dao.governance.period.CycleIndex;
 import bisq.core.dao.governance.period.PeriodService;
 import bisq.core.dao.governance.proposal.storage.appendonly.ProposalPayload;
 import bisq.core.dao.governance.proposal.storage.appendonly.ProposalStorageService;
@@ -52,8 +53,10 @@ import javafx.collections.ObservableList;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import lombok.Getter;
@@ -70,6 +73,7 @@ public class ProposalService implements HashMapChangedListener, AppendOnlyDataSt
     private final PeriodService periodService;
     private final DaoStateService daoStateService;
     private final ProposalValidatorProvider validatorProvider;
+    private final ProposalStorageService proposalStorageService;
 
     // Proposals we receive in the proposal phase. They can be removed in that phase. That list must not be used for
     // consensus critical code.
@@ -81,6 +85,9 @@ public class ProposalService implements HashMapChangedListener, AppendOnlyDataSt
     // different data collections due the eventually consistency of the P2P network.
     @Getter
     private final ObservableList<ProposalPayload> proposalPayloads = FXCollections.observableArrayList();
+    // Lookup set for proposalPayloads and index of their proposals by cycle
+    private final Set<ProposalPayload> proposalPayloadSet = new HashSet<>();
+    private final CycleIndex<Proposal> proposalIndex;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -101,6 +108,12 @@ public class ProposalService implements HashMapChangedListener, AppendOnlyDataSt
         this.periodService = periodService;
         this.daoStateService = daoStateService;
         this.validatorProvider = validatorProvider;
+        this.proposalStorageService = proposalStorageService;
+
+        proposalIndex = new CycleIndex<>(periodService,
+                daoStateService,
+                Proposal::getTxId,
+                proposal -> validatorProvider.getValidator(proposal).isTxTypeValid(proposal));
 
         if (daoActivated) {
             // We add our stores to the global stores
@@ -188,7 +201,17 @@ public class ProposalService implements HashMapChangedListener, AppendOnlyDataSt
     public List<Proposal> getValidatedProposals() {
         return proposalPayloads.stream()
                 .map(ProposalPayload::getProposal)
-                .filter(proposal -> validatorProvider.getValidator(proposal).isTxTypeValid(proposal))
+                .filter(proposalIndex::isValid)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @param height    Any height of the requested cycle
+     * @return The validated proposals with a tx in the cycle of the given height
+     */
+    public List<Proposal> getValidatedProposalsOfCycle(int height) {
+        return proposalIndex.getItemsOfCycle(height).stream()
+                .filter(proposalIndex::isValid)
                 .collect(Collectors.toList());
     }
 
@@ -215,8 +238,10 @@ public class ProposalService implements HashMapChangedListener, AppendOnlyDataSt
         p2PService.getDataMap().values().forEach(e -> onProtectedDataAdded(e, false));
     }
 
+    // We only iterate our own store and not the whole append-only data store with all the trade statistics and
+    // account age witnesses
     private void fillListFromAppendOnlyDataStore() {
-        p2PService.getP2PDataStorage().getAppendOnlyDataStoreMap().values().forEach(e -> onAppendOnlyDataAdded(e, false));
+        proposalStorageService.getMap().values().forEach(e -> onAppendOnlyDataAdded(e, false));
     }
 
     private void maybePublishToAppendOnlyDataStore() {
@@ -308,7 +333,7 @@ public class ProposalService implements HashMapChangedListener, AppendOnlyDataSt
     private void onAppendOnlyDataAdded(PersistableNetworkPayload persistableNetworkPayload, boolean fromBroadcastMessage) {
         if (persistableNetworkPayload instanceof ProposalPayload) {
             ProposalPayload proposalPayload = (ProposalPayload) persistableNetworkPayload;
-            if (!proposalPayloads.contains(proposalPayload)) {
+            if (!proposalPayloadSet.contains(proposalPayload)) {
                 Proposal proposal = proposalPayload.getProposal();
 
                 // We don't validate phase and cycle as we might receive proposals from other cycles or phases at startup.
@@ -323,6 +348,8 @@ public class ProposalService implements HashMapChangedListener, AppendOnlyDataSt
                         log.info("We received a ProposalPayload and store it to our appendOnlyStoreList. proposalTxId={}",
                                 proposal.getTxId());
                     }
+                    proposalPayloadSet.add(proposalPayload);
+                    proposalIndex.add(proposal);
                     proposalPayloads.add(proposalPayload);
                 } else {
                     log.warn("We received a invalid append-only proposal from the P2P network. " +
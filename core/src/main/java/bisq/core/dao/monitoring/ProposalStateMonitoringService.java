@@ -258,7 +258,7 @@ public class ProposalStateMonitoringService implements DaoSetupService, DaoState
         }
 
         periodService.getCycle(blockHeight).ifPresent(cycle -> {
-            List<Proposal> proposals = proposalService.getValidatedProposals().stream()
+            List<Proposal> proposals = proposalService.getValidatedProposalsOfCycle(blockHeight).stream()
                     .filter(e -> periodService.isTxInPhaseAndCycle(e.getTxId(), DaoPhase.Phase.PROPOSAL, blockHeight))
                     .filter(e -> e.getTxId() != null)
                     .sorted(Comparator.comparing(Proposal::getTxId))
@@ -20,12 +20,12 @@ package bisq.core.dao.node.explorer;
 import bisq.core.dao.DaoOptionKeys;
 import bisq.core.dao.DaoSetupService;
 import bisq.core.dao.state.DaoStateService;
-import bisq.core.dao.state.model.DaoState;
 import bisq.core.dao.state.model.blockchain.Block;
 import bisq.core.dao.state.model.blockchain.PubKeyScript;
 import bisq.core.dao.state.model.blockchain.Tx;
 import bisq.core.dao.state.model.blockchain.TxOutput;
 import bisq.core.dao.state.model.blockchain.TxType;
+import bisq.core.dao.state.model.governance.IssuanceType;
 
 import bisq.common.storage.FileUtil;
 import bisq.common.storage.JsonFileManager;
@@ -38,6 +38,7 @@ import com.google.inject.Inject;
 
 import javax.inject.Named;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -46,27 +47,56 @@ import com.google.common.util.concurrent.ListeningExecutorService;
 import java.nio.file.Paths;
 
 import java.io.File;
+import java.io.FileReader;
 import java.io.IOException;
+import java.io.Reader;
 
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import lombok.extern.slf4j.Slf4j;
 
 import org.jetbrains.annotations.NotNull;
 
+import javax.annotation.Nullable;
+
+/**
+ * Exports the DAO state as json files for block explorers if the dumpBlockchainData option is set.
+ * <p>
+ * After the initial export we only write the files of the txs which have changed since the last export. Those are the
+ * txs of the new blocks, the txs whose outputs got spent by them and the txs affected by issuances or confiscations.
+ * The blocks file contains all blocks and is written each time, but we keep the json model of the blocks in memory so
+ * we only create the model of the changed txs. The export state is persisted so we can resume after a restart.
+ */
 @Slf4j
 public class ExportJsonFilesService implements DaoSetupService {
+    private static final String EXPORT_STATE_FILE_NAME = "exportState";
+
     private final DaoStateService daoStateService;
     private final File storageDir;
     private final boolean dumpBlockchainData;
 
     private final ListeningExecutorService executor = Utilities.getListeningExecutorService("JsonExporter",
             1, 1, 1200);
-    private JsonFileManager txFileManager, txOutputFileManager, bsqStateFileManager;
+    private File txDir, txOutputDir, bsqStateDir;
+    private JsonFileManager txFileManager, txOutputFileManager, bsqStateFileManager, exportStateFileManager;
+
+    // Only accessed from the user thread. The JsonBlock objects are immutable, so we can pass a copy of the list to
+    // the executor.
+    private final List<JsonBlock> jsonBlockCache = new ArrayList<>();
+    @Nullable
+    private JsonExportState lastExportState;
+    private int numExportedConfiscatedLockupTxs;
 
     @Inject
     public ExportJsonFilesService(DaoStateService daoStateService,
@@ -90,38 +120,21 @@ public class ExportJsonFilesService implements DaoSetupService {
     public void start() {
         if (dumpBlockchainData) {
             File jsonDir = new File(Paths.get(storageDir.getAbsolutePath(), "json").toString());
-            File txDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "tx").toString());
-            File txOutputDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "txo").toString());
-            File bsqStateDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "all").toString());
-            try {
-                if (txDir.exists())
-                    FileUtil.deleteDirectory(txDir);
-                if (txOutputDir.exists())
-                    FileUtil.deleteDirectory(txOutputDir);
-                if (bsqStateDir.exists())
-                    FileUtil.deleteDirectory(bsqStateDir);
-                if (jsonDir.exists())
-                    FileUtil.deleteDirectory(jsonDir);
-            } catch (IOException e) {
-                log.error(e.toString());
-                e.printStackTrace();
-            }
+            txDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "tx").toString());
+            txOutputDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "txo").toString());
+            bsqStateDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "all").toString());
 
-            if (!jsonDir.mkdir())
+            if (!jsonDir.exists() && !jsonDir.mkdir())
                 log.warn("make jsonDir failed.\njsonDir=" + jsonDir.getAbsolutePath());
 
-            if (!txDir.mkdir())
-                log.warn("make txDir failed.\ntxDir=" + txDir.getAbsolutePath());
-
-            if (!txOutputDir.mkdir())
-                log.warn("make txOutputDir failed.\ntxOutputDir=" + txOutputDir.getAbsolutePath());
-
-            if (!bsqStateDir.mkdir())
-                log.warn("make bsqStateDir failed.\nbsqStateDir=" + bsqStateDir.getAbsolutePath());
+            // We keep the existing files and resume from the last export state. If it is missing or does not match
+            // our dao state we export all files again.
+            lastExportState = readExportState(new File(jsonDir, EXPORT_STATE_FILE_NAME + ".json"));
 
             txFileManager = new JsonFileManager(txDir);
             txOutputFileManager = new JsonFileManager(txOutputDir);
             bsqStateFileManager = new JsonFileManager(bsqStateDir);
+            exportStateFileManager = new JsonFileManager(jsonDir);
         }
     }
 
@@ -130,36 +143,15 @@ public class ExportJsonFilesService implements DaoSetupService {
             txFileManager.shutDown();
             txOutputFileManager.shutDown();
             bsqStateFileManager.shutDown();
+            exportStateFileManager.shutDown();
         }
     }
 
     public void maybeExportToJson() {
         if (dumpBlockchainData &&
-                daoStateService.isParseBlockChainComplete()) {
-            // We store the data we need once we write the data to disk (in the thread) locally.
-            // Access to daoStateService is single threaded, we must not access daoStateService from the thread.
-            List<JsonTxOutput> allJsonTxOutputs = new ArrayList<>();
-
-            List<JsonTx> jsonTxs = daoStateService.getUnorderedTxStream()
-                    .map(tx -> {
-                        JsonTx jsonTx = getJsonTx(tx);
-                        allJsonTxOutputs.addAll(jsonTx.getOutputs());
-                        return jsonTx;
-                    }).collect(Collectors.toList());
-
-            DaoState daoState = daoStateService.getClone();
-            List<JsonBlock> jsonBlockList = daoState.getBlocks().stream()
-                    .map(this::getJsonBlock)
-                    .collect(Collectors.toList());
-            JsonBlocks jsonBlocks = new JsonBlocks(daoState.getChainHeight(), jsonBlockList);
-
-            ListenableFuture<Void> future = executor.submit(() -> {
-                bsqStateFileManager.writeToDisc(Utilities.objectToJson(jsonBlocks), "blocks");
-                allJsonTxOutputs.forEach(jsonTxOutput -> txOutputFileManager.writeToDisc(Utilities.objectToJson(jsonTxOutput), jsonTxOutput.getId()));
-                jsonTxs.forEach(jsonTx -> txFileManager.writeToDisc(Utilities.objectToJson(jsonTx), jsonTx.getId()));
-                return null;
-            });
-
+                daoStateService.isParseBlockChainComplete() &&
+                daoStateService.getLastBlock().isPresent()) {
+            ListenableFuture<Void> future = exportToJson();
             Futures.addCallback(future, new FutureCallback<>() {
                 public void onSuccess(Void ignore) {
                 }
@@ -172,6 +164,188 @@ public class ExportJsonFilesService implements DaoSetupService {
         }
     }
 
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @VisibleForTesting
+    ListenableFuture<Void> exportToJson() {
+        long ts = System.currentTimeMillis();
+        // We store the data we need once we write the data to disk (in the thread) locally.
+        // Access to daoStateService is single threaded, we must not access daoStateService from the thread.
+        Block lastBlock = daoStateService.getLastBlock().orElseThrow();
+        boolean isFullExport = !canResumeFromLastExportState();
+        List<JsonTx> jsonTxs;
+        if (isFullExport) {
+            rebuildJsonBlockCache();
+            jsonTxs = jsonBlockCache.stream()
+                    .flatMap(jsonBlock -> jsonBlock.getTxs().stream())
+                    .collect(Collectors.toList());
+        } else {
+            List<Block> newBlocks = getBlocksAfter(lastExportState.getBlockHeight());
+            if (newBlocks.isEmpty() && !jsonBlockCache.isEmpty())
+                return Futures.immediateFuture(null);
+
+            Map<String, JsonTx> jsonTxById = getChangedTxIds(newBlocks).stream()
+                    .map(daoStateService::getTx)
+                    .flatMap(Optional::stream)
+                    .map(this::getJsonTx)
+                    .collect(Collectors.toMap(JsonTx::getId, jsonTx -> jsonTx, (a, b) -> a, LinkedHashMap::new));
+            if (jsonBlockCache.isEmpty())
+                rebuildJsonBlockCache();
+            else
+                updateJsonBlockCache(newBlocks, jsonTxById);
+            jsonTxs = new ArrayList<>(jsonTxById.values());
+        }
+        numExportedConfiscatedLockupTxs = daoStateService.getConfiscatedLockupTxList().size();
+
+        JsonBlocks jsonBlocks = new JsonBlocks(daoStateService.getChainHeight(), new ArrayList<>(jsonBlockCache));
+        JsonExportState exportState = new JsonExportState(lastBlock.getHeight(), lastBlock.getHash());
+        lastExportState = exportState;
+        log.info("Prepared {} json export of {} txs at block height {} in {} ms",
+                isFullExport ? "full" : "incremental", jsonTxs.size(), lastBlock.getHeight(),
+                System.currentTimeMillis() - ts);
+
+        return executor.submit(() -> {
+            if (isFullExport) {
+                // Txs of orphaned blocks must not remain in the export
+                recreateDir(txDir);
+                recreateDir(txOutputDir);
+                recreateDir(bsqStateDir);
+            }
+            jsonTxs.forEach(jsonTx -> jsonTx.getOutputs().forEach(jsonTxOutput ->
+                    txOutputFileManager.writeToDiscSync(jsonTxOutput, jsonTxOutput.getId())));
+            jsonTxs.forEach(jsonTx -> txFileManager.writeToDiscSync(jsonTx, jsonTx.getId()));
+            bsqStateFileManager.writeToDiscSync(jsonBlocks, "blocks");
+            // We write the export state last so that after a crash we export the same blocks again
+            exportStateFileManager.writeToDiscSync(exportState, EXPORT_STATE_FILE_NAME);
+            return null;
+        });
+    }
+
+    private boolean canResumeFromLastExportState() {
+        if (lastExportState == null)
+            return false;
+
+        // We iterate from the tip as the last export is usually at one of the last blocks
+        Iterator<Block> iterator = daoStateService.getBlocks().descendingIterator();
+        while (iterator.hasNext()) {
+            Block block = iterator.next();
+            if (block.getHeight() == lastExportState.getBlockHeight()) {
+                boolean isCacheValid = jsonBlockCache.isEmpty() ||
+                        jsonBlockCache.get(jsonBlockCache.size() - 1).getHeight() == block.getHeight();
+                return block.getHash().equals(lastExportState.getBlockHash()) && isCacheValid;
+            } else if (block.getHeight() < lastExportState.getBlockHeight()) {
+                break;
+            }
+        }
+        // The block of the last export is not in our chain anymore, e.g. after a reorg or a resync
+        return false;
+    }
+
+    // Returns the blocks with a height above the given height in ascending order
+    private List<Block> getBlocksAfter(int height) {
+        LinkedList<Block> blocks = new LinkedList<>();
+        Iterator<Block> iterator = daoStateService.getBlocks().descendingIterator();
+        while (iterator.hasNext()) {
+            Block block = iterator.next();
+            if (block.getHeight() <= height)
+                break;
+            blocks.addFirst(block);
+        }
+        return blocks;
+    }
+
+    private Set<String> getChangedTxIds(List<Block> newBlocks) {
+        Set<String> txIds = new HashSet<>();
+        newBlocks.forEach(block -> block.getTxs().forEach(tx -> {
+            txIds.add(tx.getId());
+            // The spent info and unspent state of the connected outputs have changed
+            tx.getTxInputs().forEach(txInput -> txIds.add(txInput.getConnectedTxOutputTxId()));
+        }));
+
+        // Issuance candidate outputs become BSQ outputs at the vote result
+        int fromHeight = newBlocks.isEmpty() ? Integer.MAX_VALUE : newBlocks.get(0).getHeight();
+        Stream.of(IssuanceType.COMPENSATION, IssuanceType.REIMBURSEMENT)
+                .flatMap(issuanceType -> daoStateService.getIssuanceSet(issuanceType).stream())
+                .filter(issuance -> issuance.getChainHeight() >= fromHeight)
+                .forEach(issuance -> txIds.add(issuance.getTxId()));
+
+        // Confiscated bonds are not unspent anymore
+        List<String> confiscatedLockupTxList = daoStateService.getConfiscatedLockupTxList();
+        confiscatedLockupTxList.subList(Math.min(numExportedConfiscatedLockupTxs, confiscatedLockupTxList.size()),
+                confiscatedLockupTxList.size())
+                .forEach(lockupTxId -> {
+                    txIds.add(lockupTxId);
+                    // If the bond was unlocking the unlock tx got confiscated as well
+                    daoStateService.getLockupTxOutput(lockupTxId)
+                            .flatMap(daoStateService::getSpentInfo)
+                            .ifPresent(spentInfo -> txIds.add(spentInfo.getTxId()));
+                });
+        return txIds;
+    }
+
+    private void rebuildJsonBlockCache() {
+        jsonBlockCache.clear();
+        // The finalized blocks are not kept in memory, so we request all blocks including the archived ones
+        int numBlocks = daoStateService.getChainHeight() - daoStateService.getGenesisBlockHeight() + 1;
+        daoStateService.getBlocksFromBlockHeight(daoStateService.getGenesisBlockHeight(), numBlocks)
+                .forEach(block -> jsonBlockCache.add(getJsonBlock(block)));
+    }
+
+    private void updateJsonBlockCache(List<Block> newBlocks, Map<String, JsonTx> jsonTxById) {
+        // We replace the changed txs of blocks we have already exported. Blocks have consecutive heights, so we can
+        // look up a block by its height.
+        int firstHeight = jsonBlockCache.get(0).getHeight();
+        Map<Integer, List<JsonTx>> changedJsonTxsByHeight = jsonTxById.values().stream()
+                .filter(jsonTx -> jsonTx.getBlockHeight() >= firstHeight &&
+                        jsonTx.getBlockHeight() - firstHeight < jsonBlockCache.size())
+                .collect(Collectors.groupingBy(JsonTx::getBlockHeight));
+        changedJsonTxsByHeight.forEach((height, changedJsonTxs) -> {
+            int index = height - firstHeight;
+            JsonBlock jsonBlock = jsonBlockCache.get(index);
+            Map<String, JsonTx> changedById = changedJsonTxs.stream()
+                    .collect(Collectors.toMap(JsonTx::getId, jsonTx -> jsonTx));
+            List<JsonTx> txs = jsonBlock.getTxs().stream()
+                    .map(jsonTx -> changedById.getOrDefault(jsonTx.getId(), jsonTx))
+                    .collect(Collectors.toList());
+            jsonBlockCache.set(index, new JsonBlock(jsonBlock.getHeight(),
+                    jsonBlock.getTime(),
+                    jsonBlock.getHash(),
+                    jsonBlock.getPreviousBlockHash(),
+                    txs));
+        });
+
+        newBlocks.forEach(block -> jsonBlockCache.add(new JsonBlock(block.getHeight(),
+                block.getTime(),
+                block.getHash(),
+                block.getPreviousBlockHash(),
+                block.getTxs().stream()
+                        .map(tx -> jsonTxById.get(tx.getId()))
+                        .collect(Collectors.toList()))));
+    }
+
+    @Nullable
+    private static JsonExportState readExportState(File file) {
+        if (!file.exists())
+            return null;
+
+        try (Reader reader = new FileReader(file)) {
+            return Utilities.getJsonGson().fromJson(reader, JsonExportState.class);
+        } catch (Throwable t) {
+            log.warn("Could not read the json export state. We export all files again. {}", t.toString());
+            return null;
+        }
+    }
+
+    private static void recreateDir(File dir) throws IOException {
+        if (dir.exists())
+            FileUtil.deleteDirectory(dir);
+        if (!dir.mkdir())
+            log.warn("make dir failed.\ndir=" + dir.getAbsolutePath());
+    }
+
     private JsonBlock getJsonBlock(Block block) {
         List<JsonTx> jsonTxs = block.getTxs().stream()
                 .map(this::getJsonTx)
@@ -64,6 +64,8 @@ public class FullNodeNetworkService implements MessageListener, PeerManager.List
 
     // Key is connection UID
     private final Map<String, GetBlocksRequestHandler> getBlocksRequestHandlers = new HashMap<>();
+    // Shared by all request handlers as lite nodes usually request the same blocks
+    private final RawBlockCache rawBlockCache = new RawBlockCache();
     private boolean stopped;
 
 
@@ -142,6 +144,7 @@ public class FullNodeNetworkService implements MessageListener, PeerManager.List
                 if (!getBlocksRequestHandlers.containsKey(uid)) {
                     GetBlocksRequestHandler requestHandler = new GetBlocksRequestHandler(networkNode,
                             daoStateService,
+                            rawBlockCache,
                             new GetBlocksRequestHandler.Listener() {
                                 @Override
                                 public void onComplete() {
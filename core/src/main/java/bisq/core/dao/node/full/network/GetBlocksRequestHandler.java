@@ -34,10 +34,9 @@ import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.SettableFuture;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -49,6 +48,8 @@ import org.jetbrains.annotations.NotNull;
 @Slf4j
 class GetBlocksRequestHandler {
     private static final long TIMEOUT = 120;
+    // We limit number of blocks to 6000 which is about 1.5 month.
+    private static final int MAX_BLOCKS = 6000;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -68,6 +69,7 @@ class GetBlocksRequestHandler {
 
     private final NetworkNode networkNode;
     private final DaoStateService daoStateService;
+    private final RawBlockCache rawBlockCache;
     private final Listener listener;
     private Timer timeoutTimer;
     private boolean stopped;
@@ -77,9 +79,13 @@ class GetBlocksRequestHandler {
     // Constructor
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    public GetBlocksRequestHandler(NetworkNode networkNode, DaoStateService daoStateService, Listener listener) {
+    public GetBlocksRequestHandler(NetworkNode networkNode,
+                                   DaoStateService daoStateService,
+                                   RawBlockCache rawBlockCache,
+                                   Listener listener) {
         this.networkNode = networkNode;
         this.daoStateService = daoStateService;
+        this.rawBlockCache = rawBlockCache;
         this.listener = listener;
     }
 
@@ -89,12 +95,23 @@ class GetBlocksRequestHandler {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public void onGetBlocksRequest(GetBlocksRequest getBlocksRequest, final Connection connection) {
-        // We limit number of blocks to 6000 which is about 1.5 month.
-        List<Block> blocks = new LinkedList<>(daoStateService.getBlocksFromBlockHeight(getBlocksRequest.getFromBlockHeight(), 6000));
-        List<RawBlock> rawBlocks = blocks.stream().map(RawBlock::fromBlock).collect(Collectors.toList());
-        GetBlocksResponse getBlocksResponse = new GetBlocksResponse(rawBlocks, getBlocksRequest.getNonce());
-        log.info("Received GetBlocksRequest from {} for blocks from height {}",
-                connection.getPeersNodeAddressOptional(), getBlocksRequest.getFromBlockHeight());
+        int fromBlockHeight = getBlocksRequest.getFromBlockHeight();
+        int toBlockHeight = getBlocksRequest.getToBlockHeight();
+        int maxNumBlocks = toBlockHeight > 0 ?
+                Math.max(0, Math.min(MAX_BLOCKS, toBlockHeight - fromBlockHeight + 1)) :
+                MAX_BLOCKS;
+        List<Block> blocks = daoStateService.getBlocksFromBlockHeight(fromBlockHeight, maxNumBlocks);
+        List<RawBlock> rawBlocks = new ArrayList<>(blocks.size());
+        List<protobuf.BaseBlock> rawBlockProtos = new ArrayList<>(blocks.size());
+        blocks.forEach(block -> {
+            RawBlockCache.Entry entry = rawBlockCache.get(block);
+            rawBlocks.add(entry.getRawBlock());
+            rawBlockProtos.add(entry.getProto());
+        });
+        GetBlocksResponse getBlocksResponse = new GetBlocksResponse(rawBlocks, rawBlockProtos, getBlocksRequest.getNonce());
+        log.info("Received GetBlocksRequest from {} for blocks from height {} to {}. {}",
+                connection.getPeersNodeAddressOptional(), fromBlockHeight,
+                toBlockHeight > 0 ? toBlockHeight : "max", rawBlockCache.getStats());
         if (timeoutTimer == null) {
             timeoutTimer = UserThread.runAfter(() -> {  // setup before sending to avoid race conditions
                         String errorMessage = "A timeout occurred for getBlocksResponse.requestNonce:" +
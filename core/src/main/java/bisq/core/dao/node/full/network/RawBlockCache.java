@@ -0,0 +1,90 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.dao.node.full.network;
+
+import bisq.core.dao.node.full.RawBlock;
+import bisq.core.dao.state.model.blockchain.Block;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded cache of the RawBlocks and their protobuf messages we send to lite nodes. After a release many lite nodes
+ * request about the same range of blocks, so we convert and serialize each block only once. Entries are keyed by
+ * height and are only used if the hash matches the requested block, so blocks replaced by a reorg get converted again.
+ * <p>
+ * Not thread safe, is expected to be used on the user thread.
+ */
+@Slf4j
+class RawBlockCache {
+    // Twice the max. number of blocks of a GetBlocksResponse
+    static final int DEFAULT_MAX_ENTRIES = 12000;
+
+    @Value
+    static class Entry {
+        private final RawBlock rawBlock;
+        // Built once so the serialized size is memoized
+        private final protobuf.BaseBlock proto;
+    }
+
+    private final Map<Integer, Entry> entryByHeight;
+    private int numHits;
+    private int numMisses;
+
+    RawBlockCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    RawBlockCache(int maxEntries) {
+        // Access order so we evict the least recently requested blocks
+        entryByHeight = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    Entry get(Block block) {
+        Entry entry = entryByHeight.get(block.getHeight());
+        if (entry != null && entry.getRawBlock().getHash().equals(block.getHash())) {
+            numHits++;
+            return entry;
+        }
+
+        numMisses++;
+        RawBlock rawBlock = RawBlock.fromBlock(block);
+        protobuf.BaseBlock proto = rawBlock.toProtoMessage();
+        proto.getSerializedSize();
+        entry = new Entry(rawBlock, proto);
+        entryByHeight.put(block.getHeight(), entry);
+        return entry;
+    }
+
+    int size() {
+        return entryByHeight.size();
+    }
+
+    String getStats() {
+        return "RawBlockCache{size=" + entryByHeight.size() + ", hits=" + numHits + ", misses=" + numMisses + "}";
+    }
+}
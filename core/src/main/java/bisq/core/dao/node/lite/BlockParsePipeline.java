@@ -0,0 +1,116 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.lite;
+
+import bisq.core.dao.node.full.RawBlock;
+import bisq.core.dao.node.parser.exceptions.RequiredReorgFromSnapshotException;
+import bisq.core.dao.state.DaoStateService;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Parses a list of blocks in chunks on the user thread. Each chunk parses blocks until the max. chunk duration is
+ * reached, then we yield to the user thread so the UI stays responsive. Clients of the DaoStateService get notified
+ * once per chunk instead of once per block.
+ */
+@Slf4j
+public class BlockParsePipeline {
+    public interface BlockHandler {
+        void parseBlock(RawBlock rawBlock) throws RequiredReorgFromSnapshotException;
+    }
+
+    // About 3 frames at 60 fps
+    public static final long DEFAULT_MAX_CHUNK_DURATION_MS = 50;
+
+    private final DaoStateService daoStateService;
+    private final BlockHandler blockHandler;
+    private final Executor userThreadExecutor;
+    private final long maxChunkDurationMs;
+    @Getter
+    private int numChunks;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public BlockParsePipeline(DaoStateService daoStateService,
+                              BlockHandler blockHandler,
+                              Executor userThreadExecutor,
+                              long maxChunkDurationMs) {
+        this.daoStateService = daoStateService;
+        this.blockHandler = blockHandler;
+        this.userThreadExecutor = userThreadExecutor;
+        this.maxChunkDurationMs = maxChunkDurationMs;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Parses the blocks in chunks and calls the resultHandler on the user thread after all blocks are parsed or after
+     * a block required a reorg from the last snapshot.
+     */
+    public void parseBlocks(List<RawBlock> blocks, Runnable resultHandler) {
+        Deque<RawBlock> pendingBlocks = new ArrayDeque<>(blocks);
+        userThreadExecutor.execute(() -> parseChunk(pendingBlocks, resultHandler));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void parseChunk(Deque<RawBlock> pendingBlocks, Runnable resultHandler) {
+        long ts = System.currentTimeMillis();
+        int numParsedBlocks = 0;
+        boolean requiresReorg = false;
+        daoStateService.onParseChunkStarted();
+        try {
+            // We parse at least one block per chunk
+            do {
+                RawBlock rawBlock = pendingBlocks.poll();
+                if (rawBlock == null)
+                    break;
+
+                blockHandler.parseBlock(rawBlock);
+                numParsedBlocks++;
+            } while (System.currentTimeMillis() - ts < maxChunkDurationMs);
+        } catch (RequiredReorgFromSnapshotException e) {
+            requiresReorg = true;
+        } finally {
+            daoStateService.onParseChunkComplete();
+        }
+        numChunks++;
+        log.debug("Parsed chunk of {} blocks in {} ms. {} blocks pending.", numParsedBlocks,
+                System.currentTimeMillis() - ts, pendingBlocks.size());
+
+        if (requiresReorg || pendingBlocks.isEmpty())
+            resultHandler.run();
+        else
+            userThreadExecutor.execute(() -> parseChunk(pendingBlocks, resultHandler));
+    }
+}
@@ -54,6 +54,7 @@ public class LiteNode extends BsqNode {
 
     private final LiteNodeNetworkService liteNodeNetworkService;
     private final BsqWalletService bsqWalletService;
+    private final BlockParsePipeline blockParsePipeline;
     private Timer checkForBlockReceivedTimer;
 
 
@@ -74,6 +75,10 @@ public class LiteNode extends BsqNode {
 
         this.liteNodeNetworkService = liteNodeNetworkService;
         this.bsqWalletService = bsqWalletService;
+        blockParsePipeline = new BlockParsePipeline(daoStateService,
+                this::doParseBlock,
+                UserThread::execute,
+                BlockParsePipeline.DEFAULT_MAX_CHUNK_DURATION_MS);
     }
 
 
@@ -158,7 +163,7 @@ public class LiteNode extends BsqNode {
     @Override
     protected void startParseBlocks() {
         log.info("startParseBlocks");
-        liteNodeNetworkService.requestBlocks(getStartBlockHeight());
+        liteNodeNetworkService.requestBlocks(getStartBlockHeight(), bsqWalletService.getBestChainHeight());
     }
 
     @Override
@@ -167,7 +172,7 @@ public class LiteNode extends BsqNode {
 
         int startBlockHeight = getStartBlockHeight();
         liteNodeNetworkService.reset();
-        liteNodeNetworkService.requestBlocks(startBlockHeight);
+        liteNodeNetworkService.requestBlocks(startBlockHeight, bsqWalletService.getBestChainHeight());
     }
 
 
@@ -182,7 +187,8 @@ public class LiteNode extends BsqNode {
             log.info("We received blocks from height {} to {}", blockList.get(0).getHeight(), chainTipHeight);
         }
 
-        // We delay the parsing to next render frame to avoid that the UI get blocked in case we parse a lot of blocks.
+        // We parse in chunks and yield to the user thread between the chunks to avoid that the UI get blocked in case
+        // we parse a lot of blocks.
         // Parsing itself is very fast (3 sec. for 7000 blocks) but creating the hash chain slows down batch processing a lot
         // (30 sec for 7000 blocks).
         // The updates at block height change are not much optimized yet, so that can be for sure improved
@@ -197,11 +203,11 @@ public class LiteNode extends BsqNode {
             return;
         }
 
-        runDelayedBatchProcessing(new ArrayList<>(blockList),
+        blockParsePipeline.parseBlocks(blockList,
                 () -> {
                     log.debug("Parsing {} blocks took {} seconds.", blockList.size(), (System.currentTimeMillis() - ts) / 1000d);
                     if (daoStateService.getChainHeight() < bsqWalletService.getBestChainHeight()) {
-                        liteNodeNetworkService.requestBlocks(getStartBlockHeight());
+                        liteNodeNetworkService.requestBlocks(getStartBlockHeight(), bsqWalletService.getBestChainHeight());
                     } else {
                         onParsingComplete.run();
                         onParseBlockChainComplete();
@@ -209,23 +215,6 @@ public class LiteNode extends BsqNode {
                 });
     }
 
-    private void runDelayedBatchProcessing(List<RawBlock> blocks, Runnable resultHandler) {
-        UserThread.execute(() -> {
-            if (blocks.isEmpty()) {
-                resultHandler.run();
-                return;
-            }
-
-            RawBlock block = blocks.remove(0);
-            try {
-                doParseBlock(block);
-                runDelayedBatchProcessing(blocks, resultHandler);
-            } catch (RequiredReorgFromSnapshotException e) {
-                resultHandler.run();
-            }
-        });
-    }
-
     // We received a new block
     private void onNewBlockReceived(RawBlock block) {
         int blockHeight = block.getHeight();
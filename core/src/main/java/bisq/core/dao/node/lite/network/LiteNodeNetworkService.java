@@ -17,6 +17,7 @@
 
 package bisq.core.dao.node.lite.network;
 
+import bisq.core.dao.node.full.RawBlock;
 import bisq.core.dao.node.messages.GetBlocksResponse;
 import bisq.core.dao.node.messages.NewBlockBroadcastMessage;
 import bisq.core.dao.state.model.blockchain.BaseTx;
@@ -33,6 +34,7 @@ import bisq.network.p2p.seed.SeedNodeRepository;
 
 import bisq.common.Timer;
 import bisq.common.UserThread;
+import bisq.common.app.Capability;
 import bisq.common.app.DevEnv;
 import bisq.common.proto.network.NetworkEnvelope;
 import bisq.common.util.Tuple2;
@@ -48,6 +50,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -97,6 +100,8 @@ public class LiteNodeNetworkService implements MessageListener, ConnectionListen
 
     // Key is tuple of seedNode address and requested blockHeight
     private final Map<Tuple2<NodeAddress, Integer>, RequestBlocksHandler> requestBlocksHandlerMap = new HashMap<>();
+    @Nullable
+    private RequestBlockWindowsHandler requestBlockWindowsHandler;
     private Timer retryTimer;
     private boolean stopped;
     private Set<String> receivedBlocks = new HashSet<>();
@@ -149,6 +154,11 @@ public class LiteNodeNetworkService implements MessageListener, ConnectionListen
      */
     public void requestBlocks(int startBlockHeight) {
         lastRequestedBlockHeight = startBlockHeight;
+        if (requestBlockWindowsHandler != null) {
+            log.info("We have a download of block windows running already. We ignore the requestBlocks call.");
+            return;
+        }
+
         Optional<Connection> connectionToSeedNodeOptional = networkNode.getConfirmedConnections().stream()
                 .filter(peerManager::isSeedNode)
                 .findAny();
@@ -160,11 +170,58 @@ public class LiteNodeNetworkService implements MessageListener, ConnectionListen
         }
     }
 
+    /**
+     * Requests the blocks up to the given chain height in windows from several full nodes in parallel if we are
+     * connected to more than one full node which supports it. Otherwise we request the blocks from a seed node.
+     *
+     * @param startBlockHeight      Block height from where we expect new blocks (current block height in bsqState + 1)
+     * @param chainHeight           Height of the best chain as known by our BTC wallet
+     */
+    public void requestBlocks(int startBlockHeight, int chainHeight) {
+        List<NodeAddress> peers = getFullNodesSupportingBlockRanges();
+        boolean isParallelDownloadUseful = peers.size() > 1 &&
+                chainHeight - startBlockHeight >= RequestBlockWindowsHandler.WINDOW_SIZE;
+        if (!isParallelDownloadUseful || requestBlockWindowsHandler != null || stopped) {
+            requestBlocks(startBlockHeight);
+            return;
+        }
+
+        lastRequestedBlockHeight = startBlockHeight;
+        requestBlockWindowsHandler = new RequestBlockWindowsHandler(peers,
+                startBlockHeight,
+                chainHeight,
+                this::requestBlockWindow,
+                RequestBlockWindowsHandler.DEFAULT_WINDOW_TIMEOUT_MS,
+                new RequestBlockWindowsHandler.Listener() {
+                    @Override
+                    public void onComplete(List<RawBlock> blocks) {
+                        requestBlockWindowsHandler = null;
+                        stopRetryTimer();
+                        if (startBlockHeight >= lastReceivedBlockHeight) {
+                            lastReceivedBlockHeight = startBlockHeight;
+                            GetBlocksResponse getBlocksResponse = new GetBlocksResponse(blocks, 0);
+                            listeners.forEach(listener -> listener.onRequestedBlocksReceived(getBlocksResponse,
+                                    LiteNodeNetworkService.this::onParsingComplete));
+                        }
+                    }
+
+                    @Override
+                    public void onFault(String errorMessage) {
+                        log.warn("Download of block windows failed. We request the blocks from a seed node. {}",
+                                errorMessage);
+                        requestBlockWindowsHandler = null;
+                        requestBlocks(startBlockHeight);
+                    }
+                });
+        requestBlockWindowsHandler.start();
+    }
+
     public void reset() {
         lastRequestedBlockHeight = 0;
         lastReceivedBlockHeight = 0;
         retryCounter = 0;
         requestBlocksHandlerMap.values().forEach(RequestBlocksHandler::cancel);
+        cancelRequestBlockWindowsHandler();
     }
 
 
@@ -274,11 +331,7 @@ public class LiteNodeNetworkService implements MessageListener, ConnectionListen
                                         lastReceivedBlockHeight = startBlockHeight;
 
                                         listeners.forEach(listener -> listener.onRequestedBlocksReceived(getBlocksResponse,
-                                                () -> {
-                                                    // After we received the blocks we allow to disconnect seed nodes.
-                                                    // We delay 20 seconds to allow multiple requests to finish.
-                                                    UserThread.runAfter(() -> peerManager.setAllowDisconnectSeedNodes(true), 20);
-                                                }));
+                                                LiteNodeNetworkService.this::onParsingComplete));
                                     } else {
                                         log.warn("We got a response which is already obsolete because we receive a " +
                                                 "response from a request with a higher block height. " +
@@ -331,6 +384,57 @@ public class LiteNodeNetworkService implements MessageListener, ConnectionListen
     // Utils
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // Full nodes which can send us a range of blocks
+    private List<NodeAddress> getFullNodesSupportingBlockRanges() {
+        return networkNode.getConfirmedConnections().stream()
+                .filter(connection -> peerManager.isSeedNode(connection) ||
+                        connection.getCapabilities().containsAll(Capability.DAO_FULL_NODE))
+                .filter(connection -> connection.getCapabilities().containsAll(Capability.GET_BLOCKS_RANGE))
+                .map(Connection::getPeersNodeAddressOptional)
+                .flatMap(Optional::stream)
+                .filter(nodeAddress -> !peerManager.isSelf(nodeAddress))
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    private Runnable requestBlockWindow(NodeAddress peer,
+                                        int fromBlockHeight,
+                                        int toBlockHeight,
+                                        Consumer<List<RawBlock>> resultHandler,
+                                        Consumer<String> faultHandler) {
+        RequestBlocksHandler handler = new RequestBlocksHandler(networkNode,
+                peerManager,
+                peer,
+                fromBlockHeight,
+                toBlockHeight,
+                new RequestBlocksHandler.Listener() {
+                    @Override
+                    public void onComplete(GetBlocksResponse getBlocksResponse) {
+                        resultHandler.accept(getBlocksResponse.getBlocks());
+                    }
+
+                    @Override
+                    public void onFault(String errorMessage, @Nullable Connection connection) {
+                        faultHandler.accept(errorMessage);
+                    }
+                });
+        handler.requestBlocks();
+        return handler::cancel;
+    }
+
+    private void onParsingComplete() {
+        // After we received the blocks we allow to disconnect seed nodes.
+        // We delay 20 seconds to allow multiple requests to finish.
+        UserThread.runAfter(() -> peerManager.setAllowDisconnectSeedNodes(true), 20);
+    }
+
+    private void cancelRequestBlockWindowsHandler() {
+        if (requestBlockWindowsHandler != null) {
+            requestBlockWindowsHandler.cancel();
+            requestBlockWindowsHandler = null;
+        }
+    }
+
     private void tryWithNewSeedNode(int startBlockHeight) {
         if (retryTimer == null) {
             retryCounter++;
@@ -397,6 +501,7 @@ public class LiteNodeNetworkService implements MessageListener, ConnectionListen
 
 
     private void closeAllHandlers() {
+        cancelRequestBlockWindowsHandler();
         requestBlocksHandlerMap.values().forEach(RequestBlocksHandler::cancel);
         requestBlocksHandlerMap.clear();
     }
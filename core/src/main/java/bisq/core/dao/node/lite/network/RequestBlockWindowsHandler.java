@@ -0,0 +1,367 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.lite.network;
+
+import bisq.core.dao.node.full.RawBlock;
+
+import bisq.network.p2p.NodeAddress;
+
+import bisq.common.Timer;
+import bisq.common.UserThread;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Downloads a range of blocks from several full nodes in parallel. The range is split into windows which are requested
+ * concurrently, one window per peer at a time. Each window is checked for consecutive heights and hash linkage when it
+ * arrives and against its neighbours when we reassemble the range in height order. Windows of a peer which fails, times
+ * out or sends invalid blocks are requested from another peer and the peer is not used anymore for that download.
+ * <p>
+ * All methods are expected to be called on the user thread.
+ */
+@Slf4j
+class RequestBlockWindowsHandler {
+    static final int WINDOW_SIZE = 500;
+    // Same limit as the full node uses for a GetBlocksRequest
+    static final int MAX_BLOCKS = 6000;
+    static final long DEFAULT_WINDOW_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(30);
+    private static final int MAX_ATTEMPTS_PER_WINDOW = 3;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Interfaces
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    interface BlocksRequester {
+        /**
+         * Requests the blocks from fromBlockHeight to toBlockHeight from the peer.
+         *
+         * @return Handler to cancel the request
+         */
+        Runnable requestBlocks(NodeAddress peer,
+                               int fromBlockHeight,
+                               int toBlockHeight,
+                               Consumer<List<RawBlock>> resultHandler,
+                               Consumer<String> faultHandler);
+    }
+
+    interface Listener {
+        // Blocks are in height order and linked by their hashes
+        void onComplete(List<RawBlock> blocks);
+
+        void onFault(String errorMessage);
+    }
+
+    private static class Window implements Comparable<Window> {
+        private final int fromBlockHeight;
+        private final int toBlockHeight;
+        private final Set<NodeAddress> triedPeers = new HashSet<>();
+        private int numAttempts;
+
+        private Window(int fromBlockHeight, int toBlockHeight) {
+            this.fromBlockHeight = fromBlockHeight;
+            this.toBlockHeight = toBlockHeight;
+        }
+
+        @Override
+        public int compareTo(Window other) {
+            return Integer.compare(fromBlockHeight, other.fromBlockHeight);
+        }
+
+        @Override
+        public String toString() {
+            return fromBlockHeight + "-" + toBlockHeight;
+        }
+    }
+
+    private static class ReceivedWindow {
+        private final Window window;
+        private final NodeAddress sender;
+        private final List<RawBlock> blocks;
+
+        private ReceivedWindow(Window window, NodeAddress sender, List<RawBlock> blocks) {
+            this.window = window;
+            this.sender = sender;
+            this.blocks = blocks;
+        }
+    }
+
+    private static class PendingRequest {
+        private final Window window;
+        private final Runnable cancelHandler;
+        private final Timer timeoutTimer;
+
+        private PendingRequest(Window window, Runnable cancelHandler, Timer timeoutTimer) {
+            this.window = window;
+            this.cancelHandler = cancelHandler;
+            this.timeoutTimer = timeoutTimer;
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Class fields
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private final List<NodeAddress> peers;
+    @Getter
+    private final int fromBlockHeight;
+    private final int toBlockHeight;
+    private final BlocksRequester blocksRequester;
+    private final long windowTimeoutMs;
+    private final Listener listener;
+
+    private final TreeSet<Window> pendingWindows = new TreeSet<>();
+    private final Map<NodeAddress, PendingRequest> pendingRequests = new HashMap<>();
+    // Windows which have been received and validated, by the height of their first block
+    private final TreeMap<Integer, ReceivedWindow> receivedWindows = new TreeMap<>();
+    // Height up to which the received windows are linked to each other
+    private int linkedToBlockHeight;
+    @Nullable
+    private String linkedBlockHash;
+    // Set if the last window was shorter than requested, so the peers do not have more blocks
+    private int chainTipHeight = Integer.MAX_VALUE;
+    private boolean stopped;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    RequestBlockWindowsHandler(List<NodeAddress> peers,
+                               int fromBlockHeight,
+                               int toBlockHeight,
+                               BlocksRequester blocksRequester,
+                               long windowTimeoutMs,
+                               Listener listener) {
+        this.peers = new ArrayList<>(peers);
+        this.fromBlockHeight = fromBlockHeight;
+        this.toBlockHeight = Math.min(toBlockHeight, fromBlockHeight + MAX_BLOCKS - 1);
+        this.blocksRequester = blocksRequester;
+        this.windowTimeoutMs = windowTimeoutMs;
+        this.listener = listener;
+        linkedToBlockHeight = fromBlockHeight - 1;
+
+        for (int height = fromBlockHeight; height <= this.toBlockHeight; height += WINDOW_SIZE) {
+            pendingWindows.add(new Window(height, Math.min(height + WINDOW_SIZE - 1, this.toBlockHeight)));
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void start() {
+        log.info("We request blocks from height {} to {} in {} windows from {} peers",
+                fromBlockHeight, toBlockHeight, pendingWindows.size(), peers.size());
+        assignWindows();
+    }
+
+    void cancel() {
+        stopped = true;
+        pendingRequests.values().forEach(pendingRequest -> {
+            pendingRequest.timeoutTimer.stop();
+            pendingRequest.cancelHandler.run();
+        });
+        pendingRequests.clear();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void assignWindows() {
+        for (NodeAddress peer : new ArrayList<>(peers)) {
+            if (stopped || pendingWindows.isEmpty())
+                return;
+
+            if (pendingRequests.containsKey(peer))
+                continue;
+
+            // We prefer windows the peer has not failed to deliver yet
+            Window window = pendingWindows.stream()
+                    .filter(candidate -> !candidate.triedPeers.contains(peer))
+                    .findFirst()
+                    .orElse(pendingWindows.first());
+            pendingWindows.remove(window);
+            requestWindow(peer, window);
+        }
+
+        if (pendingRequests.isEmpty() && !pendingWindows.isEmpty())
+            handleFault("No peers left to request blocks from height " + pendingWindows.first().fromBlockHeight);
+    }
+
+    private void requestWindow(NodeAddress peer, Window window) {
+        window.numAttempts++;
+        window.triedPeers.add(peer);
+        log.debug("We request blocks {} from peer {}", window, peer);
+        Timer timeoutTimer = UserThread.runAfter(() -> onWindowFault(peer, window,
+                "Timeout after " + windowTimeoutMs + " ms"), windowTimeoutMs, TimeUnit.MILLISECONDS);
+        Runnable cancelHandler = blocksRequester.requestBlocks(peer,
+                window.fromBlockHeight,
+                window.toBlockHeight,
+                blocks -> onWindowReceived(peer, window, blocks),
+                errorMessage -> onWindowFault(peer, window, errorMessage));
+        pendingRequests.put(peer, new PendingRequest(window, cancelHandler, timeoutTimer));
+    }
+
+    private void onWindowReceived(NodeAddress peer, Window window, List<RawBlock> blocks) {
+        if (!isPendingRequest(peer, window))
+            return;
+
+        PendingRequest pendingRequest = pendingRequests.remove(peer);
+        pendingRequest.timeoutTimer.stop();
+
+        // Full nodes which do not support Capability.GET_BLOCKS_RANGE send more blocks than requested
+        List<RawBlock> windowBlocks = new ArrayList<>();
+        for (RawBlock block : blocks) {
+            if (block.getHeight() > window.toBlockHeight)
+                break;
+            windowBlocks.add(block);
+        }
+
+        Optional<String> errorMessage = validateWindow(window, windowBlocks);
+        if (errorMessage.isPresent()) {
+            excludePeer(peer, window, errorMessage.get());
+            return;
+        }
+
+        int lastHeight = windowBlocks.isEmpty() ?
+                window.fromBlockHeight - 1 :
+                windowBlocks.get(windowBlocks.size() - 1).getHeight();
+        if (lastHeight < window.toBlockHeight) {
+            // The peer does not have all blocks we requested, which is expected for the last window if the peer has
+            // not parsed the latest blocks yet.
+            if (window.toBlockHeight != toBlockHeight) {
+                excludePeer(peer, window, "Peer sent only blocks up to height " + lastHeight);
+                return;
+            }
+            chainTipHeight = Math.min(chainTipHeight, lastHeight);
+        }
+
+        receivedWindows.put(window.fromBlockHeight, new ReceivedWindow(window, peer, windowBlocks));
+        linkReceivedWindows();
+        if (!stopped) {
+            assignWindows();
+            maybeComplete();
+        }
+    }
+
+    private void onWindowFault(NodeAddress peer, Window window, String errorMessage) {
+        if (!isPendingRequest(peer, window))
+            return;
+
+        PendingRequest pendingRequest = pendingRequests.remove(peer);
+        pendingRequest.timeoutTimer.stop();
+        pendingRequest.cancelHandler.run();
+        excludePeer(peer, window, errorMessage);
+    }
+
+    // A response or fault of an earlier request to that peer must not be applied to the current one
+    private boolean isPendingRequest(NodeAddress peer, Window window) {
+        PendingRequest pendingRequest = pendingRequests.get(peer);
+        return !stopped && pendingRequest != null && pendingRequest.window == window;
+    }
+
+    // The window gets requested from another peer and we do not request more windows from that peer
+    private void excludePeer(NodeAddress peer, Window window, String errorMessage) {
+        log.warn("Request of blocks {} from peer {} failed. We try another peer. {}", window, peer, errorMessage);
+        peers.remove(peer);
+        if (window.numAttempts >= MAX_ATTEMPTS_PER_WINDOW) {
+            handleFault("Request of blocks " + window + " failed " + window.numAttempts + " times");
+            return;
+        }
+
+        pendingWindows.add(window);
+        assignWindows();
+    }
+
+    private Optional<String> validateWindow(Window window, List<RawBlock> blocks) {
+        int expectedHeight = window.fromBlockHeight;
+        String previousBlockHash = null;
+        for (RawBlock block : blocks) {
+            if (block.getHeight() != expectedHeight)
+                return Optional.of("Expected block at height " + expectedHeight + " but got " + block.getHeight());
+            if (previousBlockHash != null && !previousBlockHash.equals(block.getPreviousBlockHash()))
+                return Optional.of("Block at height " + block.getHeight() + " does not link to its previous block");
+
+            previousBlockHash = block.getHash();
+            expectedHeight++;
+        }
+        return Optional.empty();
+    }
+
+    // We link the received windows in height order. If a window does not link to its predecessor we request it again
+    // from another peer.
+    private void linkReceivedWindows() {
+        ReceivedWindow receivedWindow;
+        while ((receivedWindow = receivedWindows.get(linkedToBlockHeight + 1)) != null &&
+                !receivedWindow.blocks.isEmpty()) {
+            List<RawBlock> blocks = receivedWindow.blocks;
+            RawBlock firstBlock = blocks.get(0);
+            if (linkedBlockHash != null && !linkedBlockHash.equals(firstBlock.getPreviousBlockHash())) {
+                receivedWindows.remove(firstBlock.getHeight());
+                excludePeer(receivedWindow.sender, receivedWindow.window,
+                        "Blocks do not link to the blocks before height " + firstBlock.getHeight());
+                return;
+            }
+
+            RawBlock lastBlock = blocks.get(blocks.size() - 1);
+            linkedToBlockHeight = lastBlock.getHeight();
+            linkedBlockHash = lastBlock.getHash();
+        }
+    }
+
+    private void maybeComplete() {
+        int completeToBlockHeight = Math.min(toBlockHeight, chainTipHeight);
+        if (linkedToBlockHeight < completeToBlockHeight)
+            return;
+
+        cancel();
+        List<RawBlock> blocks = new ArrayList<>();
+        receivedWindows.headMap(completeToBlockHeight, true).values()
+                .forEach(receivedWindow -> blocks.addAll(receivedWindow.blocks));
+        log.info("We received {} blocks from height {} to {}", blocks.size(), fromBlockHeight, completeToBlockHeight);
+        listener.onComplete(blocks);
+    }
+
+    private void handleFault(String errorMessage) {
+        if (stopped)
+            return;
+
+        cancel();
+        listener.onFault(errorMessage);
+    }
+}
@@ -75,6 +75,8 @@ public class RequestBlocksHandler implements MessageListener {
     private final NodeAddress nodeAddress;
     @Getter
     private final int startBlockHeight;
+    // 0 if we request all blocks the peer is willing to send
+    private final int toBlockHeight;
     private final Listener listener;
     private Timer timeoutTimer;
     private final int nonce = new Random().nextInt();
@@ -90,10 +92,20 @@ public class RequestBlocksHandler implements MessageListener {
                                 NodeAddress nodeAddress,
                                 int startBlockHeight,
                                 Listener listener) {
+        this(networkNode, peerManager, nodeAddress, startBlockHeight, 0, listener);
+    }
+
+    public RequestBlocksHandler(NetworkNode networkNode,
+                                PeerManager peerManager,
+                                NodeAddress nodeAddress,
+                                int startBlockHeight,
+                                int toBlockHeight,
+                                Listener listener) {
         this.networkNode = networkNode;
         this.peerManager = peerManager;
         this.nodeAddress = nodeAddress;
         this.startBlockHeight = startBlockHeight;
+        this.toBlockHeight = toBlockHeight;
         this.listener = listener;
     }
 
@@ -108,7 +120,8 @@ public class RequestBlocksHandler implements MessageListener {
 
     public void requestBlocks() {
         if (!stopped) {
-            GetBlocksRequest getBlocksRequest = new GetBlocksRequest(startBlockHeight, nonce, networkNode.getNodeAddress());
+            GetBlocksRequest getBlocksRequest = new GetBlocksRequest(startBlockHeight, toBlockHeight, nonce,
+                    networkNode.getNodeAddress());
             log.debug("getBlocksRequest " + getBlocksRequest);
             if (timeoutTimer == null) {
                 timeoutTimer = UserThread.runAfter(() -> {  // setup before sending to avoid race conditions
@@ -46,6 +46,8 @@ import javax.annotation.Nullable;
 public final class GetBlocksRequest extends NetworkEnvelope implements DirectMessage, SendersNodeAddressMessage,
         /*CapabilityRequiringPayload, */SupportedCapabilitiesMessage {
     private final int fromBlockHeight;
+    // Added with Capability.GET_BLOCKS_RANGE. 0 if not set, older full nodes ignore it.
+    private final int toBlockHeight;
     private final int nonce;
 
     // Added after version 1.0.1. Can be null if received from older clients.
@@ -59,7 +61,15 @@ public final class GetBlocksRequest extends NetworkEnvelope implements DirectMes
     public GetBlocksRequest(int fromBlockHeight,
                             int nonce,
                             @Nullable NodeAddress senderNodeAddress) {
+        this(fromBlockHeight, 0, nonce, senderNodeAddress);
+    }
+
+    public GetBlocksRequest(int fromBlockHeight,
+                            int toBlockHeight,
+                            int nonce,
+                            @Nullable NodeAddress senderNodeAddress) {
         this(fromBlockHeight,
+                toBlockHeight,
                 nonce,
                 senderNodeAddress,
                 Capabilities.app,
@@ -72,12 +82,14 @@ public final class GetBlocksRequest extends NetworkEnvelope implements DirectMes
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private GetBlocksRequest(int fromBlockHeight,
+                             int toBlockHeight,
                              int nonce,
                              @Nullable NodeAddress senderNodeAddress,
                              @Nullable Capabilities supportedCapabilities,
                              int messageVersion) {
         super(messageVersion);
         this.fromBlockHeight = fromBlockHeight;
+        this.toBlockHeight = toBlockHeight;
         this.nonce = nonce;
         this.senderNodeAddress = senderNodeAddress;
         this.supportedCapabilities = supportedCapabilities;
@@ -87,6 +99,7 @@ public final class GetBlocksRequest extends NetworkEnvelope implements DirectMes
     public protobuf.NetworkEnvelope toProtoNetworkEnvelope() {
         protobuf.GetBlocksRequest.Builder builder = protobuf.GetBlocksRequest.newBuilder()
                 .setFromBlockHeight(fromBlockHeight)
+                .setToBlockHeight(toBlockHeight)
                 .setNonce(nonce);
         Optional.ofNullable(senderNodeAddress).ifPresent(e -> builder.setSenderNodeAddress(e.toProtoMessage()));
         Optional.ofNullable(supportedCapabilities).ifPresent(e -> builder.addAllSupportedCapabilities(Capabilities.toIntList(supportedCapabilities)));
@@ -102,6 +115,7 @@ public final class GetBlocksRequest extends NetworkEnvelope implements DirectMes
                 null :
                 Capabilities.fromIntList(proto.getSupportedCapabilitiesList());
         return new GetBlocksRequest(proto.getFromBlockHeight(),
+                proto.getToBlockHeight(),
                 proto.getNonce(),
                 senderNodeAddress,
                 supportedCapabilities,
@@ -117,6 +131,7 @@ public final class GetBlocksRequest extends NetworkEnvelope implements DirectMes
     public String toString() {
         return "GetBlocksRequest{" +
                 "\n     fromBlockHeight=" + fromBlockHeight +
+                ",\n     toBlockHeight=" + toBlockHeight +
                 ",\n     nonce=" + nonce +
                 ",\n     senderNodeAddress=" + senderNodeAddress +
                 ",\n     supportedCapabilities=" + supportedCapabilities +
@@ -29,19 +29,33 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 @EqualsAndHashCode(callSuper = true)
 @Getter
 @Slf4j
 public final class GetBlocksResponse extends NetworkEnvelope implements DirectMessage, ExtendedDataSizePermission {
     private final List<RawBlock> blocks;
     private final int requestNonce;
+    // Protobuf messages of the blocks, set by the full node if it has them cached. Not sent over the wire as a separate
+    // field.
+    @Nullable
+    @EqualsAndHashCode.Exclude
+    @Getter(AccessLevel.NONE)
+    private final List<protobuf.BaseBlock> rawBlockProtos;
 
     public GetBlocksResponse(List<RawBlock> blocks, int requestNonce) {
-        this(blocks, requestNonce, Version.getP2PMessageVersion());
+        this(blocks, null, requestNonce, Version.getP2PMessageVersion());
+    }
+
+    // Used by the full node which has the protobuf messages of the blocks already built
+    public GetBlocksResponse(List<RawBlock> blocks, List<protobuf.BaseBlock> rawBlockProtos, int requestNonce) {
+        this(blocks, rawBlockProtos, requestNonce, Version.getP2PMessageVersion());
     }
 
 
@@ -49,9 +63,13 @@ public final class GetBlocksResponse extends NetworkEnvelope implements DirectMe
     // PROTO BUFFER
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private GetBlocksResponse(List<RawBlock> blocks, int requestNonce, int messageVersion) {
+    private GetBlocksResponse(List<RawBlock> blocks,
+                              @Nullable List<protobuf.BaseBlock> rawBlockProtos,
+                              int requestNonce,
+                              int messageVersion) {
         super(messageVersion);
         this.blocks = blocks;
+        this.rawBlockProtos = rawBlockProtos;
         this.requestNonce = requestNonce;
     }
 
@@ -59,9 +77,11 @@ public final class GetBlocksResponse extends NetworkEnvelope implements DirectMe
     public protobuf.NetworkEnvelope toProtoNetworkEnvelope() {
         protobuf.NetworkEnvelope proto = getNetworkEnvelopeBuilder()
                 .setGetBlocksResponse(protobuf.GetBlocksResponse.newBuilder()
-                        .addAllRawBlocks(blocks.stream()
-                                .map(RawBlock::toProtoMessage)
-                                .collect(Collectors.toList()))
+                        .addAllRawBlocks(rawBlockProtos != null ?
+                                rawBlockProtos :
+                                blocks.stream()
+                                        .map(RawBlock::toProtoMessage)
+                                        .collect(Collectors.toList()))
                         .setRequestNonce(requestNonce))
                 .build();
         log.info("Sending a GetBlocksResponse with {} kB", proto.getSerializedSize() / 1000d);
@@ -76,6 +96,7 @@ public final class GetBlocksResponse extends NetworkEnvelope implements DirectMe
         return new GetBlocksResponse(proto.getRawBlocksList().isEmpty() ?
                 new ArrayList<>() :
                 list,
+                null,
                 proto.getRequestNonce(),
                 messageVersion);
     }
@@ -24,6 +24,9 @@ import bisq.core.dao.state.DaoStateService;
 import bisq.core.dao.state.model.blockchain.Block;
 
 import bisq.common.app.DevEnv;
+import bisq.common.metrics.Counter;
+import bisq.common.metrics.Histogram;
+import bisq.common.metrics.MetricsRegistry;
 
 import org.bitcoinj.core.Coin;
 
@@ -42,6 +45,11 @@ import javax.annotation.concurrent.Immutable;
 @Slf4j
 @Immutable
 public class BlockParser {
+    private static final Histogram parseBlockDurations = MetricsRegistry.getDefault().histogram(
+            "bisq_dao_parse_block_microseconds", "Duration of parsing a block including its BSQ txs");
+    private static final Counter parsedTxs = MetricsRegistry.getDefault().counter(
+            "bisq_dao_parsed_txs_total", "Raw txs passed to the tx parser");
+
     private final TxParser txParser;
     private final DaoStateService daoStateService;
     private final String genesisTxId;
@@ -103,6 +111,7 @@ public class BlockParser {
         // one get resolved.
         // Lately there is a patter with 24 iterations observed
         long startTs = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
 
         rawBlock.getRawTxs().forEach(rawTx ->
                 txParser.findTx(rawTx,
@@ -115,6 +124,8 @@ public class BlockParser {
                 blockHeight, System.currentTimeMillis() - startTs);
 
         daoStateService.onParseBlockComplete(block);
+        parsedTxs.add(rawBlock.getRawTxs().size());
+        parseBlockDurations.record((System.nanoTime() - startNanos) / 1000);
         return block;
     }
 
@@ -0,0 +1,293 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.dao.state;
+
+import bisq.core.dao.state.model.blockchain.Block;
+
+import bisq.common.storage.FileUtil;
+import bisq.common.storage.Storage;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only archive of finalized blocks. Blocks are stored as length delimited protobuf messages in segment files
+ * which contain SEGMENT_SIZE consecutive heights each. Finalized blocks never change, so we only append to the last
+ * segment and only read the segments which are needed.
+ * <p>
+ * The archive does not know which blocks are finalized. The DaoStateStorageService archives blocks which are older
+ * than the configured depth and truncates the archive if it is ahead of the persisted snapshot. Archived blocks are
+ * not kept in memory, so the DaoStateService reads blocks at archived heights from here.
+ */
+@Slf4j
+public class DaoStateBlockArchive {
+    static final int SEGMENT_SIZE = 1000;
+    static final String DIR_NAME = "DaoStateBlockArchive";
+    private static final String SEGMENT_FILE_PREFIX = "BlockSegment_";
+
+    private final File directory;
+    // Height of the last archived block, 0 if the archive is empty and -1 if not read yet
+    private int tipHeight = -1;
+    // Lookups of archived blocks are usually for consecutive heights (e.g. block requests of lite nodes), so we keep
+    // the last read segment.
+    private int cachedSegmentStartHeight = -1;
+    private List<Block> cachedSegment = new ArrayList<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Inject
+    public DaoStateBlockArchive(@Named(Storage.STORAGE_DIR) File storageDir) {
+        this.directory = new File(storageDir, DIR_NAME);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public synchronized int getTipHeight() {
+        if (tipHeight < 0)
+            tipHeight = readTipHeight();
+        return tipHeight;
+    }
+
+    /**
+     * Appends the blocks to the archive. The first block must follow the tip of the archive and the blocks must have
+     * consecutive heights. The data is synced to disc before we return.
+     */
+    public synchronized void append(List<Block> blocks) throws IOException {
+        int expectedHeight = getTipHeight() > 0 ? getTipHeight() + 1 : -1;
+        for (Block block : blocks) {
+            if (expectedHeight != -1 && block.getHeight() != expectedHeight)
+                throw new IllegalArgumentException("Block at height " + block.getHeight() +
+                        " does not connect to the archive. Expected height " + expectedHeight);
+            expectedHeight = block.getHeight() + 1;
+        }
+
+        if (!directory.exists() && !directory.mkdirs())
+            throw new IOException("Could not create directory " + directory);
+
+        int i = 0;
+        while (i < blocks.size()) {
+            int segmentStartHeight = getSegmentStartHeight(blocks.get(i).getHeight());
+            List<Block> segmentBlocks = new ArrayList<>();
+            while (i < blocks.size() && getSegmentStartHeight(blocks.get(i).getHeight()) == segmentStartHeight) {
+                segmentBlocks.add(blocks.get(i));
+                i++;
+            }
+            writeBlocks(getSegmentFile(segmentStartHeight), segmentBlocks, true);
+            tipHeight = blocks.get(i - 1).getHeight();
+            if (segmentStartHeight == cachedSegmentStartHeight)
+                clearCachedSegment();
+        }
+    }
+
+    /**
+     * Returns the archived block at the given height or an empty Optional if the height is not archived.
+     */
+    public synchronized Optional<Block> readBlock(int height) throws IOException {
+        if (height <= 0 || height > getTipHeight())
+            return Optional.empty();
+
+        return getSegment(getSegmentStartHeight(height)).stream()
+                .filter(block -> block.getHeight() == height)
+                .findAny();
+    }
+
+    /**
+     * Returns the archived blocks from fromHeight to toHeight (both inclusive) in ascending order. Only the segments
+     * which contain these heights are read.
+     */
+    public synchronized List<Block> readBlocks(int fromHeight, int toHeight) throws IOException {
+        List<Block> result = new ArrayList<>();
+        int lastHeight = Math.min(toHeight, getTipHeight());
+        for (int segmentStartHeight : getSegmentStartHeights()) {
+            if (segmentStartHeight > lastHeight)
+                break;
+            if (segmentStartHeight + SEGMENT_SIZE <= fromHeight)
+                continue;
+
+            for (Block block : getSegment(segmentStartHeight)) {
+                if (block.getHeight() > lastHeight)
+                    break;
+                if (block.getHeight() >= fromHeight)
+                    result.add(block);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns all archived blocks up to the given height in ascending order.
+     */
+    public synchronized List<Block> readBlocks(int toHeight) throws IOException {
+        List<Block> result = new ArrayList<>();
+        for (int segmentStartHeight : getSegmentStartHeights()) {
+            if (segmentStartHeight > toHeight)
+                break;
+
+            for (Block block : readSegment(getSegmentFile(segmentStartHeight), false)) {
+                if (block.getHeight() > toHeight)
+                    break;
+                result.add(block);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Removes all blocks above the given height.
+     */
+    public synchronized void truncate(int height) throws IOException {
+        for (int segmentStartHeight : getSegmentStartHeights()) {
+            File segmentFile = getSegmentFile(segmentStartHeight);
+            if (segmentStartHeight > height) {
+                FileUtil.deleteFileIfExists(segmentFile);
+            } else if (segmentStartHeight + SEGMENT_SIZE > height) {
+                // We rewrite the new last segment via a temp file so that we never lose blocks below the height
+                List<Block> blocks = readSegment(segmentFile, false).stream()
+                        .filter(block -> block.getHeight() <= height)
+                        .collect(Collectors.toList());
+                File tempFile = new File(directory, segmentFile.getName() + ".tmp");
+                writeBlocks(tempFile, blocks, false);
+                FileUtil.renameFile(tempFile, segmentFile);
+            }
+        }
+        clearCachedSegment();
+        tipHeight = readTipHeight();
+        log.info("Truncated block archive to height {}", tipHeight);
+    }
+
+    public synchronized void clear() throws IOException {
+        for (int segmentStartHeight : getSegmentStartHeights()) {
+            FileUtil.deleteFileIfExists(getSegmentFile(segmentStartHeight));
+        }
+        clearCachedSegment();
+        tipHeight = 0;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private int readTipHeight() {
+        List<Integer> segmentStartHeights = getSegmentStartHeights();
+        for (int i = segmentStartHeights.size() - 1; i >= 0; i--) {
+            try {
+                // A crash while appending can leave an incomplete block at the end of the last segment
+                List<Block> blocks = readSegment(getSegmentFile(segmentStartHeights.get(i)), true);
+                if (!blocks.isEmpty())
+                    return blocks.get(blocks.size() - 1).getHeight();
+            } catch (IOException e) {
+                log.error("Could not read block archive segment starting at height {}: {}",
+                        segmentStartHeights.get(i), e.toString());
+            }
+        }
+        return 0;
+    }
+
+    private List<Block> getSegment(int segmentStartHeight) throws IOException {
+        if (segmentStartHeight != cachedSegmentStartHeight) {
+            File segmentFile = getSegmentFile(segmentStartHeight);
+            cachedSegment = segmentFile.exists() ? readSegment(segmentFile, false) : new ArrayList<>();
+            cachedSegmentStartHeight = segmentStartHeight;
+        }
+        return cachedSegment;
+    }
+
+    private void clearCachedSegment() {
+        cachedSegmentStartHeight = -1;
+        cachedSegment = new ArrayList<>();
+    }
+
+    private static void writeBlocks(File file, List<Block> blocks, boolean append) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(file, append)) {
+            for (Block block : blocks) {
+                block.toProtoMessage().writeDelimitedTo(out);
+            }
+            out.flush();
+            out.getFD().sync();
+        }
+    }
+
+    private List<Block> readSegment(File segmentFile, boolean removeIncompleteTail) throws IOException {
+        byte[] bytes = Files.readAllBytes(segmentFile.toPath());
+        ByteArrayInputStream in = new ByteArrayInputStream(bytes);
+        List<Block> blocks = new ArrayList<>();
+        int validLength = 0;
+        try {
+            protobuf.BaseBlock proto;
+            while ((proto = protobuf.BaseBlock.parseDelimitedFrom(in)) != null) {
+                blocks.add(Block.fromProto(proto));
+                validLength = bytes.length - in.available();
+            }
+        } catch (IOException e) {
+            if (!removeIncompleteTail)
+                throw e;
+
+            log.warn("Block archive segment {} has an incomplete block at its end. We remove it.",
+                    segmentFile.getName());
+            try (FileChannel channel = FileChannel.open(segmentFile.toPath(), StandardOpenOption.WRITE)) {
+                channel.truncate(validLength);
+            }
+        }
+        return blocks;
+    }
+
+    private List<Integer> getSegmentStartHeights() {
+        File[] files = directory.listFiles((dir, name) -> name.matches(SEGMENT_FILE_PREFIX + "\\d+"));
+        if (files == null)
+            return new ArrayList<>();
+
+        return Arrays.stream(files)
+                .map(file -> Integer.parseInt(file.getName().substring(SEGMENT_FILE_PREFIX.length())))
+                .sorted(Comparator.naturalOrder())
+                .collect(Collectors.toList());
+    }
+
+    private File getSegmentFile(int segmentStartHeight) {
+        return new File(directory, SEGMENT_FILE_PREFIX + segmentStartHeight);
+    }
+
+    private static int getSegmentStartHeight(int height) {
+        return height - height % SEGMENT_SIZE;
+    }
+}
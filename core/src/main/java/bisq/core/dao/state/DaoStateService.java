@@ -38,15 +38,24 @@ import bisq.core.dao.state.model.governance.ParamChange;
 import bisq.core.util.ParsingUtils;
 import bisq.core.util.coin.BsqFormatter;
 
+import bisq.common.util.Utilities;
+
 import org.bitcoinj.core.Coin;
 
 import javax.inject.Inject;
 
+import java.io.IOException;
+
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
@@ -69,10 +78,38 @@ public class DaoStateService implements DaoSetupService {
     private final DaoState daoState;
     private final GenesisTxInfo genesisTxInfo;
     private final BsqFormatter bsqFormatter;
+    private final DaoStateBlockArchive blockArchive;
     private final List<DaoStateListener> daoStateListeners = new CopyOnWriteArrayList<>();
     @Getter
     private boolean parseBlockChainComplete;
     private boolean allowDaoStateChange;
+    // While a chunk of blocks gets parsed we notify the clients only once for the last block of the chunk
+    private boolean isParsingChunk;
+    @Nullable
+    private Block lastParsedBlockOfChunk;
+
+    // Transient indexes and running totals derived from the txs in the txCache and the confiscatedLockupTxList.
+    // They are updated at onNewTxForLastBlock and doConfiscateBond and get rebuilt when a snapshot is applied.
+    // As TxOutputs are immutable an indexed txOutput never changes its txOutputType.
+    private final Map<TxOutputType, Set<TxOutput>> txOutputsByTxOutputType = new EnumMap<>(TxOutputType.class);
+    private final Set<String> confiscatedLockupTxIdSet = new HashSet<>();
+    // Lockup txIds by the hex encoded hash of the bonded asset which is stored in the OP_RETURN output of the lockup tx
+    private final Map<String, List<String>> lockupTxIdsByBondHash = new HashMap<>();
+    // Hashes of the blocks in the daoState, so we don't need to iterate all blocks when we parse a new block. Archived
+    // blocks are not included, but a new block at an archived height is already rejected by its height.
+    private final Set<String> blockHashes = new HashSet<>();
+    private long totalBurntFee;
+    private long totalBurntBsq;
+    private long totalInvalidatedBsq;
+    private long totalAmountOfLockupTxOutputsInclConfiscated;
+    private long totalAmountOfConfiscatedLockupTxOutputs;
+    private long totalAmountOfConfiscatedTxOutputs;
+
+    // The unlocking and unlocked amounts depend on the chain height and the unspent state, so we cache them per
+    // chain height and invalidate the cache whenever the unspent state or the confiscated bonds change.
+    private long totalAmountOfUnLockingTxOutputs;
+    private long totalAmountOfUnLockedTxOutputs;
+    private int unlockTotalsChainHeight = -1;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -80,10 +117,16 @@ public class DaoStateService implements DaoSetupService {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     @Inject
-    public DaoStateService(DaoState daoState, GenesisTxInfo genesisTxInfo, BsqFormatter bsqFormatter) {
+    public DaoStateService(DaoState daoState,
+                           GenesisTxInfo genesisTxInfo,
+                           BsqFormatter bsqFormatter,
+                           DaoStateBlockArchive blockArchive) {
         this.daoState = daoState;
         this.genesisTxInfo = genesisTxInfo;
         this.bsqFormatter = bsqFormatter;
+        this.blockArchive = blockArchive;
+
+        rebuildIndexes();
     }
 
 
@@ -143,6 +186,8 @@ public class DaoStateService implements DaoSetupService {
 
         daoState.getDecryptedBallotsWithMeritsList().clear();
         daoState.getDecryptedBallotsWithMeritsList().addAll(snapshot.getDecryptedBallotsWithMeritsList());
+
+        rebuildIndexes();
     }
 
     public DaoState getClone() {
@@ -153,6 +198,24 @@ public class DaoStateService implements DaoSetupService {
         return DaoState.getClone(snapshotCandidate);
     }
 
+    DaoState getClone(int fromBlockHeight) {
+        return DaoState.getClone(daoState, fromBlockHeight);
+    }
+
+    // Blocks up to the archived height are served from the block archive, so we only keep the blocks above it in
+    // memory. Their txs stay in the txCache.
+    void onBlocksArchived(int archivedBlockHeight) {
+        Iterator<Block> iterator = getBlocks().iterator();
+        while (iterator.hasNext()) {
+            Block block = iterator.next();
+            if (block.getHeight() > archivedBlockHeight)
+                break;
+
+            iterator.remove();
+            blockHashes.remove(block.getHash());
+        }
+    }
+
     public byte[] getSerializedStateForHashChain() {
         return daoState.getSerializedStateForHashChain();
     }
@@ -222,6 +285,7 @@ public class DaoStateService implements DaoSetupService {
                     "That might happen in edge cases at reorgs. Received block={}", block);
         } else {
             daoState.getBlocks().add(block);
+            blockHashes.add(block.getHash());
 
             if (parseBlockChainComplete)
                 log.info("New Block added at blockHeight {}", block.getHeight());
@@ -235,8 +299,12 @@ public class DaoStateService implements DaoSetupService {
         getLastBlock().ifPresent(lastBlock -> {
             if (block == lastBlock) {
                 // We need to ensure that the txs in all blocks are in sync with the txs in our txMap (cache).
+                // The txCache ignores duplicates, so we only add the tx to our indexes if it is new.
+                boolean isNewTx = !daoState.getTxCache().containsKey(tx.getId());
                 block.addTx(tx);
                 daoState.addToTxCache(tx);
+                if (isNewTx)
+                    addTxToIndexes(tx);
             } else {
                 // Not clear if this case can happen but at onNewBlockWithEmptyTxs we handle such a potential edge
                 // case as well, so we need to reflect that here as well.
@@ -251,6 +319,10 @@ public class DaoStateService implements DaoSetupService {
         if (parseBlockChainComplete)
             log.info("Parse block completed: Block height {}, {} BSQ transactions.", block.getHeight(), block.getTxs().size());
 
+        // All state changes of that block are applied, so we update the cached unlock totals once before listeners
+        // start to query them.
+        updateUnlockTotalsIfStale();
+
         // Need to be called before onParseTxsCompleteAfterBatchProcessing as we use it in
         // VoteResult and other listeners like balances usually listen on onParseTxsCompleteAfterBatchProcessing
         // so we need to make sure that vote result calculation is completed before (e.g. for comp. request to
@@ -261,8 +333,12 @@ public class DaoStateService implements DaoSetupService {
         // blocks as that causes performance issues. In earlier versions when we updated at each block it took
         // 50 sec. for 4000 blocks, after that change it was about 4 sec.
         // Clients
-        if (parseBlockChainComplete)
-            daoStateListeners.forEach(l -> l.onParseBlockCompleteAfterBatchProcessing(block));
+        if (parseBlockChainComplete) {
+            if (isParsingChunk)
+                lastParsedBlockOfChunk = block;
+            else
+                daoStateListeners.forEach(l -> l.onParseBlockCompleteAfterBatchProcessing(block));
+        }
 
         // Here listeners must not trigger any state change in the DAO as we trigger the validation service to
         // generate a hash of the state.
@@ -282,6 +358,21 @@ public class DaoStateService implements DaoSetupService {
         daoStateListeners.forEach(DaoStateListener::onParseBlockChainComplete);
     }
 
+    // Called before a chunk of blocks gets parsed in one go
+    public void onParseChunkStarted() {
+        isParsingChunk = true;
+    }
+
+    // Called after a chunk of blocks has been parsed. Clients get notified once with the last block of the chunk.
+    public void onParseChunkComplete() {
+        isParsingChunk = false;
+        if (lastParsedBlockOfChunk != null) {
+            Block block = lastParsedBlockOfChunk;
+            lastParsedBlockOfChunk = null;
+            daoStateListeners.forEach(l -> l.onParseBlockCompleteAfterBatchProcessing(block));
+        }
+    }
+
 
     public LinkedList<Block> getBlocks() {
         return daoState.getBlocks();
@@ -295,7 +386,7 @@ public class DaoStateService implements DaoSetupService {
      * {@code false}.
      */
     public boolean isBlockHashKnown(String blockHash) {
-        return getBlocks().stream().anyMatch(block -> block.getHash().equals(blockHash));
+        return blockHashes.contains(blockHash);
     }
 
     public Optional<Block> getLastBlock() {
@@ -310,9 +401,20 @@ public class DaoStateService implements DaoSetupService {
     }
 
     public Optional<Block> getBlockAtHeight(int height) {
-        return getBlocks().stream()
-                .filter(block -> block.getHeight() == height)
-                .findAny();
+        if (height < getFirstBlockHeightInMemory())
+            return getArchivedBlockAtHeight(height);
+
+        // Blocks are ordered by height and we usually look up a block close to the chain tip, so we iterate from the
+        // last block.
+        Iterator<Block> iterator = getBlocks().descendingIterator();
+        while (iterator.hasNext()) {
+            Block block = iterator.next();
+            if (block.getHeight() == height)
+                return Optional.of(block);
+            if (block.getHeight() < height)
+                break;
+        }
+        return Optional.empty();
     }
 
     public boolean containsBlock(Block block) {
@@ -320,7 +422,7 @@ public class DaoStateService implements DaoSetupService {
     }
 
     public boolean containsBlockHash(String blockHash) {
-        return getBlocks().stream().anyMatch(block -> block.getHash().equals(blockHash));
+        return blockHashes.contains(blockHash);
     }
 
     public long getBlockTime(int height) {
@@ -330,11 +432,34 @@ public class DaoStateService implements DaoSetupService {
     public List<Block> getBlocksFromBlockHeight(int fromBlockHeight, int numMaxBlocks) {
         // We limit requests to numMaxBlocks blocks, to avoid performance issues and too
         // large network data in case a node requests too far back in history.
-        return getBlocks().stream()
-                .filter(block -> block.getHeight() >= fromBlockHeight)
-                .sorted(Comparator.comparing(Block::getHeight))
-                .limit(numMaxBlocks)
-                .collect(Collectors.toList());
+        // Blocks are ordered by height without gaps, so we only iterate the blocks from the chain tip down to
+        // fromBlockHeight.
+        // Requested blocks below our first block in memory are read from the block archive.
+        LinkedList<Block> blocks = new LinkedList<>();
+        int firstBlockHeightInMemory = getFirstBlockHeightInMemory();
+        int fromArchivedHeight = Math.max(fromBlockHeight, getGenesisBlockHeight());
+        if (fromArchivedHeight < firstBlockHeightInMemory) {
+            int toHeight = (int) Math.min((long) fromArchivedHeight + numMaxBlocks - 1, firstBlockHeightInMemory - 1);
+            blocks.addAll(getArchivedBlocks(fromArchivedHeight, toHeight));
+        }
+        // We don't add the blocks in memory if the archived blocks do not connect to them.
+        boolean connectsToBlocksInMemory = blocks.isEmpty() || blocks.getLast().getHeight() == firstBlockHeightInMemory - 1;
+        if (getBlocks().isEmpty() || blocks.size() >= numMaxBlocks || !connectsToBlocksInMemory)
+            return blocks;
+
+        int startHeight = blocks.isEmpty() ? Math.max(fromBlockHeight, firstBlockHeightInMemory) : firstBlockHeightInMemory;
+        int numMaxBlocksInMemory = numMaxBlocks - blocks.size();
+        LinkedList<Block> blocksInMemory = new LinkedList<>();
+        Iterator<Block> iterator = getBlocks().descendingIterator();
+        while (iterator.hasNext()) {
+            Block block = iterator.next();
+            if (block.getHeight() < startHeight)
+                break;
+            if (block.getHeight() - startHeight < numMaxBlocksInMemory)
+                blocksInMemory.addFirst(block);
+        }
+        blocks.addAll(blocksInMemory);
+        return blocks;
     }
 
 
@@ -410,7 +535,7 @@ public class DaoStateService implements DaoSetupService {
     }
 
     public long getTotalBurntFee() {
-        return getUnorderedTxStream().mapToLong(Tx::getBurntFee).sum();
+        return totalBurntFee;
     }
 
     public Set<Tx> getBurntFeeTxs() {
@@ -433,19 +558,17 @@ public class DaoStateService implements DaoSetupService {
     // TxOutput
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private Stream<TxOutput> getUnorderedTxOutputStream() {
-        return getUnorderedTxStream()
-                .flatMap(tx -> tx.getTxOutputs().stream());
-    }
-
     public boolean existsTxOutput(TxOutputKey key) {
-        return getUnorderedTxOutputStream().anyMatch(txOutput -> txOutput.getKey().equals(key));
+        return getTxOutput(key).isPresent();
     }
 
+    // The txOutputKey contains the txId and the index of the output, so we can look it up directly in the txCache.
     public Optional<TxOutput> getTxOutput(TxOutputKey txOutputKey) {
-        return getUnorderedTxOutputStream()
-                .filter(txOutput -> txOutput.getKey().equals(txOutputKey))
-                .findAny();
+        return getTx(txOutputKey.getTxId())
+                .map(Tx::getTxOutputs)
+                .filter(txOutputs -> txOutputKey.getIndex() >= 0 && txOutputKey.getIndex() < txOutputs.size())
+                .map(txOutputs -> txOutputs.get(txOutputKey.getIndex()))
+                .filter(txOutput -> txOutput.getKey().equals(txOutputKey));
     }
 
 
@@ -460,11 +583,13 @@ public class DaoStateService implements DaoSetupService {
     public void addUnspentTxOutput(TxOutput txOutput) {
         assertDaoStateChange();
         getUnspentTxOutputMap().put(txOutput.getKey(), txOutput);
+        invalidateUnlockTotals();
     }
 
     public void removeUnspentTxOutput(TxOutput txOutput) {
         assertDaoStateChange();
         getUnspentTxOutputMap().remove(txOutput.getKey());
+        invalidateUnlockTotals();
     }
 
     public boolean isUnspent(TxOutputKey key) {
@@ -529,9 +654,8 @@ public class DaoStateService implements DaoSetupService {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private Set<TxOutput> getTxOutputsByTxOutputType(TxOutputType txOutputType) {
-        return getUnorderedTxOutputStream()
-                .filter(txOutput -> txOutput.getTxOutputType() == txOutputType)
-                .collect(Collectors.toSet());
+        // We return a copy as the index gets changed while parsing
+        return new HashSet<>(txOutputsByTxOutputType.getOrDefault(txOutputType, new HashSet<>()));
     }
 
     public boolean isBsqTxOutputType(TxOutput txOutput) {
@@ -608,16 +732,13 @@ public class DaoStateService implements DaoSetupService {
     }
 
     public Optional<Issuance> getIssuance(String txId, IssuanceType issuanceType) {
-        return daoState.getIssuanceMap().values().stream()
-                .filter(issuance -> issuance.getTxId().equals(txId))
-                .filter(issuance -> issuance.getIssuanceType() == issuanceType)
-                .findAny();
+        return getIssuance(txId)
+                .filter(issuance -> issuance.getIssuanceType() == issuanceType);
     }
 
+    // The issuanceMap is keyed by txId
     public Optional<Issuance> getIssuance(String txId) {
-        return daoState.getIssuanceMap().values().stream()
-                .filter(issuance -> issuance.getTxId().equals(txId))
-                .findAny();
+        return Optional.ofNullable(daoState.getIssuanceMap().get(txId));
     }
 
     public boolean isIssuanceTx(String txId) {
@@ -649,10 +770,11 @@ public class DaoStateService implements DaoSetupService {
     public boolean isRejectedIssuanceOutput(TxOutputKey txOutputKey) {
         Cycle currentCycle = getCurrentCycle();
         return currentCycle != null &&
-                getIssuanceCandidateTxOutputs().stream()
-                        .filter(txOutput -> txOutput.getKey().equals(txOutputKey))
+                getTxOutput(txOutputKey)
+                        .filter(txOutput -> txOutput.getTxOutputType() == TxOutputType.ISSUANCE_CANDIDATE_OUTPUT)
                         .filter(txOutput -> !currentCycle.isInCycle(txOutput.getBlockHeight()))
-                        .anyMatch(txOutput -> !isIssuanceTx(txOutput.getTxId()));
+                        .filter(txOutput -> !isIssuanceTx(txOutput.getTxId()))
+                        .isPresent();
 
     }
 
@@ -741,12 +863,16 @@ public class DaoStateService implements DaoSetupService {
         return getTx(txId).map(Tx::getLastTxOutput).filter(txOutput -> txOutput.getOpReturnData() != null);
     }
 
+    // Returns the txIds of all lockup txs (incl. confiscated ones) which have been created for the bonded asset
+    // with the given hash.
+    public List<String> getLockupTxIdsByBondHash(byte[] hash) {
+        return Collections.unmodifiableList(lockupTxIdsByBondHash.getOrDefault(Utilities.encodeToHex(hash),
+                Collections.emptyList()));
+    }
+
     // Returns amount of all LOCKUP txOutputs (they might have been unlocking or unlocked in the meantime)
     public long getTotalAmountOfLockupTxOutputs() {
-        return getLockupTxOutputs().stream()
-                .filter(txOutput -> !isConfiscatedLockupTxOutput(txOutput.getTxId()))
-                .mapToLong(TxOutput::getValue)
-                .sum();
+        return totalAmountOfLockupTxOutputsInclConfiscated - totalAmountOfConfiscatedLockupTxOutputs;
     }
 
     // Returns the current locked up amount (excluding unlocking and unlocked)
@@ -774,10 +900,8 @@ public class DaoStateService implements DaoSetupService {
     }
 
     public long getTotalAmountOfUnLockingTxOutputs() {
-        return getUnspentUnlockingTxOutputsStream()
-                .filter(txOutput -> !isConfiscatedUnlockTxOutput(txOutput.getTxId()))
-                .mapToLong(TxOutput::getValue)
-                .sum();
+        updateUnlockTotalsIfStale();
+        return totalAmountOfUnLockingTxOutputs;
     }
 
     public boolean isUnlockingAndUnspent(TxOutputKey key) {
@@ -824,26 +948,21 @@ public class DaoStateService implements DaoSetupService {
     }
 
     public long getTotalAmountOfUnLockedTxOutputs() {
-        return getUnlockedTxOutputsStream()
-                .mapToLong(TxOutput::getValue)
-                .sum();
+        updateUnlockTotalsIfStale();
+        return totalAmountOfUnLockedTxOutputs;
     }
 
     public long getTotalAmountOfConfiscatedTxOutputs() {
-        return daoState.getConfiscatedLockupTxList()
-                .stream()
-                .flatMap(e -> getTx(e).stream())
-                .mapToLong(tx -> tx.getLockupOutput().getValue())
-                .sum();
+        return totalAmountOfConfiscatedTxOutputs;
     }
 
     public long getTotalAmountOfInvalidatedBsq() {
-        return getUnorderedTxStream().mapToLong(Tx::getInvalidatedBsq).sum();
+        return totalInvalidatedBsq;
     }
 
     // Contains burnt fee and invalidated bsq due invalid txs
     public long getTotalAmountOfBurntBsq() {
-        return getUnorderedTxStream().mapToLong(Tx::getBurntBsq).sum();
+        return totalBurntBsq;
     }
 
     // Confiscate bond
@@ -880,6 +999,7 @@ public class DaoStateService implements DaoSetupService {
         assertDaoStateChange();
         log.warn("TxId {} added to confiscatedLockupTxIdList.", lockupTxId);
         daoState.getConfiscatedLockupTxList().add(lockupTxId);
+        addConfiscatedLockupTxToIndexes(lockupTxId);
     }
 
     public boolean isConfiscatedOutput(TxOutputKey txOutputKey) {
@@ -891,7 +1011,7 @@ public class DaoStateService implements DaoSetupService {
     }
 
     public boolean isConfiscatedLockupTxOutput(String lockupTxId) {
-        return daoState.getConfiscatedLockupTxList().contains(lockupTxId);
+        return confiscatedLockupTxIdSet.contains(lockupTxId);
     }
 
     public boolean isConfiscatedUnlockTxOutput(String unlockTxId) {
@@ -900,6 +1020,10 @@ public class DaoStateService implements DaoSetupService {
                 orElse(false);
     }
 
+    public List<String> getConfiscatedLockupTxList() {
+        return Collections.unmodifiableList(daoState.getConfiscatedLockupTxList());
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Param
@@ -1055,5 +1179,94 @@ public class DaoStateService implements DaoSetupService {
         if (!allowDaoStateChange)
             throw new RuntimeException("We got a call which would change the daoState outside of the allowed event phase");
     }
+
+    private int getFirstBlockHeightInMemory() {
+        return getBlocks().isEmpty() ? Integer.MAX_VALUE : getBlocks().getFirst().getHeight();
+    }
+
+    private Optional<Block> getArchivedBlockAtHeight(int height) {
+        try {
+            return blockArchive.readBlock(height);
+        } catch (IOException e) {
+            log.error("Could not read block at height {} from the block archive: {}", height, e.toString());
+            return Optional.empty();
+        }
+    }
+
+    private List<Block> getArchivedBlocks(int fromHeight, int toHeight) {
+        try {
+            return blockArchive.readBlocks(fromHeight, toHeight);
+        } catch (IOException e) {
+            log.error("Could not read blocks from height {} to {} from the block archive: {}",
+                    fromHeight, toHeight, e.toString());
+            return new ArrayList<>();
+        }
+    }
+
+    private void rebuildIndexes() {
+        blockHashes.clear();
+        getBlocks().forEach(block -> blockHashes.add(block.getHash()));
+
+        txOutputsByTxOutputType.clear();
+        lockupTxIdsByBondHash.clear();
+        totalBurntFee = 0;
+        totalBurntBsq = 0;
+        totalInvalidatedBsq = 0;
+        totalAmountOfLockupTxOutputsInclConfiscated = 0;
+        getUnorderedTxStream().forEach(this::addTxToIndexes);
+
+        confiscatedLockupTxIdSet.clear();
+        totalAmountOfConfiscatedLockupTxOutputs = 0;
+        totalAmountOfConfiscatedTxOutputs = 0;
+        daoState.getConfiscatedLockupTxList().forEach(this::addConfiscatedLockupTxToIndexes);
+
+        invalidateUnlockTotals();
+    }
+
+    private void addTxToIndexes(Tx tx) {
+        tx.getTxOutputs().forEach(txOutput -> {
+            txOutputsByTxOutputType.computeIfAbsent(txOutput.getTxOutputType(), key -> new HashSet<>()).add(txOutput);
+            if (txOutput.getTxOutputType() == TxOutputType.LOCKUP_OUTPUT)
+                totalAmountOfLockupTxOutputsInclConfiscated += txOutput.getValue();
+            if (txOutput.getTxOutputType() == TxOutputType.LOCKUP_OP_RETURN_OUTPUT && txOutput.getOpReturnData() != null) {
+                String hash = Utilities.encodeToHex(BondConsensus.getHashFromOpReturnData(txOutput.getOpReturnData()));
+                lockupTxIdsByBondHash.computeIfAbsent(hash, key -> new ArrayList<>()).add(tx.getId());
+            }
+        });
+        totalBurntFee += tx.getBurntFee();
+        totalBurntBsq += tx.getBurntBsq();
+        totalInvalidatedBsq += tx.getInvalidatedBsq();
+        invalidateUnlockTotals();
+    }
+
+    private void addConfiscatedLockupTxToIndexes(String lockupTxId) {
+        // The confiscatedLockupTxList might contain duplicates. getTotalAmountOfConfiscatedTxOutputs counts each
+        // entry while the lockup total only excludes each confiscated lockup txOutput once.
+        getTx(lockupTxId).ifPresent(tx -> totalAmountOfConfiscatedTxOutputs += tx.getLockupOutput().getValue());
+        if (confiscatedLockupTxIdSet.add(lockupTxId)) {
+            getTx(lockupTxId).ifPresent(tx -> tx.getTxOutputs().stream()
+                    .filter(this::isLockupOutput)
+                    .forEach(txOutput -> totalAmountOfConfiscatedLockupTxOutputs += txOutput.getValue()));
+        }
+        invalidateUnlockTotals();
+    }
+
+    private void invalidateUnlockTotals() {
+        unlockTotalsChainHeight = -1;
+    }
+
+    private void updateUnlockTotalsIfStale() {
+        if (unlockTotalsChainHeight == getChainHeight())
+            return;
+
+        totalAmountOfUnLockingTxOutputs = getUnspentUnlockingTxOutputsStream()
+                .filter(txOutput -> !isConfiscatedUnlockTxOutput(txOutput.getTxId()))
+                .mapToLong(TxOutput::getValue)
+                .sum();
+        totalAmountOfUnLockedTxOutputs = getUnlockedTxOutputsStream()
+                .mapToLong(TxOutput::getValue)
+                .sum();
+        unlockTotalsChainHeight = getChainHeight();
+    }
 }
 
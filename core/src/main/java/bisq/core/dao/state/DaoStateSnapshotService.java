@@ -97,14 +97,16 @@ public class DaoStateSnapshotService {
                 DaoState clonedDaoState = daoStateService.getClone(daoStateSnapshotCandidate);
                 LinkedList<DaoStateHash> clonedDaoStateHashChain = new LinkedList<>(daoStateHashChainSnapshotCandidate);
                 daoStateStorageService.persist(clonedDaoState, clonedDaoStateHashChain);
+                daoStateService.onBlocksArchived(daoStateStorageService.getArchivedBlockHeight());
 
                 log.debug("Saved snapshotCandidate with height {} to Disc at height {} took {} ms",
                         daoStateSnapshotCandidate.getChainHeight(), chainHeight, System.currentTimeMillis() - ts);
             }
 
             ts = System.currentTimeMillis();
-            // Now we clone and keep it in memory for the next trigger event
-            daoStateSnapshotCandidate = daoStateService.getClone();
+            // Now we clone and keep it in memory for the next trigger event. Blocks which are already archived are not
+            // part of the snapshot, so we don't need to keep them in the candidate.
+            daoStateSnapshotCandidate = daoStateService.getClone(daoStateStorageService.getArchivedBlockHeight() + 1);
             daoStateHashChainSnapshotCandidate = new LinkedList<>(daoStateMonitoringService.getDaoStateHashChain());
 
             log.debug("Cloned new snapshotCandidate at height {} took {} ms", chainHeight, System.currentTimeMillis() - ts);
@@ -157,6 +159,8 @@ public class DaoStateSnapshotService {
         int genesisBlockHeight = genesisTxInfo.getGenesisBlockHeight();
         emptyDaoState.setChainHeight(genesisBlockHeight);
         chainHeightOfLastApplySnapshot = genesisBlockHeight;
+        // We parse again from the genesis block, so the archived blocks are not valid anymore
+        daoStateStorageService.clearBlockArchive();
         daoStateService.applySnapshot(emptyDaoState);
         // In case we apply an empty snapshot we need to trigger the cycleService.addFirstCycle method
         cycleService.addFirstCycle();
@@ -17,9 +17,11 @@
 
 package bisq.core.dao.state;
 
+import bisq.core.dao.DaoOptionKeys;
 import bisq.core.dao.monitoring.DaoStateMonitoringService;
 import bisq.core.dao.monitoring.model.DaoStateHash;
 import bisq.core.dao.state.model.DaoState;
+import bisq.core.dao.state.model.blockchain.Block;
 
 import bisq.network.p2p.storage.persistence.ResourceDataStoreService;
 import bisq.network.p2p.storage.persistence.StoreService;
@@ -31,14 +33,23 @@ import javax.inject.Inject;
 import javax.inject.Named;
 
 import java.io.File;
+import java.io.IOException;
 
 import java.util.LinkedList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 /**
  * Manages persistence of the daoState.
+ * <p>
+ * Blocks which are older than the block archive depth are moved to the DaoStateBlockArchive when we persist a
+ * snapshot, so the snapshot only contains the recent blocks and the mutable state. Archived blocks are kept on disc
+ * only. When we read the snapshot we only add the txs of the archived blocks to the txCache.
  */
 @Slf4j
 public class DaoStateStorageService extends StoreService<DaoStateStore> {
@@ -49,8 +60,14 @@ public class DaoStateStorageService extends StoreService<DaoStateStore> {
     // data we rename it to DaoStateStore
     private static final String FILE_NAME = "DaoStateStore";
 
+    // Reorgs deeper than the persisted snapshot are handled by parsing from the genesis block, so a few hundred blocks
+    // behind the snapshot height are safe.
+    public static final int DEFAULT_BLOCK_ARCHIVE_DEPTH = 1000;
+
     private final DaoState daoState;
     private final DaoStateMonitoringService daoStateMonitoringService;
+    private final DaoStateBlockArchive blockArchive;
+    private final int blockArchiveDepth;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -62,10 +79,14 @@ public class DaoStateStorageService extends StoreService<DaoStateStore> {
                                   DaoState daoState,
                                   DaoStateMonitoringService daoStateMonitoringService,
                                   @Named(Storage.STORAGE_DIR) File storageDir,
-                                  Storage<DaoStateStore> daoSnapshotStorage) {
+                                  Storage<DaoStateStore> daoSnapshotStorage,
+                                  DaoStateBlockArchive blockArchive,
+                                  @Named(DaoOptionKeys.BLOCK_ARCHIVE_DEPTH) int blockArchiveDepth) {
         super(storageDir, daoSnapshotStorage);
         this.daoState = daoState;
         this.daoStateMonitoringService = daoStateMonitoringService;
+        this.blockArchive = blockArchive;
+        this.blockArchiveDepth = blockArchiveDepth;
 
         resourceDataStoreService.addService(this);
     }
@@ -80,29 +101,88 @@ public class DaoStateStorageService extends StoreService<DaoStateStore> {
         return FILE_NAME;
     }
 
+    // The daoState must be a clone as we remove the archived blocks from it
     public void persist(DaoState daoState, LinkedList<DaoStateHash> daoStateHashChain) {
         persist(daoState, daoStateHashChain, 200);
     }
 
     private void persist(DaoState daoState, LinkedList<DaoStateHash> daoStateHashChain, long delayInMilli) {
+        // We archive before we queue up the snapshot for saving. If we crash in between the archive is ahead of the
+        // persisted snapshot and gets truncated when we read the snapshot.
+        int archivedBlockHeight = archiveFinalizedBlocks(daoState);
+        daoState.getBlocks().removeIf(block -> block.getHeight() <= archivedBlockHeight);
+
         store.setDaoState(daoState);
         store.setDaoStateHashChain(daoStateHashChain);
+        store.setArchivedBlockHeight(archivedBlockHeight);
         storage.queueUpForSave(store, delayInMilli);
     }
 
+    /**
+     * Returns the persisted daoState with the txs of the archived blocks in its txCache or null if the archive does
+     * not match the persisted snapshot. The archived blocks themselves are not added.
+     */
+    @Nullable
     public DaoState getPersistedBsqState() {
-        return store.getDaoState();
+        int archivedBlockHeight = store.getArchivedBlockHeight();
+        if (archivedBlockHeight == 0)
+            return store.getDaoState();
+
+        long ts = System.currentTimeMillis();
+        List<Block> archivedBlocks;
+        try {
+            if (blockArchive.getTipHeight() > archivedBlockHeight)
+                blockArchive.truncate(archivedBlockHeight);
+
+            archivedBlocks = blockArchive.readBlocks(archivedBlockHeight);
+        } catch (IOException e) {
+            log.error("Could not read the block archive: {}", e.toString());
+            return null;
+        }
+
+        LinkedList<Block> blocks = store.getDaoState().getBlocks();
+        boolean isArchiveComplete = !archivedBlocks.isEmpty() &&
+                archivedBlocks.get(archivedBlocks.size() - 1).getHeight() == archivedBlockHeight &&
+                archivedBlocks.get(0).getHeight() + archivedBlocks.size() - 1 == archivedBlockHeight;
+        boolean connectsToSnapshot = blocks.isEmpty() || blocks.getFirst().getHeight() == archivedBlockHeight + 1;
+        if (!isArchiveComplete || !connectsToSnapshot) {
+            log.warn("The block archive does not match the persisted snapshot. We ignore the snapshot. " +
+                    "archivedBlockHeight={}, number of archived blocks={}", archivedBlockHeight, archivedBlocks.size());
+            return null;
+        }
+
+        DaoState persistedDaoState = DaoState.getClone(store.getDaoState());
+        persistedDaoState.addTxsOfArchivedBlocks(archivedBlocks);
+        log.info("Reading {} blocks from the block archive took {} ms",
+                archivedBlocks.size(), System.currentTimeMillis() - ts);
+        return persistedDaoState;
     }
 
     public LinkedList<DaoStateHash> getPersistedDaoStateHashChain() {
         return store.getDaoStateHashChain();
     }
 
+    // Blocks up to that height get archived at the next persist call, so we don't need to keep them in the snapshot
+    // candidate
+    public int getArchivedBlockHeight() {
+        return blockArchive.getTipHeight();
+    }
+
     public void resetDaoState(Runnable resultHandler) {
+        clearBlockArchive();
         persist(new DaoState(), new LinkedList<>(), 1);
         UserThread.runAfter(resultHandler, 300, TimeUnit.MILLISECONDS);
     }
 
+    // Called if we start over from the genesis block, e.g. after a reorg deeper than our snapshot
+    public void clearBlockArchive() {
+        try {
+            blockArchive.clear();
+        } catch (IOException e) {
+            log.error("Could not clear the block archive: {}", e.toString());
+        }
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Protected
@@ -110,6 +190,39 @@ public class DaoStateStorageService extends StoreService<DaoStateStore> {
 
     @Override
     protected DaoStateStore createStore() {
+        // Without a persisted snapshot an existing archive cannot be used
+        clearBlockArchive();
         return new DaoStateStore(DaoState.getClone(daoState), new LinkedList<>(daoStateMonitoringService.getDaoStateHashChain()));
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Returns the height up to which the blocks are archived
+    private int archiveFinalizedBlocks(DaoState daoState) {
+        int archiveTipHeight = blockArchive.getTipHeight();
+        if (blockArchiveDepth <= 0)
+            return archiveTipHeight;
+
+        int finalizedBlockHeight = daoState.getChainHeight() - blockArchiveDepth;
+        List<Block> blocksToArchive = daoState.getBlocks().stream()
+                .filter(block -> block.getHeight() > archiveTipHeight)
+                .filter(block -> block.getHeight() <= finalizedBlockHeight)
+                .collect(Collectors.toList());
+        if (blocksToArchive.isEmpty())
+            return archiveTipHeight;
+
+        try {
+            long ts = System.currentTimeMillis();
+            blockArchive.append(blocksToArchive);
+            log.info("Archiving {} blocks up to height {} took {} ms", blocksToArchive.size(),
+                    blockArchive.getTipHeight(), System.currentTimeMillis() - ts);
+        } catch (IOException | IllegalArgumentException e) {
+            // We keep the blocks in the snapshot and try again at the next snapshot
+            log.error("Could not archive blocks: {}", e.toString());
+        }
+        return blockArchive.getTipHeight();
+    }
 }
@@ -44,10 +44,19 @@ public class DaoStateStore implements PersistableEnvelope {
     @Getter
     @Setter
     private LinkedList<DaoStateHash> daoStateHashChain;
+    // Blocks up to that height are in the DaoStateBlockArchive and not in the daoState. 0 if no blocks are archived.
+    @Getter
+    @Setter
+    private int archivedBlockHeight;
 
     DaoStateStore(DaoState daoState, LinkedList<DaoStateHash> daoStateHashChain) {
+        this(daoState, daoStateHashChain, 0);
+    }
+
+    DaoStateStore(DaoState daoState, LinkedList<DaoStateHash> daoStateHashChain, int archivedBlockHeight) {
         this.daoState = daoState;
         this.daoStateHashChain = daoStateHashChain;
+        this.archivedBlockHeight = archivedBlockHeight;
     }
 
 
@@ -61,7 +70,8 @@ public class DaoStateStore implements PersistableEnvelope {
                 .setDaoState(daoState.getBsqStateBuilder())
                 .addAllDaoStateHash(daoStateHashChain.stream()
                         .map(DaoStateHash::toProtoMessage)
-                        .collect(Collectors.toList()));
+                        .collect(Collectors.toList()))
+                .setArchivedBlockHeight(archivedBlockHeight);
         return protobuf.PersistableEnvelope.newBuilder()
                 .setDaoStateStore(builder)
                 .build();
@@ -73,6 +83,8 @@ public class DaoStateStore implements PersistableEnvelope {
                 new LinkedList<>(proto.getDaoStateHashList().stream()
                         .map(DaoStateHash::fromProto)
                         .collect(Collectors.toList()));
-        return new DaoStateStore(DaoState.fromProto(proto.getDaoState()), daoStateHashList);
+        return new DaoStateStore(DaoState.fromProto(proto.getDaoState()),
+                daoStateHashList,
+                proto.getArchivedBlockHeight());
     }
 }
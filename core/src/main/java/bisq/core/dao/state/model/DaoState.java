@@ -68,6 +68,17 @@ public class DaoState implements PersistablePayload {
         return DaoState.fromProto(daoState.getBsqStateBuilder().build());
     }
 
+    // Clone which only contains the blocks from the given height on. The txCache of the clone only contains the txs
+    // of those blocks.
+    public static DaoState getClone(DaoState daoState, int fromBlockHeight) {
+        return DaoState.fromProto(daoState.getBsqStateBuilderExcludingBlocks()
+                .addAllBlocks(daoState.getBlocks().stream()
+                        .filter(block -> block.getHeight() >= fromBlockHeight)
+                        .map(Block::toProtoMessage)
+                        .collect(Collectors.toList()))
+                .build());
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Fields
@@ -102,7 +113,8 @@ public class DaoState implements PersistablePayload {
     @Getter
     private final List<DecryptedBallotsWithMerits> decryptedBallotsWithMeritsList;
 
-    // Transient data used only as an index - must be kept in sync with the block list
+    // Transient data used only as an index - must be kept in sync with the block list. It also contains the txs of the
+    // blocks in the DaoStateBlockArchive which are not in the block list.
     @JsonExclude
     private transient final Map<String, Tx> txCache; // key is txId
 
@@ -236,6 +248,14 @@ public class DaoState implements PersistablePayload {
         return getBsqStateBuilderExcludingBlocks().addBlocks(getBlocks().getLast().toProtoMessage()).build().toByteArray();
     }
 
+    // Archived blocks are only kept on disc, but the DAO state still refers to their txs (bonds, proposals,
+    // issuance,...), so we add their txs to the txCache when we restore a snapshot.
+    public void addTxsOfArchivedBlocks(List<Block> archivedBlocks) {
+        archivedBlocks.stream()
+                .flatMap(block -> block.getTxs().stream())
+                .forEach(this::addToTxCache);
+    }
+
     public void addToTxCache(Tx tx) {
         // We shouldn't get duplicate txIds, but use putIfAbsent instead of put for consistency with the map merge
         // function used in the constructor to initialise txCache (and to exactly match the pre-caching behaviour).
@@ -58,8 +58,6 @@ import java.util.Optional;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
-import java.lang.reflect.Method;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -92,6 +90,8 @@ public class FilterManager {
     private boolean ignoreDevMsg;
     private final ObjectProperty<Filter> filterProperty = new SimpleObjectProperty<>();
     private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    // Compiled from the filter whenever it changes and swapped as a whole, so readers never see a partial update
+    private volatile FilterMatcher filterMatcher = FilterMatcher.EMPTY;
 
     private final String pubKeyAsHex;
     private ECKey filterSigningKey;
@@ -208,7 +208,7 @@ public class FilterManager {
         if (providersRepository.getBannedNodes() != null)
             providersRepository.applyBannedNodes(null);
 
-        filterProperty.set(null);
+        setFilter(null);
     }
 
     private boolean addFilter(Filter filter) {
@@ -225,7 +225,7 @@ public class FilterManager {
 
             providersRepository.applyBannedNodes(priceRelayNodes);
 
-            filterProperty.set(filter);
+            setFilter(filter);
             listeners.forEach(e -> e.onFilterAdded(filter));
 
             if (filter.isPreventPublicBtcNetwork() &&
@@ -237,6 +237,11 @@ public class FilterManager {
         }
     }
 
+    private void setFilter(@Nullable Filter filter) {
+        filterMatcher = new FilterMatcher(filter);
+        filterProperty.set(filter);
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // API
@@ -334,29 +339,19 @@ public class FilterManager {
     }
 
     public boolean isCurrencyBanned(String currencyCode) {
-        return getFilter() != null &&
-                getFilter().getBannedCurrencies() != null &&
-                getFilter().getBannedCurrencies().stream()
-                        .anyMatch(e -> e.equals(currencyCode));
+        return filterMatcher.isCurrencyBanned(currencyCode);
     }
 
     public boolean isPaymentMethodBanned(PaymentMethod paymentMethod) {
-        return getFilter() != null &&
-                getFilter().getBannedPaymentMethods() != null &&
-                getFilter().getBannedPaymentMethods().stream()
-                        .anyMatch(e -> e.equals(paymentMethod.getId()));
+        return filterMatcher.isPaymentMethodBanned(paymentMethod.getId());
     }
 
     public boolean isOfferIdBanned(String offerId) {
-        return getFilter() != null &&
-                getFilter().getBannedOfferIds().stream()
-                        .anyMatch(e -> e.equals(offerId));
+        return filterMatcher.isOfferIdBanned(offerId);
     }
 
     public boolean isNodeAddressBanned(NodeAddress nodeAddress) {
-        return getFilter() != null &&
-                getFilter().getBannedNodeAddress().stream()
-                        .anyMatch(e -> e.equals(nodeAddress.getFullAddress()));
+        return filterMatcher.isNodeAddressBanned(nodeAddress.getFullAddress());
     }
 
     public boolean requireUpdateToNewVersionForTrading() {
@@ -389,24 +384,11 @@ public class FilterManager {
 
     public boolean isPeersPaymentAccountDataAreBanned(PaymentAccountPayload paymentAccountPayload,
                                                       PaymentAccountFilter[] appliedPaymentAccountFilter) {
-        return getFilter() != null &&
-                getFilter().getBannedPaymentAccounts().stream()
-                        .anyMatch(paymentAccountFilter -> {
-                            final boolean samePaymentMethodId = paymentAccountFilter.getPaymentMethodId().equals(
-                                    paymentAccountPayload.getPaymentMethodId());
-                            if (samePaymentMethodId) {
-                                try {
-                                    Method method = paymentAccountPayload.getClass().getMethod(paymentAccountFilter.getGetMethodName());
-                                    String result = (String) method.invoke(paymentAccountPayload);
-                                    appliedPaymentAccountFilter[0] = paymentAccountFilter;
-                                    return result.toLowerCase().equals(paymentAccountFilter.getValue().toLowerCase());
-                                } catch (Throwable e) {
-                                    log.error(e.getMessage());
-                                    return false;
-                                }
-                            } else {
-                                return false;
-                            }
-                        });
+        PaymentAccountFilter paymentAccountFilter = filterMatcher.findBannedPaymentAccount(paymentAccountPayload);
+        if (paymentAccountFilter == null)
+            return false;
+
+        appliedPaymentAccountFilter[0] = paymentAccountFilter;
+        return true;
     }
 }
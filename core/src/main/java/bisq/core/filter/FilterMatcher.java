@@ -0,0 +1,159 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.filter;
+
+import bisq.core.payment.payload.PaymentAccountPayload;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Immutable lookup tables compiled from a {@link Filter} so that the ban checks of the {@link FilterManager}
+ * are hash lookups instead of scans over the filter lists.
+ * Banned payment account data is grouped by payment method id and getter name, with the banned values
+ * lower cased once at compile time. The getters are resolved once per payload class and cached.
+ */
+@Slf4j
+final class FilterMatcher {
+    static final FilterMatcher EMPTY = new FilterMatcher(null);
+
+    // Payload class -> getter name -> method handle, or empty if the payload class has no such getter
+    private static final Map<Class<?>, Map<String, Optional<MethodHandle>>> GETTERS = new ConcurrentHashMap<>();
+
+    private final Set<String> bannedOfferIds;
+    private final Set<String> bannedNodeAddresses;
+    private final Set<String> bannedCurrencies;
+    private final Set<String> bannedPaymentMethods;
+    // Payment method id -> getter name -> lower cased value -> first filter with that value
+    private final Map<String, Map<String, Map<String, PaymentAccountFilter>>> bannedPaymentAccounts;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    FilterMatcher(@Nullable Filter filter) {
+        if (filter == null) {
+            bannedOfferIds = Collections.emptySet();
+            bannedNodeAddresses = Collections.emptySet();
+            bannedCurrencies = Collections.emptySet();
+            bannedPaymentMethods = Collections.emptySet();
+            bannedPaymentAccounts = Collections.emptyMap();
+            return;
+        }
+
+        bannedOfferIds = toSet(filter.getBannedOfferIds());
+        bannedNodeAddresses = toSet(filter.getBannedNodeAddress());
+        bannedCurrencies = toSet(filter.getBannedCurrencies());
+        bannedPaymentMethods = toSet(filter.getBannedPaymentMethods());
+
+        Map<String, Map<String, Map<String, PaymentAccountFilter>>> map = new HashMap<>();
+        if (filter.getBannedPaymentAccounts() != null) {
+            filter.getBannedPaymentAccounts().forEach(paymentAccountFilter ->
+                    map.computeIfAbsent(paymentAccountFilter.getPaymentMethodId(), k -> new LinkedHashMap<>())
+                            .computeIfAbsent(paymentAccountFilter.getGetMethodName(), k -> new HashMap<>())
+                            .putIfAbsent(paymentAccountFilter.getValue().toLowerCase(), paymentAccountFilter));
+        }
+        bannedPaymentAccounts = map;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    boolean isOfferIdBanned(String offerId) {
+        return bannedOfferIds.contains(offerId);
+    }
+
+    boolean isNodeAddressBanned(String fullAddress) {
+        return bannedNodeAddresses.contains(fullAddress);
+    }
+
+    boolean isCurrencyBanned(String currencyCode) {
+        return bannedCurrencies.contains(currencyCode);
+    }
+
+    boolean isPaymentMethodBanned(String paymentMethodId) {
+        return bannedPaymentMethods.contains(paymentMethodId);
+    }
+
+    /**
+     * @return the filter which bans the given payment account data or null if the data is not banned
+     */
+    @Nullable
+    PaymentAccountFilter findBannedPaymentAccount(PaymentAccountPayload paymentAccountPayload) {
+        Map<String, Map<String, PaymentAccountFilter>> valuesByGetter =
+                bannedPaymentAccounts.get(paymentAccountPayload.getPaymentMethodId());
+        if (valuesByGetter == null)
+            return null;
+
+        Map<String, Optional<MethodHandle>> getters = GETTERS.computeIfAbsent(paymentAccountPayload.getClass(),
+                k -> new ConcurrentHashMap<>());
+        for (Map.Entry<String, Map<String, PaymentAccountFilter>> entry : valuesByGetter.entrySet()) {
+            Optional<MethodHandle> getter = getters.computeIfAbsent(entry.getKey(),
+                    getMethodName -> findGetter(paymentAccountPayload.getClass(), getMethodName));
+            if (!getter.isPresent())
+                continue;
+
+            try {
+                Object result = getter.get().invoke(paymentAccountPayload);
+                if (result != null) {
+                    PaymentAccountFilter paymentAccountFilter = entry.getValue().get(result.toString().toLowerCase());
+                    if (paymentAccountFilter != null)
+                        return paymentAccountFilter;
+                }
+            } catch (Throwable e) {
+                log.error(e.getMessage());
+            }
+        }
+        return null;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static Set<String> toSet(@Nullable Collection<String> collection) {
+        return collection == null || collection.isEmpty() ? Collections.emptySet() : new HashSet<>(collection);
+    }
+
+    private static Optional<MethodHandle> findGetter(Class<?> payloadClass, String getMethodName) {
+        try {
+            return Optional.of(MethodHandles.publicLookup().unreflect(payloadClass.getMethod(getMethodName)));
+        } catch (Throwable e) {
+            log.error("Could not resolve getter {} of {}: {}", getMethodName, payloadClass.getSimpleName(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.notifications.alerts.market;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Index of the market alert filters by payment method and offer direction with the filters of each group sorted by
+ * their trigger value. A new offer only needs to look at the filters of its payment method and direction whose trigger
+ * value is at least the offer's distance to the market price, instead of checking each filter.
+ * <p/>
+ * Not thread safe, it is only accessed from the user thread.
+ */
+class MarketAlertFilterIndex {
+    // Key is the payment method id and the direction of the offers the filter is for
+    private final Map<String, NavigableMap<Integer, List<MarketAlertFilter>>> filtersByMarket = new HashMap<>();
+
+    void add(MarketAlertFilter filter) {
+        filtersByMarket.computeIfAbsent(getKey(filter.getPaymentAccount().getPaymentMethod().getId(), filter.isBuyOffer()),
+                key -> new TreeMap<>())
+                .computeIfAbsent(filter.getTriggerValue(), key -> new ArrayList<>())
+                .add(filter);
+    }
+
+    void remove(MarketAlertFilter filter) {
+        String key = getKey(filter.getPaymentAccount().getPaymentMethod().getId(), filter.isBuyOffer());
+        NavigableMap<Integer, List<MarketAlertFilter>> filtersByTriggerValue = filtersByMarket.get(key);
+        if (filtersByTriggerValue == null)
+            return;
+
+        List<MarketAlertFilter> filters = filtersByTriggerValue.get(filter.getTriggerValue());
+        if (filters != null && filters.remove(filter) && filters.isEmpty()) {
+            filtersByTriggerValue.remove(filter.getTriggerValue());
+            if (filtersByTriggerValue.isEmpty())
+                filtersByMarket.remove(key);
+        }
+    }
+
+    void clear() {
+        filtersByMarket.clear();
+    }
+
+    /**
+     * @param paymentMethodId   Payment method of the offer
+     * @param isBuyOffer        If the offer is a buy offer
+     * @param ratio             Distance of the offer price to the market price (100 for 1.00%), positive if the
+     *                          offer is worse than the market price for the user
+     * @return All filters for the offer's payment method and direction which are triggered by the ratio
+     */
+    List<MarketAlertFilter> getTriggeredFilters(String paymentMethodId, boolean isBuyOffer, double ratio) {
+        NavigableMap<Integer, List<MarketAlertFilter>> filtersByTriggerValue =
+                filtersByMarket.get(getKey(paymentMethodId, isBuyOffer));
+        // A filter is triggered if ratio <= triggerValue, which never holds for NaN
+        if (filtersByTriggerValue == null || Double.isNaN(ratio) || ratio > Integer.MAX_VALUE)
+            return new ArrayList<>();
+
+        int lowestTriggeredValue = ratio < Integer.MIN_VALUE ? Integer.MIN_VALUE : (int) Math.ceil(ratio);
+        List<MarketAlertFilter> result = new ArrayList<>();
+        filtersByTriggerValue.tailMap(lowestTriggeredValue, true).values().forEach(result::addAll);
+        return result;
+    }
+
+    private static String getKey(String paymentMethodId, boolean isBuyOffer) {
+        return paymentMethodId + (isBuyOffer ? "|BUY" : "|SELL");
+    }
+}
@@ -53,6 +53,7 @@ public class MarketAlerts {
     private final User user;
     private final PriceFeedService priceFeedService;
     private final KeyRing keyRing;
+    private final MarketAlertFilterIndex marketAlertFilterIndex = new MarketAlertFilterIndex();
 
     @Inject
     private MarketAlerts(OfferBookService offerBookService, MobileNotificationService mobileNotificationService,
@@ -73,23 +74,31 @@ public class MarketAlerts {
         offerBookService.addOfferBookChangedListener(new OfferBookService.OfferBookChangedListener() {
             @Override
             public void onAdded(Offer offer) {
-                onOfferAdded(offer);
+                onOfferAdded(offer, marketAlertFilterIndex);
             }
 
             @Override
             public void onRemoved(Offer offer) {
             }
         });
-        applyFilterOnAllOffers();
+        marketAlertFilterIndex.clear();
+        user.getMarketAlertFilters().forEach(marketAlertFilterIndex::add);
+        applyFilterOnAllOffers(marketAlertFilterIndex);
     }
 
     public void addMarketAlertFilter(MarketAlertFilter filter) {
         user.addMarketAlertFilter(filter);
-        applyFilterOnAllOffers();
+        marketAlertFilterIndex.add(filter);
+
+        // Only the new filter can trigger alerts for the existing offers
+        MarketAlertFilterIndex newFilterIndex = new MarketAlertFilterIndex();
+        newFilterIndex.add(filter);
+        applyFilterOnAllOffers(newFilterIndex);
     }
 
     public void removeMarketAlertFilter(MarketAlertFilter filter) {
         user.removeMarketAlertFilter(filter);
+        marketAlertFilterIndex.remove(filter);
     }
 
     public List<MarketAlertFilter> getMarketAlertFilters() {
@@ -101,8 +110,8 @@ public class MarketAlerts {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private void applyFilterOnAllOffers() {
-        offerBookService.getOffers().forEach(this::onOfferAdded);
+    private void applyFilterOnAllOffers(MarketAlertFilterIndex filterIndex) {
+        offerBookService.getOffers().forEach(offer -> onOfferAdded(offer, filterIndex));
     }
 
     // We combine the offer ID and the price (either as % price or as fixed price) to get also updates for edited offers
@@ -114,93 +123,98 @@ public class MarketAlerts {
         return offer.getId() + "|" + priceString;
     }
 
-    private void onOfferAdded(Offer offer) {
+    private void onOfferAdded(Offer offer, MarketAlertFilterIndex filterIndex) {
         String currencyCode = offer.getCurrencyCode();
         MarketPrice marketPrice = priceFeedService.getMarketPrice(currencyCode);
         Price offerPrice = offer.getPrice();
-        if (marketPrice != null && offerPrice != null) {
+        if (marketPrice != null && offerPrice != null && !offer.isMyOffer(keyRing)) {
             boolean isSellOffer = offer.getDirection() == OfferPayload.Direction.SELL;
-            String shortOfferId = offer.getShortId();
             boolean isFiatCurrency = CurrencyUtil.isFiatCurrency(currencyCode);
+            // The ratio only depends on the offer and the market price so it is the same for all filters
+            double marketPriceAsDouble1 = marketPrice.getPrice();
+            int precision = CurrencyUtil.isCryptoCurrency(currencyCode) ?
+                    Altcoin.SMALLEST_UNIT_EXPONENT :
+                    Fiat.SMALLEST_UNIT_EXPONENT;
+            double marketPriceAsDouble = MathUtils.scaleUpByPowerOf10(marketPriceAsDouble1, precision);
+            double offerPriceValue = offerPrice.getValue();
+            double ratio = offerPriceValue / marketPriceAsDouble;
+            ratio = 1 - ratio;
+            if (isFiatCurrency && isSellOffer)
+                ratio *= -1;
+            else if (!isFiatCurrency && !isSellOffer)
+                ratio *= -1;
+
+            ratio = ratio * 10000;
+
+            List<MarketAlertFilter> triggeredFilters = filterIndex.getTriggeredFilters(offer.getPaymentMethod().getId(),
+                    !isSellOffer, ratio);
+            if (triggeredFilters.isEmpty())
+                return;
+
             String alertId = getAlertId(offer);
-            user.getMarketAlertFilters().stream()
-                    .filter(marketAlertFilter -> !offer.isMyOffer(keyRing))
-                    .filter(marketAlertFilter -> offer.getPaymentMethod().equals(marketAlertFilter.getPaymentAccount().getPaymentMethod()))
-                    .filter(marketAlertFilter -> marketAlertFilter.notContainsAlertId(alertId))
-                    .forEach(marketAlertFilter -> {
-                        int triggerValue = marketAlertFilter.getTriggerValue();
-                        boolean isTriggerForBuyOffer = marketAlertFilter.isBuyOffer();
-                        double marketPriceAsDouble1 = marketPrice.getPrice();
-                        int precision = CurrencyUtil.isCryptoCurrency(currencyCode) ?
-                                Altcoin.SMALLEST_UNIT_EXPONENT :
-                                Fiat.SMALLEST_UNIT_EXPONENT;
-                        double marketPriceAsDouble = MathUtils.scaleUpByPowerOf10(marketPriceAsDouble1, precision);
-                        double offerPriceValue = offerPrice.getValue();
-                        double ratio = offerPriceValue / marketPriceAsDouble;
-                        ratio = 1 - ratio;
-                        if (isFiatCurrency && isSellOffer)
-                            ratio *= -1;
-                        else if (!isFiatCurrency && !isSellOffer)
-                            ratio *= -1;
-
-                        ratio = ratio * 10000;
-                        boolean triggered = ratio <= triggerValue;
-                        if (!triggered)
-                            return;
-
-                        boolean isTriggerForBuyOfferAndTriggered = !isSellOffer && isTriggerForBuyOffer;
-                        boolean isTriggerForSellOfferAndTriggered = isSellOffer && !isTriggerForBuyOffer;
-                        if (isTriggerForBuyOfferAndTriggered || isTriggerForSellOfferAndTriggered) {
-                            String direction = isSellOffer ? Res.get("shared.sell") : Res.get("shared.buy");
-                            String marketDir;
-                            if (isFiatCurrency) {
-                                if (isSellOffer) {
-                                    marketDir = ratio > 0 ?
-                                            Res.get("account.notifications.marketAlert.message.msg.above") :
-                                            Res.get("account.notifications.marketAlert.message.msg.below");
-                                } else {
-                                    marketDir = ratio < 0 ?
-                                            Res.get("account.notifications.marketAlert.message.msg.above") :
-                                            Res.get("account.notifications.marketAlert.message.msg.below");
-                                }
-                            } else {
-                                if (isSellOffer) {
-                                    marketDir = ratio < 0 ?
-                                            Res.get("account.notifications.marketAlert.message.msg.above") :
-                                            Res.get("account.notifications.marketAlert.message.msg.below");
-                                } else {
-                                    marketDir = ratio > 0 ?
-                                            Res.get("account.notifications.marketAlert.message.msg.above") :
-                                            Res.get("account.notifications.marketAlert.message.msg.below");
-                                }
-                            }
-
-                            ratio = Math.abs(ratio);
-                            String msg = Res.get("account.notifications.marketAlert.message.msg",
-                                    direction,
-                                    CurrencyUtil.getCurrencyPair(currencyCode),
-                                    FormattingUtils.formatPrice(offerPrice),
-                                    FormattingUtils.formatToPercentWithSymbol(ratio / 10000d),
-                                    marketDir,
-                                    Res.get(offer.getPaymentMethod().getId()),
-                                    shortOfferId);
-                            MobileMessage message = new MobileMessage(Res.get("account.notifications.marketAlert.message.title"),
-                                    msg,
-                                    shortOfferId,
-                                    MobileMessageType.MARKET);
-                            try {
-                                boolean wasSent = mobileNotificationService.sendMessage(message);
-                                if (wasSent) {
-                                    // In case we have disabled alerts wasSent is false and we do not
-                                    // persist the offer
-                                    marketAlertFilter.addAlertId(alertId);
-                                    user.persist();
-                                }
-                            } catch (Exception e) {
-                                e.printStackTrace();
-                            }
-                        }
-                    });
+            for (MarketAlertFilter marketAlertFilter : triggeredFilters) {
+                if (marketAlertFilter.notContainsAlertId(alertId))
+                    sendAlert(offer, offerPrice, marketAlertFilter, alertId, ratio, isSellOffer, isFiatCurrency);
+            }
+        }
+    }
+
+    private void sendAlert(Offer offer,
+                           Price offerPrice,
+                           MarketAlertFilter marketAlertFilter,
+                           String alertId,
+                           double ratio,
+                           boolean isSellOffer,
+                           boolean isFiatCurrency) {
+        String currencyCode = offer.getCurrencyCode();
+        String shortOfferId = offer.getShortId();
+        String direction = isSellOffer ? Res.get("shared.sell") : Res.get("shared.buy");
+        String marketDir;
+        if (isFiatCurrency) {
+            if (isSellOffer) {
+                marketDir = ratio > 0 ?
+                        Res.get("account.notifications.marketAlert.message.msg.above") :
+                        Res.get("account.notifications.marketAlert.message.msg.below");
+            } else {
+                marketDir = ratio < 0 ?
+                        Res.get("account.notifications.marketAlert.message.msg.above") :
+                        Res.get("account.notifications.marketAlert.message.msg.below");
+            }
+        } else {
+            if (isSellOffer) {
+                marketDir = ratio < 0 ?
+                        Res.get("account.notifications.marketAlert.message.msg.above") :
+                        Res.get("account.notifications.marketAlert.message.msg.below");
+            } else {
+                marketDir = ratio > 0 ?
+                        Res.get("account.notifications.marketAlert.message.msg.above") :
+                        Res.get("account.notifications.marketAlert.message.msg.below");
+            }
+        }
+
+        ratio = Math.abs(ratio);
+        String msg = Res.get("account.notifications.marketAlert.message.msg",
+                direction,
+                CurrencyUtil.getCurrencyPair(currencyCode),
+                FormattingUtils.formatPrice(offerPrice),
+                FormattingUtils.formatToPercentWithSymbol(ratio / 10000d),
+                marketDir,
+                Res.get(offer.getPaymentMethod().getId()),
+                shortOfferId);
+        MobileMessage message = new MobileMessage(Res.get("account.notifications.marketAlert.message.title"),
+                msg,
+                shortOfferId,
+                MobileMessageType.MARKET);
+        try {
+            boolean wasSent = mobileNotificationService.sendMessage(message);
+            if (wasSent) {
+                // In case we have disabled alerts wasSent is false and we do not
+                // persist the offer
+                marketAlertFilter.addAlertId(alertId);
+                user.persist();
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
         }
     }
 
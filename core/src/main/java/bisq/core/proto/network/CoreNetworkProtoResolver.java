@@ -64,6 +64,8 @@ import bisq.network.p2p.BundleOfEnvelopes;
 import bisq.network.p2p.CloseConnectionMessage;
 import bisq.network.p2p.PrefixedSealedAndSignedMessage;
 import bisq.network.p2p.peers.getdata.messages.GetDataResponse;
+import bisq.network.p2p.peers.getdata.messages.GetStoreDigestRequest;
+import bisq.network.p2p.peers.getdata.messages.GetStoreDigestResponse;
 import bisq.network.p2p.peers.getdata.messages.GetUpdatedDataRequest;
 import bisq.network.p2p.peers.getdata.messages.PreliminaryGetDataRequest;
 import bisq.network.p2p.peers.keepalive.messages.Ping;
@@ -112,6 +114,10 @@ public class CoreNetworkProtoResolver extends CoreProtoResolver implements Netwo
                     return GetDataResponse.fromProto(proto.getGetDataResponse(), this, messageVersion);
                 case GET_UPDATED_DATA_REQUEST:
                     return GetUpdatedDataRequest.fromProto(proto.getGetUpdatedDataRequest(), messageVersion);
+                case GET_STORE_DIGEST_REQUEST:
+                    return GetStoreDigestRequest.fromProto(proto.getGetStoreDigestRequest(), messageVersion);
+                case GET_STORE_DIGEST_RESPONSE:
+                    return GetStoreDigestResponse.fromProto(proto.getGetStoreDigestResponse(), messageVersion);
 
                 case GET_PEERS_REQUEST:
                     return GetPeersRequest.fromProto(proto.getGetPeersRequest(), messageVersion);
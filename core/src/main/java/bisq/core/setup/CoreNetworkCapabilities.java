@@ -40,7 +40,11 @@ public class CoreNetworkCapabilities {
                 Capability.MEDIATION,
                 Capability.SIGNED_ACCOUNT_AGE_WITNESS,
                 Capability.REFUND_AGENT,
-                Capability.TRADE_STATISTICS_HASH_UPDATE
+                Capability.TRADE_STATISTICS_HASH_UPDATE,
+                Capability.GET_DATA_SKETCH,
+                Capability.GET_DATA_PAGINATION,
+                Capability.GET_BLOCKS_RANGE,
+                Capability.GET_STORE_DIGEST
         );
 
         if (BisqEnvironment.isDaoActivated(bisqEnvironment)) {
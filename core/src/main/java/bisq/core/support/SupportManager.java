@@ -37,6 +37,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -92,6 +93,13 @@ public abstract class SupportManager {
 
     public abstract void persist();
 
+    // Can be overridden if the chat messages are indexed by uid
+    protected List<ChatMessage> getChatMessagesByUid(String uid) {
+        return getAllChatMessages().stream()
+                .filter(msg -> msg.getUid().equals(uid))
+                .collect(Collectors.toList());
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Delegates p2pService
@@ -162,8 +170,7 @@ public abstract class SupportManager {
                         ackMessage.getSourceMsgClassName(), ackMessage.getSourceId(), ackMessage.getErrorMessage());
             }
 
-            getAllChatMessages().stream()
-                    .filter(msg -> msg.getUid().equals(ackMessage.getSourceUid()))
+            getChatMessagesByUid(ackMessage.getSourceUid())
                     .forEach(msg -> {
                         if (ackMessage.isSuccess())
                             msg.setAcknowledged(true);
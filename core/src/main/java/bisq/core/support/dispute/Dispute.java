@@ -42,10 +42,13 @@ import javafx.collections.ObservableList;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
@@ -92,6 +95,9 @@ public final class Dispute implements NetworkPayload {
     private long openingDate;
 
     transient private Storage<? extends DisputeList> storage;
+    // Uids of chatMessages for the check if we have already stored a message
+    @Getter(AccessLevel.NONE)
+    transient private final Set<String> chatMessageUids = new HashSet<>();
 
     // Added v1.2.0
     private SupportType supportType;
@@ -254,6 +260,7 @@ public final class Dispute implements NetworkPayload {
         dispute.chatMessages.addAll(proto.getChatMessageList().stream()
                 .map(ChatMessage::fromPayloadProto)
                 .collect(Collectors.toList()));
+        dispute.chatMessages.forEach(chatMessage -> dispute.chatMessageUids.add(chatMessage.getUid()));
 
         dispute.openingDate = proto.getOpeningDate();
         dispute.isClosedProperty.set(proto.getIsClosed());
@@ -280,7 +287,8 @@ public final class Dispute implements NetworkPayload {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public void addAndPersistChatMessage(ChatMessage chatMessage) {
-        if (!chatMessages.contains(chatMessage)) {
+        if (!hasChatMessage(chatMessage.getUid())) {
+            chatMessageUids.add(chatMessage.getUid());
             chatMessages.add(chatMessage);
             storage.queueUpForSave();
         } else {
@@ -288,6 +296,10 @@ public final class Dispute implements NetworkPayload {
         }
     }
 
+    public boolean hasChatMessage(String uid) {
+        return chatMessageUids.contains(uid);
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Setters
@@ -17,14 +17,23 @@
 
 package bisq.core.support.dispute;
 
+import bisq.core.support.messages.ChatMessage;
+
 import bisq.common.proto.persistable.PersistableEnvelope;
 import bisq.common.proto.persistable.PersistedDataHost;
 import bisq.common.storage.Storage;
 
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 import lombok.Getter;
@@ -38,6 +47,10 @@ import lombok.extern.slf4j.Slf4j;
  *
  * Calls to the List are delegated because this class intercepts the add/remove calls so changes
  * can be saved to disc.
+ *
+ * The disputes are indexed by tradeId and traderId and the chat messages of all disputes by uid. The indexes are kept
+ * in sync by listeners on the list and on the chat messages of each dispute, so they are not affected if the list
+ * gets changed directly (e.g. at readPersisted).
  */
 public abstract class DisputeList<T extends PersistableEnvelope> implements PersistableEnvelope, PersistedDataHost {
     transient protected final Storage<T> storage;
@@ -45,8 +58,20 @@ public abstract class DisputeList<T extends PersistableEnvelope> implements Pers
     @Getter
     protected final ObservableList<Dispute> list = FXCollections.observableArrayList();
 
+    // If there are multiple disputes for the same key we map the first one in the list
+    @ToString.Exclude
+    transient private final Map<String, Dispute> disputeByTradeIdAndTraderId = new HashMap<>();
+    @ToString.Exclude
+    transient private final Map<String, Dispute> disputeByTradeId = new HashMap<>();
+    @ToString.Exclude
+    transient private final Map<String, List<ChatMessage>> chatMessagesByUid = new HashMap<>();
+    // Dispute uses a value based hashCode over mutable fields so we use an IdentityHashMap
+    @ToString.Exclude
+    transient private final Map<Dispute, ListChangeListener<ChatMessage>> chatMessagesListenerByDispute = new IdentityHashMap<>();
+
     public DisputeList(Storage<T> storage) {
         this.storage = storage;
+        list.addListener(this::onDisputesChanged);
     }
 
 
@@ -56,6 +81,7 @@ public abstract class DisputeList<T extends PersistableEnvelope> implements Pers
 
     protected DisputeList(Storage<T> storage, List<Dispute> list) {
         this.storage = storage;
+        this.list.addListener(this::onDisputesChanged);
         this.list.addAll(list);
     }
 
@@ -65,7 +91,10 @@ public abstract class DisputeList<T extends PersistableEnvelope> implements Pers
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public boolean add(Dispute dispute) {
-        if (!list.contains(dispute)) {
+        // Only if we have a dispute with the same tradeId and traderId the dispute can be already in the list
+        boolean isContained = disputeByTradeIdAndTraderId.containsKey(getKey(dispute.getTradeId(), dispute.getTraderId())) &&
+                list.contains(dispute);
+        if (!isContained) {
             list.add(dispute);
             persist();
             return true;
@@ -102,4 +131,84 @@ public abstract class DisputeList<T extends PersistableEnvelope> implements Pers
     public Stream<Dispute> stream() {
         return list.stream();
     }
+
+    public Optional<Dispute> findDispute(String tradeId, int traderId) {
+        return Optional.ofNullable(disputeByTradeIdAndTraderId.get(getKey(tradeId, traderId)));
+    }
+
+    public Optional<Dispute> findDispute(String tradeId) {
+        return Optional.ofNullable(disputeByTradeId.get(tradeId));
+    }
+
+    public List<ChatMessage> getChatMessagesByUid(String uid) {
+        return Collections.unmodifiableList(chatMessagesByUid.getOrDefault(uid, Collections.emptyList()));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void onDisputesChanged(ListChangeListener.Change<? extends Dispute> change) {
+        while (change.next()) {
+            change.getRemoved().forEach(this::onDisputeRemoved);
+            change.getAddedSubList().forEach(this::onDisputeAdded);
+        }
+    }
+
+    private void onDisputeAdded(Dispute dispute) {
+        disputeByTradeIdAndTraderId.putIfAbsent(getKey(dispute.getTradeId(), dispute.getTraderId()), dispute);
+        disputeByTradeId.putIfAbsent(dispute.getTradeId(), dispute);
+
+        dispute.getChatMessages().forEach(this::onChatMessageAdded);
+        ListChangeListener<ChatMessage> listener = change -> {
+            while (change.next()) {
+                change.getRemoved().forEach(this::onChatMessageRemoved);
+                change.getAddedSubList().forEach(this::onChatMessageAdded);
+            }
+        };
+        dispute.getChatMessages().addListener(listener);
+        chatMessagesListenerByDispute.put(dispute, listener);
+    }
+
+    private void onDisputeRemoved(Dispute dispute) {
+        String key = getKey(dispute.getTradeId(), dispute.getTraderId());
+        if (dispute.equals(disputeByTradeIdAndTraderId.get(key))) {
+            disputeByTradeIdAndTraderId.remove(key);
+            list.stream()
+                    .filter(e -> e.getTradeId().equals(dispute.getTradeId()) && e.getTraderId() == dispute.getTraderId())
+                    .findFirst()
+                    .ifPresent(e -> disputeByTradeIdAndTraderId.put(key, e));
+        }
+        if (dispute.equals(disputeByTradeId.get(dispute.getTradeId()))) {
+            disputeByTradeId.remove(dispute.getTradeId());
+            list.stream()
+                    .filter(e -> e.getTradeId().equals(dispute.getTradeId()))
+                    .findFirst()
+                    .ifPresent(e -> disputeByTradeId.put(dispute.getTradeId(), e));
+        }
+
+        ListChangeListener<ChatMessage> listener = chatMessagesListenerByDispute.remove(dispute);
+        if (listener != null) {
+            dispute.getChatMessages().removeListener(listener);
+            dispute.getChatMessages().forEach(this::onChatMessageRemoved);
+        }
+    }
+
+    private void onChatMessageAdded(ChatMessage chatMessage) {
+        chatMessagesByUid.computeIfAbsent(chatMessage.getUid(), key -> new ArrayList<>(1)).add(chatMessage);
+    }
+
+    private void onChatMessageRemoved(ChatMessage chatMessage) {
+        List<ChatMessage> chatMessages = chatMessagesByUid.get(chatMessage.getUid());
+        if (chatMessages != null) {
+            chatMessages.removeIf(e -> e == chatMessage);
+            if (chatMessages.isEmpty())
+                chatMessagesByUid.remove(chatMessage.getUid());
+        }
+    }
+
+    private static String getKey(String tradeId, int traderId) {
+        return tradeId + "_" + traderId;
+    }
 }
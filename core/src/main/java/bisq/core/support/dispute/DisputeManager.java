@@ -48,6 +48,7 @@ import javafx.beans.property.IntegerProperty;
 
 import javafx.collections.ObservableList;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -134,6 +135,16 @@ public abstract class DisputeManager<T extends DisputeList<? extends DisputeList
                 .collect(Collectors.toList());
     }
 
+    @Override
+    protected List<ChatMessage> getChatMessagesByUid(String uid) {
+        T disputeList = getDisputeList();
+        if (disputeList == null) {
+            log.warn("disputes is null");
+            return new ArrayList<>();
+        }
+        return disputeList.getChatMessagesByUid(uid);
+    }
+
     @Override
     public boolean channelOpen(ChatMessage message) {
         return findDispute(message).isPresent();
@@ -142,7 +153,7 @@ public abstract class DisputeManager<T extends DisputeList<? extends DisputeList
     @Override
     public void addAndPersistChatMessage(ChatMessage message) {
         findDispute(message).ifPresent(dispute -> {
-            if (dispute.getChatMessages().stream().noneMatch(m -> m.getUid().equals(message.getUid()))) {
+            if (!dispute.hasChatMessage(message.getUid())) {
                 dispute.addAndPersistChatMessage(message);
             } else {
                 log.warn("We got a chatMessage that we have already stored. UId = {} TradeId = {}",
@@ -238,7 +249,7 @@ public abstract class DisputeManager<T extends DisputeList<? extends DisputeList
             log.warn("disputes is null");
             return Optional.empty();
         }
-        return disputeList.stream().filter(e -> e.getTradeId().equals(tradeId)).findAny();
+        return disputeList.findDispute(tradeId);
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -716,9 +727,7 @@ public abstract class DisputeManager<T extends DisputeList<? extends DisputeList
             log.warn("disputes is null");
             return Optional.empty();
         }
-        return disputeList.stream()
-                .filter(e -> e.getTradeId().equals(tradeId) && e.getTraderId() == traderId)
-                .findAny();
+        return disputeList.findDispute(tradeId, traderId);
     }
 
     public Optional<Dispute> findDispute(String tradeId) {
@@ -727,8 +736,6 @@ public abstract class DisputeManager<T extends DisputeList<? extends DisputeList
             log.warn("disputes is null");
             return Optional.empty();
         }
-        return disputeList.stream()
-                .filter(e -> e.getTradeId().equals(tradeId))
-                .findAny();
+        return disputeList.findDispute(tradeId);
     }
 }
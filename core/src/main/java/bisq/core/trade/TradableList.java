@@ -32,7 +32,10 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -45,6 +48,9 @@ public final class TradableList<T extends Tradable> implements PersistableEnvelo
     transient final private Storage<TradableList<T>> storage;
     @Getter
     private final ObservableList<T> list = FXCollections.observableArrayList();
+    // Lookup by id. An OpenOffer and the Trade created from it share the same id, in that case we map the first
+    // tradable in the list as that was the result of the former lookup by scanning the list.
+    transient final private Map<String, T> tradableById = new HashMap<>();
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -56,7 +62,7 @@ public final class TradableList<T extends Tradable> implements PersistableEnvelo
 
         TradableList<T> persisted = storage.initAndGetPersisted(this, fileName, 50);
         if (persisted != null)
-            list.addAll(persisted.getList());
+            addAllToList(persisted.getList());
     }
 
 
@@ -66,7 +72,7 @@ public final class TradableList<T extends Tradable> implements PersistableEnvelo
 
     private TradableList(Storage<TradableList<T>> storage, List<T> list) {
         this.storage = storage;
-        this.list.addAll(list);
+        addAllToList(list);
     }
 
     @Override
@@ -112,18 +118,44 @@ public final class TradableList<T extends Tradable> implements PersistableEnvelo
 
     public boolean add(T tradable) {
         boolean changed = list.add(tradable);
-        if (changed)
+        if (changed) {
+            tradableById.putIfAbsent(tradable.getId(), tradable);
             storage.queueUpForSave();
+        }
         return changed;
     }
 
     public boolean remove(T tradable) {
         boolean changed = list.remove(tradable);
-        if (changed)
+        if (changed) {
+            onRemoved(tradable);
             storage.queueUpForSave();
+        }
         return changed;
     }
 
+    /**
+     * Moves the tradable from this list to the target list. The tradable gets added to the target list before it
+     * gets removed from this list, so a lookup by id in both lists will find it at any time of the move.
+     *
+     * @param tradable The tradable to move
+     * @param target   The list to move the tradable to
+     * @return true if the tradable was in this list
+     */
+    public boolean moveTo(T tradable, TradableList<? super T> target) {
+        if (!list.contains(tradable))
+            return false;
+
+        if (!target.contains(tradable))
+            target.add(tradable);
+        remove(tradable);
+        return true;
+    }
+
+    public Optional<T> getTradableById(String id) {
+        return Optional.ofNullable(tradableById.get(id));
+    }
+
     public void persist() {
         storage.queueUpForSave();
     }
@@ -143,4 +175,27 @@ public final class TradableList<T extends Tradable> implements PersistableEnvelo
     public boolean contains(T thing) {
         return list.contains(thing);
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void addAllToList(List<T> tradables) {
+        list.addAll(tradables);
+        tradables.forEach(tradable -> tradableById.putIfAbsent(tradable.getId(), tradable));
+    }
+
+    private void onRemoved(T tradable) {
+        String id = tradable.getId();
+        T mappedTradable = tradableById.get(id);
+        if (mappedTradable != null && mappedTradable.equals(tradable)) {
+            tradableById.remove(id);
+            // Only if another tradable with the same id is in the list we need to scan it
+            list.stream()
+                    .filter(e -> e.getId().equals(id))
+                    .findFirst()
+                    .ifPresent(e -> tradableById.put(id, e));
+        }
+    }
 }
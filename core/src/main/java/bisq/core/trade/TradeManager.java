@@ -44,6 +44,7 @@ import bisq.core.trade.handlers.TradeResultHandler;
 import bisq.core.trade.messages.InputsForDepositTxRequest;
 import bisq.core.trade.messages.PeerPublishedDelayedPayoutTxMessage;
 import bisq.core.trade.messages.TradeMessage;
+import bisq.core.trade.protocol.TradeProtocolTracing;
 import bisq.core.trade.statistics.ReferralIdService;
 import bisq.core.trade.statistics.TradeStatisticsManager;
 import bisq.core.user.User;
@@ -205,12 +206,13 @@ public class TradeManager implements PersistedDataHost {
             if (networkEnvelope instanceof TradeMessage) {
                 TradeMessage tradeMessage = (TradeMessage) networkEnvelope;
                 String tradeId = tradeMessage.getTradeId();
-                Optional<Trade> tradeOptional = tradableList.stream().filter(e -> e.getId().equals(tradeId)).findAny();
+                Optional<Trade> tradeOptional = tradableList.getTradableById(tradeId);
                 // The mailbox message will be removed inside the tasks after they are processed successfully
                 tradeOptional.ifPresent(trade -> trade.addDecryptedMessageWithPubKey(decryptedMessageWithPubKey));
             } else if (networkEnvelope instanceof AckMessage) {
                 AckMessage ackMessage = (AckMessage) networkEnvelope;
                 if (ackMessage.getSourceType() == AckMessageSourceType.TRADE_MESSAGE) {
+                    TradeProtocolTracing.onAckMessage(ackMessage);
                     if (ackMessage.isSuccess()) {
                         log.info("Received AckMessage for {} with tradeId {} and uid {}",
                                 ackMessage.getSourceMsgClassName(), ackMessage.getSourceId(), ackMessage.getSourceUid());
@@ -559,8 +561,7 @@ public class TradeManager implements PersistedDataHost {
 
     // If trade was completed (closed without fault but might be closed by a dispute) we move it to the closed trades
     public void addTradeToClosedTrades(Trade trade) {
-        removeTrade(trade);
-        closedTradableManager.add(trade);
+        closedTradableManager.moveFrom(tradableList, trade);
 
         cleanUpAddressEntries();
     }
@@ -568,8 +569,7 @@ public class TradeManager implements PersistedDataHost {
     // If trade is in already in critical state (if taker role: taker fee; both roles: after deposit published)
     // we move the trade to failedTradesManager
     public void addTradeToFailedTrades(Trade trade) {
-        removeTrade(trade);
-        failedTradesManager.add(trade);
+        failedTradesManager.moveFrom(tradableList, trade);
 
         cleanUpAddressEntries();
     }
@@ -690,7 +690,7 @@ public class TradeManager implements PersistedDataHost {
     }
 
     public Optional<Trade> getTradeById(String tradeId) {
-        return tradableList.stream().filter(e -> e.getId().equals(tradeId)).findFirst();
+        return tradableList.getTradableById(tradeId);
     }
 
     public Stream<AddressEntry> getAddressEntriesForAvailableBalanceStream() {
@@ -76,6 +76,12 @@ public class ClosedTradableManager implements PersistedDataHost {
         closedTradables.add(tradable);
     }
 
+    // Moves the tradable from the source list. If it is not in the source list we only add it.
+    public <T extends Tradable> void moveFrom(TradableList<T> source, T tradable) {
+        if (!source.moveTo(tradable, closedTradables))
+            add(tradable);
+    }
+
     public void remove(Tradable tradable) {
         closedTradables.remove(tradable);
     }
@@ -96,7 +102,7 @@ public class ClosedTradableManager implements PersistedDataHost {
     }
 
     public Optional<Tradable> getTradableById(String id) {
-        return closedTradables.stream().filter(e -> e.getId().equals(id)).findFirst();
+        return closedTradables.getTradableById(id);
     }
 
     public Stream<Trade> getTradesStreamWithFundsLockedIn() {
@@ -75,6 +75,12 @@ public class FailedTradesManager implements PersistedDataHost {
         }
     }
 
+    // Moves the trade from the source list. If it is not in the source list we only add it.
+    public void moveFrom(TradableList<Trade> source, Trade trade) {
+        if (!source.moveTo(trade, failedTrades))
+            add(trade);
+    }
+
     public boolean wasMyOffer(Offer offer) {
         return offer.isMyOffer(keyRing);
     }
@@ -84,7 +90,7 @@ public class FailedTradesManager implements PersistedDataHost {
     }
 
     public Optional<Trade> getTradeById(String id) {
-        return failedTrades.stream().filter(e -> e.getId().equals(id)).findFirst();
+        return failedTrades.getTradableById(id);
     }
 
     public Stream<Trade> getTradesStreamWithFundsLockedIn() {
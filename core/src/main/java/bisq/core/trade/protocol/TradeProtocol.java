@@ -94,6 +94,8 @@ public abstract class TradeProtocol {
                     AckMessage ackMessage = (AckMessage) networkEnvelope;
                     if (ackMessage.getSourceType() == AckMessageSourceType.TRADE_MESSAGE &&
                             ackMessage.getSourceId().equals(trade.getId())) {
+                        TradeProtocolTracing.onAckMessage(ackMessage);
+
                         // We only handle the ack for CounterCurrencyTransferStartedMessage
                         if (ackMessage.getSourceMsgClassName().equals(CounterCurrencyTransferStartedMessage.class.getSimpleName()))
                             processModel.setPaymentStartedAckMessage(ackMessage);
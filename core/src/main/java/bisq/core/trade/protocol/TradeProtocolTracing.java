@@ -0,0 +1,72 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade.protocol;
+
+import bisq.core.trade.Trade;
+import bisq.core.trade.messages.TradeMessage;
+
+import bisq.network.p2p.AckMessage;
+
+import bisq.common.metrics.MetricsRegistry;
+import bisq.common.metrics.Span;
+import bisq.common.metrics.SpanRecorder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Records the round trip of trade messages from sending until the AckMessage of the peer is received. The durations
+ * of the trade protocol tasks are recorded by the TaskRunner.
+ */
+public class TradeProtocolTracing {
+    private static final int MAX_PENDING_MESSAGES = 1000;
+
+    private static final SpanRecorder messageRoundTrips = MetricsRegistry.getDefault().spanRecorder(
+            "bisq_trade_message_round_trip_milliseconds",
+            "Duration from sending a trade message until the AckMessage of the peer is received", "message", 1000);
+
+    // If the peer never sends an AckMessage we drop the oldest entries
+    private static final Map<String, SpanRecorder.RunningSpan> pendingByUid =
+            new LinkedHashMap<String, SpanRecorder.RunningSpan>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, SpanRecorder.RunningSpan> eldest) {
+                    return size() > MAX_PENDING_MESSAGES;
+                }
+            };
+
+    public static SpanRecorder getMessageRoundTrips() {
+        return messageRoundTrips;
+    }
+
+    public static void onMessageSent(Trade trade, TradeMessage message) {
+        SpanRecorder.RunningSpan span = messageRoundTrips.start(message.getClass().getSimpleName(), trade.getId(),
+                trade.getState().getPhase().name());
+        synchronized (pendingByUid) {
+            pendingByUid.put(message.getUid(), span);
+        }
+    }
+
+    public static void onAckMessage(AckMessage ackMessage) {
+        SpanRecorder.RunningSpan span;
+        synchronized (pendingByUid) {
+            span = pendingByUid.remove(ackMessage.getSourceUid());
+        }
+        if (span != null)
+            span.end(ackMessage.isSuccess() ? Span.Outcome.SUCCESS : Span.Outcome.FAILED);
+    }
+}
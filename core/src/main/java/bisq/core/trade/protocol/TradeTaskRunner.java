@@ -24,9 +24,21 @@ import bisq.common.handlers.ResultHandler;
 import bisq.common.taskrunner.TaskRunner;
 
 public class TradeTaskRunner extends TaskRunner<Trade> {
+    private final Trade trade;
 
     public TradeTaskRunner(Trade sharedModel, ResultHandler resultHandler, ErrorMessageHandler errorMessageHandler) {
         //noinspection unchecked
         super(sharedModel, (Class<Trade>) sharedModel.getClass().getSuperclass().getSuperclass(), resultHandler, errorMessageHandler);
+        this.trade = sharedModel;
+    }
+
+    @Override
+    protected String getTraceId() {
+        return trade.getId();
+    }
+
+    @Override
+    protected String getPhase() {
+        return trade.getState().getPhase().name();
     }
 }
@@ -19,16 +19,18 @@ package bisq.core.trade.protocol.tasks;
 
 import bisq.core.trade.Trade;
 import bisq.core.trade.messages.TradeMessage;
+import bisq.core.trade.protocol.TradeProtocolTracing;
 
 import bisq.network.p2p.NodeAddress;
 import bisq.network.p2p.SendMailboxMessageListener;
 
+import bisq.common.taskrunner.PersistBeforeRun;
 import bisq.common.taskrunner.TaskRunner;
 
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
-public abstract class SendPayoutTxPublishedMessage extends TradeTask {
+public abstract class SendPayoutTxPublishedMessage extends TradeTask implements PersistBeforeRun {
     @SuppressWarnings({"unused"})
     public SendPayoutTxPublishedMessage(TaskRunner taskHandler, Trade trade) {
         super(taskHandler, trade);
@@ -56,6 +58,7 @@ public abstract class SendPayoutTxPublishedMessage extends TradeTask {
                 log.info("Send {} to peer {}. tradeId={}, uid={}",
                         message.getClass().getSimpleName(), peersNodeAddress, message.getTradeId(), message.getUid());
 
+                TradeProtocolTracing.onMessageSent(trade, message);
                 processModel.getP2PService().sendEncryptedMailboxMessage(
                         peersNodeAddress,
                         processModel.getTradingPeer().getPubKeyRing(),
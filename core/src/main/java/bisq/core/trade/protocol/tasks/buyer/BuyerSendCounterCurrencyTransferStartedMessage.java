@@ -21,11 +21,13 @@ import bisq.core.btc.model.AddressEntry;
 import bisq.core.btc.wallet.BtcWalletService;
 import bisq.core.trade.Trade;
 import bisq.core.trade.messages.CounterCurrencyTransferStartedMessage;
+import bisq.core.trade.protocol.TradeProtocolTracing;
 import bisq.core.trade.protocol.tasks.TradeTask;
 
 import bisq.network.p2p.NodeAddress;
 import bisq.network.p2p.SendMailboxMessageListener;
 
+import bisq.common.taskrunner.PersistBeforeRun;
 import bisq.common.taskrunner.TaskRunner;
 
 import java.util.UUID;
@@ -33,7 +35,7 @@ import java.util.UUID;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
-public class BuyerSendCounterCurrencyTransferStartedMessage extends TradeTask {
+public class BuyerSendCounterCurrencyTransferStartedMessage extends TradeTask implements PersistBeforeRun {
     @SuppressWarnings({"unused"})
     public BuyerSendCounterCurrencyTransferStartedMessage(TaskRunner taskHandler, Trade trade) {
         super(taskHandler, trade);
@@ -60,6 +62,7 @@ public class BuyerSendCounterCurrencyTransferStartedMessage extends TradeTask {
             log.info("Send {} to peer {}. tradeId={}, uid={}",
                     message.getClass().getSimpleName(), peersNodeAddress, message.getTradeId(), message.getUid());
             trade.setState(Trade.State.BUYER_SENT_FIAT_PAYMENT_INITIATED_MSG);
+            TradeProtocolTracing.onMessageSent(trade, message);
             processModel.getP2PService().sendEncryptedMailboxMessage(
                     peersNodeAddress,
                     processModel.getTradingPeer().getPubKeyRing(),
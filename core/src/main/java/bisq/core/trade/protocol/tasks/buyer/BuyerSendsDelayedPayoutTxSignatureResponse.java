@@ -19,11 +19,13 @@ package bisq.core.trade.protocol.tasks.buyer;
 
 import bisq.core.trade.Trade;
 import bisq.core.trade.messages.DelayedPayoutTxSignatureResponse;
+import bisq.core.trade.protocol.TradeProtocolTracing;
 import bisq.core.trade.protocol.tasks.TradeTask;
 
 import bisq.network.p2p.NodeAddress;
 import bisq.network.p2p.SendDirectMessageListener;
 
+import bisq.common.taskrunner.PersistBeforeRun;
 import bisq.common.taskrunner.TaskRunner;
 
 import java.util.UUID;
@@ -33,7 +35,7 @@ import lombok.extern.slf4j.Slf4j;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 @Slf4j
-public class BuyerSendsDelayedPayoutTxSignatureResponse extends TradeTask {
+public class BuyerSendsDelayedPayoutTxSignatureResponse extends TradeTask implements PersistBeforeRun {
     @SuppressWarnings({"unused"})
     public BuyerSendsDelayedPayoutTxSignatureResponse(TaskRunner taskHandler, Trade trade) {
         super(taskHandler, trade);
@@ -55,6 +57,7 @@ public class BuyerSendsDelayedPayoutTxSignatureResponse extends TradeTask {
             NodeAddress peersNodeAddress = trade.getTradingPeerNodeAddress();
             log.info("Send {} to peer {}. tradeId={}, uid={}",
                     message.getClass().getSimpleName(), peersNodeAddress, message.getTradeId(), message.getUid());
+            TradeProtocolTracing.onMessageSent(trade, message);
             processModel.getP2PService().sendEncryptedDirectMessage(
                     peersNodeAddress,
                     processModel.getTradingPeer().getPubKeyRing(),
@@ -19,11 +19,13 @@ package bisq.core.trade.protocol.tasks.buyer_as_taker;
 
 import bisq.core.trade.Trade;
 import bisq.core.trade.messages.DepositTxMessage;
+import bisq.core.trade.protocol.TradeProtocolTracing;
 import bisq.core.trade.protocol.tasks.TradeTask;
 
 import bisq.network.p2p.NodeAddress;
 import bisq.network.p2p.SendDirectMessageListener;
 
+import bisq.common.taskrunner.PersistBeforeRun;
 import bisq.common.taskrunner.TaskRunner;
 
 import java.util.UUID;
@@ -31,7 +33,7 @@ import java.util.UUID;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
-public class BuyerAsTakerSendsDepositTxMessage extends TradeTask {
+public class BuyerAsTakerSendsDepositTxMessage extends TradeTask implements PersistBeforeRun {
     @SuppressWarnings({"unused"})
     public BuyerAsTakerSendsDepositTxMessage(TaskRunner taskHandler, Trade trade) {
         super(taskHandler, trade);
@@ -52,6 +54,7 @@ public class BuyerAsTakerSendsDepositTxMessage extends TradeTask {
                 NodeAddress peersNodeAddress = trade.getTradingPeerNodeAddress();
                 log.info("Send {} to peer {}. tradeId={}, uid={}",
                         message.getClass().getSimpleName(), peersNodeAddress, message.getTradeId(), message.getUid());
+                TradeProtocolTracing.onMessageSent(trade, message);
                 processModel.getP2PService().sendEncryptedDirectMessage(
                         peersNodeAddress,
                         processModel.getTradingPeer().getPubKeyRing(),
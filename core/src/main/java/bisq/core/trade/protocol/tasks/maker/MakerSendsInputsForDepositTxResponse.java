@@ -22,12 +22,14 @@ import bisq.core.btc.wallet.BtcWalletService;
 import bisq.core.payment.payload.PaymentAccountPayload;
 import bisq.core.trade.Trade;
 import bisq.core.trade.messages.InputsForDepositTxResponse;
+import bisq.core.trade.protocol.TradeProtocolTracing;
 import bisq.core.trade.protocol.tasks.TradeTask;
 
 import bisq.network.p2p.NodeAddress;
 import bisq.network.p2p.SendDirectMessageListener;
 
 import bisq.common.crypto.Sig;
+import bisq.common.taskrunner.PersistBeforeRun;
 import bisq.common.taskrunner.TaskRunner;
 
 import java.util.Arrays;
@@ -41,7 +43,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 @Slf4j
-public abstract class MakerSendsInputsForDepositTxResponse extends TradeTask {
+public abstract class MakerSendsInputsForDepositTxResponse extends TradeTask implements PersistBeforeRun {
     @SuppressWarnings({"unused"})
     public MakerSendsInputsForDepositTxResponse(TaskRunner taskHandler, Trade trade) {
         super(taskHandler, trade);
@@ -94,6 +96,7 @@ public abstract class MakerSendsInputsForDepositTxResponse extends TradeTask {
             NodeAddress peersNodeAddress = trade.getTradingPeerNodeAddress();
             log.info("Send {} to peer {}. tradeId={}, uid={}",
                     message.getClass().getSimpleName(), peersNodeAddress, message.getTradeId(), message.getUid());
+            TradeProtocolTracing.onMessageSent(trade, message);
             processModel.getP2PService().sendEncryptedDirectMessage(
                     peersNodeAddress,
                     processModel.getTradingPeer().getPubKeyRing(),
@@ -21,6 +21,7 @@ import bisq.core.support.dispute.mediation.MediationResultState;
 import bisq.core.trade.Contract;
 import bisq.core.trade.Trade;
 import bisq.core.trade.messages.MediatedPayoutTxSignatureMessage;
+import bisq.core.trade.protocol.TradeProtocolTracing;
 import bisq.core.trade.protocol.tasks.TradeTask;
 
 import bisq.network.p2p.NodeAddress;
@@ -28,6 +29,7 @@ import bisq.network.p2p.P2PService;
 import bisq.network.p2p.SendMailboxMessageListener;
 
 import bisq.common.crypto.PubKeyRing;
+import bisq.common.taskrunner.PersistBeforeRun;
 import bisq.common.taskrunner.TaskRunner;
 
 import java.util.UUID;
@@ -37,7 +39,7 @@ import lombok.extern.slf4j.Slf4j;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 @Slf4j
-public class SendMediatedPayoutSignatureMessage extends TradeTask {
+public class SendMediatedPayoutSignatureMessage extends TradeTask implements PersistBeforeRun {
     @SuppressWarnings({"unused"})
     public SendMediatedPayoutSignatureMessage(TaskRunner taskHandler, Trade trade) {
         super(taskHandler, trade);
@@ -61,6 +63,7 @@ public class SendMediatedPayoutSignatureMessage extends TradeTask {
                     message.getClass().getSimpleName(), peersNodeAddress, message.getTradeId(), message.getUid());
 
             trade.setMediationResultState(MediationResultState.SIG_MSG_SENT);
+            TradeProtocolTracing.onMessageSent(trade, message);
             p2PService.sendEncryptedMailboxMessage(peersNodeAddress,
                     peersPubKeyRing,
                     message,
@@ -19,11 +19,13 @@ package bisq.core.trade.protocol.tasks.seller;
 
 import bisq.core.trade.Trade;
 import bisq.core.trade.messages.DepositTxAndDelayedPayoutTxMessage;
+import bisq.core.trade.protocol.TradeProtocolTracing;
 import bisq.core.trade.protocol.tasks.TradeTask;
 
 import bisq.network.p2p.NodeAddress;
 import bisq.network.p2p.SendMailboxMessageListener;
 
+import bisq.common.taskrunner.PersistBeforeRun;
 import bisq.common.taskrunner.TaskRunner;
 
 import org.bitcoinj.core.Transaction;
@@ -35,7 +37,7 @@ import lombok.extern.slf4j.Slf4j;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 @Slf4j
-public class SellerSendsDepositTxAndDelayedPayoutTxMessage extends TradeTask {
+public class SellerSendsDepositTxAndDelayedPayoutTxMessage extends TradeTask implements PersistBeforeRun {
     @SuppressWarnings({"unused"})
     public SellerSendsDepositTxAndDelayedPayoutTxMessage(TaskRunner taskHandler, Trade trade) {
         super(taskHandler, trade);
@@ -58,6 +60,7 @@ public class SellerSendsDepositTxAndDelayedPayoutTxMessage extends TradeTask {
                 NodeAddress peersNodeAddress = trade.getTradingPeerNodeAddress();
                 log.info("Send {} to peer {}. tradeId={}, uid={}",
                         message.getClass().getSimpleName(), peersNodeAddress, message.getTradeId(), message.getUid());
+                TradeProtocolTracing.onMessageSent(trade, message);
                 processModel.getP2PService().sendEncryptedMailboxMessage(
                         peersNodeAddress,
                         processModel.getTradingPeer().getPubKeyRing(),
@@ -22,6 +22,7 @@ import bisq.core.btc.wallet.BtcWalletService;
 import bisq.core.payment.payload.PaymentAccountPayload;
 import bisq.core.trade.Trade;
 import bisq.core.trade.messages.InputsForDepositTxRequest;
+import bisq.core.trade.protocol.TradeProtocolTracing;
 import bisq.core.trade.protocol.tasks.TradeTask;
 import bisq.core.user.User;
 
@@ -30,6 +31,7 @@ import bisq.network.p2p.SendDirectMessageListener;
 
 import bisq.common.app.Version;
 import bisq.common.crypto.Sig;
+import bisq.common.taskrunner.PersistBeforeRun;
 import bisq.common.taskrunner.TaskRunner;
 
 import com.google.common.base.Charsets;
@@ -45,7 +47,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 @Slf4j
-public class TakerSendInputsForDepositTxRequest extends TradeTask {
+public class TakerSendInputsForDepositTxRequest extends TradeTask implements PersistBeforeRun {
     @SuppressWarnings({"unused"})
     public TakerSendInputsForDepositTxRequest(TaskRunner taskHandler, Trade trade) {
         super(taskHandler, trade);
@@ -117,6 +119,7 @@ public class TakerSendInputsForDepositTxRequest extends TradeTask {
             log.info("Send {} with offerId {} and uid {} to peer {}",
                     message.getClass().getSimpleName(), message.getTradeId(),
                     message.getUid(), trade.getTradingPeerNodeAddress());
+            TradeProtocolTracing.onMessageSent(trade, message);
             processModel.getP2PService().sendEncryptedDirectMessage(
                     trade.getTradingPeerNodeAddress(),
                     processModel.getTradingPeer().getPubKeyRing(),
@@ -0,0 +1,132 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.btc.model;
+
+import bisq.core.app.BisqEnvironment;
+
+import bisq.common.storage.Storage;
+
+import org.bitcoinj.core.Context;
+import org.bitcoinj.core.NetworkParameters;
+import org.bitcoinj.wallet.Wallet;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SuppressWarnings("unchecked")
+public class AddressEntryListTest {
+    private Wallet wallet;
+    private AddressEntryList addressEntryList;
+
+    @Before
+    public void setup() {
+        NetworkParameters params = BisqEnvironment.getParameters();
+        Context.propagate(new Context(params));
+        wallet = new Wallet(params);
+        addressEntryList = new AddressEntryList(mock(Storage.class));
+        addressEntryList.readPersisted();
+        addressEntryList.onWalletReady(wallet);
+    }
+
+    @Test
+    public void testLookupsAfterAddAndSwap() {
+        for (int i = 0; i < 20; i++) {
+            addressEntryList.addAddressEntry(new AddressEntry(wallet.freshReceiveKey(), AddressEntry.Context.AVAILABLE));
+        }
+        AddressEntry available = addressEntryList.getAddressEntries(AddressEntry.Context.AVAILABLE).get(3);
+
+        AddressEntry offerFunding = addressEntryList.swapAvailableToAddressEntryWithOfferId(available,
+                AddressEntry.Context.OFFER_FUNDING, "offerId");
+        assertSame(offerFunding, addressEntryList.findAddressEntry("offerId", AddressEntry.Context.OFFER_FUNDING).get());
+        assertSame(offerFunding, addressEntryList.findAddressEntryByAddress(available.getAddressString(),
+                AddressEntry.Context.OFFER_FUNDING).get());
+        assertFalse(addressEntryList.findAddressEntryByAddress(available.getAddressString(),
+                AddressEntry.Context.AVAILABLE).isPresent());
+        assertIndexesMatchList();
+
+        AddressEntry multiSig = new AddressEntry(wallet.freshReceiveKey(), AddressEntry.Context.MULTI_SIG, "offerId");
+        addressEntryList.addAddressEntry(multiSig);
+        assertSame(multiSig, addressEntryList.findAddressEntry("offerId", AddressEntry.Context.MULTI_SIG).get());
+        assertIndexesMatchList();
+
+        addressEntryList.swapToAvailable(offerFunding);
+        assertFalse(addressEntryList.findAddressEntry("offerId", AddressEntry.Context.OFFER_FUNDING).isPresent());
+        assertTrue(addressEntryList.findAddressEntryByAddress(available.getAddressString(),
+                AddressEntry.Context.AVAILABLE).isPresent());
+        assertIndexesMatchList();
+
+        addressEntryList.swapTradeToSavings("offerId");
+        assertFalse(addressEntryList.findAddressEntry("offerId", AddressEntry.Context.MULTI_SIG).isPresent());
+        assertEquals(21, addressEntryList.getAddressEntries(AddressEntry.Context.AVAILABLE).size());
+        assertIndexesMatchList();
+    }
+
+    @Test
+    public void testIndexesOfPersistedList() {
+        addressEntryList.addAddressEntry(new AddressEntry(wallet.freshReceiveKey(), AddressEntry.Context.OFFER_FUNDING,
+                "offerId"));
+        addressEntryList.addAddressEntry(new AddressEntry(wallet.freshReceiveKey(), AddressEntry.Context.AVAILABLE));
+
+        // Persisted entries get their keys and addresses only when the wallet is ready
+        AddressEntryList persisted = AddressEntryList.fromProto(
+                ((protobuf.PersistableEnvelope) addressEntryList.toProtoMessage()).getAddressEntryList());
+        Storage<AddressEntryList> storage = mock(Storage.class);
+        when(storage.initAndGetPersisted(any(), anyLong())).thenReturn(persisted);
+        AddressEntryList restored = new AddressEntryList(storage);
+        restored.readPersisted();
+        assertTrue(restored.findAddressEntry("offerId", AddressEntry.Context.OFFER_FUNDING).isPresent());
+
+        restored.onWalletReady(wallet);
+        AddressEntry offerFunding = restored.findAddressEntry("offerId", AddressEntry.Context.OFFER_FUNDING).get();
+        assertSame(offerFunding, restored.findAddressEntryByAddress(offerFunding.getAddressString(),
+                AddressEntry.Context.OFFER_FUNDING).get());
+        assertEquals(1, restored.getAddressEntries(AddressEntry.Context.AVAILABLE).size());
+        assertEquals(1, restored.getAddressEntries(AddressEntry.Context.ARBITRATOR).size());
+    }
+
+    private void assertIndexesMatchList() {
+        List<AddressEntry> list = addressEntryList.getList();
+        for (AddressEntry.Context context : AddressEntry.Context.values()) {
+            assertEquals(list.stream().filter(e -> e.getContext() == context).collect(Collectors.toList()),
+                    addressEntryList.getAddressEntries(context));
+        }
+        for (AddressEntry addressEntry : list) {
+            Optional<AddressEntry> byAddress = addressEntryList.findAddressEntryByAddress(
+                    addressEntry.getAddressString(), addressEntry.getContext());
+            assertSame(addressEntry, byAddress.get());
+            if (addressEntry.getOfferId() != null) {
+                assertSame(addressEntry, addressEntryList.findAddressEntry(addressEntry.getOfferId(),
+                        addressEntry.getContext()).get());
+            }
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.btc.wallet;
+
+import bisq.core.app.BisqEnvironment;
+
+import org.bitcoinj.core.Address;
+import org.bitcoinj.core.Coin;
+import org.bitcoinj.core.Context;
+import org.bitcoinj.core.NetworkParameters;
+import org.bitcoinj.core.Sha256Hash;
+import org.bitcoinj.core.Transaction;
+import org.bitcoinj.core.TransactionConfidence;
+import org.bitcoinj.core.TransactionInput;
+import org.bitcoinj.core.TransactionOutPoint;
+import org.bitcoinj.core.TransactionOutput;
+import org.bitcoinj.wallet.Wallet;
+import org.bitcoinj.wallet.WalletTransaction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AddressUtxoIndexTest {
+    private static final int NUM_ADDRESSES = 20;
+
+    private NetworkParameters params;
+    private Wallet wallet;
+    private AddressUtxoIndex index;
+    private final List<Address> addresses = new ArrayList<>();
+    private int txCounter;
+    private Transaction pendingTx;
+
+    @Before
+    public void setup() {
+        // WalletService derives the addresses of outputs with the params of the base currency network
+        params = BisqEnvironment.getParameters();
+        Context.propagate(new Context(params));
+        wallet = new Wallet(params);
+        for (int i = 0; i < NUM_ADDRESSES; i++) {
+            addresses.add(wallet.freshReceiveAddress());
+        }
+        // An address which is not ours
+        addresses.add(new Wallet(params).freshReceiveAddress());
+    }
+
+    @After
+    public void tearDown() {
+        if (index != null)
+            index.shutDown();
+    }
+
+    @Test
+    public void testIndexOfExistingWallet() {
+        for (int i = 0; i < 2000; i++) {
+            addConfirmedTx(addresses.get(i % addresses.size()), Coin.valueOf(10000 + i));
+        }
+
+        index = new AddressUtxoIndex(wallet);
+        index.start();
+        assertIndexMatchesWallet();
+        assertEquals(96, index.getSpendCandidates(addresses.get(0)).size());
+        assertEquals(0, index.getSpendCandidates(addresses.get(NUM_ADDRESSES)).size());
+        assertEquals(95, index.getNumTxOutputs(addresses.get(NUM_ADDRESSES)));
+    }
+
+    @Test
+    public void testIndexIsUpdatedByWalletEvents() throws Exception {
+        for (int i = 0; i < 200; i++) {
+            addConfirmedTx(addresses.get(i % NUM_ADDRESSES), Coin.COIN);
+        }
+        index = new AddressUtxoIndex(wallet);
+        index.start();
+
+        // Received pending txs
+        for (int i = 0; i < 50; i++) {
+            wallet.receivePending(createTx(addresses.get(i % NUM_ADDRESSES), Coin.CENT), null);
+        }
+        assertIndexMatchesWallet();
+
+        // Spends confirmed outputs and sends the change back to us
+        for (int i = 0; i < 20; i++) {
+            Transaction tx = wallet.createSend(addresses.get(NUM_ADDRESSES), Coin.valueOf(3, 0));
+            wallet.commitTx(tx);
+        }
+        assertIndexMatchesWallet();
+        assertTrue(wallet.getTransactionPool(WalletTransaction.Pool.SPENT).size() > 0);
+    }
+
+    @Test
+    public void testRebuildAfterReorganize() {
+        index = new AddressUtxoIndex(wallet);
+        index.start();
+        assertEquals(Coin.ZERO, getIndexedBalance(addresses.get(0)));
+
+        // Transactions which are added without wallet events are picked up at a reorg
+        addConfirmedTx(addresses.get(0), Coin.COIN);
+        index.onReorganize(wallet);
+        assertEquals(Coin.COIN, getIndexedBalance(addresses.get(0)));
+        assertIndexMatchesWallet();
+    }
+
+    @Test
+    public void testWalletEventWhileReadingForRebuild() {
+        // The pending tx is received after the index has read the wallet transactions, like a wallet event on another
+        // thread would be
+        wallet = new Wallet(params) {
+            private boolean isPendingTxReceived;
+
+            @Override
+            public Set<Transaction> getTransactions(boolean includeDead) {
+                Set<Transaction> transactions = super.getTransactions(includeDead);
+                if (!isPendingTxReceived) {
+                    isPendingTxReceived = true;
+                    receivePending(pendingTx, null);
+                }
+                return transactions;
+            }
+        };
+        addresses.clear();
+        for (int i = 0; i < NUM_ADDRESSES; i++) {
+            addresses.add(wallet.freshReceiveAddress());
+        }
+        addConfirmedTx(addresses.get(0), Coin.COIN);
+        pendingTx = createTx(addresses.get(1), Coin.CENT);
+
+        index = new AddressUtxoIndex(wallet);
+        index.start();
+        assertEquals(Coin.CENT, getIndexedBalance(addresses.get(1)));
+        assertIndexMatchesWallet();
+    }
+
+    private void assertIndexMatchesWallet() {
+        List<TransactionOutput> spendCandidates = wallet.calculateAllSpendCandidates();
+        for (Address address : addresses) {
+            Coin expectedBalance = spendCandidates.stream()
+                    .filter(output -> address.equals(WalletService.getAddressFromOutput(output)))
+                    .map(TransactionOutput::getValue)
+                    .reduce(Coin.ZERO, Coin::add);
+            long expectedNumOutputs = wallet.getTransactions(false).stream()
+                    .flatMap(tx -> tx.getOutputs().stream())
+                    .filter(output -> address.equals(WalletService.getAddressFromOutput(output)))
+                    .count();
+
+            assertEquals(expectedBalance, getIndexedBalance(address));
+            assertEquals(expectedNumOutputs, index.getNumTxOutputs(address));
+        }
+    }
+
+    private Coin getIndexedBalance(Address address) {
+        return index.getSpendCandidates(address).stream()
+                .map(TransactionOutput::getValue)
+                .reduce(Coin.ZERO, Coin::add);
+    }
+
+    private void addConfirmedTx(Address address, Coin value) {
+        Transaction tx = createTx(address, value);
+        tx.getConfidence().setConfidenceType(TransactionConfidence.ConfidenceType.BUILDING);
+        tx.getConfidence().setAppearedAtChainHeight(1);
+        wallet.addWalletTransaction(new WalletTransaction(WalletTransaction.Pool.UNSPENT, tx));
+    }
+
+    // Tx with an input from a foreign tx
+    private Transaction createTx(Address address, Coin value) {
+        Transaction tx = new Transaction(params);
+        Sha256Hash fundingTxId = Sha256Hash.of(("fundingTx" + txCounter++).getBytes());
+        tx.addInput(new TransactionInput(params, tx, new byte[]{}, new TransactionOutPoint(params, 0, fundingTxId)));
+        tx.addOutput(value, address);
+        return tx;
+    }
+}
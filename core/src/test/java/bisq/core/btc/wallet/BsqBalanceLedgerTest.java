@@ -0,0 +1,249 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.btc.wallet;
+
+import bisq.core.app.BisqEnvironment;
+import bisq.core.dao.state.DaoStateBlockArchive;
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.GenesisTxInfo;
+import bisq.core.dao.state.model.DaoState;
+import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.blockchain.Tx;
+import bisq.core.dao.state.model.blockchain.TxOutputType;
+import bisq.core.dao.state.model.blockchain.TxType;
+import bisq.core.dao.state.unconfirmed.UnconfirmedBsqChangeOutputListService;
+import bisq.core.util.coin.BsqFormatter;
+
+import org.bitcoinj.core.Address;
+import org.bitcoinj.core.Coin;
+import org.bitcoinj.core.Context;
+import org.bitcoinj.core.NetworkParameters;
+import org.bitcoinj.core.Sha256Hash;
+import org.bitcoinj.core.Transaction;
+import org.bitcoinj.core.TransactionConfidence;
+import org.bitcoinj.core.TransactionInput;
+import org.bitcoinj.core.TransactionOutPoint;
+import org.bitcoinj.wallet.Wallet;
+import org.bitcoinj.wallet.WalletTransaction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BsqBalanceLedgerTest {
+    private NetworkParameters params;
+    private Wallet wallet;
+    private Address address;
+    private DaoStateService daoStateService;
+    private UnconfirmedBsqChangeOutputListService unconfirmedBsqChangeOutputListService;
+    private Transaction lockupTx;
+    private int txCounter;
+
+    @Before
+    public void setup() throws Exception {
+        params = BisqEnvironment.getParameters();
+        Context.propagate(new Context(params));
+        wallet = new Wallet(params);
+        address = wallet.freshReceiveAddress();
+
+        daoStateService = new DaoStateService(new DaoState(),
+                new GenesisTxInfo("genesisTxId", 100, Coin.parseCoin("2.5").value),
+                new BsqFormatter(),
+                mock(DaoStateBlockArchive.class));
+        unconfirmedBsqChangeOutputListService = mock(UnconfirmedBsqChangeOutputListService.class);
+        when(unconfirmedBsqChangeOutputListService.getBalance()).thenReturn(Coin.valueOf(700));
+        parseBlock(100, Collections.emptyList());
+
+        Transaction bsqTx = addConfirmedTx(Coin.valueOf(100000));
+        // A BTC output is not known in the DAO state
+        addConfirmedTx(Coin.valueOf(50000));
+        lockupTx = addConfirmedTx(Coin.valueOf(20000));
+        Transaction blindVoteTx = addConfirmedTx(Coin.valueOf(30000));
+        parseBlock(101, Arrays.asList(
+                createDaoTx(bsqTx, 101, TxType.TRANSFER_BSQ, TxOutputType.BSQ_OUTPUT),
+                createDaoTx(lockupTx, 101, TxType.LOCKUP, TxOutputType.LOCKUP_OUTPUT),
+                createDaoTx(blindVoteTx, 101, TxType.BLIND_VOTE, TxOutputType.BLIND_VOTE_LOCK_STAKE_OUTPUT)));
+    }
+
+    @Test
+    public void testRecalculate() {
+        BsqBalanceLedger ledger = createLedger();
+        ledger.recalculate(wallet);
+
+        assertEquals(Coin.valueOf(100000), ledger.getBalance(BsqBalanceLedger.Category.AVAILABLE_CONFIRMED));
+        assertEquals(Coin.valueOf(50000), ledger.getBalance(BsqBalanceLedger.Category.AVAILABLE_NON_BSQ));
+        assertEquals(Coin.ZERO, ledger.getBalance(BsqBalanceLedger.Category.UNVERIFIED));
+        assertEquals(Coin.valueOf(700), ledger.getBalance(BsqBalanceLedger.Category.UNCONFIRMED_CHANGE));
+        assertEquals(Coin.valueOf(30000), ledger.getBalance(BsqBalanceLedger.Category.LOCKED_FOR_VOTING));
+        assertEquals(Coin.valueOf(20000), ledger.getBalance(BsqBalanceLedger.Category.LOCKUP_BONDS));
+        assertEquals(Coin.ZERO, ledger.getBalance(BsqBalanceLedger.Category.UNLOCKING_BONDS));
+    }
+
+    @Test
+    public void testUpdateMatchesRecalculation() throws Exception {
+        BsqBalanceLedger ledger = createLedger();
+        ledger.recalculate(wallet);
+        List<BsqBalanceLedger.BalanceChange> balanceChanges = new ArrayList<>();
+        ledger.addBalanceChangeListener(balanceChanges::add);
+
+        Transaction pendingTx = createTx(Coin.valueOf(4000));
+        wallet.receivePending(pendingTx, null);
+        Transaction newBsqTx = addConfirmedTx(Coin.valueOf(6000));
+        parseBlock(102, Collections.singletonList(
+                createDaoTx(newBsqTx, 102, TxType.TRANSFER_BSQ, TxOutputType.BSQ_OUTPUT)));
+        ledger.update(wallet, Collections.singletonList(newBsqTx));
+
+        assertEquals(Coin.valueOf(4000), ledger.getBalance(BsqBalanceLedger.Category.UNVERIFIED));
+        assertEquals(Coin.valueOf(106000), ledger.getBalance(BsqBalanceLedger.Category.AVAILABLE_CONFIRMED));
+        assertBalancesMatchRecalculation(ledger);
+        assertEquals(2, balanceChanges.size());
+
+        List<BsqBalanceLedger.BalanceChange> history = ledger.getHistory(BsqBalanceLedger.Category.AVAILABLE_CONFIRMED);
+        assertEquals(2, history.size());
+        assertEquals(Coin.valueOf(100000), history.get(1).getPreviousBalance());
+        assertEquals(Coin.valueOf(106000), history.get(1).getBalance());
+
+        // Bonds get updated without being reported as changed
+        parseBlock(103, Collections.emptyList(), () -> daoStateService.confiscateBond(lockupTx.getHashAsString()));
+        ledger.update(wallet, Collections.emptyList());
+        assertEquals(Coin.ZERO, ledger.getBalance(BsqBalanceLedger.Category.LOCKUP_BONDS));
+        assertBalancesMatchRecalculation(ledger);
+    }
+
+    @Test
+    public void testTxsOfAllParsedBlocksAreReported() {
+        BsqBalanceLedger ledger = createLedger();
+        ledger.recalculate(wallet);
+        // At the first call we don't know which blocks have been parsed before
+        assertFalse(ledger.getTxsOfParsedDaoBlocks(wallet, daoStateService.getLastBlock().get()).isPresent());
+
+        Transaction txOfBlock102 = addConfirmedTx(Coin.valueOf(5000));
+        parseBlock(102, Collections.singletonList(
+                createDaoTx(txOfBlock102, 102, TxType.TRANSFER_BSQ, TxOutputType.BSQ_OUTPUT)));
+        Transaction txOfBlock103 = addConfirmedTx(Coin.valueOf(3000));
+        Block block103 = parseBlock(103, Collections.singletonList(
+                createDaoTx(txOfBlock103, 103, TxType.TRANSFER_BSQ, TxOutputType.BSQ_OUTPUT)));
+        Block block104 = parseBlock(104, Collections.emptyList());
+
+        // If a chunk of blocks got parsed we only get called with the last block
+        Set<Transaction> txs = ledger.getTxsOfParsedDaoBlocks(wallet, block104).get();
+        assertEquals(new HashSet<>(Arrays.asList(txOfBlock102, txOfBlock103)), txs);
+        ledger.update(wallet, txs);
+        assertEquals(Coin.valueOf(108000), ledger.getBalance(BsqBalanceLedger.Category.AVAILABLE_CONFIRMED));
+        assertBalancesMatchRecalculation(ledger);
+
+        assertTrue(ledger.getTxsOfParsedDaoBlocks(wallet, block104).get().isEmpty());
+        // A lower height than at the last call requires a full recalculation
+        assertFalse(ledger.getTxsOfParsedDaoBlocks(wallet, block103).isPresent());
+    }
+
+    @Test
+    public void testCheckConsistency() {
+        BsqBalanceLedger ledger = createLedger();
+        ledger.recalculate(wallet);
+        assertTrue(ledger.checkConsistency(wallet));
+
+        // A tx which was added without the ledger being updated
+        addConfirmedTx(Coin.valueOf(8000));
+        assertFalse(ledger.checkConsistency(wallet));
+        assertEquals(Coin.valueOf(58000), ledger.getBalance(BsqBalanceLedger.Category.AVAILABLE_NON_BSQ));
+        assertTrue(ledger.checkConsistency(wallet));
+    }
+
+    private BsqBalanceLedger createLedger() {
+        return new BsqBalanceLedger(daoStateService,
+                new BsqCoinSelector(daoStateService, unconfirmedBsqChangeOutputListService),
+                new NonBsqCoinSelector(daoStateService),
+                unconfirmedBsqChangeOutputListService);
+    }
+
+    private void assertBalancesMatchRecalculation(BsqBalanceLedger ledger) {
+        BsqBalanceLedger recalculatedLedger = createLedger();
+        recalculatedLedger.recalculate(wallet);
+        for (BsqBalanceLedger.Category category : BsqBalanceLedger.Category.values()) {
+            assertEquals(category.name(), recalculatedLedger.getBalance(category), ledger.getBalance(category));
+        }
+    }
+
+    private Transaction addConfirmedTx(Coin value) {
+        Transaction tx = createTx(value);
+        tx.getConfidence().setConfidenceType(TransactionConfidence.ConfidenceType.BUILDING);
+        tx.getConfidence().setAppearedAtChainHeight(1);
+        wallet.addWalletTransaction(new WalletTransaction(WalletTransaction.Pool.UNSPENT, tx));
+        return tx;
+    }
+
+    // Tx with an input from a foreign tx
+    private Transaction createTx(Coin value) {
+        Transaction tx = new Transaction(params);
+        Sha256Hash fundingTxId = Sha256Hash.of(("fundingTx" + txCounter++).getBytes());
+        tx.addInput(new TransactionInput(params, tx, new byte[]{}, new TransactionOutPoint(params, 0, fundingTxId)));
+        tx.addOutput(value, address);
+        return tx;
+    }
+
+    private Block parseBlock(int height, List<Tx> txs) {
+        return parseBlock(height, txs, () -> {
+        });
+    }
+
+    private Block parseBlock(int height, List<Tx> txs, Runnable stateChanges) {
+        Block block = new Block(height, 1534800000 + height, "blockHash" + height, "blockHash" + (height - 1));
+        daoStateService.onNewBlockHeight(height);
+        daoStateService.onNewBlockWithEmptyTxs(block);
+        txs.forEach(tx -> {
+            daoStateService.onNewTxForLastBlock(block, tx);
+            tx.getTxOutputs().forEach(daoStateService::addUnspentTxOutput);
+        });
+        stateChanges.run();
+        daoStateService.onParseBlockComplete(block);
+        return block;
+    }
+
+    private static Tx createDaoTx(Transaction tx, int blockHeight, TxType txType, TxOutputType txOutputType) {
+        String txId = tx.getHashAsString();
+        return Tx.fromProto(protobuf.BaseTx.newBuilder()
+                .setTxVersion("1")
+                .setId(txId)
+                .setBlockHeight(blockHeight)
+                .setBlockHash("blockHash" + blockHeight)
+                .setTime(1534800000 + blockHeight)
+                .setTx(protobuf.Tx.newBuilder()
+                        .addTxOutputs(protobuf.BaseTxOutput.newBuilder()
+                                .setIndex(0)
+                                .setValue(tx.getOutput(0).getValue().value)
+                                .setTxId(txId)
+                                .setBlockHeight(blockHeight)
+                                .setTxOutput(protobuf.TxOutput.newBuilder()
+                                        .setTxOutputType(txOutputType.toProtoMessage())))
+                        .setTxType(txType.toProtoMessage()))
+                .build());
+    }
+}
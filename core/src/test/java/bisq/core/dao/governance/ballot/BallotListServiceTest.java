@@ -5,6 +5,7 @@ import bisq.core.dao.governance.period.PeriodService;
 import bisq.core.dao.governance.proposal.ProposalService;
 import bisq.core.dao.governance.proposal.ProposalValidatorProvider;
 import bisq.core.dao.governance.proposal.storage.appendonly.ProposalPayload;
+import bisq.core.dao.state.DaoStateService;
 
 import bisq.common.storage.Storage;
 
@@ -30,7 +31,7 @@ public class BallotListServiceTest {
         when(proposalService.getProposalPayloads()).thenReturn(payloads);
 
         BallotListService service = new BallotListService(proposalService, mock(PeriodService.class),
-                mock(ProposalValidatorProvider.class), mock(Storage.class));
+                mock(ProposalValidatorProvider.class), mock(DaoStateService.class), mock(Storage.class));
 
         BallotListChangeListener listener = mock(BallotListChangeListener.class);
         service.addListener(listener);
@@ -0,0 +1,274 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.governance.bond;
+
+import bisq.core.btc.wallet.BsqWalletService;
+import bisq.core.dao.governance.bond.lockup.LockupReason;
+import bisq.core.dao.governance.bond.reputation.BondedReputationRepository;
+import bisq.core.dao.governance.bond.role.BondedRolesRepository;
+import bisq.core.dao.state.DaoStateBlockArchive;
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.GenesisTxInfo;
+import bisq.core.dao.state.model.DaoState;
+import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.blockchain.SpentInfo;
+import bisq.core.dao.state.model.blockchain.Tx;
+import bisq.core.dao.state.model.blockchain.TxInput;
+import bisq.core.dao.state.model.blockchain.TxOutput;
+import bisq.core.dao.state.model.blockchain.TxOutputType;
+import bisq.core.dao.state.model.blockchain.TxType;
+import bisq.core.dao.state.model.governance.BondedRoleType;
+import bisq.core.dao.state.model.governance.EvaluatedProposal;
+import bisq.core.dao.state.model.governance.ProposalVoteResult;
+import bisq.core.dao.state.model.governance.Role;
+import bisq.core.dao.state.model.governance.RoleProposal;
+import bisq.core.util.coin.BsqFormatter;
+
+import bisq.common.crypto.Hash;
+
+import com.google.protobuf.ByteString;
+
+import org.bitcoinj.core.Coin;
+
+import java.io.IOException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+public class BondRepositoryTest {
+    private static final int UNLOCK_TIME = 5;
+
+    private DaoStateService daoStateService;
+    private BsqWalletService bsqWalletService;
+    private BondedRolesRepository bondedRolesRepository;
+    private BondedReputationRepository bondedReputationRepository;
+    private Role role1;
+    private Role role2;
+    private byte[] reputationHash1;
+    private byte[] reputationHash2;
+
+    @Before
+    public void setup() {
+        daoStateService = new DaoStateService(new DaoState(),
+                new GenesisTxInfo("genesisTxId", 100, Coin.parseCoin("2.5").value),
+                new BsqFormatter(),
+                mock(DaoStateBlockArchive.class));
+        // The repositories are updated at onParseBlockCompleteAfterBatchProcessing, which is only called after the
+        // initial parsing
+        daoStateService.onParseBlockChainComplete();
+        bsqWalletService = mock(BsqWalletService.class);
+
+        role1 = new Role("role1", "link1", BondedRoleType.MEDIATOR);
+        role2 = new Role("role2", "link2", BondedRoleType.ARBITRATOR);
+        reputationHash1 = Hash.getSha256Ripemd160hash("reputation1".getBytes());
+        reputationHash2 = Hash.getSha256Ripemd160hash("reputation2".getBytes());
+        parseBlock(100, Collections.emptyList(), () -> daoStateService.addEvaluatedProposalSet(new HashSet<>(Arrays.asList(
+                createAcceptedRoleProposal(role1, "roleProposalTxId1"),
+                createAcceptedRoleProposal(role2, "roleProposalTxId2")))));
+
+        bondedRolesRepository = new BondedRolesRepository(daoStateService, bsqWalletService);
+        bondedReputationRepository = new BondedReputationRepository(daoStateService, bsqWalletService,
+                bondedRolesRepository);
+        bondedRolesRepository.addListeners();
+        bondedReputationRepository.addListeners();
+        bondedRolesRepository.start();
+        bondedReputationRepository.start();
+    }
+
+    @Test
+    public void testIncrementalUpdatesMatchFullRebuild() throws IOException {
+        assertEquals(2, bondedRolesRepository.getBonds().size());
+        assertBondState(bondedRolesRepository, role1.getUid(), BondState.READY_FOR_LOCKUP);
+        assertBondsMatchFullRebuild();
+
+        // Lockup
+        parseBlock(101, Arrays.asList(
+                createLockupTx("lockupRole1", 101, LockupReason.BONDED_ROLE, role1.getHash()),
+                createLockupTx("lockupRole2", 101, LockupReason.BONDED_ROLE, role2.getHash()),
+                createLockupTx("lockupReputation1", 101, LockupReason.REPUTATION, reputationHash1),
+                createLockupTx("lockupReputation2", 101, LockupReason.REPUTATION, reputationHash2)));
+        assertBondState(bondedRolesRepository, "lockupRole1", BondState.LOCKUP_TX_CONFIRMED);
+        assertBondState(bondedReputationRepository, "lockupReputation1", BondState.LOCKUP_TX_CONFIRMED);
+        assertEquals(2, bondedReputationRepository.getBonds().size());
+        assertBondsMatchFullRebuild();
+
+        // Unlock
+        Tx unlockRole1 = createUnlockTx("unlockRole1", "lockupRole1", 102);
+        Tx unlockReputation1 = createUnlockTx("unlockReputation1", "lockupReputation1", 102);
+        parseBlock(102, Arrays.asList(unlockRole1, unlockReputation1), () -> {
+            spendLockupTxOutput(unlockRole1);
+            spendLockupTxOutput(unlockReputation1);
+        });
+        assertBondState(bondedRolesRepository, "lockupRole1", BondState.UNLOCKING);
+        assertBondState(bondedReputationRepository, "lockupReputation1", BondState.UNLOCKING);
+        assertBondsMatchFullRebuild();
+        DaoState snapshot = daoStateService.getClone();
+
+        // Confiscation of a locked up and of an unlocking bond
+        parseBlock(103, Collections.emptyList(), () -> {
+            daoStateService.confiscateBond("lockupRole2");
+            daoStateService.confiscateBond("lockupReputation1");
+        });
+        assertBondState(bondedRolesRepository, "lockupRole2", BondState.CONFISCATED);
+        assertBondState(bondedReputationRepository, "lockupReputation1", BondState.CONFISCATED);
+        assertBondsMatchFullRebuild();
+
+        // The unlocking bond becomes unlocked once the lock time is over
+        for (int height = 104; height <= 102 + UNLOCK_TIME; height++) {
+            parseBlock(height, Collections.emptyList());
+            assertBondsMatchFullRebuild();
+        }
+        assertBondState(bondedRolesRepository, "lockupRole1", BondState.UNLOCKED);
+        assertBondState(bondedReputationRepository, "lockupReputation1", BondState.CONFISCATED);
+        assertBondState(bondedReputationRepository, "lockupReputation2", BondState.LOCKUP_TX_CONFIRMED);
+
+        // After a snapshot got applied (e.g. at a reorg) the confiscations are gone
+        daoStateService.applySnapshot(snapshot);
+        parseBlock(103, Collections.emptyList());
+        assertBondState(bondedRolesRepository, "lockupRole1", BondState.UNLOCKING);
+        assertBondState(bondedRolesRepository, "lockupRole2", BondState.LOCKUP_TX_CONFIRMED);
+        assertBondState(bondedReputationRepository, "lockupReputation1", BondState.UNLOCKING);
+        assertBondsMatchFullRebuild();
+    }
+
+    private void assertBondsMatchFullRebuild() {
+        BondedRolesRepository rebuiltBondedRolesRepository = new BondedRolesRepository(daoStateService,
+                bsqWalletService);
+        BondedReputationRepository rebuiltBondedReputationRepository = new BondedReputationRepository(daoStateService,
+                bsqWalletService, rebuiltBondedRolesRepository);
+        rebuiltBondedRolesRepository.start();
+        rebuiltBondedReputationRepository.start();
+
+        assertEquals(getBondDataByUid(rebuiltBondedRolesRepository.getBonds()),
+                getBondDataByUid(bondedRolesRepository.getBonds()));
+        assertEquals(getBondDataByUid(rebuiltBondedReputationRepository.getBonds()),
+                getBondDataByUid(bondedReputationRepository.getBonds()));
+    }
+
+    // Looks up the bond by the lockup txId or, if it has no lockup tx yet, by the uid of the bonded asset
+    private static void assertBondState(BondRepository<?, ?> bondRepository, String lockupTxIdOrUid,
+                                        BondState expectedBondState) {
+        Bond<?> bond = bondRepository.findBondByLockupTxId(lockupTxIdOrUid)
+                .map(b -> (Bond<?>) b)
+                .orElseGet(() -> bondRepository.getBonds().stream()
+                        .filter(b -> b.getBondedAsset().getUid().equals(lockupTxIdOrUid))
+                        .findAny()
+                        .orElseThrow(() -> new AssertionError("No bond found for " + lockupTxIdOrUid)));
+        assertEquals(expectedBondState, bond.getBondState());
+    }
+
+    // Reputation does not implement equals by value, so we compare the data of the bonds by the uid of the bonded
+    // asset
+    private static Map<String, List<Object>> getBondDataByUid(List<? extends Bond<?>> bonds) {
+        return bonds.stream().collect(Collectors.toMap(bond -> bond.getBondedAsset().getUid(),
+                bond -> Arrays.asList(bond.getBondState(), bond.getLockupTxId(), bond.getUnlockTxId(),
+                        bond.getAmount(), bond.getLockupDate(), bond.getUnlockDate(), bond.getLockTime())));
+    }
+
+    private void parseBlock(int height, List<Tx> txs) {
+        parseBlock(height, txs, () -> {
+        });
+    }
+
+    private void parseBlock(int height, List<Tx> txs, Runnable stateChanges) {
+        Block block = new Block(height, 1534800000 + height, "blockHash" + height, "blockHash" + (height - 1));
+        daoStateService.onNewBlockHeight(height);
+        daoStateService.onNewBlockWithEmptyTxs(block);
+        txs.forEach(tx -> {
+            daoStateService.onNewTxForLastBlock(block, tx);
+            tx.getTxOutputs().forEach(daoStateService::addUnspentTxOutput);
+        });
+        stateChanges.run();
+        daoStateService.onParseBlockComplete(block);
+    }
+
+    private void spendLockupTxOutput(Tx unlockTx) {
+        TxInput txInput = unlockTx.getTxInputs().get(0);
+        TxOutput lockupTxOutput = daoStateService.getLockupTxOutput(txInput.getConnectedTxOutputTxId()).get();
+        daoStateService.removeUnspentTxOutput(lockupTxOutput);
+        daoStateService.setSpentInfo(lockupTxOutput.getKey(), new SpentInfo(unlockTx.getBlockHeight(),
+                unlockTx.getId(), 0));
+    }
+
+    private static EvaluatedProposal createAcceptedRoleProposal(Role role, String txId) {
+        RoleProposal roleProposal = (RoleProposal) new RoleProposal(role, new HashMap<>()).cloneProposalAndAddTxId(txId);
+        return new EvaluatedProposal(true, new ProposalVoteResult(roleProposal, 1000, 0, 1, 0, 0));
+    }
+
+    private static Tx createLockupTx(String txId, int blockHeight, LockupReason lockupReason, byte[] hash)
+            throws IOException {
+        byte[] opReturnData = BondConsensus.getLockupOpReturnData(UNLOCK_TIME, lockupReason, hash);
+        return createTx(txId, blockHeight, TxType.LOCKUP, Collections.emptyList(),
+                createTxOutput(txId, 0, 1000, blockHeight, TxOutputType.LOCKUP_OUTPUT, 0),
+                createTxOutput(txId, 1, 0, blockHeight, TxOutputType.LOCKUP_OP_RETURN_OUTPUT, 0).toBuilder()
+                        .setOpReturnData(ByteString.copyFrom(opReturnData))
+                        .build());
+    }
+
+    private static Tx createUnlockTx(String txId, String lockupTxId, int blockHeight) {
+        return createTx(txId, blockHeight, TxType.UNLOCK, Collections.singletonList(new TxInput(lockupTxId, 0, null)),
+                createTxOutput(txId, 0, 1000, blockHeight, TxOutputType.UNLOCK_OUTPUT, blockHeight + UNLOCK_TIME));
+    }
+
+    private static Tx createTx(String txId,
+                               int blockHeight,
+                               TxType txType,
+                               List<TxInput> txInputs,
+                               protobuf.BaseTxOutput... txOutputs) {
+        return Tx.fromProto(protobuf.BaseTx.newBuilder()
+                .setTxVersion("1")
+                .setId(txId)
+                .setBlockHeight(blockHeight)
+                .setBlockHash("blockHash" + blockHeight)
+                .setTime(1534800000 + blockHeight)
+                .addAllTxInputs(txInputs.stream().map(TxInput::toProtoMessage).collect(Collectors.toList()))
+                .setTx(protobuf.Tx.newBuilder()
+                        .addAllTxOutputs(Arrays.asList(txOutputs))
+                        .setTxType(txType.toProtoMessage()))
+                .build());
+    }
+
+    private static protobuf.BaseTxOutput createTxOutput(String txId,
+                                                        int index,
+                                                        long value,
+                                                        int blockHeight,
+                                                        TxOutputType txOutputType,
+                                                        int unlockBlockHeight) {
+        return protobuf.BaseTxOutput.newBuilder()
+                .setIndex(index)
+                .setValue(value)
+                .setTxId(txId)
+                .setBlockHeight(blockHeight)
+                .setTxOutput(protobuf.TxOutput.newBuilder()
+                        .setTxOutputType(txOutputType.toProtoMessage())
+                        .setLockTime(UNLOCK_TIME)
+                        .setUnlockBlockHeight(unlockBlockHeight))
+                .build();
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.governance.period;
+
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.model.blockchain.Tx;
+import bisq.core.dao.state.model.governance.Cycle;
+import bisq.core.dao.state.model.governance.DaoPhase;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CycleIndexTest {
+    private static final Cycle FIRST_CYCLE = new Cycle(100, ImmutableList.of(new DaoPhase(DaoPhase.Phase.PROPOSAL, 50)));
+    private static final Cycle SECOND_CYCLE = new Cycle(150, ImmutableList.of(new DaoPhase(DaoPhase.Phase.PROPOSAL, 50)));
+
+    private DaoStateService daoStateService;
+    private PeriodService periodService;
+    private final AtomicInteger numValidations = new AtomicInteger();
+    private CycleIndex<String> cycleIndex;
+
+    @Before
+    public void setUp() {
+        daoStateService = mock(DaoStateService.class);
+        periodService = mock(PeriodService.class);
+        when(periodService.getCycle(anyInt())).thenAnswer(invocation -> {
+            int height = invocation.getArgument(0);
+            return Arrays.asList(FIRST_CYCLE, SECOND_CYCLE).stream()
+                    .filter(cycle -> cycle.isInCycle(height))
+                    .findAny();
+        });
+        when(daoStateService.getTx(anyString())).thenReturn(Optional.empty());
+
+        // The items are the tx ids themselves
+        cycleIndex = new CycleIndex<>(periodService, daoStateService, txId -> txId, txId -> {
+            numValidations.incrementAndGet();
+            return daoStateService.getTx(txId).isPresent();
+        });
+    }
+
+    private void addTx(String txId, int blockHeight) {
+        Tx tx = mock(Tx.class);
+        when(tx.getBlockHeight()).thenReturn(blockHeight);
+        when(daoStateService.getTx(txId)).thenReturn(Optional.of(tx));
+    }
+
+    @Test
+    public void testItemsAreAssignedToTheCycleOfTheirTx() {
+        addTx("first", 120);
+        addTx("second", 160);
+        cycleIndex.add("first");
+        cycleIndex.add("second");
+        cycleIndex.add("unconfirmed");
+
+        assertEquals(Collections.singletonList("first"), cycleIndex.getItemsOfCycle(149));
+        assertEquals(Collections.singletonList("second"), cycleIndex.getItemsOfCycle(150));
+        assertTrue(cycleIndex.getItemsOfCycle(500).isEmpty());
+
+        // Once the tx got parsed the item shows up in its cycle
+        addTx("unconfirmed", 170);
+        assertEquals(Arrays.asList("second", "unconfirmed"), cycleIndex.getItemsOfCycle(199));
+    }
+
+    @Test
+    public void testValidationIsMemoizedUntilDaoStateChanges() {
+        when(daoStateService.getChainHeight()).thenReturn(160);
+        when(daoStateService.getNumTxs()).thenReturn(10);
+        String item = "proposal";
+
+        assertEquals(false, cycleIndex.isValid(item));
+        assertEquals(false, cycleIndex.isValid(item));
+        assertEquals(1, numValidations.get());
+
+        // A new tx in the same block invalidates the memoized results
+        addTx(item, 160);
+        when(daoStateService.getNumTxs()).thenReturn(11);
+        assertEquals(true, cycleIndex.isValid(item));
+        assertEquals(2, numValidations.get());
+
+        when(daoStateService.getChainHeight()).thenReturn(161);
+        assertEquals(true, cycleIndex.isValid(item));
+        assertEquals(3, numValidations.get());
+    }
+}
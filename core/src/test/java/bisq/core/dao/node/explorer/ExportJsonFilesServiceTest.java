@@ -0,0 +1,207 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.dao.node.explorer;
+
+import bisq.core.dao.state.DaoStateBlockArchive;
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.GenesisTxInfo;
+import bisq.core.dao.state.model.DaoState;
+import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.blockchain.SpentInfo;
+import bisq.core.dao.state.model.blockchain.Tx;
+import bisq.core.dao.state.model.blockchain.TxInput;
+import bisq.core.dao.state.model.blockchain.TxOutputKey;
+import bisq.core.dao.state.model.blockchain.TxOutputType;
+import bisq.core.dao.state.model.blockchain.TxType;
+import bisq.core.util.coin.BsqFormatter;
+
+import bisq.common.storage.FileUtil;
+import bisq.common.util.Utilities;
+
+import org.bitcoinj.core.Coin;
+
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class ExportJsonFilesServiceTest {
+    private File dir;
+    private DaoStateService daoStateService;
+
+    @Before
+    public void setup() throws IOException {
+        dir = File.createTempFile("temp_tests", "");
+        //noinspection ResultOfMethodCallIgnored
+        dir.delete();
+        //noinspection ResultOfMethodCallIgnored
+        dir.mkdir();
+
+        daoStateService = new DaoStateService(new DaoState(),
+                new GenesisTxInfo("genesisTxId", 100, Coin.parseCoin("2.5").value),
+                new BsqFormatter(),
+                mock(DaoStateBlockArchive.class));
+        parseBlock(100, createTx("genesisTxId", 100, TxType.GENESIS, Collections.emptyList(), 2));
+        parseBlock(101, createTx("tx1", 101, TxType.TRANSFER_BSQ,
+                Collections.singletonList(new TxInput("genesisTxId", 0, null)), 2));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtil.deleteDirectory(dir);
+    }
+
+    @Test
+    public void testIncrementalExport() throws Exception {
+        ExportJsonFilesService service = createService();
+        service.exportToJson().get();
+        assertEquals(Set.of("genesisTxId", "tx1"), getExportedTxIds());
+        assertEquals(4, getFileNames("txo").size());
+        assertTrue(new File(dir, "json/exportState.json").exists());
+
+        // Only the new tx and the tx whose output got spent are written again
+        deleteExportedTxFiles();
+        parseBlock(102, createTx("tx2", 102, TxType.TRANSFER_BSQ,
+                Collections.singletonList(new TxInput("tx1", 1, null)), 1));
+        service.exportToJson().get();
+        assertEquals(Set.of("tx1", "tx2"), getExportedTxIds());
+
+        JsonTxOutput spentTxOutput = readJson("txo/tx1:1.json", JsonTxOutput.class);
+        assertFalse(spentTxOutput.isUnspent());
+        assertEquals("tx2", spentTxOutput.getSpentInfo().getTxId());
+
+        // The blocks file contains all blocks including the updated tx
+        JsonBlocks jsonBlocks = readJson("all/blocks.json", JsonBlocks.class);
+        assertEquals(3, jsonBlocks.getBlocks().size());
+        assertFalse(jsonBlocks.getBlocks().get(1).getTxs().get(0).getOutputs().get(1).isUnspent());
+
+        // No new block, nothing to export
+        deleteExportedTxFiles();
+        service.exportToJson().get();
+        assertTrue(getExportedTxIds().isEmpty());
+    }
+
+    @Test
+    public void testResumeAfterRestart() throws Exception {
+        createService().exportToJson().get();
+        deleteExportedTxFiles();
+
+        parseBlock(102, createTx("tx2", 102, TxType.TRANSFER_BSQ, Collections.emptyList(), 1));
+        ExportJsonFilesService restartedService = createService();
+        restartedService.exportToJson().get();
+        assertEquals(Set.of("tx2"), getExportedTxIds());
+        assertEquals(3, readJson("all/blocks.json", JsonBlocks.class).getBlocks().size());
+    }
+
+    @Test
+    public void testFullExportIfExportStateDoesNotMatch() throws Exception {
+        createService().exportToJson().get();
+        deleteExportedTxFiles();
+
+        // The chain of the dao state does not contain the last exported block anymore, e.g. after a resync
+        Files.writeString(new File(dir, "json/exportState.json").toPath(),
+                Utilities.objectToJson(new JsonExportState(101, "orphanedBlockHash")));
+        createService().exportToJson().get();
+        assertEquals(Set.of("genesisTxId", "tx1"), getExportedTxIds());
+    }
+
+    private ExportJsonFilesService createService() {
+        daoStateService.onParseBlockChainComplete();
+        ExportJsonFilesService service = new ExportJsonFilesService(daoStateService, dir, true);
+        service.start();
+        return service;
+    }
+
+    private void parseBlock(int height, Tx tx) {
+        Block block = new Block(height, 1534800000 + height, "blockHash" + height, "blockHash" + (height - 1));
+        daoStateService.onNewBlockHeight(height);
+        daoStateService.onNewBlockWithEmptyTxs(block);
+        tx.getTxInputs().forEach(txInput -> {
+            TxOutputKey connectedTxOutputKey = txInput.getConnectedTxOutputKey();
+            daoStateService.getTxOutput(connectedTxOutputKey).ifPresent(daoStateService::removeUnspentTxOutput);
+            daoStateService.setSpentInfo(connectedTxOutputKey, new SpentInfo(height, tx.getId(), 0));
+        });
+        daoStateService.onNewTxForLastBlock(block, tx);
+        tx.getTxOutputs().forEach(daoStateService::addUnspentTxOutput);
+        daoStateService.onParseBlockComplete(block);
+    }
+
+    private static Tx createTx(String txId, int blockHeight, TxType txType, List<TxInput> txInputs, int numOutputs) {
+        List<protobuf.BaseTxOutput> txOutputs = Arrays.stream(new int[numOutputs])
+                .mapToObj(ignore -> protobuf.BaseTxOutput.newBuilder()
+                        .setValue(1000)
+                        .setTxId(txId)
+                        .setBlockHeight(blockHeight)
+                        .setTxOutput(protobuf.TxOutput.newBuilder()
+                                .setTxOutputType(TxOutputType.BSQ_OUTPUT.toProtoMessage()))
+                        .build())
+                .collect(Collectors.toList());
+        for (int i = 0; i < txOutputs.size(); i++) {
+            txOutputs.set(i, txOutputs.get(i).toBuilder().setIndex(i).build());
+        }
+        return Tx.fromProto(protobuf.BaseTx.newBuilder()
+                .setTxVersion("1")
+                .setId(txId)
+                .setBlockHeight(blockHeight)
+                .setBlockHash("blockHash" + blockHeight)
+                .setTime(1534800000 + blockHeight)
+                .addAllTxInputs(txInputs.stream().map(TxInput::toProtoMessage).collect(Collectors.toList()))
+                .setTx(protobuf.Tx.newBuilder()
+                        .addAllTxOutputs(txOutputs)
+                        .setTxType(txType.toProtoMessage()))
+                .build());
+    }
+
+    private Set<String> getExportedTxIds() {
+        return getFileNames("tx").stream()
+                .map(fileName -> fileName.replace(".json", ""))
+                .collect(Collectors.toSet());
+    }
+
+    private Set<String> getFileNames(String subDir) {
+        String[] fileNames = new File(dir, "json/" + subDir).list();
+        return fileNames != null ? Set.of(fileNames) : Set.of();
+    }
+
+    private void deleteExportedTxFiles() throws IOException {
+        for (String fileName : getFileNames("tx")) {
+            Files.delete(new File(dir, "json/tx/" + fileName).toPath());
+        }
+    }
+
+    private <T> T readJson(String fileName, Class<T> clazz) throws IOException {
+        String json = Files.readString(new File(dir, "json/" + fileName).toPath());
+        return Utilities.getJsonGson().fromJson(json, clazz);
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.dao.node.full.network;
+
+import bisq.core.dao.state.model.blockchain.Block;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class RawBlockCacheTest {
+    @Test
+    public void testBlockIsConvertedOnlyOnce() {
+        RawBlockCache cache = new RawBlockCache();
+        Block block = new Block(100, 1534800000, "blockHash100", "blockHash99");
+
+        RawBlockCache.Entry entry = cache.get(block);
+        assertEquals(100, entry.getRawBlock().getHeight());
+        assertEquals("blockHash100", entry.getProto().getHash());
+        assertSame(entry, cache.get(block));
+    }
+
+    @Test
+    public void testBlockReplacedByReorgIsConvertedAgain() {
+        RawBlockCache cache = new RawBlockCache();
+        RawBlockCache.Entry entry = cache.get(new Block(100, 1534800000, "blockHash100", "blockHash99"));
+
+        Block reorgBlock = new Block(100, 1534800001, "reorgBlockHash100", "blockHash99");
+        RawBlockCache.Entry reorgEntry = cache.get(reorgBlock);
+        assertNotSame(entry, reorgEntry);
+        assertEquals("reorgBlockHash100", reorgEntry.getProto().getHash());
+        assertSame(reorgEntry, cache.get(reorgBlock));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedBlocksAreEvicted() {
+        RawBlockCache cache = new RawBlockCache(2);
+        Block block1 = new Block(1, 1534800000, "blockHash1", "blockHash0");
+        Block block2 = new Block(2, 1534800000, "blockHash2", "blockHash1");
+        Block block3 = new Block(3, 1534800000, "blockHash3", "blockHash2");
+
+        RawBlockCache.Entry entry1 = cache.get(block1);
+        RawBlockCache.Entry entry2 = cache.get(block2);
+        cache.get(block1);
+        cache.get(block3);
+
+        assertEquals(2, cache.size());
+        assertSame(entry1, cache.get(block1));
+        assertNotSame(entry2, cache.get(block2));
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.dao.node.lite;
+
+import bisq.core.dao.node.full.RawBlock;
+import bisq.core.dao.node.parser.exceptions.RequiredReorgFromSnapshotException;
+import bisq.core.dao.state.DaoStateBlockArchive;
+import bisq.core.dao.state.DaoStateListener;
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.GenesisTxInfo;
+import bisq.core.dao.state.model.DaoState;
+import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.util.coin.BsqFormatter;
+
+import org.bitcoinj.core.Coin;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class BlockParsePipelineTest {
+    private static final int GENESIS_HEIGHT = 100;
+
+    private DaoStateService daoStateService;
+    private final Deque<Runnable> userThreadTasks = new ArrayDeque<>();
+    private final Executor userThreadExecutor = userThreadTasks::add;
+    private final List<Integer> notifiedHeights = new ArrayList<>();
+
+    @Before
+    public void setup() {
+        daoStateService = new DaoStateService(new DaoState(),
+                new GenesisTxInfo("genesisTxId", GENESIS_HEIGHT, Coin.parseCoin("2.5").value),
+                new BsqFormatter(),
+                mock(DaoStateBlockArchive.class));
+        daoStateService.addDaoStateListener(new DaoStateListener() {
+            @Override
+            public void onParseBlockCompleteAfterBatchProcessing(Block block) {
+                notifiedHeights.add(block.getHeight());
+            }
+        });
+    }
+
+    @Test
+    public void testOneChunkNotifiesOnce() {
+        daoStateService.onParseBlockChainComplete();
+        notifiedHeights.clear();
+
+        BlockParsePipeline pipeline = new BlockParsePipeline(daoStateService, this::parseBlock, userThreadExecutor,
+                Long.MAX_VALUE);
+        AtomicBoolean complete = new AtomicBoolean();
+        pipeline.parseBlocks(createRawBlocks(GENESIS_HEIGHT, 500), () -> complete.set(true));
+        runUserThreadTasks();
+
+        assertTrue(complete.get());
+        assertEquals(GENESIS_HEIGHT + 499, daoStateService.getChainHeight());
+        assertEquals(500, daoStateService.getBlocks().size());
+        assertEquals(1, pipeline.getNumChunks());
+        assertEquals(List.of(GENESIS_HEIGHT + 499), notifiedHeights);
+    }
+
+    @Test
+    public void testYieldsBetweenChunks() {
+        daoStateService.onParseBlockChainComplete();
+        notifiedHeights.clear();
+
+        // With a max. chunk duration of 0 each chunk contains one block
+        BlockParsePipeline pipeline = new BlockParsePipeline(daoStateService, this::parseBlock, userThreadExecutor, 0);
+        AtomicBoolean complete = new AtomicBoolean();
+        pipeline.parseBlocks(createRawBlocks(GENESIS_HEIGHT, 5), () -> complete.set(true));
+
+        // Nothing is parsed before the user thread runs the first chunk
+        assertEquals(0, daoStateService.getBlocks().size());
+        int numUserThreadTasks = runUserThreadTasks();
+
+        assertTrue(complete.get());
+        assertEquals(5, pipeline.getNumChunks());
+        assertEquals(5, numUserThreadTasks);
+        assertEquals(List.of(100, 101, 102, 103, 104), notifiedHeights);
+    }
+
+    @Test
+    public void testNoClientNotificationsDuringBatchProcessing() {
+        BlockParsePipeline pipeline = new BlockParsePipeline(daoStateService, this::parseBlock, userThreadExecutor,
+                Long.MAX_VALUE);
+        pipeline.parseBlocks(createRawBlocks(GENESIS_HEIGHT, 10), () -> {
+        });
+        runUserThreadTasks();
+
+        assertEquals(10, daoStateService.getBlocks().size());
+        assertTrue(notifiedHeights.isEmpty());
+    }
+
+    @Test
+    public void testStopsAtReorg() {
+        List<Integer> parsedHeights = new ArrayList<>();
+        BlockParsePipeline pipeline = new BlockParsePipeline(daoStateService, rawBlock -> {
+            if (rawBlock.getHeight() == GENESIS_HEIGHT + 3)
+                throw new RequiredReorgFromSnapshotException(rawBlock);
+            parsedHeights.add(rawBlock.getHeight());
+        }, userThreadExecutor, 0);
+        AtomicBoolean complete = new AtomicBoolean();
+        pipeline.parseBlocks(createRawBlocks(GENESIS_HEIGHT, 10), () -> complete.set(true));
+        runUserThreadTasks();
+
+        assertTrue(complete.get());
+        assertEquals(List.of(100, 101, 102), parsedHeights);
+    }
+
+    private void parseBlock(RawBlock rawBlock) {
+        Block block = new Block(rawBlock.getHeight(), rawBlock.getTime(), rawBlock.getHash(),
+                rawBlock.getPreviousBlockHash());
+        daoStateService.onNewBlockHeight(block.getHeight());
+        daoStateService.onNewBlockWithEmptyTxs(block);
+        daoStateService.onParseBlockComplete(block);
+    }
+
+    private int runUserThreadTasks() {
+        int numTasks = 0;
+        Runnable task;
+        while ((task = userThreadTasks.poll()) != null) {
+            task.run();
+            numTasks++;
+        }
+        return numTasks;
+    }
+
+    private static List<RawBlock> createRawBlocks(int fromHeight, int numBlocks) {
+        List<RawBlock> rawBlocks = new ArrayList<>();
+        for (int height = fromHeight; height < fromHeight + numBlocks; height++) {
+            protobuf.BaseBlock.Builder builder = protobuf.BaseBlock.newBuilder()
+                    .setHeight(height)
+                    .setTime(1534800000 + height)
+                    .setHash("blockHash" + height)
+                    .setPreviousBlockHash("blockHash" + (height - 1))
+                    .setRawBlock(protobuf.RawBlock.newBuilder());
+            rawBlocks.add(RawBlock.fromProto(builder.build()));
+        }
+        return rawBlocks;
+    }
+}
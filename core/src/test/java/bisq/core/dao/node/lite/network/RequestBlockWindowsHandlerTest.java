@@ -0,0 +1,274 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.dao.node.lite.network;
+
+import bisq.core.dao.node.full.RawBlock;
+
+import bisq.network.p2p.NodeAddress;
+
+import bisq.common.FrameRateTimer;
+import bisq.common.Timer;
+import bisq.common.UserThread;
+
+import java.time.Duration;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RequestBlockWindowsHandlerTest {
+    private static final NodeAddress PEER_1 = new NodeAddress("peer1.onion", 8000);
+    private static final NodeAddress PEER_2 = new NodeAddress("peer2.onion", 8000);
+    private static final NodeAddress PEER_3 = new NodeAddress("peer3.onion", 8000);
+
+    private final Map<NodeAddress, List<Request>> requestsByPeer = new HashMap<>();
+    private List<RawBlock> result;
+    private String errorMessage;
+
+    @Before
+    public void setup() {
+        ManualTimer.TIMERS.clear();
+        UserThread.setTimerClass(ManualTimer.class);
+    }
+
+    @After
+    public void tearDown() {
+        UserThread.setTimerClass(FrameRateTimer.class);
+    }
+
+    @Test
+    public void testWindowsAreRequestedInParallelAndAssembledInHeightOrder() {
+        RequestBlockWindowsHandler handler = createHandler(List.of(PEER_1, PEER_2, PEER_3), 1000, 2499);
+        handler.start();
+
+        assertEquals(1000, getRequest(PEER_1).fromBlockHeight);
+        assertEquals(1500, getRequest(PEER_2).fromBlockHeight);
+        assertEquals(2000, getRequest(PEER_3).fromBlockHeight);
+
+        getRequest(PEER_3).respond(createBlocks("main", 2000, 2499));
+        getRequest(PEER_2).respond(createBlocks("main", 1500, 1999));
+        assertNull(result);
+
+        getRequest(PEER_1).respond(createBlocks("main", 1000, 1499));
+        assertBlocks(1000, 2499);
+    }
+
+    @Test
+    public void testTimedOutWindowIsRequestedFromAnotherPeer() {
+        RequestBlockWindowsHandler handler = createHandler(List.of(PEER_1, PEER_2), 1000, 1999);
+        handler.start();
+
+        getRequest(PEER_1).respond(createBlocks("main", 1000, 1499));
+        ManualTimer.fireAll();
+
+        assertTrue(getRequest(PEER_2).cancelled);
+        Request retry = getRequest(PEER_1);
+        assertEquals(1500, retry.fromBlockHeight);
+        assertEquals(1999, retry.toBlockHeight);
+
+        // A late response of the timed out peer is ignored
+        requestsByPeer.get(PEER_2).get(0).respond(createBlocks("fork", 1500, 1999));
+        assertNull(result);
+
+        retry.respond(createBlocks("main", 1500, 1999));
+        assertBlocks(1000, 1999);
+    }
+
+    @Test
+    public void testWindowWhichDoesNotLinkIsRequestedFromAnotherPeer() {
+        RequestBlockWindowsHandler handler = createHandler(List.of(PEER_1, PEER_2), 1000, 1999);
+        handler.start();
+
+        getRequest(PEER_1).respond(createBlocks("main", 1000, 1499));
+        getRequest(PEER_2).respond(createBlocks("fork", 1500, 1999));
+        assertNull(result);
+
+        Request retry = getRequest(PEER_1);
+        assertEquals(1500, retry.fromBlockHeight);
+        retry.respond(createBlocks("main", 1500, 1999));
+        assertBlocks(1000, 1999);
+        assertEquals(1, requestsByPeer.get(PEER_2).size());
+    }
+
+    @Test
+    public void testBlocksAboveWindowAreIgnored() {
+        RequestBlockWindowsHandler handler = createHandler(List.of(PEER_1, PEER_2), 1000, 1999);
+        handler.start();
+
+        // Full nodes without support for block ranges send all blocks from the requested height
+        getRequest(PEER_1).respond(createBlocks("main", 1000, 2100));
+        getRequest(PEER_2).respond(createBlocks("main", 1500, 2100));
+        assertBlocks(1000, 1999);
+    }
+
+    @Test
+    public void testShortLastWindowCompletesDownload() {
+        RequestBlockWindowsHandler handler = createHandler(List.of(PEER_1, PEER_2), 1000, 1999);
+        handler.start();
+
+        getRequest(PEER_2).respond(createBlocks("main", 1500, 1700));
+        getRequest(PEER_1).respond(createBlocks("main", 1000, 1499));
+        assertBlocks(1000, 1700);
+    }
+
+    @Test
+    public void testFaultIfNoPeerDeliversWindow() {
+        RequestBlockWindowsHandler handler = createHandler(List.of(PEER_1, PEER_2), 1000, 1999);
+        handler.start();
+
+        getRequest(PEER_1).fault();
+        getRequest(PEER_2).fault();
+
+        assertNull(result);
+        assertNotNull(errorMessage);
+    }
+
+    private RequestBlockWindowsHandler createHandler(List<NodeAddress> peers, int from, int to) {
+        return new RequestBlockWindowsHandler(peers, from, to, this::requestBlocks, 1000,
+                new RequestBlockWindowsHandler.Listener() {
+                    @Override
+                    public void onComplete(List<RawBlock> blocks) {
+                        result = blocks;
+                    }
+
+                    @Override
+                    public void onFault(String errorMessage) {
+                        RequestBlockWindowsHandlerTest.this.errorMessage = errorMessage;
+                    }
+                });
+    }
+
+    private Runnable requestBlocks(NodeAddress peer,
+                                   int fromBlockHeight,
+                                   int toBlockHeight,
+                                   Consumer<List<RawBlock>> resultHandler,
+                                   Consumer<String> faultHandler) {
+        Request request = new Request(fromBlockHeight, toBlockHeight, resultHandler, faultHandler);
+        requestsByPeer.computeIfAbsent(peer, key -> new ArrayList<>()).add(request);
+        return () -> request.cancelled = true;
+    }
+
+    // Last request sent to the peer
+    private Request getRequest(NodeAddress peer) {
+        List<Request> requests = requestsByPeer.get(peer);
+        return requests.get(requests.size() - 1);
+    }
+
+    private void assertBlocks(int fromHeight, int toHeight) {
+        assertNotNull(result);
+        assertEquals(toHeight - fromHeight + 1, result.size());
+        for (int i = 0; i < result.size(); i++) {
+            RawBlock block = result.get(i);
+            assertEquals(fromHeight + i, block.getHeight());
+            assertEquals(createHash("main", block.getHeight()), block.getHash());
+        }
+    }
+
+    private static List<RawBlock> createBlocks(String chain, int fromHeight, int toHeight) {
+        List<RawBlock> blocks = new ArrayList<>();
+        for (int height = fromHeight; height <= toHeight; height++) {
+            protobuf.BaseBlock.Builder builder = protobuf.BaseBlock.newBuilder()
+                    .setHeight(height)
+                    .setTime(1534800000 + height)
+                    .setHash(createHash(chain, height))
+                    .setPreviousBlockHash(createHash(chain, height - 1))
+                    .setRawBlock(protobuf.RawBlock.newBuilder());
+            blocks.add(RawBlock.fromProto(builder.build()));
+        }
+        return blocks;
+    }
+
+    private static String createHash(String chain, int height) {
+        return chain + "BlockHash" + height;
+    }
+
+    private static class Request {
+        private final int fromBlockHeight;
+        private final int toBlockHeight;
+        private final Consumer<List<RawBlock>> resultHandler;
+        private final Consumer<String> faultHandler;
+        private boolean cancelled;
+
+        private Request(int fromBlockHeight,
+                        int toBlockHeight,
+                        Consumer<List<RawBlock>> resultHandler,
+                        Consumer<String> faultHandler) {
+            this.fromBlockHeight = fromBlockHeight;
+            this.toBlockHeight = toBlockHeight;
+            this.resultHandler = resultHandler;
+            this.faultHandler = faultHandler;
+        }
+
+        private void respond(List<RawBlock> blocks) {
+            resultHandler.accept(blocks);
+        }
+
+        private void fault() {
+            faultHandler.accept("Connection lost");
+        }
+    }
+
+    // Timer which only runs when the test fires it
+    public static class ManualTimer implements Timer {
+        private static final List<ManualTimer> TIMERS = new ArrayList<>();
+
+        private Runnable action;
+        private boolean stopped;
+
+        public ManualTimer() {
+        }
+
+        static void fireAll() {
+            new ArrayList<>(TIMERS).stream()
+                    .filter(timer -> !timer.stopped)
+                    .forEach(timer -> {
+                        timer.stopped = true;
+                        timer.action.run();
+                    });
+        }
+
+        @Override
+        public Timer runLater(Duration delay, Runnable action) {
+            this.action = action;
+            TIMERS.add(this);
+            return this;
+        }
+
+        @Override
+        public Timer runPeriodically(Duration interval, Runnable runnable) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void stop() {
+            stopped = true;
+        }
+    }
+}
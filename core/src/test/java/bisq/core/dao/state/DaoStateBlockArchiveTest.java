@@ -0,0 +1,160 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.dao.state;
+
+import bisq.core.dao.state.model.blockchain.Block;
+
+import bisq.common.storage.FileUtil;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DaoStateBlockArchiveTest {
+    private File storageDir;
+    private File dir;
+    private DaoStateBlockArchive archive;
+
+    @Before
+    public void setup() throws IOException {
+        storageDir = File.createTempFile("temp_tests", "");
+        //noinspection ResultOfMethodCallIgnored
+        storageDir.delete();
+        dir = new File(storageDir, DaoStateBlockArchive.DIR_NAME);
+        archive = new DaoStateBlockArchive(storageDir);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtil.deleteDirectory(storageDir);
+    }
+
+    @Test
+    public void testAppendAndReadAcrossSegments() throws IOException {
+        assertEquals(0, archive.getTipHeight());
+
+        archive.append(createBlocks(1500, 2999));
+        archive.append(createBlocks(3000, 3100));
+        assertEquals(3100, archive.getTipHeight());
+        assertEquals(3, dir.listFiles().length);
+
+        List<Block> blocks = archive.readBlocks(3050);
+        assertEquals(3050 - 1500 + 1, blocks.size());
+        for (int i = 0; i < blocks.size(); i++) {
+            assertEquals(1500 + i, blocks.get(i).getHeight());
+        }
+        assertEquals("blockHash3050", blocks.get(blocks.size() - 1).getHash());
+
+        // A new instance reads the tip from disc
+        assertEquals(3100, new DaoStateBlockArchive(storageDir).getTipHeight());
+    }
+
+    @Test
+    public void testReadBlockAndRange() throws IOException {
+        archive.append(createBlocks(1500, 3100));
+
+        assertEquals("blockHash2000", archive.readBlock(2000).map(Block::getHash).orElse(null));
+        assertEquals("blockHash1999", archive.readBlock(1999).map(Block::getHash).orElse(null));
+        assertFalse(archive.readBlock(1499).isPresent());
+        assertFalse(archive.readBlock(3101).isPresent());
+
+        List<Block> blocks = archive.readBlocks(1990, 2010);
+        assertEquals(21, blocks.size());
+        assertEquals(1990, blocks.get(0).getHeight());
+        assertEquals(2010, blocks.get(blocks.size() - 1).getHeight());
+        assertEquals(3100 - 3000 + 1, archive.readBlocks(3000, 5000).size());
+
+        // A cached segment must not hide appended blocks
+        archive.append(createBlocks(3101, 3102));
+        assertEquals("blockHash3102", archive.readBlock(3102).map(Block::getHash).orElse(null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAppendNotConnectingBlocks() throws IOException {
+        archive.append(createBlocks(100, 200));
+        archive.append(createBlocks(202, 210));
+    }
+
+    @Test
+    public void testTruncate() throws IOException {
+        archive.append(createBlocks(500, 2500));
+
+        archive.truncate(1200);
+        assertEquals(1200, archive.getTipHeight());
+        assertEquals(1200, new DaoStateBlockArchive(storageDir).getTipHeight());
+        assertEquals(2, dir.listFiles().length);
+        assertEquals(1200 - 500 + 1, archive.readBlocks(5000).size());
+
+        // We can continue after the truncated height
+        archive.append(createBlocks(1201, 1300));
+        assertEquals(1300, archive.getTipHeight());
+    }
+
+    @Test
+    public void testClear() throws IOException {
+        archive.append(createBlocks(100, 1200));
+        archive.clear();
+        assertEquals(0, archive.getTipHeight());
+        assertTrue(archive.readBlocks(5000).isEmpty());
+
+        // After a clear we can start at any height
+        archive.append(createBlocks(50, 60));
+        assertEquals(60, archive.getTipHeight());
+    }
+
+    @Test
+    public void testIncompleteTailIsRemoved() throws IOException {
+        archive.append(createBlocks(1000, 1010));
+        File segmentFile = new File(dir, "BlockSegment_1000");
+        long validLength = segmentFile.length();
+
+        // Simulate a crash while writing the next block
+        byte[] serializedBlock = createBlocks(1011, 1011).get(0).toProtoMessage().toByteArray();
+        try (FileOutputStream out = new FileOutputStream(segmentFile, true)) {
+            out.write(serializedBlock.length);
+            out.write(serializedBlock, 0, serializedBlock.length / 2);
+        }
+
+        DaoStateBlockArchive reopenedArchive = new DaoStateBlockArchive(storageDir);
+        assertEquals(1010, reopenedArchive.getTipHeight());
+        assertEquals(validLength, segmentFile.length());
+
+        reopenedArchive.append(createBlocks(1011, 1020));
+        assertEquals(21, reopenedArchive.readBlocks(1020).size());
+    }
+
+    private static List<Block> createBlocks(int fromHeight, int toHeight) {
+        List<Block> blocks = new ArrayList<>();
+        for (int height = fromHeight; height <= toHeight; height++) {
+            blocks.add(new Block(height, 1534800000 + height, "blockHash" + height, "blockHash" + (height - 1)));
+        }
+        return blocks;
+    }
+}
@@ -17,22 +17,51 @@
 
 package bisq.core.dao.state;
 
+import bisq.core.dao.governance.bond.BondConsensus;
+import bisq.core.dao.governance.bond.lockup.LockupReason;
 import bisq.core.dao.state.model.DaoState;
 import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.blockchain.Tx;
+import bisq.core.dao.state.model.blockchain.TxInput;
+import bisq.core.dao.state.model.blockchain.TxOutput;
+import bisq.core.dao.state.model.blockchain.TxOutputKey;
+import bisq.core.dao.state.model.blockchain.TxOutputType;
+import bisq.core.dao.state.model.blockchain.TxType;
+import bisq.core.dao.state.model.governance.Issuance;
+import bisq.core.dao.state.model.governance.IssuanceType;
 import bisq.core.util.coin.BsqFormatter;
 
+import bisq.common.crypto.Hash;
+import bisq.common.storage.FileUtil;
+
+import com.google.protobuf.ByteString;
+
 import org.bitcoinj.core.Coin;
 
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import org.junit.Assert;
 import org.junit.Test;
 
+import static org.mockito.Mockito.mock;
+
 public class DaoStateServiceTest {
     @Test
     public void testIsBlockHashKnown() {
         DaoStateService stateService = new DaoStateService(
                 new DaoState(),
                 new GenesisTxInfo("fakegenesistxid", 100, Coin.parseCoin("2.5").value),
-                new BsqFormatter());
+                new BsqFormatter(),
+                mock(DaoStateBlockArchive.class));
         Assert.assertEquals(
                 "Unknown block should not exist.",
                 false,
@@ -69,4 +98,321 @@ public class DaoStateServiceTest {
                 stateService.isBlockHashKnown("fakeblockhash4")
         );
     }
+
+    @Test
+    public void testGetBlocksFromBlockHeight() {
+        DaoStateService stateService = new DaoStateService(
+                new DaoState(),
+                new GenesisTxInfo("genesisTxId", 100, Coin.parseCoin("2.5").value),
+                new BsqFormatter(),
+                mock(DaoStateBlockArchive.class));
+        for (int height = 100; height < 110; height++) {
+            stateService.onNewBlockHeight(height);
+            stateService.onNewBlockWithEmptyTxs(new Block(height, 1534800000 + height, "blockHash" + height,
+                    "blockHash" + (height - 1)));
+        }
+
+        Assert.assertEquals(Arrays.asList(105, 106, 107, 108, 109), getHeights(stateService.getBlocksFromBlockHeight(105, 100)));
+        Assert.assertEquals(Arrays.asList(102, 103, 104), getHeights(stateService.getBlocksFromBlockHeight(102, 3)));
+        Assert.assertEquals(Arrays.asList(100, 101), getHeights(stateService.getBlocksFromBlockHeight(0, 2)));
+        Assert.assertTrue(stateService.getBlocksFromBlockHeight(110, 100).isEmpty());
+    }
+
+    @Test
+    public void testBlocksAreServedFromBlockArchive() throws IOException {
+        File storageDir = Files.createTempDirectory("temp_tests").toFile();
+        try {
+            DaoStateBlockArchive blockArchive = new DaoStateBlockArchive(storageDir);
+            DaoStateService stateService = new DaoStateService(
+                    new DaoState(),
+                    new GenesisTxInfo("genesisTxId", 100, Coin.parseCoin("2.5").value),
+                    new BsqFormatter(),
+                    blockArchive);
+            for (int height = 100; height < 110; height++) {
+                stateService.onNewBlockHeight(height);
+                stateService.onNewBlockWithEmptyTxs(new Block(height, 1534800000 + height, "blockHash" + height,
+                        "blockHash" + (height - 1)));
+            }
+
+            blockArchive.append(stateService.getBlocksFromBlockHeight(100, 5));
+            stateService.onBlocksArchived(blockArchive.getTipHeight());
+            Assert.assertEquals(Arrays.asList(105, 106, 107, 108, 109), getHeights(stateService.getBlocks()));
+            Assert.assertFalse(stateService.isBlockHashKnown("blockHash104"));
+            Assert.assertTrue(stateService.isBlockHashKnown("blockHash105"));
+
+            Assert.assertEquals("blockHash102", stateService.getBlockAtHeight(102).map(Block::getHash).orElse(null));
+            Assert.assertEquals("blockHash107", stateService.getBlockAtHeight(107).map(Block::getHash).orElse(null));
+            Assert.assertFalse(stateService.getBlockAtHeight(99).isPresent());
+
+            // Requests which start at an archived height continue with the blocks in memory
+            Assert.assertEquals(Arrays.asList(103, 104, 105, 106), getHeights(stateService.getBlocksFromBlockHeight(103, 4)));
+            Assert.assertEquals(Arrays.asList(100, 101), getHeights(stateService.getBlocksFromBlockHeight(0, 2)));
+            Assert.assertEquals(Arrays.asList(100, 101, 102, 103, 104, 105, 106, 107, 108, 109),
+                    getHeights(stateService.getBlocksFromBlockHeight(100, 100)));
+            Assert.assertEquals(Arrays.asList(106, 107), getHeights(stateService.getBlocksFromBlockHeight(106, 2)));
+        } finally {
+            FileUtil.deleteDirectory(storageDir);
+        }
+    }
+
+    private static List<Integer> getHeights(List<Block> blocks) {
+        return blocks.stream().map(Block::getHeight).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testIndexesMatchScanningImplementation() {
+        DaoStateService stateService = new DaoStateService(
+                new DaoState(),
+                new GenesisTxInfo("genesisTxId", 100, Coin.parseCoin("2.5").value),
+                new BsqFormatter(),
+                mock(DaoStateBlockArchive.class));
+
+        Tx genesisTx = createTx("genesisTxId", 100, TxType.GENESIS, 0, Collections.emptyList(),
+                createTxOutput("genesisTxId", 0, 100000, 100, TxOutputType.GENESIS_OUTPUT, 0),
+                createTxOutput("genesisTxId", 1, 200000, 100, TxOutputType.GENESIS_OUTPUT, 0));
+        parseBlock(stateService, 100, Collections.singletonList(genesisTx));
+        assertIndexesMatchScanning(stateService);
+
+        Tx feeTx = createTx("feeTxId", 101, TxType.PAY_TRADE_FEE, 100, Collections.emptyList(),
+                createTxOutput("feeTxId", 0, 99900, 101, TxOutputType.BSQ_OUTPUT, 0),
+                createTxOutput("feeTxId", 1, 5000, 101, TxOutputType.BTC_OUTPUT, 0));
+        Tx lockupTx1 = createTx("lockupTxId1", 101, TxType.LOCKUP, 0, Collections.emptyList(),
+                createTxOutput("lockupTxId1", 0, 1000, 101, TxOutputType.LOCKUP_OUTPUT, 0),
+                createTxOutput("lockupTxId1", 1, 0, 101, TxOutputType.LOCKUP_OP_RETURN_OUTPUT, 0));
+        Tx lockupTx2 = createTx("lockupTxId2", 101, TxType.LOCKUP, 0, Collections.emptyList(),
+                createTxOutput("lockupTxId2", 0, 2000, 101, TxOutputType.LOCKUP_OUTPUT, 0),
+                createTxOutput("lockupTxId2", 1, 0, 101, TxOutputType.LOCKUP_OP_RETURN_OUTPUT, 0));
+        parseBlock(stateService, 101, Arrays.asList(feeTx, lockupTx1, lockupTx2));
+        assertIndexesMatchScanning(stateService);
+
+        Tx unlockTx = createTx("unlockTxId", 102, TxType.UNLOCK, 0,
+                Collections.singletonList(new TxInput("lockupTxId1", 0, null)),
+                createTxOutput("unlockTxId", 0, 1000, 102, TxOutputType.UNLOCK_OUTPUT, 107));
+        Tx invalidTx = createTx("invalidTxId", 102, TxType.INVALID, 50, Collections.emptyList(),
+                createTxOutput("invalidTxId", 0, 50, 102, TxOutputType.INVALID_OUTPUT, 0));
+        Tx compReqTx = createTx("compReqTxId", 102, TxType.COMPENSATION_REQUEST, 20, Collections.emptyList(),
+                createTxOutput("compReqTxId", 0, 500, 102, TxOutputType.BSQ_OUTPUT, 0),
+                createTxOutput("compReqTxId", 1, 10000, 102, TxOutputType.ISSUANCE_CANDIDATE_OUTPUT, 0),
+                createTxOutput("compReqTxId", 2, 0, 102, TxOutputType.COMP_REQ_OP_RETURN_OUTPUT, 0));
+        Tx blindVoteTx = createTx("blindVoteTxId", 102, TxType.BLIND_VOTE, 30, Collections.emptyList(),
+                createTxOutput("blindVoteTxId", 0, 3000, 102, TxOutputType.BLIND_VOTE_LOCK_STAKE_OUTPUT, 0),
+                createTxOutput("blindVoteTxId", 1, 0, 102, TxOutputType.BLIND_VOTE_OP_RETURN_OUTPUT, 0));
+        parseBlock(stateService, 102, Arrays.asList(unlockTx, invalidTx, compReqTx, blindVoteTx), () -> {
+            stateService.getTxOutput(new TxOutputKey("lockupTxId1", 0)).ifPresent(stateService::removeUnspentTxOutput);
+            stateService.confiscateBond("lockupTxId2");
+            stateService.addIssuance(new Issuance("compReqTxId", 102, 10000, null, IssuanceType.COMPENSATION));
+        });
+        assertIndexesMatchScanning(stateService);
+        Assert.assertEquals(1000, stateService.getTotalAmountOfUnLockingTxOutputs());
+        Assert.assertEquals(0, stateService.getTotalAmountOfUnLockedTxOutputs());
+
+        // Passing the unlock block height moves the unlock output from unlocking to unlocked
+        for (int height = 103; height <= 108; height++) {
+            parseBlock(stateService, height, Collections.emptyList());
+        }
+        assertIndexesMatchScanning(stateService);
+        Assert.assertEquals(0, stateService.getTotalAmountOfUnLockingTxOutputs());
+        Assert.assertEquals(1000, stateService.getTotalAmountOfUnLockedTxOutputs());
+
+        // The indexes get rebuilt from the snapshot
+        DaoStateService snapshotStateService = new DaoStateService(
+                new DaoState(),
+                new GenesisTxInfo("genesisTxId", 100, Coin.parseCoin("2.5").value),
+                new BsqFormatter(),
+                mock(DaoStateBlockArchive.class));
+        snapshotStateService.applySnapshot(stateService.getClone());
+        assertIndexesMatchScanning(snapshotStateService);
+        Assert.assertEquals(stateService.getTotalBurntFee(), snapshotStateService.getTotalBurntFee());
+        Assert.assertEquals(stateService.getTotalLockupAmount(), snapshotStateService.getTotalLockupAmount());
+    }
+
+    @Test
+    public void testGetLockupTxIdsByBondHash() throws IOException {
+        DaoStateService stateService = new DaoStateService(
+                new DaoState(),
+                new GenesisTxInfo("genesisTxId", 100, Coin.parseCoin("2.5").value),
+                new BsqFormatter(),
+                mock(DaoStateBlockArchive.class));
+        byte[] hash1 = Hash.getSha256Ripemd160hash("role1".getBytes());
+        byte[] hash2 = Hash.getSha256Ripemd160hash("role2".getBytes());
+
+        Tx lockupTx1 = createTx("lockupTxId1", 100, TxType.LOCKUP, 0, Collections.emptyList(),
+                createTxOutput("lockupTxId1", 0, 1000, 100, TxOutputType.LOCKUP_OUTPUT, 0),
+                createLockupOpReturnTxOutput("lockupTxId1", 1, 100, hash1));
+        Tx lockupTx2 = createTx("lockupTxId2", 100, TxType.LOCKUP, 0, Collections.emptyList(),
+                createTxOutput("lockupTxId2", 0, 2000, 100, TxOutputType.LOCKUP_OUTPUT, 0),
+                createLockupOpReturnTxOutput("lockupTxId2", 1, 100, hash2));
+        parseBlock(stateService, 100, Arrays.asList(lockupTx1, lockupTx2));
+
+        Tx lockupTx3 = createTx("lockupTxId3", 101, TxType.LOCKUP, 0, Collections.emptyList(),
+                createTxOutput("lockupTxId3", 0, 1000, 101, TxOutputType.LOCKUP_OUTPUT, 0),
+                createLockupOpReturnTxOutput("lockupTxId3", 1, 101, hash1));
+        parseBlock(stateService, 101, Collections.singletonList(lockupTx3));
+
+        Assert.assertEquals(Arrays.asList("lockupTxId1", "lockupTxId3"), stateService.getLockupTxIdsByBondHash(hash1));
+        Assert.assertEquals(Collections.singletonList("lockupTxId2"), stateService.getLockupTxIdsByBondHash(hash2));
+        Assert.assertTrue(stateService.getLockupTxIdsByBondHash(Hash.getSha256Ripemd160hash("unknown".getBytes())).isEmpty());
+
+        // The index gets rebuilt from the snapshot
+        DaoStateService snapshotStateService = new DaoStateService(
+                new DaoState(),
+                new GenesisTxInfo("genesisTxId", 100, Coin.parseCoin("2.5").value),
+                new BsqFormatter(),
+                mock(DaoStateBlockArchive.class));
+        snapshotStateService.applySnapshot(stateService.getClone());
+        Assert.assertEquals(2, snapshotStateService.getLockupTxIdsByBondHash(hash1).size());
+        Assert.assertEquals(1, snapshotStateService.getLockupTxIdsByBondHash(hash2).size());
+    }
+
+    private static void assertIndexesMatchScanning(DaoStateService stateService) {
+        for (TxOutputType txOutputType : TxOutputType.values()) {
+            Assert.assertEquals(txOutputType.name(),
+                    scanTxOutputs(stateService, txOutputType),
+                    getIndexedTxOutputs(stateService, txOutputType));
+        }
+
+        Assert.assertEquals(scanTxOutputs(stateService, TxOutputType.BLIND_VOTE_LOCK_STAKE_OUTPUT).stream()
+                        .filter(txOutput -> stateService.isUnspent(txOutput.getKey()))
+                        .collect(Collectors.toSet()),
+                stateService.getUnspentBlindVoteStakeTxOutputs());
+
+        stateService.getUnorderedTxStream()
+                .flatMap(tx -> tx.getTxOutputs().stream())
+                .forEach(txOutput -> {
+                    Assert.assertTrue(stateService.existsTxOutput(txOutput.getKey()));
+                    Assert.assertEquals(txOutput, stateService.getTxOutput(txOutput.getKey()).orElse(null));
+                });
+        Assert.assertFalse(stateService.existsTxOutput(new TxOutputKey("genesisTxId", 2)));
+        Assert.assertFalse(stateService.existsTxOutput(new TxOutputKey("unknownTxId", 0)));
+
+        Assert.assertEquals(stateService.getUnorderedTxStream().mapToLong(Tx::getBurntFee).sum(),
+                stateService.getTotalBurntFee());
+        Assert.assertEquals(stateService.getUnorderedTxStream().mapToLong(Tx::getBurntBsq).sum(),
+                stateService.getTotalAmountOfBurntBsq());
+        Assert.assertEquals(stateService.getUnorderedTxStream().mapToLong(Tx::getInvalidatedBsq).sum(),
+                stateService.getTotalAmountOfInvalidatedBsq());
+
+        List<String> confiscatedLockupTxList = stateService.getClone().getConfiscatedLockupTxList();
+        Assert.assertEquals(scanTxOutputs(stateService, TxOutputType.LOCKUP_OUTPUT).stream()
+                        .filter(txOutput -> !confiscatedLockupTxList.contains(txOutput.getTxId()))
+                        .mapToLong(TxOutput::getValue)
+                        .sum(),
+                stateService.getTotalAmountOfLockupTxOutputs());
+        Assert.assertEquals(confiscatedLockupTxList.stream()
+                        .flatMap(txId -> stateService.getTx(txId).stream())
+                        .mapToLong(tx -> tx.getLockupOutput().getValue())
+                        .sum(),
+                stateService.getTotalAmountOfConfiscatedTxOutputs());
+        Assert.assertEquals(scanTxOutputs(stateService, TxOutputType.UNLOCK_OUTPUT).stream()
+                        .filter(txOutput -> stateService.isUnspent(txOutput.getKey()))
+                        .filter(txOutput -> !stateService.isLockTimeOverForUnlockTxOutput(txOutput))
+                        .filter(txOutput -> !stateService.isConfiscatedUnlockTxOutput(txOutput.getTxId()))
+                        .mapToLong(TxOutput::getValue)
+                        .sum(),
+                stateService.getTotalAmountOfUnLockingTxOutputs());
+        Assert.assertEquals(scanTxOutputs(stateService, TxOutputType.UNLOCK_OUTPUT).stream()
+                        .filter(txOutput -> !stateService.isConfiscatedUnlockTxOutput(txOutput.getTxId()))
+                        .filter(stateService::isLockTimeOverForUnlockTxOutput)
+                        .mapToLong(TxOutput::getValue)
+                        .sum(),
+                stateService.getTotalAmountOfUnLockedTxOutputs());
+
+        stateService.getClone().getIssuanceMap().values().forEach(issuance -> {
+            Assert.assertEquals(issuance.getTxId(), stateService.getIssuance(issuance.getTxId()).map(Issuance::getTxId).orElse(null));
+            Assert.assertTrue(stateService.isIssuanceTx(issuance.getTxId(), issuance.getIssuanceType()));
+        });
+    }
+
+    private static Set<TxOutput> scanTxOutputs(DaoStateService stateService, TxOutputType txOutputType) {
+        return stateService.getUnorderedTxStream()
+                .flatMap(tx -> tx.getTxOutputs().stream())
+                .filter(txOutput -> txOutput.getTxOutputType() == txOutputType)
+                .collect(Collectors.toSet());
+    }
+
+    private static Set<TxOutput> getIndexedTxOutputs(DaoStateService stateService, TxOutputType txOutputType) {
+        switch (txOutputType) {
+            case LOCKUP_OUTPUT:
+                return stateService.getLockupTxOutputs();
+            case UNLOCK_OUTPUT:
+                return stateService.getUnlockTxOutputs();
+            case ISSUANCE_CANDIDATE_OUTPUT:
+                return stateService.getIssuanceCandidateTxOutputs();
+            case VOTE_REVEAL_OP_RETURN_OUTPUT:
+                return stateService.getVoteRevealOpReturnTxOutputs();
+            case ASSET_LISTING_FEE_OP_RETURN_OUTPUT:
+                return stateService.getAssetListingFeeOpReturnTxOutputs();
+            case PROOF_OF_BURN_OP_RETURN_OUTPUT:
+                return stateService.getProofOfBurnOpReturnTxOutputs();
+            default:
+                // Other types have no public accessor, so we compare them by lookup of each scanned output
+                return scanTxOutputs(stateService, txOutputType).stream()
+                        .map(txOutput -> stateService.getTxOutput(txOutput.getKey()).orElse(null))
+                        .collect(Collectors.toSet());
+        }
+    }
+
+    private static void parseBlock(DaoStateService stateService, int height, List<Tx> txs) {
+        parseBlock(stateService, height, txs, () -> {
+        });
+    }
+
+    private static void parseBlock(DaoStateService stateService, int height, List<Tx> txs, Runnable stateChanges) {
+        Block block = new Block(height, 1534800000 + height, "blockHash" + height, "blockHash" + (height - 1));
+        stateService.onNewBlockHeight(height);
+        stateService.onNewBlockWithEmptyTxs(block);
+        txs.forEach(tx -> {
+            stateService.onNewTxForLastBlock(block, tx);
+            tx.getTxOutputs().forEach(stateService::addUnspentTxOutput);
+        });
+        stateChanges.run();
+        stateService.onParseBlockComplete(block);
+    }
+
+    private static Tx createTx(String txId,
+                               int blockHeight,
+                               TxType txType,
+                               long burntBsq,
+                               List<TxInput> txInputs,
+                               protobuf.BaseTxOutput... txOutputs) {
+        return Tx.fromProto(protobuf.BaseTx.newBuilder()
+                .setTxVersion("1")
+                .setId(txId)
+                .setBlockHeight(blockHeight)
+                .setBlockHash("blockHash" + blockHeight)
+                .setTime(1534800000 + blockHeight)
+                .addAllTxInputs(txInputs.stream().map(TxInput::toProtoMessage).collect(Collectors.toList()))
+                .setTx(protobuf.Tx.newBuilder()
+                        .addAllTxOutputs(Arrays.asList(txOutputs))
+                        .setTxType(txType.toProtoMessage())
+                        .setBurntBsq(burntBsq))
+                .build());
+    }
+
+    private static protobuf.BaseTxOutput createTxOutput(String txId,
+                                                        int index,
+                                                        long value,
+                                                        int blockHeight,
+                                                        TxOutputType txOutputType,
+                                                        int unlockBlockHeight) {
+        return protobuf.BaseTxOutput.newBuilder()
+                .setIndex(index)
+                .setValue(value)
+                .setTxId(txId)
+                .setBlockHeight(blockHeight)
+                .setTxOutput(protobuf.TxOutput.newBuilder()
+                        .setTxOutputType(txOutputType.toProtoMessage())
+                        .setUnlockBlockHeight(unlockBlockHeight))
+                .build();
+    }
+
+    private static protobuf.BaseTxOutput createLockupOpReturnTxOutput(String txId,
+                                                                      int index,
+                                                                      int blockHeight,
+                                                                      byte[] hash) throws IOException {
+        byte[] opReturnData = BondConsensus.getLockupOpReturnData(10, LockupReason.BONDED_ROLE, hash);
+        return createTxOutput(txId, index, 0, blockHeight, TxOutputType.LOCKUP_OP_RETURN_OUTPUT, 0).toBuilder()
+                .setOpReturnData(ByteString.copyFrom(opReturnData))
+                .build();
+    }
 }
@@ -0,0 +1,87 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.filter;
+
+import bisq.core.payment.payload.AliPayAccountPayload;
+import bisq.core.payment.payload.PaymentMethod;
+
+import com.google.common.collect.Lists;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FilterMatcherTest {
+
+    private static Filter filter(List<PaymentAccountFilter> bannedPaymentAccounts) {
+        return new Filter(Lists.newArrayList("offer1"),
+                Lists.newArrayList("banned.onion:9999"),
+                bannedPaymentAccounts,
+                Lists.newArrayList("EUR"),
+                null,
+                null,
+                null,
+                null,
+                false,
+                null,
+                false,
+                null,
+                null,
+                null,
+                null);
+    }
+
+    @Test
+    public void testLists() {
+        FilterMatcher matcher = new FilterMatcher(filter(Collections.emptyList()));
+        assertTrue(matcher.isOfferIdBanned("offer1"));
+        assertFalse(matcher.isOfferIdBanned("offer2"));
+        assertTrue(matcher.isNodeAddressBanned("banned.onion:9999"));
+        assertFalse(matcher.isNodeAddressBanned("other.onion:9999"));
+        assertTrue(matcher.isCurrencyBanned("EUR"));
+        assertFalse(matcher.isCurrencyBanned("USD"));
+        // Null lists of old filters ban nothing
+        assertFalse(matcher.isPaymentMethodBanned(PaymentMethod.ALI_PAY_ID));
+
+        assertFalse(FilterMatcher.EMPTY.isOfferIdBanned("offer1"));
+        assertFalse(FilterMatcher.EMPTY.isCurrencyBanned("EUR"));
+    }
+
+    @Test
+    public void testPaymentAccounts() {
+        PaymentAccountFilter otherMethod = new PaymentAccountFilter(PaymentMethod.PERFECT_MONEY_ID, "getAccountNr", "123");
+        PaymentAccountFilter unknownGetter = new PaymentAccountFilter(PaymentMethod.ALI_PAY_ID, "getIban", "123");
+        PaymentAccountFilter banned = new PaymentAccountFilter(PaymentMethod.ALI_PAY_ID, "getAccountNr", "AbC123");
+        FilterMatcher matcher = new FilterMatcher(filter(Lists.newArrayList(otherMethod, unknownGetter, banned)));
+
+        AliPayAccountPayload payload = new AliPayAccountPayload(PaymentMethod.ALI_PAY_ID, "id");
+        payload.setAccountNr("123");
+        assertNull(matcher.findBannedPaymentAccount(payload));
+
+        // Values are compared case insensitive
+        payload.setAccountNr("abc123");
+        assertEquals(banned, matcher.findBannedPaymentAccount(payload));
+        assertNull(FilterMatcher.EMPTY.findBannedPaymentAccount(payload));
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.notifications.alerts.market;
+
+import bisq.core.payment.ClearXchangeAccount;
+import bisq.core.payment.PaymentAccount;
+import bisq.core.payment.SepaAccount;
+import bisq.core.payment.payload.PaymentMethod;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MarketAlertFilterIndexTest {
+    private final PaymentAccount sepaAccount = new SepaAccount();
+    private final PaymentAccount clearXchangeAccount = new ClearXchangeAccount();
+
+    @Test
+    public void testGetTriggeredFilters() {
+        MarketAlertFilter buy100 = new MarketAlertFilter(sepaAccount, 100, true);
+        MarketAlertFilter buy200 = new MarketAlertFilter(sepaAccount, 200, true);
+        MarketAlertFilter buyNegative = new MarketAlertFilter(sepaAccount, -50, true);
+        MarketAlertFilter sell100 = new MarketAlertFilter(sepaAccount, 100, false);
+        MarketAlertFilter otherPaymentMethod = new MarketAlertFilter(clearXchangeAccount, 100, true);
+
+        MarketAlertFilterIndex index = new MarketAlertFilterIndex();
+        Arrays.asList(buy100, buy200, buyNegative, sell100, otherPaymentMethod).forEach(index::add);
+
+        String sepaId = PaymentMethod.SEPA_ID;
+        // Filters are returned sorted by their trigger value
+        assertEquals(Arrays.asList(buyNegative, buy100, buy200), index.getTriggeredFilters(sepaId, true, -50));
+        assertEquals(Arrays.asList(buy100, buy200), index.getTriggeredFilters(sepaId, true, -49.5));
+        assertEquals(Arrays.asList(buy100, buy200), index.getTriggeredFilters(sepaId, true, 100));
+        assertEquals(Arrays.asList(buy200), index.getTriggeredFilters(sepaId, true, 100.01));
+        assertTrue(index.getTriggeredFilters(sepaId, true, 200.5).isEmpty());
+        assertTrue(index.getTriggeredFilters(sepaId, true, Double.NaN).isEmpty());
+        assertEquals(3, index.getTriggeredFilters(sepaId, true, Double.NEGATIVE_INFINITY).size());
+        assertTrue(index.getTriggeredFilters(sepaId, true, Double.POSITIVE_INFINITY).isEmpty());
+
+        assertEquals(Arrays.asList(sell100), index.getTriggeredFilters(sepaId, false, 0));
+        assertEquals(Arrays.asList(otherPaymentMethod),
+                index.getTriggeredFilters(PaymentMethod.CLEAR_X_CHANGE_ID, true, 0));
+        assertTrue(index.getTriggeredFilters(PaymentMethod.CLEAR_X_CHANGE_ID, false, 0).isEmpty());
+    }
+
+    @Test
+    public void testRemove() {
+        MarketAlertFilter filter1 = new MarketAlertFilter(sepaAccount, 100, true);
+        MarketAlertFilter filter2 = new MarketAlertFilter(sepaAccount, 100, true);
+        filter2.addAlertId("offerId|100");
+
+        MarketAlertFilterIndex index = new MarketAlertFilterIndex();
+        index.add(filter1);
+        index.add(filter2);
+        index.remove(filter1);
+        assertEquals(Arrays.asList(filter2), index.getTriggeredFilters(PaymentMethod.SEPA_ID, true, 0));
+
+        index.remove(filter2);
+        index.remove(filter2);
+        assertTrue(index.getTriggeredFilters(PaymentMethod.SEPA_ID, true, 0).isEmpty());
+    }
+}
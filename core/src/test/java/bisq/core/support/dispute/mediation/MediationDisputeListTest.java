@@ -0,0 +1,103 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.support.dispute.mediation;
+
+import bisq.core.support.SupportType;
+import bisq.core.support.dispute.Dispute;
+import bisq.core.support.messages.ChatMessage;
+
+import bisq.network.p2p.NodeAddress;
+
+import bisq.common.crypto.PubKeyRing;
+import bisq.common.storage.Storage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class MediationDisputeListTest {
+    private static final int NUM_DISPUTES = 10000;
+
+    private Storage<MediationDisputeList> storage;
+    private MediationDisputeList disputeList;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        storage = mock(Storage.class);
+        disputeList = new MediationDisputeList(storage);
+    }
+
+    @Test
+    public void testFindDispute() {
+        List<Dispute> disputes = new ArrayList<>();
+        for (int i = 0; i < NUM_DISPUTES; i++) {
+            disputes.add(createDispute("tradeId" + i, 1));
+            disputes.add(createDispute("tradeId" + i, 2));
+        }
+        // Disputes added directly to the list, as it is done at readPersisted, get indexed as well
+        disputeList.getList().addAll(disputes.subList(0, NUM_DISPUTES));
+        disputes.subList(NUM_DISPUTES, disputes.size()).forEach(disputeList::add);
+        assertEquals(2 * NUM_DISPUTES, disputeList.size());
+        assertFalse(disputeList.add(disputes.get(0)));
+
+        for (int i = 0; i < NUM_DISPUTES; i++) {
+            assertEquals(disputes.get(2 * i), disputeList.findDispute("tradeId" + i, 1).orElse(null));
+            assertEquals(disputes.get(2 * i + 1), disputeList.findDispute("tradeId" + i, 2).orElse(null));
+            assertEquals(disputes.get(2 * i), disputeList.findDispute("tradeId" + i).orElse(null));
+        }
+        assertFalse(disputeList.findDispute("tradeId0", 3).isPresent());
+
+        // After removal of the first dispute of a trade we find the dispute of the other trader
+        disputeList.remove(disputes.get(0));
+        assertFalse(disputeList.findDispute("tradeId0", 1).isPresent());
+        assertEquals(disputes.get(1), disputeList.findDispute("tradeId0").orElse(null));
+    }
+
+    @Test
+    public void testGetChatMessagesByUid() {
+        Dispute dispute = createDispute("tradeId", 1);
+        disputeList.add(dispute);
+        ChatMessage chatMessage = new ChatMessage(SupportType.MEDIATION, "tradeId", 1, true, "message",
+                new NodeAddress("localhost", 9999));
+        dispute.addAndPersistChatMessage(chatMessage);
+
+        assertTrue(dispute.hasChatMessage(chatMessage.getUid()));
+        assertEquals(1, disputeList.getChatMessagesByUid(chatMessage.getUid()).size());
+        assertTrue(disputeList.getChatMessagesByUid("unknownUid").isEmpty());
+
+        // A message with an already stored uid is ignored
+        dispute.addAndPersistChatMessage(chatMessage);
+        assertEquals(1, dispute.getChatMessages().size());
+
+        disputeList.remove(dispute);
+        assertTrue(disputeList.getChatMessagesByUid(chatMessage.getUid()).isEmpty());
+    }
+
+    private Dispute createDispute(String tradeId, int traderId) {
+        return new Dispute(storage, tradeId, traderId, true, true, mock(PubKeyRing.class), 0, null, null, null,
+                null, null, null, "", null, null, mock(PubKeyRing.class), false, SupportType.MEDIATION);
+    }
+}
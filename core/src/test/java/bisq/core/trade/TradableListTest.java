@@ -24,12 +24,18 @@ import bisq.core.offer.OpenOffer;
 import bisq.common.storage.CorruptedDatabaseFilesHandler;
 import bisq.common.storage.Storage;
 
+import javafx.collections.ListChangeListener;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 import static protobuf.PersistableEnvelope.MessageCase.TRADABLE_LIST;
 
 public class TradableListTest {
@@ -51,4 +57,54 @@ public class TradableListTest {
         assertEquals(message.getMessageCase(), TRADABLE_LIST);
         assertEquals(1, message.getTradableList().getTradableList().size());
     }
+
+    @Test
+    public void testGetTradableById() {
+        Storage<TradableList<OpenOffer>> storage = new Storage<>(null, null, mock(CorruptedDatabaseFilesHandler.class));
+        TradableList<OpenOffer> openOfferTradableList = new TradableList<>(storage, "filename");
+        OpenOffer openOffer1 = createOpenOffer("id1", storage);
+        OpenOffer openOffer2 = createOpenOffer("id2", storage);
+        openOfferTradableList.add(openOffer1);
+        openOfferTradableList.add(openOffer2);
+
+        assertEquals(openOffer1, openOfferTradableList.getTradableById("id1").orElse(null));
+        assertEquals(openOffer2, openOfferTradableList.getTradableById("id2").orElse(null));
+        assertFalse(openOfferTradableList.getTradableById("id3").isPresent());
+
+        openOfferTradableList.remove(openOffer1);
+        assertFalse(openOfferTradableList.getTradableById("id1").isPresent());
+        assertEquals(openOffer2, openOfferTradableList.getTradableById("id2").orElse(null));
+    }
+
+    @Test
+    public void testMoveTo() {
+        Storage<TradableList<OpenOffer>> storage = new Storage<>(null, null, mock(CorruptedDatabaseFilesHandler.class));
+        TradableList<OpenOffer> openOfferTradableList = new TradableList<>(storage, "filename");
+        Storage<TradableList<Tradable>> closedStorage = new Storage<>(null, null, mock(CorruptedDatabaseFilesHandler.class));
+        TradableList<Tradable> closedTradableList = new TradableList<>(closedStorage, "closedFilename");
+        OpenOffer openOffer = createOpenOffer("id1", storage);
+        openOfferTradableList.add(openOffer);
+
+        // The tradable can be found in the target list when it gets removed from the source list
+        AtomicBoolean foundInTargetAtRemoval = new AtomicBoolean();
+        openOfferTradableList.getList().addListener((ListChangeListener<OpenOffer>) change ->
+                foundInTargetAtRemoval.set(closedTradableList.getTradableById("id1").isPresent()));
+
+        assertTrue(openOfferTradableList.moveTo(openOffer, closedTradableList));
+        assertTrue(foundInTargetAtRemoval.get());
+        assertFalse(openOfferTradableList.getTradableById("id1").isPresent());
+        assertEquals(0, openOfferTradableList.size());
+        assertEquals(openOffer, closedTradableList.getTradableById("id1").orElse(null));
+        assertEquals(1, closedTradableList.size());
+
+        // A tradable which is not in the source list does not get moved
+        assertFalse(openOfferTradableList.moveTo(openOffer, closedTradableList));
+        assertEquals(1, closedTradableList.size());
+    }
+
+    private static OpenOffer createOpenOffer(String id, Storage<TradableList<OpenOffer>> storage) {
+        OfferPayload offerPayload = mock(OfferPayload.class);
+        when(offerPayload.getId()).thenReturn(id);
+        return new OpenOffer(new Offer(offerPayload), storage);
+    }
 }
@@ -0,0 +1,112 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.daemon.app;
+
+import bisq.daemon.rpc.DaemonRpcService;
+import bisq.daemon.rpc.RpcAuthCookie;
+import bisq.daemon.rpc.RpcServer;
+
+import bisq.core.app.BisqExecutable;
+import bisq.core.app.BisqHeadlessAppMain;
+
+import bisq.common.handlers.ResultHandler;
+
+import joptsimple.OptionParser;
+
+import java.io.File;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+import static java.lang.String.format;
+
+/**
+ * Runs the headless app and exposes balances, offers, trades and market prices on a local RPC socket once the
+ * setup is complete. Meant for market makers and for integration tests which have no use for the JavaFX UI.
+ */
+@Slf4j
+public class BisqDaemonMain extends BisqHeadlessAppMain {
+    public static final int DEFAULT_RPC_PORT = 9998;
+
+    @Nullable
+    private RpcServer rpcServer;
+    @Nullable
+    private RpcAuthCookie rpcAuthCookie;
+
+    public static void main(String[] args) throws Exception {
+        if (BisqExecutable.setupInitialOptionParser(args)) {
+            Thread.currentThread().setContextClassLoader(BisqDaemonMain.class.getClassLoader());
+
+            new BisqDaemonMain().execute(args);
+        }
+    }
+
+    @Override
+    protected void customizeOptionParsing(OptionParser parser) {
+        super.customizeOptionParsing(parser);
+
+        parser.accepts(DaemonOptionKeys.RPC_PORT,
+                format("Port of the local RPC socket (default: %s)", DEFAULT_RPC_PORT))
+                .withRequiredArg()
+                .ofType(int.class);
+
+        parser.accepts(DaemonOptionKeys.RPC_PASSWORD,
+                format("Password the RPC clients have to send with each request (default: random password " +
+                        "written to %s in the app data dir)", RpcAuthCookie.FILE_NAME))
+                .withRequiredArg();
+    }
+
+    @Override
+    public void onSetupComplete() {
+        super.onSetupComplete();
+
+        startRpcServer();
+    }
+
+    @Override
+    public void gracefulShutDown(ResultHandler resultHandler) {
+        if (rpcServer != null)
+            rpcServer.stop();
+        if (rpcAuthCookie != null)
+            rpcAuthCookie.delete();
+
+        super.gracefulShutDown(resultHandler);
+    }
+
+    private void startRpcServer() {
+        String rpcPortOption = bisqEnvironment.getProperty(DaemonOptionKeys.RPC_PORT);
+        String rpcPassword = bisqEnvironment.getProperty(DaemonOptionKeys.RPC_PASSWORD);
+        int rpcPort = rpcPortOption != null && !rpcPortOption.isEmpty() ? Integer.parseInt(rpcPortOption) : DEFAULT_RPC_PORT;
+        try {
+            if (rpcPassword == null || rpcPassword.isEmpty()) {
+                rpcAuthCookie = new RpcAuthCookie(new File(bisqEnvironment.getAppDataDir()));
+                rpcPassword = rpcAuthCookie.create();
+                log.info("RPC password got written to {}", rpcAuthCookie.getFile());
+            }
+
+            DaemonRpcService daemonRpcService = injector.getInstance(DaemonRpcService.class);
+            daemonRpcService.onAllServicesInitialized();
+
+            rpcServer = new RpcServer(daemonRpcService, rpcPort, rpcPassword);
+            rpcServer.start();
+        } catch (Throwable t) {
+            log.error("Could not start RPC server at port {}: {}", rpcPort, t.toString());
+        }
+    }
+}
@@ -0,0 +1,320 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.daemon.rpc;
+
+import bisq.core.btc.Balances;
+import bisq.core.btc.wallet.BsqWalletService;
+import bisq.core.monetary.Price;
+import bisq.core.offer.CreateOfferService;
+import bisq.core.offer.Offer;
+import bisq.core.offer.OfferBookService;
+import bisq.core.offer.OfferPayload;
+import bisq.core.offer.OpenOffer;
+import bisq.core.offer.OpenOfferManager;
+import bisq.core.payment.PaymentAccount;
+import bisq.core.provider.price.MarketPrice;
+import bisq.core.provider.price.PriceFeedService;
+import bisq.core.trade.Trade;
+import bisq.core.trade.TradeManager;
+import bisq.core.user.User;
+
+import org.bitcoinj.core.Coin;
+
+import javax.inject.Inject;
+
+import javafx.beans.property.ObjectProperty;
+
+import javafx.collections.ListChangeListener;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maps the DaemonRequests to the core services. All methods are called on the UserThread.
+ */
+@Slf4j
+public class DaemonRpcService implements RpcRequestHandler {
+    private final Balances balances;
+    private final BsqWalletService bsqWalletService;
+    private final OfferBookService offerBookService;
+    private final CreateOfferService createOfferService;
+    private final OpenOfferManager openOfferManager;
+    private final TradeManager tradeManager;
+    private final PriceFeedService priceFeedService;
+    private final User user;
+
+    // Request id of the subscription by connection, the trade state events carry that id
+    private final Map<RpcConnection, Long> tradeStateSubscriptions = new ConcurrentHashMap<>();
+    private final Set<String> observedTradeIds = ConcurrentHashMap.newKeySet();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Inject
+    public DaemonRpcService(Balances balances,
+                            BsqWalletService bsqWalletService,
+                            OfferBookService offerBookService,
+                            CreateOfferService createOfferService,
+                            OpenOfferManager openOfferManager,
+                            TradeManager tradeManager,
+                            PriceFeedService priceFeedService,
+                            User user) {
+        this.balances = balances;
+        this.bsqWalletService = bsqWalletService;
+        this.offerBookService = offerBookService;
+        this.createOfferService = createOfferService;
+        this.openOfferManager = openOfferManager;
+        this.tradeManager = tradeManager;
+        this.priceFeedService = priceFeedService;
+        this.user = user;
+    }
+
+    public void onAllServicesInitialized() {
+        tradeManager.getTradableList().forEach(this::observeTradeState);
+        tradeManager.getTradableList().addListener((ListChangeListener<Trade>) change -> {
+            while (change.next()) {
+                if (change.wasAdded())
+                    change.getAddedSubList().forEach(this::observeTradeState);
+            }
+        });
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // RpcRequestHandler implementation
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void handle(protobuf.DaemonRequest request, RpcConnection connection) {
+        switch (request.getMessageCase()) {
+            case GET_BALANCES_REQUEST:
+                connection.send(getResponseBuilder(request)
+                        .setGetBalancesResponse(getBalances())
+                        .build());
+                break;
+            case GET_OFFERS_REQUEST:
+                connection.send(getResponseBuilder(request)
+                        .setGetOffersResponse(getOffers(request.getGetOffersRequest()))
+                        .build());
+                break;
+            case CREATE_OFFER_REQUEST:
+                createOffer(request, connection);
+                break;
+            case CANCEL_OFFER_REQUEST:
+                cancelOffer(request, connection);
+                break;
+            case GET_TRADES_REQUEST:
+                connection.send(getResponseBuilder(request)
+                        .setGetTradesResponse(getTrades())
+                        .build());
+                break;
+            case SUBSCRIBE_TRADE_STATES_REQUEST:
+                // We respond with the current trades, later changes are sent as trade state events
+                tradeStateSubscriptions.put(connection, request.getRequestId());
+                connection.send(getResponseBuilder(request)
+                        .setGetTradesResponse(getTrades())
+                        .build());
+                break;
+            case GET_MARKET_PRICE_REQUEST:
+                getMarketPrice(request, connection);
+                break;
+            default:
+                connection.sendError(request.getRequestId(), "Unsupported request " + request.getMessageCase());
+        }
+    }
+
+    @Override
+    public void onConnectionClosed(RpcConnection connection) {
+        tradeStateSubscriptions.remove(connection);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Balances
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private protobuf.GetBalancesResponse getBalances() {
+        return protobuf.GetBalancesResponse.newBuilder()
+                .setAvailableBalance(getValue(balances.getAvailableBalance()))
+                .setReservedBalance(getValue(balances.getReservedBalance()))
+                .setLockedBalance(getValue(balances.getLockedBalance()))
+                .setAvailableBsqBalance(bsqWalletService.getAvailableConfirmedBalance().value)
+                .setUnverifiedBsqBalance(bsqWalletService.getUnverifiedBalance().value)
+                .build();
+    }
+
+    // The balances are set once the wallet is initialized
+    private static long getValue(ObjectProperty<Coin> balance) {
+        return balance.get() != null ? balance.get().value : 0;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Offers
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private protobuf.GetOffersResponse getOffers(protobuf.GetOffersRequest request) {
+        String currencyCode = request.getCurrencyCode();
+        // PB_ERROR is the default value and means that all directions are requested
+        OfferPayload.Direction direction = request.getDirection() != protobuf.OfferPayload.Direction.PB_ERROR ?
+                OfferPayload.Direction.fromProto(request.getDirection()) :
+                null;
+        return protobuf.GetOffersResponse.newBuilder()
+                .addAllOffers(offerBookService.getOffers().stream()
+                        .filter(offer -> currencyCode.isEmpty() || offer.getCurrencyCode().equals(currencyCode))
+                        .filter(offer -> direction == null || offer.getDirection() == direction)
+                        .map(Offer::toProtoMessage)
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    private void createOffer(protobuf.DaemonRequest request, RpcConnection connection) {
+        protobuf.CreateOfferRequest createOfferRequest = request.getCreateOfferRequest();
+        PaymentAccount paymentAccount = user.getPaymentAccount(createOfferRequest.getPaymentAccountId());
+        if (paymentAccount == null) {
+            connection.sendError(request.getRequestId(),
+                    "No payment account with id " + createOfferRequest.getPaymentAccountId());
+            return;
+        }
+
+        Offer offer;
+        try {
+            String currencyCode = createOfferRequest.getCurrencyCode();
+            offer = createOfferService.createAndGetOffer(createOfferService.getRandomOfferId(),
+                    OfferPayload.Direction.fromProto(createOfferRequest.getDirection()),
+                    currencyCode,
+                    Coin.valueOf(createOfferRequest.getAmount()),
+                    Coin.valueOf(createOfferRequest.getMinAmount()),
+                    Price.valueOf(currencyCode, createOfferRequest.getPrice()),
+                    createOfferRequest.getUseMarketBasedPrice(),
+                    createOfferRequest.getMarketPriceMargin(),
+                    createOfferRequest.getBuyerSecurityDeposit(),
+                    paymentAccount);
+        } catch (Throwable t) {
+            log.warn("Could not create offer: {}", t.toString());
+            connection.sendError(request.getRequestId(), "Could not create offer: " + t.getMessage());
+            return;
+        }
+
+        // We use the funds of the savings wallet like the UI does by default
+        openOfferManager.placeOffer(offer,
+                createOfferRequest.getBuyerSecurityDeposit(),
+                true,
+                transaction -> connection.send(getResponseBuilder(request)
+                        .setCreateOfferResponse(protobuf.CreateOfferResponse.newBuilder()
+                                .setOffer(offer.toProtoMessage()))
+                        .build()),
+                errorMessage -> connection.sendError(request.getRequestId(), errorMessage));
+    }
+
+    private void cancelOffer(protobuf.DaemonRequest request, RpcConnection connection) {
+        String offerId = request.getCancelOfferRequest().getOfferId();
+        Optional<OpenOffer> openOffer = openOfferManager.getOpenOfferById(offerId);
+        if (!openOffer.isPresent()) {
+            connection.sendError(request.getRequestId(), "No open offer with id " + offerId);
+            return;
+        }
+
+        openOfferManager.removeOpenOffer(openOffer.get(),
+                () -> connection.send(getResponseBuilder(request)
+                        .setCancelOfferResponse(protobuf.CancelOfferResponse.newBuilder())
+                        .build()),
+                errorMessage -> connection.sendError(request.getRequestId(), errorMessage));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Trades
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private protobuf.GetTradesResponse getTrades() {
+        return protobuf.GetTradesResponse.newBuilder()
+                .addAllTrades(tradeManager.getTradableList().stream()
+                        .map(DaemonRpcService::toTradeInfo)
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    private void observeTradeState(Trade trade) {
+        // Trades stay in memory until they are closed, so we don't need to remove the listener
+        if (observedTradeIds.add(trade.getId()))
+            trade.stateProperty().addListener((observable, oldValue, newValue) -> publishTradeState(trade));
+    }
+
+    private void publishTradeState(Trade trade) {
+        if (tradeStateSubscriptions.isEmpty())
+            return;
+
+        protobuf.TradeInfo tradeInfo = toTradeInfo(trade);
+        tradeStateSubscriptions.forEach((connection, requestId) -> connection.send(protobuf.DaemonResponse.newBuilder()
+                .setRequestId(requestId)
+                .setTradeStateEvent(tradeInfo)
+                .build()));
+    }
+
+    private static protobuf.TradeInfo toTradeInfo(Trade trade) {
+        protobuf.TradeInfo.Builder builder = protobuf.TradeInfo.newBuilder()
+                .setTradeId(trade.getId())
+                .setState(Trade.State.toProtoMessage(trade.getState()))
+                .setPhase(Trade.Phase.toProtoMessage(trade.getState().getPhase()))
+                .setTakeOfferDate(trade.getTakeOfferDate().getTime());
+        if (trade.getTradeAmount() != null)
+            builder.setTradeAmount(trade.getTradeAmount().value);
+        if (trade.getTradePrice() != null)
+            builder.setTradePrice(trade.getTradePrice().getValue());
+        return builder.build();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Market price
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void getMarketPrice(protobuf.DaemonRequest request, RpcConnection connection) {
+        String currencyCode = request.getGetMarketPriceRequest().getCurrencyCode();
+        MarketPrice marketPrice = priceFeedService.getMarketPrice(currencyCode);
+        if (marketPrice == null) {
+            connection.sendError(request.getRequestId(), "No market price available for " + currencyCode);
+            return;
+        }
+
+        connection.send(getResponseBuilder(request)
+                .setGetMarketPriceResponse(protobuf.GetMarketPriceResponse.newBuilder()
+                        .setCurrencyCode(marketPrice.getCurrencyCode())
+                        .setPrice(marketPrice.getPrice())
+                        .setTimestampSec(marketPrice.getTimestampSec())
+                        .setIsExternallyProvidedPrice(marketPrice.isExternallyProvidedPrice()))
+                .build());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static protobuf.DaemonResponse.Builder getResponseBuilder(protobuf.DaemonRequest request) {
+        return protobuf.DaemonResponse.newBuilder().setRequestId(request.getRequestId());
+    }
+}
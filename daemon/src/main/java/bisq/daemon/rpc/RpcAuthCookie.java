@@ -0,0 +1,87 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.daemon.rpc;
+
+import bisq.common.util.Utilities;
+
+import java.security.SecureRandom;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * If no RPC password is configured the daemon creates a random password at each start and writes it to a cookie
+ * file in the app data dir which is only readable by the owner. Local clients which run as the same user read
+ * the password from that file, other users and processes cannot use the RPC socket.
+ */
+@Slf4j
+public class RpcAuthCookie {
+    public static final String FILE_NAME = "rpc.cookie";
+    private static final int NUM_BYTES = 32;
+
+    private final File file;
+
+    public RpcAuthCookie(File appDataDir) {
+        file = new File(appDataDir, FILE_NAME);
+    }
+
+    public String create() throws IOException {
+        byte[] bytes = new byte[NUM_BYTES];
+        new SecureRandom().nextBytes(bytes);
+        String password = Utilities.encodeToHex(bytes);
+
+        Path path = file.toPath();
+        Files.deleteIfExists(path);
+        if (path.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            Set<PosixFilePermission> ownerOnly = EnumSet.of(PosixFilePermission.OWNER_READ,
+                    PosixFilePermission.OWNER_WRITE);
+            Files.createFile(path, PosixFilePermissions.asFileAttribute(ownerOnly));
+        } else {
+            Files.createFile(path);
+            if (!file.setReadable(false, false) || !file.setReadable(true, true) ||
+                    !file.setWritable(false, false) || !file.setWritable(true, true))
+                throw new IOException("Could not restrict the permissions of " + file);
+        }
+        Files.write(path, password.getBytes(StandardCharsets.UTF_8), StandardOpenOption.TRUNCATE_EXISTING);
+        return password;
+    }
+
+    public void delete() {
+        try {
+            Files.deleteIfExists(file.toPath());
+        } catch (IOException e) {
+            log.warn("Could not delete {}: {}", file, e.toString());
+        }
+    }
+
+    public File getFile() {
+        return file;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.daemon.rpc;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.net.Socket;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A client connection of the RpcServer. Responses are written by a dedicated thread so a slow client never blocks
+ * the UserThread.
+ */
+@Slf4j
+public class RpcConnection {
+    @Getter
+    private final String uid = UUID.randomUUID().toString();
+    private final Socket socket;
+    private final ExecutorService writeExecutor;
+    private volatile boolean closed;
+
+    RpcConnection(Socket socket) {
+        this.socket = socket;
+        writeExecutor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("RpcConnection-" + uid.substring(0, 8))
+                .setDaemon(true)
+                .build());
+    }
+
+    public void send(protobuf.DaemonResponse response) {
+        if (closed)
+            return;
+
+        try {
+            writeExecutor.execute(() -> {
+                try {
+                    OutputStream outputStream = socket.getOutputStream();
+                    response.writeDelimitedTo(outputStream);
+                    outputStream.flush();
+                } catch (IOException e) {
+                    log.debug("Could not send response to RPC client {}: {}", uid, e.toString());
+                    close();
+                }
+            });
+        } catch (RejectedExecutionException ignore) {
+            // We got closed in the meantime
+        }
+    }
+
+    public void sendError(long requestId, String errorMessage) {
+        send(protobuf.DaemonResponse.newBuilder()
+                .setRequestId(requestId)
+                .setErrorMessage(errorMessage)
+                .build());
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    void close() {
+        if (closed)
+            return;
+
+        closed = true;
+        // Responses which are already queued are still written before the socket gets closed
+        try {
+            writeExecutor.execute(this::closeSocket);
+        } catch (RejectedExecutionException ignore) {
+        }
+        writeExecutor.shutdown();
+    }
+
+    private void closeSocket() {
+        try {
+            socket.close();
+        } catch (IOException ignore) {
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RpcConnection{uid='" + uid + "', remoteAddress=" + socket.getRemoteSocketAddress() + "}";
+    }
+}
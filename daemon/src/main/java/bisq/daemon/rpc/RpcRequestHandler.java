@@ -0,0 +1,33 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.daemon.rpc;
+
+/**
+ * Handles the requests of the RpcServer. All calls are made on the UserThread.
+ */
+public interface RpcRequestHandler {
+    /**
+     * @param request       The request. The password was already checked by the server.
+     * @param connection    The connection the request was received on. Responses can be sent at any time later, e.g.
+     *                      after an offer got published.
+     */
+    void handle(protobuf.DaemonRequest request, RpcConnection connection);
+
+    default void onConnectionClosed(RpcConnection connection) {
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.daemon.rpc;
+
+import bisq.common.UserThread;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.security.MessageDigest;
+
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+
+import java.nio.charset.StandardCharsets;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import lombok.extern.slf4j.Slf4j;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Serves DaemonRequests on a local socket. Requests and responses are varint length prefixed protobuf messages as
+ * written by writeDelimitedTo, so any protobuf library can act as a client without generated service stubs. The
+ * server only binds to the loopback interface, but as any local process can connect each request has to carry the
+ * password. Requests are handed to the RpcRequestHandler on the UserThread as the core services are not thread safe.
+ */
+@Slf4j
+public class RpcServer {
+    private final RpcRequestHandler handler;
+    private final byte[] password;
+    private final Executor requestExecutor;
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor;
+    private final Set<RpcConnection> connections = ConcurrentHashMap.newKeySet();
+    private volatile boolean stopped;
+
+    public RpcServer(RpcRequestHandler handler, int port, String password) throws IOException {
+        this(handler, port, password, UserThread::execute);
+    }
+
+    @VisibleForTesting
+    RpcServer(RpcRequestHandler handler,
+              int port,
+              String password,
+              Executor requestExecutor) throws IOException {
+        // The RPC requests can spend funds from the wallet, so we never serve them without a password
+        checkArgument(password != null && !password.isEmpty(), "RPC password must not be empty");
+        this.handler = handler;
+        this.password = password.getBytes(StandardCharsets.UTF_8);
+        this.requestExecutor = requestExecutor;
+        serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress());
+        executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+                .setNameFormat("RpcServer-%d")
+                .setDaemon(true)
+                .build());
+    }
+
+    public void start() {
+        executor.execute(this::acceptConnections);
+        log.info("RPC requests are served at {}:{}", serverSocket.getInetAddress().getHostAddress(), getPort());
+    }
+
+    public void stop() {
+        stopped = true;
+        try {
+            serverSocket.close();
+        } catch (IOException ignore) {
+        }
+        connections.forEach(RpcConnection::close);
+        executor.shutdownNow();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void acceptConnections() {
+        while (!stopped) {
+            try {
+                Socket socket = serverSocket.accept();
+                RpcConnection connection = new RpcConnection(socket);
+                connections.add(connection);
+                executor.execute(() -> readRequests(socket, connection));
+            } catch (SocketException e) {
+                if (!stopped)
+                    log.error("RPC server socket failed: {}", e.toString());
+                return;
+            } catch (IOException e) {
+                log.warn("Could not accept RPC connection: {}", e.toString());
+            }
+        }
+    }
+
+    private void readRequests(Socket socket, RpcConnection connection) {
+        try {
+            InputStream inputStream = socket.getInputStream();
+            while (!stopped && !connection.isClosed()) {
+                protobuf.DaemonRequest request = protobuf.DaemonRequest.parseDelimitedFrom(inputStream);
+                if (request == null)
+                    break;
+
+                if (!isAuthorized(request)) {
+                    log.warn("RPC request {} from {} has an invalid password", request.getMessageCase(), connection);
+                    connection.sendError(request.getRequestId(), "Invalid password");
+                    continue;
+                }
+
+                requestExecutor.execute(() -> {
+                    try {
+                        handler.handle(request, connection);
+                    } catch (Throwable t) {
+                        log.error("Handling RPC request {} failed", request.getMessageCase(), t);
+                        connection.sendError(request.getRequestId(), t.toString());
+                    }
+                });
+            }
+        } catch (IOException e) {
+            log.debug("RPC connection {} failed: {}", connection, e.toString());
+        } finally {
+            connections.remove(connection);
+            connection.close();
+            requestExecutor.execute(() -> handler.onConnectionClosed(connection));
+        }
+    }
+
+    private boolean isAuthorized(protobuf.DaemonRequest request) {
+        return MessageDigest.isEqual(password, request.getPassword().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.daemon.rpc;
+
+import bisq.core.btc.Balances;
+import bisq.core.btc.wallet.BsqWalletService;
+import bisq.core.offer.CreateOfferService;
+import bisq.core.offer.Offer;
+import bisq.core.offer.OfferBookService;
+import bisq.core.offer.OfferPayload;
+import bisq.core.offer.OpenOfferManager;
+import bisq.core.provider.price.PriceFeedService;
+import bisq.core.trade.TradeManager;
+import bisq.core.user.User;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.mockito.ArgumentCaptor;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DaemonRpcServiceTest {
+    private OfferBookService offerBookService;
+    private OpenOfferManager openOfferManager;
+    private RpcConnection connection;
+    private DaemonRpcService daemonRpcService;
+
+    @Before
+    public void setUp() {
+        offerBookService = mock(OfferBookService.class);
+        openOfferManager = mock(OpenOfferManager.class);
+        connection = mock(RpcConnection.class);
+        daemonRpcService = new DaemonRpcService(mock(Balances.class),
+                mock(BsqWalletService.class),
+                offerBookService,
+                mock(CreateOfferService.class),
+                openOfferManager,
+                mock(TradeManager.class),
+                mock(PriceFeedService.class),
+                mock(User.class));
+    }
+
+    private static Offer createOffer(String id, String currencyCode, OfferPayload.Direction direction) {
+        Offer offer = mock(Offer.class);
+        when(offer.getCurrencyCode()).thenReturn(currencyCode);
+        when(offer.getDirection()).thenReturn(direction);
+        when(offer.toProtoMessage()).thenReturn(protobuf.Offer.newBuilder()
+                .setOfferPayload(protobuf.OfferPayload.newBuilder().setId(id))
+                .build());
+        return offer;
+    }
+
+    private protobuf.DaemonResponse captureResponse() {
+        ArgumentCaptor<protobuf.DaemonResponse> captor = ArgumentCaptor.forClass(protobuf.DaemonResponse.class);
+        verify(connection).send(captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    public void testGetOffersFiltersByCurrencyAndDirection() {
+        List<Offer> offers = Arrays.asList(createOffer("eur-buy", "EUR", OfferPayload.Direction.BUY),
+                createOffer("eur-sell", "EUR", OfferPayload.Direction.SELL),
+                createOffer("usd-buy", "USD", OfferPayload.Direction.BUY));
+        when(offerBookService.getOffers()).thenReturn(offers);
+
+        daemonRpcService.handle(protobuf.DaemonRequest.newBuilder()
+                .setRequestId(3)
+                .setGetOffersRequest(protobuf.GetOffersRequest.newBuilder()
+                        .setCurrencyCode("EUR")
+                        .setDirection(protobuf.OfferPayload.Direction.BUY))
+                .build(), connection);
+
+        protobuf.DaemonResponse response = captureResponse();
+        assertEquals(3, response.getRequestId());
+        assertEquals(1, response.getGetOffersResponse().getOffersCount());
+        assertEquals("eur-buy", response.getGetOffersResponse().getOffers(0).getOfferPayload().getId());
+    }
+
+    @Test
+    public void testCancelUnknownOfferReturnsError() {
+        when(openOfferManager.getOpenOfferById("unknown")).thenReturn(Optional.empty());
+
+        daemonRpcService.handle(protobuf.DaemonRequest.newBuilder()
+                .setRequestId(5)
+                .setCancelOfferRequest(protobuf.CancelOfferRequest.newBuilder().setOfferId("unknown"))
+                .build(), connection);
+
+        verify(connection).sendError(5, "No open offer with id unknown");
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.daemon.rpc;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermission;
+
+import java.io.File;
+
+import java.util.EnumSet;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RpcAuthCookieTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testCookieIsOnlyReadableByOwner() throws Exception {
+        File appDataDir = temporaryFolder.newFolder();
+        RpcAuthCookie rpcAuthCookie = new RpcAuthCookie(appDataDir);
+
+        String password = rpcAuthCookie.create();
+        File file = new File(appDataDir, RpcAuthCookie.FILE_NAME);
+        assertEquals(64, password.length());
+        assertEquals(password, new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+        if (file.toPath().getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            assertEquals(EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE),
+                    Files.getPosixFilePermissions(file.toPath()));
+        }
+
+        // Each start creates a new password
+        assertNotEquals(password, rpcAuthCookie.create());
+
+        rpcAuthCookie.delete();
+        assertFalse(file.exists());
+        assertTrue(appDataDir.exists());
+    }
+}
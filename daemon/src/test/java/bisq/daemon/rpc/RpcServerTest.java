@@ -0,0 +1,153 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.daemon.rpc;
+
+import java.net.InetAddress;
+import java.net.Socket;
+
+import java.io.IOException;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RpcServerTest {
+    private static final String PASSWORD = "secret";
+
+    private final List<protobuf.DaemonRequest> handledRequests = new CopyOnWriteArrayList<>();
+    private final CountDownLatch connectionClosed = new CountDownLatch(1);
+    private RpcServer rpcServer;
+
+    private final RpcRequestHandler handler = new RpcRequestHandler() {
+        @Override
+        public void handle(protobuf.DaemonRequest request, RpcConnection connection) {
+            handledRequests.add(request);
+            if (request.hasGetMarketPriceRequest())
+                throw new IllegalStateException("No price");
+
+            connection.send(protobuf.DaemonResponse.newBuilder()
+                    .setRequestId(request.getRequestId())
+                    .setGetBalancesResponse(protobuf.GetBalancesResponse.newBuilder().setAvailableBalance(42))
+                    .build());
+        }
+
+        @Override
+        public void onConnectionClosed(RpcConnection connection) {
+            connectionClosed.countDown();
+        }
+    };
+
+    private void startServer(String password) throws IOException {
+        // We run the requests on the reading thread instead of the UserThread
+        rpcServer = new RpcServer(handler, 0, password, Runnable::run);
+        rpcServer.start();
+    }
+
+    private protobuf.DaemonResponse call(Socket socket, protobuf.DaemonRequest request) throws IOException {
+        request.writeDelimitedTo(socket.getOutputStream());
+        return protobuf.DaemonResponse.parseDelimitedFrom(socket.getInputStream());
+    }
+
+    private static protobuf.DaemonRequest getBalancesRequest(long requestId, String password) {
+        return protobuf.DaemonRequest.newBuilder()
+                .setRequestId(requestId)
+                .setPassword(password)
+                .setGetBalancesRequest(protobuf.GetBalancesRequest.newBuilder())
+                .build();
+    }
+
+    @After
+    public void tearDown() {
+        if (rpcServer != null)
+            rpcServer.stop();
+    }
+
+    @Test
+    public void testRequestsAreAnsweredOnTheSameConnection() throws Exception {
+        startServer(PASSWORD);
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), rpcServer.getPort())) {
+            protobuf.DaemonResponse first = call(socket, getBalancesRequest(1, PASSWORD));
+            protobuf.DaemonResponse second = call(socket, getBalancesRequest(2, PASSWORD));
+
+            assertEquals(1, first.getRequestId());
+            assertEquals(42, first.getGetBalancesResponse().getAvailableBalance());
+            assertEquals(2, second.getRequestId());
+            assertEquals(2, handledRequests.size());
+        }
+
+        assertTrue(connectionClosed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testInvalidPasswordIsRejected() throws Exception {
+        startServer(PASSWORD);
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), rpcServer.getPort())) {
+            protobuf.DaemonResponse rejected = call(socket, getBalancesRequest(1, "wrong"));
+            assertEquals(1, rejected.getRequestId());
+            assertEquals("Invalid password", rejected.getErrorMessage());
+            assertTrue(handledRequests.isEmpty());
+
+            protobuf.DaemonResponse missing = call(socket, getBalancesRequest(2, ""));
+            assertEquals("Invalid password", missing.getErrorMessage());
+            assertTrue(handledRequests.isEmpty());
+
+            protobuf.DaemonResponse accepted = call(socket, getBalancesRequest(3, PASSWORD));
+            assertEquals("", accepted.getErrorMessage());
+            assertEquals(1, handledRequests.size());
+        }
+    }
+
+    @Test
+    public void testHandlerExceptionIsReturnedAsError() throws Exception {
+        startServer(PASSWORD);
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), rpcServer.getPort())) {
+            protobuf.DaemonResponse response = call(socket, protobuf.DaemonRequest.newBuilder()
+                    .setRequestId(7)
+                    .setPassword(PASSWORD)
+                    .setGetMarketPriceRequest(protobuf.GetMarketPriceRequest.newBuilder().setCurrencyCode("EUR"))
+                    .build());
+
+            assertEquals(7, response.getRequestId());
+            assertTrue(response.getErrorMessage().contains("No price"));
+        }
+    }
+
+    @Test
+    public void testServerDoesNotStartWithoutPassword() throws Exception {
+        for (String password : new String[]{null, ""}) {
+            try {
+                startServer(password);
+                fail("Server must not start without password");
+            } catch (IllegalArgumentException expected) {
+                assertNull(rpcServer);
+            }
+        }
+    }
+}
@@ -403,9 +403,7 @@ public class VoteResultView extends ActivatableView<GridPane, Void> implements D
         daoStateService.getCycles().stream()
                 .filter(cycle -> !cyclesAdded.contains(cycle))
                 .forEach(cycle -> {
-                    List<Proposal> proposalsForCycle = proposalService.getValidatedProposals().stream()
-                            .filter(proposal -> cycleService.isTxInCycle(cycle, proposal.getTxId()))
-                            .collect(Collectors.toList());
+                    List<Proposal> proposalsForCycle = proposalService.getValidatedProposalsOfCycle(cycle.getHeightOfFirstBlock());
 
                     List<EvaluatedProposal> evaluatedProposalsForCycle = daoStateService.getEvaluatedProposalList().stream()
                             .filter(evaluatedProposal -> cycleService.isTxInCycle(cycle, evaluatedProposal.getProposal().getTxId()))
@@ -31,6 +31,8 @@ import bisq.monitor.reporter.GraphiteReporter;
 
 import bisq.common.app.Capabilities;
 import bisq.common.app.Capability;
+import bisq.common.metrics.MetricsHttpServer;
+import bisq.common.metrics.MetricsRegistry;
 
 import org.berndpruenster.netlayer.tor.NativeTor;
 import org.berndpruenster.netlayer.tor.Tor;
@@ -101,6 +103,11 @@ public class Monitor {
         if ("true".equals(properties.getProperty("System.useConsoleReporter", "false")))
             graphiteReporter = new ConsoleReporter();
 
+        // expose the monitor's own process metrics if requested
+        String metricsPort = properties.getProperty("System.metricsPort", "");
+        if (!metricsPort.isEmpty())
+            new MetricsHttpServer(MetricsRegistry.getDefault(), Integer.parseInt(metricsPort)).start();
+
         // - add available metrics with their reporters
         metrics.add(new TorStartupTime(graphiteReporter));
         metrics.add(new TorRoundTripTime(graphiteReporter));
@@ -20,35 +20,22 @@ package bisq.monitor.metric;
 import bisq.monitor.OnionParser;
 import bisq.monitor.Reporter;
 
-import bisq.core.account.witness.AccountAgeWitnessStore;
-import bisq.core.btc.BaseCurrencyNetwork;
 import bisq.core.dao.monitoring.model.StateHash;
 import bisq.core.dao.monitoring.network.messages.GetBlindVoteStateHashesRequest;
 import bisq.core.dao.monitoring.network.messages.GetDaoStateHashesRequest;
 import bisq.core.dao.monitoring.network.messages.GetProposalStateHashesRequest;
 import bisq.core.dao.monitoring.network.messages.GetStateHashesResponse;
-import bisq.core.proto.persistable.CorePersistenceProtoResolver;
-import bisq.core.trade.statistics.TradeStatistics2Store;
 
 import bisq.network.p2p.NodeAddress;
 import bisq.network.p2p.network.Connection;
-import bisq.network.p2p.peers.getdata.messages.GetDataResponse;
-import bisq.network.p2p.peers.getdata.messages.PreliminaryGetDataRequest;
-import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
-import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
-import bisq.network.p2p.storage.payload.ProtectedStoragePayload;
+import bisq.network.p2p.peers.getdata.messages.GetStoreDigestRequest;
+import bisq.network.p2p.peers.getdata.messages.GetStoreDigestResponse;
+import bisq.network.p2p.storage.StoreDigest;
 
-import bisq.common.app.Version;
 import bisq.common.proto.network.NetworkEnvelope;
-import bisq.common.proto.persistable.PersistableEnvelope;
-import bisq.common.storage.Storage;
-
-import java.net.MalformedURLException;
 
 import java.nio.ByteBuffer;
 
-import java.io.File;
-
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
@@ -56,10 +43,9 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Properties;
+import java.util.Objects;
 import java.util.Random;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
@@ -69,10 +55,9 @@ import lombok.extern.slf4j.Slf4j;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
- * Contacts a list of hosts and asks them for all the data excluding persisted messages. The
- * answers are then compiled into buckets of message types. Based on these
- * buckets, the Metric reports (for each host) the message types observed and
- * their number.
+ * Contacts a list of hosts and asks them for the digests of their data stores. Based on these
+ * digests, the Metric reports (for each host) the message types observed, their number and the number of
+ * key ranges in which the data of the host differs from the data most other hosts agree on.
  *
  * Furthermore, since the DAO is a thing now, the consistency of the DAO state held by each host is assessed and reported.
  *
@@ -81,21 +66,19 @@ import static com.google.common.base.Preconditions.checkNotNull;
  */
 @Slf4j
 public class P2PSeedNodeSnapshot extends P2PSeedNodeSnapshotBase {
-    private static final String DATABASE_DIR = "run.dbDir";
 
     Statistics statistics;
-    final Map<NodeAddress, Statistics<Set<Integer>>> bucketsPerHost = new ConcurrentHashMap<>();
-    protected final Set<byte[]> hashes = new TreeSet<>(Arrays::compare);
+    final Map<NodeAddress, Statistics<StoreDigest>> bucketsPerHost = new ConcurrentHashMap<>();
     private int daostateheight = 594000;
     private int proposalheight = daostateheight;
     private int blindvoteheight = daostateheight;
 
     /**
-     * Use a counter to do statistics.
+     * Keeps the store digests per message type.
      */
-    private class MyStatistics implements Statistics<Set<Integer>> {
+    private class MyStatistics implements Statistics<StoreDigest> {
 
-        private final Map<String, Set<Integer>> buckets = new HashMap<>();
+        private final Map<String, StoreDigest> buckets = new HashMap<>();
 
         @Override
         public Statistics create() {
@@ -104,16 +87,12 @@ public class P2PSeedNodeSnapshot extends P2PSeedNodeSnapshotBase {
 
         @Override
         public synchronized void log(Object message) {
-
-            // For logging different data types
-            String className = message.getClass().getSimpleName();
-
-            buckets.putIfAbsent(className, new HashSet<>());
-            buckets.get(className).add(message.hashCode());
+            StoreDigest storeDigest = (StoreDigest) message;
+            buckets.put(storeDigest.getStoreName(), storeDigest);
         }
 
         @Override
-        public Map<String, Set<Integer>> values() {
+        public Map<String, StoreDigest> values() {
             return buckets;
         }
 
@@ -129,32 +108,11 @@ public class P2PSeedNodeSnapshot extends P2PSeedNodeSnapshotBase {
         statistics = new MyStatistics();
     }
 
-    @Override
-    public void configure(Properties properties) {
-        super.configure(properties);
-
-        if (hashes.isEmpty() && configuration.getProperty(DATABASE_DIR) != null) {
-            File dir = new File(configuration.getProperty(DATABASE_DIR));
-            String networkPostfix = "_" + BaseCurrencyNetwork.values()[Version.getBaseCurrencyNetwork()].toString();
-            try {
-                Storage<PersistableEnvelope> storage = new Storage<>(dir, new CorePersistenceProtoResolver(null, null, null, null), null);
-                TradeStatistics2Store tradeStatistics2Store = (TradeStatistics2Store) storage.initAndGetPersistedWithFileName(TradeStatistics2Store.class.getSimpleName() + networkPostfix, 0);
-                hashes.addAll(tradeStatistics2Store.getMap().keySet().stream().map(byteArray -> byteArray.bytes).collect(Collectors.toList()));
-
-                AccountAgeWitnessStore accountAgeWitnessStore = (AccountAgeWitnessStore) storage.initAndGetPersistedWithFileName(AccountAgeWitnessStore.class.getSimpleName() + networkPostfix, 0);
-                hashes.addAll(accountAgeWitnessStore.getMap().keySet().stream().map(byteArray -> byteArray.bytes).collect(Collectors.toList()));
-            } catch (NullPointerException e) {
-                // in case there is no store file
-                log.error("There is no storage file where there should be one: {}", dir.getAbsolutePath());
-            }
-        }
-    }
-
     protected List<NetworkEnvelope> getRequests() {
         List<NetworkEnvelope> result = new ArrayList<>();
 
         Random random = new Random();
-        result.add(new PreliminaryGetDataRequest(random.nextInt(), hashes));
+        result.add(new GetStoreDigestRequest(random.nextInt(), null, new byte[0]));
 
         result.add(new GetDaoStateHashesRequest(daostateheight, random.nextInt()));
 
@@ -173,47 +131,52 @@ public class P2PSeedNodeSnapshot extends P2PSeedNodeSnapshotBase {
         // report
         Map<String, String> report = new HashMap<>();
         // - assemble histograms
-        bucketsPerHost.forEach((host, statistics) -> statistics.values().forEach((type, set) -> report
-                .put(OnionParser.prettyPrint(host) + ".numberOfMessages." + type, Integer.toString(set.size()))));
+        bucketsPerHost.forEach((host, statistics) -> statistics.values().forEach((type, storeDigest) -> report
+                .put(OnionParser.prettyPrint(host) + ".numberOfMessages." + type, Integer.toString(storeDigest.getNumEntries()))));
 
         // - assemble diffs
         //   - transfer values
-        Map<String, Statistics<Set<Integer>>> messagesPerHost = new HashMap<>();
+        Map<String, Statistics<StoreDigest>> messagesPerHost = new HashMap<>();
         bucketsPerHost.forEach((host, value) -> messagesPerHost.put(OnionParser.prettyPrint(host), value));
 
-        //   - pick reference seed node and its values
+        //   - pick reference values: the max. number of messages and the bucket digests most hosts agree on
         String referenceHost = "overall_number_of_unique_messages";
-        Map<String, Set<Object>> referenceValues = new HashMap<>();
-        messagesPerHost.forEach((host, statistics) -> statistics.values().forEach((type, set) -> {
-            referenceValues.putIfAbsent(type, new HashSet<>());
-            referenceValues.get(type).addAll(set);
+        Map<String, Integer> referenceSizes = new HashMap<>();
+        Map<String, Map<Integer, Map<ByteBuffer, Integer>>> bucketDigestHitCounts = new HashMap<>();
+        messagesPerHost.forEach((host, statistics) -> statistics.values().forEach((type, storeDigest) -> {
+            referenceSizes.merge(type, storeDigest.getNumEntries(), Math::max);
+            Map<Integer, Map<ByteBuffer, Integer>> hitCounts = bucketDigestHitCounts.computeIfAbsent(type, k -> new HashMap<>());
+            getBucketDigests(storeDigest).forEach((index, digest) ->
+                    hitCounts.computeIfAbsent(index, k -> new HashMap<>()).merge(digest, 1, Integer::sum));
         }));
+        Map<String, Map<Integer, ByteBuffer>> referenceBucketDigests = new HashMap<>();
+        bucketDigestHitCounts.forEach((type, hitCounts) -> hitCounts.forEach((index, counts) ->
+                referenceBucketDigests.computeIfAbsent(type, k -> new HashMap<>()).put(index,
+                        counts.entrySet().stream().max(Map.Entry.comparingByValue()).get().getKey())));
 
         //   - calculate diffs
         messagesPerHost.forEach(
             (host, statistics) -> {
-                statistics.values().forEach((messageType, set) -> {
-                    try {
-                        report.put(OnionParser.prettyPrint(host) + ".relativeNumberOfMessages." + messageType,
-                                String.valueOf(set.size() - referenceValues.get(messageType).size()));
-                    } catch (MalformedURLException | NullPointerException ignore) {
-                        log.error("we should never have gotten here", ignore);
-                    }
+                statistics.values().forEach((messageType, storeDigest) -> {
+                    report.put(host + ".relativeNumberOfMessages." + messageType,
+                            String.valueOf(storeDigest.getNumEntries() - referenceSizes.get(messageType)));
+
+                    // A bucket is divergent if the host has a different digest than the reference or misses it
+                    Map<Integer, ByteBuffer> bucketDigests = getBucketDigests(storeDigest);
+                    Map<Integer, ByteBuffer> reference = referenceBucketDigests.getOrDefault(messageType, new HashMap<>());
+                    Set<Integer> indices = new HashSet<>(reference.keySet());
+                    indices.addAll(bucketDigests.keySet());
+                    long divergentBuckets = indices.stream()
+                            .filter(index -> !Objects.equals(reference.get(index), bucketDigests.get(index)))
+                            .count();
+                    report.put(host + ".divergentBuckets." + messageType, String.valueOf(divergentBuckets));
                 });
-                try {
-                    report.put(OnionParser.prettyPrint(host) + ".referenceHost", referenceHost);
-                } catch (MalformedURLException ignore) {
-                    log.error("we should never got here");
-                }
+                report.put(host + ".referenceHost", referenceHost);
             });
 
         // cleanup for next run
         bucketsPerHost.forEach((host, statistics) -> statistics.reset());
 
-        // when our hash cache exceeds a hard limit, we clear the cache and start anew
-        if (hashes.size() > 150000)
-            hashes.clear();
-
         //   - report
         reporter.report(report, getName());
 
@@ -313,35 +276,29 @@ public class P2PSeedNodeSnapshot extends P2PSeedNodeSnapshotBase {
 
     private Map<NodeAddress, Statistics<Tuple>> daoData = new ConcurrentHashMap<>();
 
+    /**
+     * @return the digests of the buckets of the given store digest by bucket index. If the store has only a few
+     * entries there are no buckets and we use the store digest itself as the only bucket.
+     */
+    private static Map<Integer, ByteBuffer> getBucketDigests(StoreDigest storeDigest) {
+        Map<Integer, ByteBuffer> result = new HashMap<>();
+        if (storeDigest.getBuckets().isEmpty())
+            result.put(-1, ByteBuffer.wrap(storeDigest.getDigest()));
+        else
+            storeDigest.getBuckets().forEach(bucket -> result.put(bucket.getIndex(), ByteBuffer.wrap(bucket.getDigest())));
+        return result;
+    }
+
     protected boolean treatMessage(NetworkEnvelope networkEnvelope, Connection connection) {
         checkNotNull(connection.getPeersNodeAddressProperty(),
                 "although the property is nullable, we need it to not be null");
 
-        if (networkEnvelope instanceof GetDataResponse) {
+        if (networkEnvelope instanceof GetStoreDigestResponse) {
 
             Statistics result = this.statistics.create();
 
-            GetDataResponse dataResponse = (GetDataResponse) networkEnvelope;
-            final Set<ProtectedStorageEntry> dataSet = dataResponse.getDataSet();
-            dataSet.forEach(e -> {
-                final ProtectedStoragePayload protectedStoragePayload = e.getProtectedStoragePayload();
-                if (protectedStoragePayload == null) {
-                    log.warn("StoragePayload was null: {}", networkEnvelope.toString());
-                    return;
-                }
-
-                result.log(protectedStoragePayload);
-            });
-
-            dataResponse.getPersistableNetworkPayloadSet().forEach(persistableNetworkPayload -> {
-                // memorize message hashes
-                //Byte[] bytes = new Byte[persistableNetworkPayload.getHash().length];
-                //Arrays.setAll(bytes, n -> persistableNetworkPayload.getHash()[n]);
-
-                //hashes.add(bytes);
-
-                hashes.add(persistableNetworkPayload.getHash());
-            });
+            GetStoreDigestResponse storeDigestResponse = (GetStoreDigestResponse) networkEnvelope;
+            storeDigestResponse.getStoreDigests().forEach(result::log);
 
             bucketsPerHost.put(connection.getPeersNodeAddressProperty().getValue(), result);
             return true;
@@ -42,6 +42,9 @@ import bisq.common.app.Capabilities;
 import bisq.common.app.Capability;
 import bisq.common.app.HasCapabilities;
 import bisq.common.app.Version;
+import bisq.common.metrics.Histogram;
+import bisq.common.metrics.MetricFamily;
+import bisq.common.metrics.MetricsRegistry;
 import bisq.common.proto.ProtobufferException;
 import bisq.common.proto.network.NetworkEnvelope;
 import bisq.common.proto.network.NetworkProtoResolver;
@@ -126,10 +129,18 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
     //TODO decrease limits again after testing
     private static final int SOCKET_TIMEOUT = (int) TimeUnit.SECONDS.toMillis(120);
 
+    private static final MetricFamily<Histogram> messageParseDurations = MetricsRegistry.getDefault().histogramFamily(
+            "bisq_p2p_message_parse_microseconds", "Duration of resolving received messages from protobuf",
+            "message");
+
     public static int getPermittedMessageSize() {
         return PERMITTED_MESSAGE_SIZE;
     }
 
+    public static int getMaxPermittedMessageSize() {
+        return MAX_PERMITTED_MESSAGE_SIZE;
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Class fields
@@ -722,7 +733,10 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                         return;
                     }
 
+                    long parseStartTs = System.nanoTime();
                     NetworkEnvelope networkEnvelope = networkProtoResolver.fromProto(proto);
+                    messageParseDurations.labels(networkEnvelope.getClass().getSimpleName())
+                            .record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - parseStartTs));
                     lastReadTimeStamp = now;
                     log.debug("<< Received networkEnvelope of type: {}", networkEnvelope.getClass().getSimpleName());
                     int size = proto.getSerializedSize();
@@ -754,7 +768,7 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                     statistic.addReceivedBytes(size);
 
                     // We want to track the network_messages also before the checks, so do it early...
-                    statistic.addReceivedMessage(networkEnvelope);
+                    statistic.addReceivedMessage(networkEnvelope, size);
 
                     // First we check the size
                     boolean exceeds;
@@ -19,11 +19,16 @@ package bisq.network.p2p.network;
 
 import bisq.network.p2p.peers.keepalive.messages.KeepAliveMessage;
 
+import bisq.common.metrics.Histogram;
+import bisq.common.metrics.MetricFamily;
+import bisq.common.metrics.MetricsRegistry;
 import bisq.common.proto.network.NetworkEnvelope;
 
 import java.io.IOException;
 import java.io.OutputStream;
 
+import java.util.concurrent.TimeUnit;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,6 +37,9 @@ import javax.annotation.concurrent.NotThreadSafe;
 @NotThreadSafe
 class ProtoOutputStream {
     private static final Logger log = LoggerFactory.getLogger(ProtoOutputStream.class);
+    private static final MetricFamily<Histogram> writeDurations = MetricsRegistry.getDefault().histogramFamily(
+            "bisq_p2p_message_write_microseconds", "Duration of serializing and writing messages to the socket",
+            "message");
 
     private final OutputStream delegate;
     private final Statistic statistic;
@@ -59,12 +67,16 @@ class ProtoOutputStream {
     }
 
     private void writeEnvelopeOrThrow(NetworkEnvelope envelope) throws IOException {
+        long startTs = System.nanoTime();
         protobuf.NetworkEnvelope proto = envelope.toProtoNetworkEnvelope();
         proto.writeDelimitedTo(delegate);
         delegate.flush();
+        writeDurations.labels(envelope.getClass().getSimpleName())
+                .record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startTs));
 
-        statistic.addSentBytes(proto.getSerializedSize());
-        statistic.addSentMessage(envelope);
+        int size = proto.getSerializedSize();
+        statistic.addSentBytes(size);
+        statistic.addSentMessage(envelope, size);
 
         if (!(envelope instanceof KeepAliveMessage)) {
             statistic.updateLastActivityTimestamp();
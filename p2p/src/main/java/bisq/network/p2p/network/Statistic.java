@@ -17,7 +17,12 @@
 
 package bisq.network.p2p.network;
 
+import bisq.common.Timer;
 import bisq.common.UserThread;
+import bisq.common.metrics.Counter;
+import bisq.common.metrics.Histogram;
+import bisq.common.metrics.MetricFamily;
+import bisq.common.metrics.MetricsRegistry;
 import bisq.common.proto.network.NetworkEnvelope;
 
 import javafx.beans.property.IntegerProperty;
@@ -25,33 +30,84 @@ import javafx.beans.property.LongProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleLongProperty;
 
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Traffic statistic of a connection. The counters are updated from the connection's threads without locking or posting
+ * to the UserThread. The JavaFX properties used by the UI are only updated by sampling the counters once per second
+ * after a property has been requested, so headless nodes don't pay for them.
+ */
 public class Statistic {
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Static
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private final static LongProperty totalSentBytes = new SimpleLongProperty(0);
-    private final static LongProperty totalReceivedBytes = new SimpleLongProperty(0);
+    private static final long SAMPLE_INTERVAL_MS = 1000;
+
+    private static final LongAdder totalSentBytes = new LongAdder();
+    private static final LongAdder totalReceivedBytes = new LongAdder();
+    private final static LongProperty totalSentBytesProperty = new SimpleLongProperty(0);
+    private final static LongProperty totalReceivedBytesProperty = new SimpleLongProperty(0);
+
+    private static final MetricFamily<Counter> sentBytesByMessage = MetricsRegistry.getDefault().counterFamily(
+            "bisq_p2p_sent_bytes_total", "Bytes sent per message type", "message");
+    private static final MetricFamily<Counter> receivedBytesByMessage = MetricsRegistry.getDefault().counterFamily(
+            "bisq_p2p_received_bytes_total", "Bytes received per message type", "message");
+    private static final MetricFamily<Counter> sentMessagesByMessage = MetricsRegistry.getDefault().counterFamily(
+            "bisq_p2p_sent_messages_total", "Messages sent per message type", "message");
+    private static final MetricFamily<Counter> receivedMessagesByMessage = MetricsRegistry.getDefault().counterFamily(
+            "bisq_p2p_received_messages_total", "Messages received per message type", "message");
+    private static final Histogram roundTripTimeHistogram = MetricsRegistry.getDefault().histogram(
+            "bisq_p2p_round_trip_time_milliseconds", "Round trip time of Ping/Pong messages");
+
+    // Only accessed from the UserThread. Statistics of closed connections get removed once they are not referenced
+    // by the UI anymore.
+    private static final Set<Statistic> sampledStatistics = Collections.newSetFromMap(new WeakHashMap<>());
+    private static Timer sampleTimer;
 
     public static long getTotalSentBytes() {
-        return totalSentBytes.get();
+        return totalSentBytes.sum();
     }
 
+    // Must be called on the UserThread
     public static LongProperty totalSentBytesProperty() {
-        return totalSentBytes;
+        startSampling(null);
+        return totalSentBytesProperty;
     }
 
     public static long getTotalReceivedBytes() {
-        return totalReceivedBytes.get();
+        return totalReceivedBytes.sum();
     }
 
+    // Must be called on the UserThread
     public static LongProperty totalReceivedBytesProperty() {
-        return totalReceivedBytes;
+        startSampling(null);
+        return totalReceivedBytesProperty;
+    }
+
+    private static void startSampling(Statistic statistic) {
+        if (statistic != null && sampledStatistics.add(statistic))
+            statistic.sampleProperties();
+
+        if (sampleTimer == null) {
+            sampleTimer = UserThread.runPeriodically(Statistic::sample, SAMPLE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            sample();
+        }
+    }
+
+    private static void sample() {
+        totalSentBytesProperty.set(totalSentBytes.sum());
+        totalReceivedBytesProperty.set(totalReceivedBytes.sum());
+        sampledStatistics.forEach(Statistic::sampleProperties);
     }
 
 
@@ -60,12 +116,15 @@ public class Statistic {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private final Date creationDate;
-    private long lastActivityTimestamp = System.currentTimeMillis();
-    private final LongProperty sentBytes = new SimpleLongProperty(0);
-    private final LongProperty receivedBytes = new SimpleLongProperty(0);
-    private final Map<String, Integer> receivedMessages = new ConcurrentHashMap<>();
-    private final Map<String, Integer> sentMessages = new ConcurrentHashMap<>();
-    private final IntegerProperty roundTripTime = new SimpleIntegerProperty(0);
+    private volatile long lastActivityTimestamp = System.currentTimeMillis();
+    private final LongAdder sentBytes = new LongAdder();
+    private final LongAdder receivedBytes = new LongAdder();
+    private final Map<String, LongAdder> receivedMessages = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> sentMessages = new ConcurrentHashMap<>();
+    private volatile int roundTripTime;
+    private final LongProperty sentBytesProperty = new SimpleLongProperty(0);
+    private final LongProperty receivedBytesProperty = new SimpleLongProperty(0);
+    private final IntegerProperty roundTripTimeProperty = new SimpleIntegerProperty(0);
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -81,44 +140,51 @@ public class Statistic {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public void updateLastActivityTimestamp() {
-        UserThread.execute(() -> lastActivityTimestamp = System.currentTimeMillis());
+        lastActivityTimestamp = System.currentTimeMillis();
     }
 
     public void addSentBytes(int value) {
-        UserThread.execute(() -> {
-            sentBytes.set(sentBytes.get() + value);
-            totalSentBytes.set(totalSentBytes.get() + value);
-        });
+        sentBytes.add(value);
+        totalSentBytes.add(value);
     }
 
     public void addReceivedBytes(int value) {
-        UserThread.execute(() -> {
-            receivedBytes.set(receivedBytes.get() + value);
-            totalReceivedBytes.set(totalReceivedBytes.get() + value);
-        });
+        receivedBytes.add(value);
+        totalReceivedBytes.add(value);
     }
 
     // TODO would need msg inspection to get useful information...
-    public void addReceivedMessage(NetworkEnvelope networkEnvelope) {
+    public void addReceivedMessage(NetworkEnvelope networkEnvelope, int size) {
         String messageClassName = networkEnvelope.getClass().getSimpleName();
-        int counter = 1;
-        if (receivedMessages.containsKey(messageClassName))
-            counter = receivedMessages.get(messageClassName) + 1;
-
-        receivedMessages.put(messageClassName, counter);
+        increment(receivedMessages, messageClassName);
+        receivedMessagesByMessage.labels(messageClassName).inc();
+        receivedBytesByMessage.labels(messageClassName).add(size);
     }
 
-    public void addSentMessage(NetworkEnvelope networkEnvelope) {
+    public void addSentMessage(NetworkEnvelope networkEnvelope, int size) {
         String messageClassName = networkEnvelope.getClass().getSimpleName();
-        int counter = 1;
-        if (sentMessages.containsKey(messageClassName))
-            counter = sentMessages.get(messageClassName) + 1;
-
-        sentMessages.put(messageClassName, counter);
+        increment(sentMessages, messageClassName);
+        sentMessagesByMessage.labels(messageClassName).inc();
+        sentBytesByMessage.labels(messageClassName).add(size);
     }
 
     public void setRoundTripTime(int roundTripTime) {
-        this.roundTripTime.set(roundTripTime);
+        this.roundTripTime = roundTripTime;
+        roundTripTimeHistogram.record(roundTripTime);
+    }
+
+    private static void increment(Map<String, LongAdder> map, String key) {
+        LongAdder counter = map.get(key);
+        if (counter == null)
+            counter = map.computeIfAbsent(key, k -> new LongAdder());
+        counter.increment();
+    }
+
+    // Called on the UserThread
+    private void sampleProperties() {
+        sentBytesProperty.set(sentBytes.sum());
+        receivedBytesProperty.set(receivedBytes.sum());
+        roundTripTimeProperty.set(roundTripTime);
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -134,36 +200,60 @@ public class Statistic {
     }
 
     public long getSentBytes() {
-        return sentBytes.get();
+        return sentBytes.sum();
     }
 
+    // Must be called on the UserThread
     public LongProperty sentBytesProperty() {
-        return sentBytes;
+        startSampling(this);
+        return sentBytesProperty;
     }
 
     public long getReceivedBytes() {
-        return receivedBytes.get();
+        return receivedBytes.sum();
     }
 
+    // Must be called on the UserThread
     public LongProperty receivedBytesProperty() {
-        return receivedBytes;
+        startSampling(this);
+        return receivedBytesProperty;
     }
 
     public Date getCreationDate() {
         return creationDate;
     }
 
-    public IntegerProperty roundTripTimeProperty() {
+    public int getRoundTripTime() {
         return roundTripTime;
     }
 
+    // Must be called on the UserThread
+    public IntegerProperty roundTripTimeProperty() {
+        startSampling(this);
+        return roundTripTimeProperty;
+    }
+
+    public Map<String, Long> getReceivedMessages() {
+        return toSnapshot(receivedMessages);
+    }
+
+    public Map<String, Long> getSentMessages() {
+        return toSnapshot(sentMessages);
+    }
+
+    private static Map<String, Long> toSnapshot(Map<String, LongAdder> map) {
+        Map<String, Long> snapshot = new HashMap<>();
+        map.forEach((key, value) -> snapshot.put(key, value.sum()));
+        return snapshot;
+    }
+
     @Override
     public String toString() {
         return "Statistic{" +
                 "creationDate=" + creationDate +
                 ", lastActivityTimestamp=" + lastActivityTimestamp +
-                ", sentBytes=" + sentBytes +
-                ", receivedBytes=" + receivedBytes +
+                ", sentBytes=" + sentBytes.sum() +
+                ", receivedBytes=" + receivedBytes.sum() +
                 '}';
     }
 
@@ -0,0 +1,448 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.peers;
+
+import bisq.network.p2p.NodeAddress;
+import bisq.network.p2p.peers.peerexchange.Peer;
+import bisq.network.p2p.peers.peerexchange.PeerList;
+import bisq.network.p2p.peers.peerexchange.PeerScore;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import java.security.SecureRandom;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Address book of the peers we know, modelled after the address manager of Bitcoin Core.
+ *
+ * Peers reported to us are kept in the 'new' table, peers we have successfully exchanged messages with are moved
+ * to the 'tried' table. Both tables consist of fixed size buckets and the bucket and slot of a peer are derived
+ * from a secret key, the address of the peer and, for the new table, the address of the peer which reported it.
+ * A single source can therefore only fill a small fraction of the new table and can't push out the peers we have
+ * verified ourselves, which makes eclipse attacks by flooding us with addresses expensive. When a slot is taken
+ * the incumbent is only replaced if it is terrible (too old or failed too often), so eviction is deterministic
+ * and memory is bounded by the table sizes.
+ *
+ * Candidates for new connections are sampled in O(1) from the tables, weighted by the success and failure
+ * statistics and the measured latency of the peers.
+ * Not thread safe, expected to be used from the user thread.
+ */
+@Slf4j
+public class PeerAddressBook {
+    static final int NEW_BUCKET_COUNT = 64;
+    static final int TRIED_BUCKET_COUNT = 32;
+    static final int BUCKET_SIZE = 16;
+    // Number of new buckets the addresses reported by a single source group can be spread to
+    static final int NEW_BUCKETS_PER_SOURCE_GROUP = 8;
+    // Number of tried buckets the addresses of a single group can be spread to
+    static final int TRIED_BUCKETS_PER_GROUP = 8;
+
+    private static final long MAX_AGE = TimeUnit.DAYS.toMillis(14);
+    private static final int MAX_FAILURES_NEW = 3;
+    private static final int MAX_FAILURES_TRIED = 10;
+    private static final long MIN_FAIL_PERIOD = TimeUnit.DAYS.toMillis(7);
+    // A tried peer which succeeded that recently is not evicted by a colliding peer
+    private static final long RECENT_SUCCESS_PERIOD = TimeUnit.HOURS.toMillis(4);
+    private static final long RECENT_ATTEMPT_PERIOD = TimeUnit.MINUTES.toMillis(10);
+    // Peers with a latency below that get the full selection chance
+    private static final long GOOD_LATENCY = TimeUnit.SECONDS.toMillis(2);
+    private static final int MAX_SELECT_ITERATIONS = 200;
+
+    @VisibleForTesting
+    static final class Entry {
+        @Getter
+        private final Peer peer;
+        @Nullable
+        private final NodeAddress source;
+        private boolean tried;
+        private int bucket;
+        private int slot;
+        // Position in the list of entries of its table, used for O(1) removal and sampling
+        private int index;
+        @Getter
+        private int numSuccesses;
+        @Getter
+        private int numFailures;
+        private long lastSuccess;
+        private long lastAttempt;
+        @Getter
+        private long latency;
+
+        private Entry(Peer peer, @Nullable NodeAddress source) {
+            this.peer = peer;
+            this.source = source;
+        }
+
+        private boolean isTerrible(long now) {
+            if (numSuccesses == 0)
+                return numFailures >= MAX_FAILURES_NEW || now - peer.getDate().getTime() > MAX_AGE;
+
+            return numFailures >= MAX_FAILURES_TRIED && now - lastSuccess > MIN_FAIL_PERIOD;
+        }
+
+        private double getChance(long now) {
+            double chance = 1;
+            if (now - lastAttempt < RECENT_ATTEMPT_PERIOD)
+                chance *= 0.01;
+            chance *= Math.pow(0.66, Math.min(numFailures, 8));
+            if (latency > GOOD_LATENCY)
+                chance *= (double) GOOD_LATENCY / latency;
+            return chance;
+        }
+
+        private PeerScore toPeerScore() {
+            return new PeerScore(peer.getNodeAddress(), source, tried, numSuccesses, numFailures,
+                    lastSuccess, lastAttempt, latency);
+        }
+    }
+
+    private final Random random;
+    private final LongSupplier clock;
+    private final HashFunction hashFunction;
+    private final Entry[][] newTable = new Entry[NEW_BUCKET_COUNT][BUCKET_SIZE];
+    private final Entry[][] triedTable = new Entry[TRIED_BUCKET_COUNT][BUCKET_SIZE];
+    private final List<Entry> newEntries = new ArrayList<>();
+    private final List<Entry> triedEntries = new ArrayList<>();
+    private final Map<NodeAddress, Entry> entryByNodeAddress = new HashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public PeerAddressBook() {
+        this(new SecureRandom(), System::currentTimeMillis);
+    }
+
+    @VisibleForTesting
+    PeerAddressBook(Random random, LongSupplier clock) {
+        this.random = random;
+        this.clock = clock;
+        hashFunction = Hashing.sipHash24(random.nextLong(), random.nextLong());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Adds a reported peer to the new table.
+     *
+     * @param peer      The reported peer
+     * @param source    The peer which reported it, null if not known
+     * @return true if the peer was not known before and got added
+     */
+    public boolean add(Peer peer, @Nullable NodeAddress source) {
+        Entry existing = entryByNodeAddress.get(peer.getNodeAddress());
+        if (existing != null) {
+            // Keep the capabilities up to date, but not the date of the first report
+            if (existing.peer.getCapabilities().isEmpty() && !peer.getCapabilities().isEmpty())
+                existing.peer.onChanged(peer.getCapabilities());
+            return false;
+        }
+
+        return placeInNewTable(new Entry(peer, source));
+    }
+
+    /**
+     * Restores a peer with its persisted statistics.
+     */
+    public void restore(Peer peer, @Nullable PeerScore peerScore) {
+        if (peerScore == null) {
+            add(peer, null);
+            return;
+        }
+        if (entryByNodeAddress.containsKey(peer.getNodeAddress()))
+            return;
+
+        Entry entry = new Entry(peer, peerScore.getSource());
+        entry.numSuccesses = peerScore.getNumSuccesses();
+        entry.numFailures = peerScore.getNumFailures();
+        entry.lastSuccess = peerScore.getLastSuccess();
+        entry.lastAttempt = peerScore.getLastAttempt();
+        entry.latency = peerScore.getLatency();
+        if (!peerScore.isTried() || !placeInTriedTable(entry))
+            placeInNewTable(entry);
+    }
+
+    /**
+     * We have successfully exchanged a request and response with that peer. Moves the peer to the tried table.
+     *
+     * @param latency   The round trip time of the request in ms, 0 if not known
+     * @return true if the peer got moved to the tried table
+     */
+    public boolean markGood(NodeAddress nodeAddress, long latency) {
+        Entry entry = entryByNodeAddress.get(nodeAddress);
+        if (entry == null)
+            return false;
+
+        long now = clock.getAsLong();
+        entry.numSuccesses++;
+        entry.numFailures = 0;
+        entry.lastSuccess = now;
+        entry.lastAttempt = now;
+        if (latency > 0)
+            entry.latency = entry.latency == 0 ? latency : (entry.latency * 3 + latency) / 4;
+
+        if (entry.tried)
+            return false;
+
+        removeFromTable(entry);
+        if (placeInTriedTable(entry))
+            return true;
+
+        if (!placeInNewTable(entry))
+            entryByNodeAddress.remove(nodeAddress);
+        return false;
+    }
+
+    /**
+     * A connection attempt to that peer or a request to it has failed. Terrible peers get removed.
+     */
+    public void markFailed(NodeAddress nodeAddress) {
+        Entry entry = entryByNodeAddress.get(nodeAddress);
+        if (entry == null)
+            return;
+
+        long now = clock.getAsLong();
+        entry.numFailures++;
+        entry.lastAttempt = now;
+        if (entry.isTerrible(now))
+            remove(nodeAddress);
+    }
+
+    @Nullable
+    public Peer remove(NodeAddress nodeAddress) {
+        Entry entry = entryByNodeAddress.remove(nodeAddress);
+        if (entry == null)
+            return null;
+
+        removeFromTable(entry);
+        return entry.peer;
+    }
+
+    public void removeTerribleEntries() {
+        long now = clock.getAsLong();
+        new ArrayList<>(entryByNodeAddress.values()).stream()
+                .filter(entry -> entry.isTerrible(now))
+                .forEach(entry -> remove(entry.peer.getNodeAddress()));
+    }
+
+    /**
+     * Samples one peer from the tables. Tried and new peers are selected with the same probability, within
+     * a table peers are weighted by their selection chance.
+     *
+     * @param filter    Only peers matching the filter are selected
+     * @return the selected peer or empty if no peer matching the filter was found
+     */
+    public Optional<Peer> select(Predicate<NodeAddress> filter) {
+        long now = clock.getAsLong();
+        double chanceFactor = 1;
+        for (int i = 0; i < MAX_SELECT_ITERATIONS && !entryByNodeAddress.isEmpty(); i++) {
+            boolean useTried = !triedEntries.isEmpty() && (newEntries.isEmpty() || random.nextBoolean());
+            List<Entry> entries = useTried ? triedEntries : newEntries;
+            Entry entry = entries.get(random.nextInt(entries.size()));
+            if (filter.test(entry.peer.getNodeAddress())) {
+                if (random.nextDouble() < entry.getChance(now) * chanceFactor)
+                    return Optional.of(entry.peer);
+                chanceFactor *= 1.2;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @return up to maxCandidates distinct peers sampled with {@link #select(Predicate)}
+     */
+    public List<NodeAddress> selectCandidates(int maxCandidates, Predicate<NodeAddress> filter) {
+        List<NodeAddress> candidates = new ArrayList<>();
+        Set<NodeAddress> selected = new HashSet<>();
+        for (int i = 0; i < maxCandidates * 4 && candidates.size() < maxCandidates; i++) {
+            Optional<Peer> peer = select(nodeAddress -> !selected.contains(nodeAddress) && filter.test(nodeAddress));
+            if (!peer.isPresent())
+                break;
+
+            selected.add(peer.get().getNodeAddress());
+            candidates.add(peer.get().getNodeAddress());
+        }
+        return candidates;
+    }
+
+    public Optional<Peer> findPeer(NodeAddress nodeAddress) {
+        return Optional.ofNullable(entryByNodeAddress.get(nodeAddress)).map(entry -> entry.peer);
+    }
+
+    public boolean isTried(NodeAddress nodeAddress) {
+        Entry entry = entryByNodeAddress.get(nodeAddress);
+        return entry != null && entry.tried;
+    }
+
+    public Set<Peer> getNewPeers() {
+        return newEntries.stream().map(entry -> entry.peer).collect(Collectors.toSet());
+    }
+
+    public Set<Peer> getTriedPeers() {
+        return triedEntries.stream().map(entry -> entry.peer).collect(Collectors.toSet());
+    }
+
+    public int getNumNew() {
+        return newEntries.size();
+    }
+
+    public int getNumTried() {
+        return triedEntries.size();
+    }
+
+    public int size() {
+        return entryByNodeAddress.size();
+    }
+
+    public boolean isEmpty() {
+        return entryByNodeAddress.isEmpty();
+    }
+
+    /**
+     * @return all tried peers and up to maxNewPeers of the new peers with the best selection chance,
+     * together with their statistics
+     */
+    public PeerList toPeerList(int maxNewPeers) {
+        long now = clock.getAsLong();
+        List<Entry> entries = new ArrayList<>(triedEntries);
+        newEntries.stream()
+                .sorted(Comparator.comparingDouble((Entry entry) -> entry.getChance(now)).reversed())
+                .limit(maxNewPeers)
+                .forEach(entries::add);
+        return new PeerList(entries.stream().map(entry -> entry.peer).collect(Collectors.toList()),
+                entries.stream().map(Entry::toPeerScore).collect(Collectors.toList()));
+    }
+
+    @VisibleForTesting
+    @Nullable
+    Entry getEntry(NodeAddress nodeAddress) {
+        return entryByNodeAddress.get(nodeAddress);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private boolean placeInNewTable(Entry entry) {
+        String group = getGroup(entry.peer.getNodeAddress());
+        String sourceGroup = entry.source != null ? getGroup(entry.source) : "";
+        int sourceBucket = hash(NEW_BUCKETS_PER_SOURCE_GROUP, "new-source", sourceGroup, group);
+        int bucket = hash(NEW_BUCKET_COUNT, "new-bucket", sourceGroup, String.valueOf(sourceBucket));
+        int slot = hash(BUCKET_SIZE, "new-slot", String.valueOf(bucket), entry.peer.getNodeAddress().getFullAddress());
+        return place(entry, false, bucket, slot);
+    }
+
+    private boolean placeInTriedTable(Entry entry) {
+        String group = getGroup(entry.peer.getNodeAddress());
+        String fullAddress = entry.peer.getNodeAddress().getFullAddress();
+        int groupBucket = hash(TRIED_BUCKETS_PER_GROUP, "tried-group", fullAddress);
+        int bucket = hash(TRIED_BUCKET_COUNT, "tried-bucket", group, String.valueOf(groupBucket));
+        int slot = hash(BUCKET_SIZE, "tried-slot", String.valueOf(bucket), fullAddress);
+        return place(entry, true, bucket, slot);
+    }
+
+    private boolean place(Entry entry, boolean tried, int bucket, int slot) {
+        Entry[][] table = tried ? triedTable : newTable;
+        Entry incumbent = table[bucket][slot];
+        if (incumbent != null) {
+            long now = clock.getAsLong();
+            if (tried && !incumbent.isTerrible(now) && now - incumbent.lastSuccess < RECENT_SUCCESS_PERIOD) {
+                // We keep the verified peer and don't let a colliding peer push it out
+                return false;
+            } else if (!tried && !incumbent.isTerrible(now)) {
+                return false;
+            }
+
+            removeFromTable(incumbent);
+            entryByNodeAddress.remove(incumbent.peer.getNodeAddress());
+            // A tried peer which got evicted gets a second chance in the new table
+            if (tried && placeInNewTable(incumbent))
+                log.debug("Moved {} from tried to new table", incumbent.peer.getNodeAddress());
+        }
+
+        entry.tried = tried;
+        entry.bucket = bucket;
+        entry.slot = slot;
+        List<Entry> entries = tried ? triedEntries : newEntries;
+        entry.index = entries.size();
+        entries.add(entry);
+        table[bucket][slot] = entry;
+        entryByNodeAddress.put(entry.peer.getNodeAddress(), entry);
+        return true;
+    }
+
+    private void removeFromTable(Entry entry) {
+        Entry[][] table = entry.tried ? triedTable : newTable;
+        if (table[entry.bucket][entry.slot] != entry)
+            return;
+
+        table[entry.bucket][entry.slot] = null;
+        List<Entry> entries = entry.tried ? triedEntries : newEntries;
+        Entry last = entries.remove(entries.size() - 1);
+        if (last != entry) {
+            last.index = entry.index;
+            entries.set(entry.index, last);
+        }
+    }
+
+    private int hash(int modulo, String... values) {
+        Hasher hasher = hashFunction.newHasher();
+        for (String value : values)
+            hasher.putString(value, StandardCharsets.UTF_8).putByte((byte) 0);
+        return (int) Math.floorMod(hasher.hash().asLong(), (long) modulo);
+    }
+
+    // Onion addresses don't reveal any network topology so each one is its own group. For clear net addresses
+    // (e.g. at regtest) we use the /16 prefix like Bitcoin Core.
+    private static String getGroup(NodeAddress nodeAddress) {
+        String hostName = nodeAddress.getHostName();
+        if (hostName.endsWith(".onion"))
+            return hostName;
+
+        String[] parts = hostName.split("\\.");
+        return parts.length == 4 ? parts[0] + "." + parts[1] : hostName;
+    }
+}
@@ -27,6 +27,7 @@ import bisq.network.p2p.network.NetworkNode;
 import bisq.network.p2p.network.RuleViolation;
 import bisq.network.p2p.peers.peerexchange.Peer;
 import bisq.network.p2p.peers.peerexchange.PeerList;
+import bisq.network.p2p.peers.peerexchange.PeerScore;
 import bisq.network.p2p.seed.SeedNodeRepository;
 
 import bisq.common.ClockWatcher;
@@ -47,8 +48,8 @@ import java.util.Comparator;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
@@ -72,9 +73,8 @@ public class PeerManager implements ConnectionListener, PersistedDataHost {
     private static final long REMOVE_ANONYMOUS_PEER_SEC = 240;
 
     private static final int MAX_REPORTED_PEERS = 1000;
+    // Max. number of peers from the new table we persist in addition to the tried peers
     private static final int MAX_PERSISTED_PEERS = 500;
-    // max age for reported peers is 14 days
-    private static final long MAX_AGE = TimeUnit.DAYS.toMillis(14);
     // Age of what we consider connected peers still as live peers
     private static final long MAX_AGE_LIVE_PEERS = TimeUnit.MINUTES.toMillis(30);
     private static final boolean PRINT_REPORTED_PEERS_DETAILS = true;
@@ -107,8 +107,8 @@ public class PeerManager implements ConnectionListener, PersistedDataHost {
     private final Set<NodeAddress> seedNodeAddresses;
 
     private final Storage<PeerList> storage;
-    private final HashSet<Peer> persistedPeers = new HashSet<>();
-    private final Set<Peer> reportedPeers = new HashSet<>();
+    // Reported peers are kept in the new table, peers we have successfully exchanged messages with in the tried table
+    private final PeerAddressBook addressBook = new PeerAddressBook();
     private final ClockWatcher.Listener listener;
     private final List<Listener> listeners = new CopyOnWriteArrayList<>();
     private Timer checkMaxConnectionsTimer;
@@ -187,7 +187,11 @@ public class PeerManager implements ConnectionListener, PersistedDataHost {
                 log.info("peersWithNoCapabilitiesSet={}, persistedPeerList.size()={}", peersWithNoCapabilitiesSet, persistedPeerList.size());
             }
 
-            this.persistedPeers.addAll(persistedPeerList.getList());
+            Map<NodeAddress, PeerScore> peerScoreByNodeAddress = persistedPeerList.getPeerScores().stream()
+                    .collect(Collectors.toMap(PeerScore::getNodeAddress, e -> e, (a, b) -> a));
+            persistedPeerList.getList().forEach(peer ->
+                    addressBook.restore(peer, peerScoreByNodeAddress.get(peer.getNodeAddress())));
+            log.info("Restored address book with {} tried and {} new peers", addressBook.getNumTried(), addressBook.getNumNew());
         }
     }
 
@@ -265,8 +269,8 @@ public class PeerManager implements ConnectionListener, PersistedDataHost {
         if (connection.getPeersNodeAddressOptional().isPresent() && isNodeBanned(closeConnectionReason, connection)) {
             final NodeAddress nodeAddress = connection.getPeersNodeAddressOptional().get();
             seedNodeAddresses.remove(nodeAddress);
-            removePersistedPeer(nodeAddress);
-            removeReportedPeer(nodeAddress);
+            if (addressBook.remove(nodeAddress) != null)
+                persistAddressBook();
         }
     }
 
@@ -292,8 +296,7 @@ public class PeerManager implements ConnectionListener, PersistedDataHost {
                 if (!stopped) {
                     removeAnonymousPeers();
                     removeSuperfluousSeedNodes();
-                    removeTooOldReportedPeers();
-                    removeTooOldPersistedPeers();
+                    addressBook.removeTerribleEntries();
                     checkMaxConnections();
                 } else {
                     log.debug("We have stopped already. We ignore that checkMaxConnectionsTimer.run call.");
@@ -422,37 +425,9 @@ public class PeerManager implements ConnectionListener, PersistedDataHost {
     // Reported peers
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private boolean removeReportedPeer(Peer reportedPeer) {
-        boolean contained = reportedPeers.remove(reportedPeer);
-        printReportedPeers();
-        return contained;
-    }
-
-    @SuppressWarnings("UnusedReturnValue")
-    @Nullable
-    private Peer removeReportedPeer(NodeAddress nodeAddress) {
-        List<Peer> reportedPeersClone = new ArrayList<>(reportedPeers);
-        Optional<Peer> reportedPeerOptional = reportedPeersClone.stream()
-                .filter(e -> e.getNodeAddress().equals(nodeAddress)).findAny();
-        if (reportedPeerOptional.isPresent()) {
-            Peer reportedPeer = reportedPeerOptional.get();
-            removeReportedPeer(reportedPeer);
-            return reportedPeer;
-        } else {
-            return null;
-        }
-    }
-
-    private void removeTooOldReportedPeers() {
-        List<Peer> reportedPeersClone = new ArrayList<>(reportedPeers);
-        Set<Peer> reportedPeersToRemove = reportedPeersClone.stream()
-                .filter(reportedPeer -> new Date().getTime() - reportedPeer.getDate().getTime() > MAX_AGE)
-                .collect(Collectors.toSet());
-        reportedPeersToRemove.forEach(this::removeReportedPeer);
-    }
-
+    // Peers reported to us which we have not successfully exchanged messages with yet
     public Set<Peer> getReportedPeers() {
-        return reportedPeers;
+        return addressBook.getNewPeers();
     }
 
     public void addToReportedPeers(Set<Peer> reportedPeersToAdd, Connection connection) {
@@ -460,12 +435,12 @@ public class PeerManager implements ConnectionListener, PersistedDataHost {
 
         // We check if the reported msg is not violating our rules
         if (reportedPeersToAdd.size() <= (MAX_REPORTED_PEERS + maxConnectionsAbsolute + 10)) {
-            reportedPeers.addAll(reportedPeersToAdd);
-            purgeReportedPeersIfExceeds();
-
-            persistedPeers.addAll(reportedPeersToAdd);
-            purgePersistedPeersIfExceeds();
-            storage.queueUpForSave(new PeerList(new ArrayList<>(persistedPeers)), 2000);
+            // The address book limits how many of the new table entries a single source can occupy
+            NodeAddress source = connection.getPeersNodeAddressOptional().orElse(null);
+            reportedPeersToAdd.stream()
+                    .filter(peer -> !isSelf(peer))
+                    .forEach(peer -> addressBook.add(peer, source));
+            persistAddressBook();
 
             printReportedPeers();
         } else {
@@ -476,37 +451,17 @@ public class PeerManager implements ConnectionListener, PersistedDataHost {
         }
     }
 
-    private void purgeReportedPeersIfExceeds() {
-        int size = reportedPeers.size();
-        if (size > MAX_REPORTED_PEERS) {
-            log.info("We have already {} reported peers which exceeds our limit of {}." +
-                    "We remove random peers from the reported peers list.", size, MAX_REPORTED_PEERS);
-            int diff = size - MAX_REPORTED_PEERS;
-            List<Peer> list = new ArrayList<>(reportedPeers);
-            // we dont use sorting by lastActivityDate to keep it more random
-            for (int i = 0; i < diff; i++) {
-                if (!list.isEmpty()) {
-                    Peer toRemove = list.remove(new Random().nextInt(list.size()));
-                    removeReportedPeer(toRemove);
-                }
-            }
-        } else {
-            log.trace("No need to purge reported peers.\n\tWe don't have more then {} reported peers yet.", MAX_REPORTED_PEERS);
-        }
-    }
-
     private void printReportedPeers() {
-        if (!reportedPeers.isEmpty()) {
+        if (!addressBook.isEmpty()) {
             //noinspection ConstantConditions
             if (PRINT_REPORTED_PEERS_DETAILS) {
                 StringBuilder result = new StringBuilder("\n\n------------------------------------------------------------\n" +
                         "Collected reported peers:");
-                List<Peer> reportedPeersClone = new ArrayList<>(reportedPeers);
-                reportedPeersClone.stream().forEach(e -> result.append("\n").append(e));
+                addressBook.getNewPeers().forEach(e -> result.append("\n").append(e));
                 result.append("\n------------------------------------------------------------\n");
                 log.trace(result.toString());
             }
-            log.debug("Number of reported peers: {}", reportedPeers.size());
+            log.debug("Number of reported peers: {}, number of tried peers: {}", addressBook.getNumNew(), addressBook.getNumTried());
         }
     }
 
@@ -526,56 +481,13 @@ public class PeerManager implements ConnectionListener, PersistedDataHost {
     //  Persisted list
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private boolean removePersistedPeer(Peer persistedPeer) {
-        if (persistedPeers.contains(persistedPeer)) {
-            persistedPeers.remove(persistedPeer);
-            storage.queueUpForSave(new PeerList(new ArrayList<>(persistedPeers)), 2000);
-            return true;
-        } else {
-            return false;
-        }
-    }
-
-    @SuppressWarnings("UnusedReturnValue")
-    private boolean removePersistedPeer(NodeAddress nodeAddress) {
-        Optional<Peer> persistedPeerOptional = getPersistedPeerOptional(nodeAddress);
-        return persistedPeerOptional.isPresent() && removePersistedPeer(persistedPeerOptional.get());
-    }
-
-    private Optional<Peer> getPersistedPeerOptional(NodeAddress nodeAddress) {
-        return persistedPeers.stream()
-                .filter(e -> e.getNodeAddress().equals(nodeAddress)).findAny();
-    }
-
-    private void removeTooOldPersistedPeers() {
-        Set<Peer> persistedPeersToRemove = persistedPeers.stream()
-                .filter(reportedPeer -> new Date().getTime() - reportedPeer.getDate().getTime() > MAX_AGE)
-                .collect(Collectors.toSet());
-        persistedPeersToRemove.forEach(this::removePersistedPeer);
-    }
-
-    private void purgePersistedPeersIfExceeds() {
-        int size = persistedPeers.size();
-        int limit = MAX_PERSISTED_PEERS;
-        if (size > limit) {
-            log.trace("We have already {} persisted peers which exceeds our limit of {}." +
-                    "We remove random peers from the persisted peers list.", size, limit);
-            int diff = size - limit;
-            List<Peer> list = new ArrayList<>(persistedPeers);
-            // we dont use sorting by lastActivityDate to avoid attack vectors and keep it more random
-            for (int i = 0; i < diff; i++) {
-                if (!list.isEmpty()) {
-                    Peer toRemove = list.remove(new Random().nextInt(list.size()));
-                    removePersistedPeer(toRemove);
-                }
-            }
-        } else {
-            log.trace("No need to purge persisted peers.\n\tWe don't have more then {} persisted peers yet.", MAX_PERSISTED_PEERS);
-        }
+    // Peers we have successfully exchanged messages with
+    public Set<Peer> getPersistedPeers() {
+        return addressBook.getTriedPeers();
     }
 
-    public Set<Peer> getPersistedPeers() {
-        return persistedPeers;
+    private void persistAddressBook() {
+        storage.queueUpForSave(addressBook.toPeerList(MAX_PERSISTED_PEERS), 2000);
     }
 
 
@@ -591,6 +503,24 @@ public class PeerManager implements ConnectionListener, PersistedDataHost {
         return seedNodeAddresses.contains(reportedPeer.getNodeAddress());
     }
 
+    /**
+     * Returns the capabilities of the peer from our connection to it or from the persisted and reported peers.
+     * Empty if we don't know the peer or only know it from old versions which did not send their capabilities.
+     */
+    public Optional<Capabilities> findPeersCapabilities(NodeAddress nodeAddress) {
+        Optional<Capabilities> fromConnection = networkNode.getConfirmedConnections().stream()
+                .filter(connection -> nodeAddress.equals(connection.getPeersNodeAddressOptional().orElse(null)))
+                .map(Connection::getCapabilities)
+                .filter(capabilities -> !capabilities.isEmpty())
+                .findAny();
+        if (fromConnection.isPresent())
+            return fromConnection;
+
+        return addressBook.findPeer(nodeAddress)
+                .map(Peer::getCapabilities)
+                .filter(capabilities -> !capabilities.isEmpty());
+    }
+
     public boolean isSeedNode(NodeAddress nodeAddress) {
         return seedNodeAddresses.contains(nodeAddress);
     }
@@ -626,20 +556,30 @@ public class PeerManager implements ConnectionListener, PersistedDataHost {
 
     public void handleConnectionFault(NodeAddress nodeAddress, @Nullable Connection connection) {
         log.debug("handleConnectionFault called: nodeAddress=" + nodeAddress);
-        boolean doRemovePersistedPeer = false;
-        removeReportedPeer(nodeAddress);
-        Optional<Peer> persistedPeerOptional = getPersistedPeerOptional(nodeAddress);
-        if (persistedPeerOptional.isPresent()) {
-            Peer persistedPeer = persistedPeerOptional.get();
-            persistedPeer.increaseFailedConnectionAttempts();
-            doRemovePersistedPeer = persistedPeer.tooManyFailedConnectionAttempts();
-        }
-        doRemovePersistedPeer = doRemovePersistedPeer || (connection != null && connection.getRuleViolation() != null);
-
-        if (doRemovePersistedPeer)
-            removePersistedPeer(nodeAddress);
+        if (connection != null && connection.getRuleViolation() != null)
+            addressBook.remove(nodeAddress);
         else
-            removeTooOldPersistedPeers();
+            addressBook.markFailed(nodeAddress);
+        persistAddressBook();
+    }
+
+    /**
+     * We got a response to a request from that peer. Moves it to the tried peers.
+     *
+     * @param roundTripTime     Time in ms from sending the request until we received the response
+     */
+    public void handleConnectionSuccess(NodeAddress nodeAddress, long roundTripTime) {
+        if (addressBook.markGood(nodeAddress, roundTripTime))
+            persistAddressBook();
+    }
+
+    /**
+     * @return up to maxCandidates not connected peers which are no seed nodes, sampled from our address book
+     * with a preference for peers we have successfully exchanged messages with before
+     */
+    public List<NodeAddress> getConnectionCandidates(int maxCandidates) {
+        return addressBook.selectCandidates(maxCandidates,
+                nodeAddress -> !isSelf(nodeAddress) && !isConfirmed(nodeAddress) && !isSeedNode(nodeAddress));
     }
 
     public void shutDownConnection(Connection connection, CloseConnectionReason closeConnectionReason) {
@@ -688,11 +628,8 @@ public class PeerManager implements ConnectionListener, PersistedDataHost {
                     // We lookup if we have already stored the supportedCapabilities at the persisted or reported peers
                     // and if so we use that.
                     if (supportedCapabilities.isEmpty()) {
-                        Set<Peer> allPeers = new HashSet<>(getPersistedPeers());
-                        allPeers.addAll(getReportedPeers());
-                        Optional<Peer> ourPeer = allPeers.stream().filter(peer -> peer.getNodeAddress().equals(connection.getPeersNodeAddressOptional().get()))
-                                .filter(peer -> !peer.getCapabilities().isEmpty())
-                                .findAny();
+                        Optional<Peer> ourPeer = addressBook.findPeer(connection.getPeersNodeAddressOptional().get())
+                                .filter(peer -> !peer.getCapabilities().isEmpty());
                         if (ourPeer.isPresent())
                             supportedCapabilities = new Capabilities(ourPeer.get().getCapabilities());
                     }
@@ -43,6 +43,9 @@ public class GetDataRequestHandler {
     private static final long TIMEOUT = 90;
 
     private static final int MAX_ENTRIES = 10000;
+    // Peers which support pagination get pages of about that size instead of a truncated response. We stay well below
+    // the max. message size as the size of the payloads is only an estimate of the message size.
+    private static final int MAX_PAGE_BYTES = Connection.getMaxPermittedMessageSize() / 4;
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Listener
@@ -92,6 +95,7 @@ public class GetDataRequestHandler {
         GetDataResponse getDataResponse = dataStorage.buildGetDataResponse(
                 getDataRequest,
                 MAX_ENTRIES,
+                MAX_PAGE_BYTES,
                 outPersistableNetworkPayloadOutputTruncated,
                 outProtectedStoragePayloadOutputTruncated,
                 connection.getCapabilities());
@@ -108,10 +112,11 @@ public class GetDataRequestHandler {
                     connectionInfo, MAX_ENTRIES);
         }
 
-        log.info("The getDataResponse to peer with {} contains {} ProtectedStorageEntries and {} PersistableNetworkPayloads",
+        log.info("The getDataResponse to peer with {} contains {} ProtectedStorageEntries and {} PersistableNetworkPayloads{}",
                 connectionInfo,
                 getDataResponse.getDataSet().size(),
-                getDataResponse.getPersistableNetworkPayloadSet().size());
+                getDataResponse.getPersistableNetworkPayloadSet().size(),
+                getDataResponse.isMoreAvailable() ? ". More data is available in the next page." : "");
 
         if (timeoutTimer == null) {
             timeoutTimer = UserThread.runAfter(() -> {  // setup before sending to avoid race conditions
@@ -25,6 +25,7 @@ import bisq.network.p2p.network.NetworkNode;
 import bisq.network.p2p.peers.PeerManager;
 import bisq.network.p2p.peers.getdata.messages.GetDataRequest;
 import bisq.network.p2p.peers.getdata.messages.GetDataResponse;
+import bisq.network.p2p.storage.InvertibleBloomLookupTable;
 import bisq.network.p2p.storage.P2PDataStorage;
 import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
 import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
@@ -32,6 +33,8 @@ import bisq.network.p2p.storage.payload.ProtectedStoragePayload;
 
 import bisq.common.Timer;
 import bisq.common.UserThread;
+import bisq.common.app.Capabilities;
+import bisq.common.app.Capability;
 import bisq.common.proto.network.NetworkEnvelope;
 import bisq.common.proto.network.NetworkPayload;
 
@@ -53,6 +56,12 @@ import org.jetbrains.annotations.Nullable;
 @Slf4j
 class RequestDataHandler implements MessageListener {
     private static final long TIMEOUT = 90;
+    // The first sketch of our PersistableNetworkPayload keys covers a difference of a few hundred payloads with about
+    // 27 kB, independent of how many payloads we have. If the peer cannot decode it we retry with a larger one.
+    private static final int INITIAL_SKETCH_CELLS = 600;
+    // Upper limit for the pages of a paginated GetDataResponse. With pages of about 2.5 MB that is far more than the
+    // whole network data.
+    private static final int MAX_PAGES = 200;
 
     private NodeAddress peersNodeAddress;
     /*
@@ -88,6 +97,13 @@ class RequestDataHandler implements MessageListener {
     private Timer timeoutTimer;
     private final int nonce = new Random().nextInt();
     private boolean stopped;
+    private boolean isPreliminaryDataRequest;
+    // 0 if we send the full key list
+    private int sketchCells = INITIAL_SKETCH_CELLS;
+    // The request for the first page of a paginated response. The following pages are requested with its nonce and
+    // the cursor only.
+    private GetDataRequest firstPageRequest;
+    private int numPagesReceived;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -115,58 +131,19 @@ class RequestDataHandler implements MessageListener {
 
     void requestData(NodeAddress nodeAddress, boolean isPreliminaryDataRequest) {
         peersNodeAddress = nodeAddress;
+        this.isPreliminaryDataRequest = isPreliminaryDataRequest;
         if (!stopped) {
-            GetDataRequest getDataRequest;
-
+            boolean peerSupportsSketch = peerManager.findPeersCapabilities(nodeAddress)
+                    .map(capabilities -> capabilities.containsAll(new Capabilities(Capability.GET_DATA_SKETCH)))
+                    .orElse(false);
+            int requestSketchCells = peerSupportsSketch ? sketchCells : 0;
             if (isPreliminaryDataRequest)
-                getDataRequest = dataStorage.buildPreliminaryGetDataRequest(nonce);
+                firstPageRequest = dataStorage.buildPreliminaryGetDataRequest(nonce, requestSketchCells);
             else
-                getDataRequest = dataStorage.buildGetUpdatedDataRequest(networkNode.getNodeAddress(), nonce);
-
-            if (timeoutTimer == null) {
-                timeoutTimer = UserThread.runAfter(() -> {  // setup before sending to avoid race conditions
-                            if (!stopped) {
-                                String errorMessage = "A timeout occurred at sending getDataRequest:" + getDataRequest +
-                                        " on nodeAddress:" + nodeAddress;
-                                log.debug(errorMessage + " / RequestDataHandler=" + RequestDataHandler.this);
-                                handleFault(errorMessage, nodeAddress, CloseConnectionReason.SEND_MSG_TIMEOUT);
-                            } else {
-                                log.trace("We have stopped already. We ignore that timeoutTimer.run call. " +
-                                        "Might be caused by an previous networkNode.sendMessage.onFailure.");
-                            }
-                        },
-                        TIMEOUT);
-            }
-
-            log.info("We send a {} to peer {}. ", getDataRequest.getClass().getSimpleName(), nodeAddress);
-            networkNode.addMessageListener(this);
-            SettableFuture<Connection> future = networkNode.sendMessage(nodeAddress, getDataRequest);
-            //noinspection UnstableApiUsage
-            Futures.addCallback(future, new FutureCallback<>() {
-                @Override
-                public void onSuccess(Connection connection) {
-                    if (!stopped) {
-                        log.trace("Send " + getDataRequest + " to " + nodeAddress + " succeeded.");
-                    } else {
-                        log.trace("We have stopped already. We ignore that networkNode.sendMessage.onSuccess call." +
-                                "Might be caused by an previous timeout.");
-                    }
-                }
+                firstPageRequest = dataStorage.buildGetUpdatedDataRequest(networkNode.getNodeAddress(), nonce,
+                        requestSketchCells);
 
-                @Override
-                public void onFailure(@NotNull Throwable throwable) {
-                    if (!stopped) {
-                        String errorMessage = "Sending getDataRequest to " + nodeAddress +
-                                " failed. That is expected if the peer is offline.\n\t" +
-                                "getDataRequest=" + getDataRequest + "." +
-                                "\n\tException=" + throwable.getMessage();
-                        handleFault(errorMessage, nodeAddress, CloseConnectionReason.SEND_MSG_FAILURE);
-                    } else {
-                        log.trace("We have stopped already. We ignore that networkNode.sendMessage.onFailure call. " +
-                                "Might be caused by an previous timeout.");
-                    }
-                }
-            });
+            sendGetDataRequest(firstPageRequest);
         } else {
             log.warn("We have stopped already. We ignore that requestData call.");
         }
@@ -196,9 +173,24 @@ class RequestDataHandler implements MessageListener {
                             return;
                         }
 
+                        if (getDataResponse.isSketchDecodeFailed()) {
+                            repeatRequestWithLargerSketch(getDataResponse.getEstimatedSketchDifference());
+                            return;
+                        }
+
+                        if (getDataResponse.isContinuationExpired()) {
+                            repeatRequestForExpiredContinuation();
+                            return;
+                        }
+
                         dataStorage.processGetDataResponse(getDataResponse,
                                 connection.getPeersNodeAddressOptional().get());
 
+                        if (getDataResponse.isMoreAvailable()) {
+                            requestNextPage(getDataResponse.getContinuationCursor());
+                            return;
+                        }
+
                         cleanup();
                         listener.onComplete();
                         // firstRequest = false;
@@ -227,6 +219,111 @@ class RequestDataHandler implements MessageListener {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    private void sendGetDataRequest(GetDataRequest getDataRequest) {
+        NodeAddress nodeAddress = peersNodeAddress;
+        if (timeoutTimer == null) {
+            timeoutTimer = UserThread.runAfter(() -> {  // setup before sending to avoid race conditions
+                        if (!stopped) {
+                            String errorMessage = "A timeout occurred at sending getDataRequest:" + getDataRequest +
+                                    " on nodeAddress:" + nodeAddress;
+                            log.debug(errorMessage + " / RequestDataHandler=" + RequestDataHandler.this);
+                            handleFault(errorMessage, nodeAddress, CloseConnectionReason.SEND_MSG_TIMEOUT);
+                        } else {
+                            log.trace("We have stopped already. We ignore that timeoutTimer.run call. " +
+                                    "Might be caused by an previous networkNode.sendMessage.onFailure.");
+                        }
+                    },
+                    TIMEOUT);
+        }
+
+        log.info("We send a {} to peer {}{}. ", getDataRequest.getClass().getSimpleName(), nodeAddress,
+                getDataRequest.getContinuationCursor() != null ? " for page " + (numPagesReceived + 1) : "");
+        networkNode.addMessageListener(this);
+        SettableFuture<Connection> future = networkNode.sendMessage(nodeAddress, getDataRequest);
+        //noinspection UnstableApiUsage
+        Futures.addCallback(future, new FutureCallback<>() {
+            @Override
+            public void onSuccess(Connection connection) {
+                if (!stopped) {
+                    log.trace("Send " + getDataRequest + " to " + nodeAddress + " succeeded.");
+                } else {
+                    log.trace("We have stopped already. We ignore that networkNode.sendMessage.onSuccess call." +
+                            "Might be caused by an previous timeout.");
+                }
+            }
+
+            @Override
+            public void onFailure(@NotNull Throwable throwable) {
+                if (!stopped) {
+                    String errorMessage = "Sending getDataRequest to " + nodeAddress +
+                            " failed. That is expected if the peer is offline.\n\t" +
+                            "getDataRequest=" + getDataRequest + "." +
+                            "\n\tException=" + throwable.getMessage();
+                    handleFault(errorMessage, nodeAddress, CloseConnectionReason.SEND_MSG_FAILURE);
+                } else {
+                    log.trace("We have stopped already. We ignore that networkNode.sendMessage.onFailure call. " +
+                            "Might be caused by an previous timeout.");
+                }
+            }
+        });
+    }
+
+    private void requestNextPage(byte[] continuationCursor) {
+        if (hasReachedMaxPages())
+            return;
+
+        // The peer keeps the keys of the entries it has to send us, so the request for the next page only carries
+        // the cursor. We only have one page in flight at a time.
+        sendGetDataRequest(firstPageRequest.withContinuationCursor(continuationCursor));
+    }
+
+    private void repeatRequestForExpiredContinuation() {
+        if (hasReachedMaxPages())
+            return;
+
+        // The peer has dropped the keys of our pages. We start again with a request for the first page, which
+        // excludes the data of the pages we have received already.
+        log.info("Peer {} does not know the cursor of our request for page {} anymore. We repeat the request.",
+                peersNodeAddress, numPagesReceived + 1);
+        // requestData adds the listener again
+        networkNode.removeMessageListener(this);
+        requestData(peersNodeAddress, isPreliminaryDataRequest);
+    }
+
+    // Counts the received pages and completes the request if the max. number of pages is reached
+    private boolean hasReachedMaxPages() {
+        numPagesReceived++;
+        if (numPagesReceived >= MAX_PAGES) {
+            log.warn("Peer {} sent {} pages without completing the GetDataResponse. We stop requesting more pages.",
+                    peersNodeAddress, numPagesReceived);
+            cleanup();
+            listener.onComplete();
+            return true;
+        }
+        return false;
+    }
+
+    private void repeatRequestWithLargerSketch(int estimatedSketchDifference) {
+        if (sketchCells == 0) {
+            // We have not sent a sketch so the peer must not report a decode failure
+            handleFault("Received a sketchDecodeFailed response for a request without a sketch",
+                    peersNodeAddress, CloseConnectionReason.RULE_VIOLATION);
+            return;
+        }
+
+        // The estimate can be too low as keys in the same cell can cancel each other out, so we use twice the
+        // estimate and at least double the sketch. If that would exceed the max. size of a sketch we send all keys
+        // instead, which is also the case if the full key list is smaller than the sketch.
+        long nextSketchCells = Math.max(2L * sketchCells, 2L * estimatedSketchDifference);
+        sketchCells = nextSketchCells > InvertibleBloomLookupTable.MAX_CELLS ? 0 : (int) nextSketchCells;
+        log.info("Peer {} could not decode our sketch. Estimated difference: {}. We repeat the request {}",
+                peersNodeAddress, estimatedSketchDifference,
+                sketchCells > 0 ? "with a sketch of " + sketchCells + " cells" : "with the full key list");
+        // requestData adds the listener again
+        networkNode.removeMessageListener(this);
+        requestData(peersNodeAddress, isPreliminaryDataRequest);
+    }
+
     private void logContents(NetworkEnvelope networkEnvelope,
                              Set<ProtectedStorageEntry> dataSet,
                              Set<PersistableNetworkPayload> persistableNetworkPayloadSet) {
@@ -25,6 +25,8 @@ import bisq.network.p2p.network.MessageListener;
 import bisq.network.p2p.network.NetworkNode;
 import bisq.network.p2p.peers.PeerManager;
 import bisq.network.p2p.peers.getdata.messages.GetDataRequest;
+import bisq.network.p2p.peers.getdata.messages.GetStoreDigestRequest;
+import bisq.network.p2p.peers.getdata.messages.GetStoreDigestResponse;
 import bisq.network.p2p.peers.peerexchange.Peer;
 import bisq.network.p2p.seed.SeedNodeRepository;
 import bisq.network.p2p.storage.P2PDataStorage;
@@ -55,6 +57,9 @@ import static com.google.common.base.Preconditions.checkArgument;
 public class RequestDataManager implements MessageListener, ConnectionListener, PeerManager.Listener {
     private static final long RETRY_DELAY_SEC = 10;
     private static final long CLEANUP_TIMER = 120;
+    // Building a store digest iterates all our data, so we answer only one GetStoreDigestRequest per connection
+    // in that interval
+    private static final long MIN_STORE_DIGEST_REQUEST_INTERVAL_MS = TimeUnit.SECONDS.toMillis(1);
     // How many seeds we request the PreliminaryGetDataRequest from
     private static int NUM_SEEDS_FOR_PRELIMINARY_REQUEST = 2;
     // how many seeds additional to the first responding PreliminaryGetDataRequest seed we request the GetUpdatedDataRequest from
@@ -90,6 +95,7 @@ public class RequestDataManager implements MessageListener, ConnectionListener,
 
     private final Map<NodeAddress, RequestDataHandler> handlerMap = new HashMap<>();
     private final Map<String, GetDataRequestHandler> getDataRequestHandlers = new HashMap<>();
+    private final Map<String, Long> lastStoreDigestRequestTsByConnectionUid = new HashMap<>();
     private Optional<NodeAddress> nodeAddressOfPreliminaryDataRequest = Optional.empty();
     private Timer retryTimer;
     private boolean dataUpdateRequested;
@@ -209,6 +215,7 @@ public class RequestDataManager implements MessageListener, ConnectionListener,
     @Override
     public void onDisconnect(CloseConnectionReason closeConnectionReason, Connection connection) {
         closeHandler(connection);
+        lastStoreDigestRequestTsByConnectionUid.remove(connection.getUid());
 
         if (peerManager.isNodeBanned(closeConnectionReason, connection) && connection.getPeersNodeAddressOptional().isPresent()) {
             final NodeAddress nodeAddress = connection.getPeersNodeAddressOptional().get();
@@ -300,9 +307,27 @@ public class RequestDataManager implements MessageListener, ConnectionListener,
             } else {
                 log.warn("We have stopped already. We ignore that onMessage call.");
             }
+        } else if (networkEnvelope instanceof GetStoreDigestRequest) {
+            handleGetStoreDigestRequest((GetStoreDigestRequest) networkEnvelope, connection);
         }
     }
 
+    private void handleGetStoreDigestRequest(GetStoreDigestRequest getStoreDigestRequest, Connection connection) {
+        long now = System.currentTimeMillis();
+        Long lastRequestTs = lastStoreDigestRequestTsByConnectionUid.get(connection.getUid());
+        if (lastRequestTs != null && now - lastRequestTs < MIN_STORE_DIGEST_REQUEST_INTERVAL_MS) {
+            log.warn("We got GetStoreDigestRequests too frequently from {}. We ignore that request.",
+                    connection.getPeersNodeAddressOptional());
+            return;
+        }
+        lastStoreDigestRequestTsByConnectionUid.put(connection.getUid(), now);
+
+        GetStoreDigestResponse response = dataStorage.buildGetStoreDigestResponse(getStoreDigestRequest);
+        log.info("We send a GetStoreDigestResponse with {} store digests to {}",
+                response.getStoreDigests().size(), connection.getPeersNodeAddressOptional());
+        networkNode.sendMessage(connection, response);
+    }
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // RequestData
     ///////////////////////////////////////////////////////////////////////////////////////////
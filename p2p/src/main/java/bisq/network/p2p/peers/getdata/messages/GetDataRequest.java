@@ -27,6 +27,8 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
 
+import javax.annotation.Nullable;
+
 @EqualsAndHashCode(callSuper = true)
 @Getter
 @ToString
@@ -34,12 +36,32 @@ public abstract class GetDataRequest extends NetworkEnvelope implements Extended
     protected final int nonce;
     // Keys for ProtectedStorageEntry items to be excluded from the request because the peer has them already
     protected final Set<byte[]> excludedKeys;
+    // Serialized InvertibleBloomLookupTable of the PersistableNetworkPayload keys the peer has already. If set,
+    // excludedKeys only contains the keys which are not covered by the sketch.
+    @Nullable
+    @ToString.Exclude
+    protected final byte[] persistableNetworkPayloadSketch;
+    // Cursor of the previous GetDataResponse if we request the next page of a paginated response. The peer keeps the
+    // keys of the entries to send, so such a request has no excludedKeys and no sketch.
+    @Nullable
+    @ToString.Exclude
+    protected final byte[] continuationCursor;
 
     public GetDataRequest(int messageVersion,
                           int nonce,
-                          Set<byte[]> excludedKeys) {
+                          Set<byte[]> excludedKeys,
+                          @Nullable byte[] persistableNetworkPayloadSketch,
+                          @Nullable byte[] continuationCursor) {
         super(messageVersion);
         this.nonce = nonce;
         this.excludedKeys = excludedKeys;
+        this.persistableNetworkPayloadSketch = persistableNetworkPayloadSketch;
+        this.continuationCursor = continuationCursor;
     }
+
+    /**
+     * Returns a request for the page of the response which follows the given cursor. It only carries the nonce and
+     * the cursor of this request, not the excluded keys and the sketch.
+     */
+    public abstract GetDataRequest withContinuationCursor(byte[] continuationCursor);
 }
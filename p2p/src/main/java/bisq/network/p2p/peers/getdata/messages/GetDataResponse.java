@@ -25,19 +25,26 @@ import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
 
 import bisq.common.app.Capabilities;
 import bisq.common.app.Version;
+import bisq.common.proto.ProtoUtil;
 import bisq.common.proto.network.NetworkEnvelope;
 import bisq.common.proto.network.NetworkProtoResolver;
 
+import com.google.protobuf.ByteString;
+
 import java.util.HashSet;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 
 import org.jetbrains.annotations.NotNull;
 
+import javax.annotation.Nullable;
+
 @Slf4j
 @EqualsAndHashCode(callSuper = true)
 @Value
@@ -53,14 +60,67 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
     private final boolean isGetUpdatedDataResponse;
     private final Capabilities supportedCapabilities;
 
+    // If the sketch of the request could not be decoded the response contains no data and the requester has to repeat
+    // the request with a sketch which is large enough for the estimated difference or with all keys.
+    private final boolean sketchDecodeFailed;
+    private final int estimatedSketchDifference;
+
+    // Opaque cursor for requesting the next page if the response was paginated. Null if there is no more data.
+    @Nullable
+    @ToString.Exclude
+    private final byte[] continuationCursor;
+    // If the responding node does not know the cursor of the request anymore the response contains no data and the
+    // requester has to start again with the request for the first page.
+    private final boolean continuationExpired;
+
     public GetDataResponse(@NotNull Set<ProtectedStorageEntry> dataSet,
                            @NotNull Set<PersistableNetworkPayload> persistableNetworkPayloadSet,
                            int requestNonce,
                            boolean isGetUpdatedDataResponse) {
+        this(dataSet, persistableNetworkPayloadSet, requestNonce, isGetUpdatedDataResponse, null);
+    }
+
+    public GetDataResponse(@NotNull Set<ProtectedStorageEntry> dataSet,
+                           @NotNull Set<PersistableNetworkPayload> persistableNetworkPayloadSet,
+                           int requestNonce,
+                           boolean isGetUpdatedDataResponse,
+                           @Nullable byte[] continuationCursor) {
         this(dataSet,
                 persistableNetworkPayloadSet,
                 requestNonce,
                 isGetUpdatedDataResponse,
+                false,
+                0,
+                continuationCursor,
+                false,
+                Capabilities.app,
+                Version.getP2PMessageVersion());
+    }
+
+    public static GetDataResponse sketchDecodeFailed(int requestNonce,
+                                                     boolean isGetUpdatedDataResponse,
+                                                     int estimatedSketchDifference) {
+        return new GetDataResponse(new HashSet<>(),
+                new HashSet<>(),
+                requestNonce,
+                isGetUpdatedDataResponse,
+                true,
+                estimatedSketchDifference,
+                null,
+                false,
+                Capabilities.app,
+                Version.getP2PMessageVersion());
+    }
+
+    public static GetDataResponse continuationExpired(int requestNonce, boolean isGetUpdatedDataResponse) {
+        return new GetDataResponse(new HashSet<>(),
+                new HashSet<>(),
+                requestNonce,
+                isGetUpdatedDataResponse,
+                false,
+                0,
+                null,
+                true,
                 Capabilities.app,
                 Version.getP2PMessageVersion());
     }
@@ -73,6 +133,10 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
                             @NotNull Set<PersistableNetworkPayload> persistableNetworkPayloadSet,
                             int requestNonce,
                             boolean isGetUpdatedDataResponse,
+                            boolean sketchDecodeFailed,
+                            int estimatedSketchDifference,
+                            @Nullable byte[] continuationCursor,
+                            boolean continuationExpired,
                             @NotNull Capabilities supportedCapabilities,
                             int messageVersion) {
         super(messageVersion);
@@ -81,6 +145,10 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
         this.persistableNetworkPayloadSet = persistableNetworkPayloadSet;
         this.requestNonce = requestNonce;
         this.isGetUpdatedDataResponse = isGetUpdatedDataResponse;
+        this.sketchDecodeFailed = sketchDecodeFailed;
+        this.estimatedSketchDifference = estimatedSketchDifference;
+        this.continuationCursor = continuationCursor;
+        this.continuationExpired = continuationExpired;
         this.supportedCapabilities = supportedCapabilities;
     }
 
@@ -102,7 +170,12 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
                         .collect(Collectors.toList()))
                 .setRequestNonce(requestNonce)
                 .setIsGetUpdatedDataResponse(isGetUpdatedDataResponse)
+                .setSketchDecodeFailed(sketchDecodeFailed)
+                .setEstimatedSketchDifference(estimatedSketchDifference)
+                .setContinuationExpired(continuationExpired)
                 .addAllSupportedCapabilities(Capabilities.toIntList(supportedCapabilities));
+        Optional.ofNullable(continuationCursor)
+                .ifPresent(e -> builder.setContinuationCursor(ByteString.copyFrom(e)));
 
         protobuf.NetworkEnvelope proto = getNetworkEnvelopeBuilder()
                 .setGetDataResponse(builder)
@@ -129,7 +202,20 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
                 persistableNetworkPayloadSet,
                 proto.getRequestNonce(),
                 proto.getIsGetUpdatedDataResponse(),
+                proto.getSketchDecodeFailed(),
+                proto.getEstimatedSketchDifference(),
+                ProtoUtil.byteArrayOrNullFromProto(proto.getContinuationCursor()),
+                proto.getContinuationExpired(),
                 Capabilities.fromIntList(proto.getSupportedCapabilitiesList()),
                 messageVersion);
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public boolean isMoreAvailable() {
+        return continuationCursor != null;
+    }
 }
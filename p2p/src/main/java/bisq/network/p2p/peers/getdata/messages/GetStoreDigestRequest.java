@@ -0,0 +1,80 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.peers.getdata.messages;
+
+import bisq.network.p2p.AnonymousMessage;
+
+import bisq.common.app.Version;
+import bisq.common.proto.network.NetworkEnvelope;
+
+import com.google.protobuf.ByteString;
+
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+
+import javax.annotation.Nullable;
+
+/**
+ * Requests the digests of the P2P data stores of a peer, used for auditing the consistency of seed nodes.
+ * Can be sent by nodes which have no hidden service published, like the monitor.
+ */
+@EqualsAndHashCode(callSuper = true)
+@Value
+public final class GetStoreDigestRequest extends NetworkEnvelope implements AnonymousMessage {
+    private final int nonce;
+    // If set only the digest of that store is requested
+    @Nullable
+    private final String storeName;
+    // Only keys starting with that prefix are covered, empty for all keys
+    private final byte[] prefix;
+
+    public GetStoreDigestRequest(int nonce, @Nullable String storeName, byte[] prefix) {
+        this(nonce, storeName, prefix, Version.getP2PMessageVersion());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PROTO BUFFER
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private GetStoreDigestRequest(int nonce, @Nullable String storeName, byte[] prefix, int messageVersion) {
+        super(messageVersion);
+        this.nonce = nonce;
+        this.storeName = storeName;
+        this.prefix = prefix;
+    }
+
+    @Override
+    public protobuf.NetworkEnvelope toProtoNetworkEnvelope() {
+        protobuf.GetStoreDigestRequest.Builder builder = protobuf.GetStoreDigestRequest.newBuilder()
+                .setNonce(nonce)
+                .setPrefix(ByteString.copyFrom(prefix));
+        if (storeName != null)
+            builder.setStoreName(storeName);
+        return getNetworkEnvelopeBuilder()
+                .setGetStoreDigestRequest(builder)
+                .build();
+    }
+
+    public static GetStoreDigestRequest fromProto(protobuf.GetStoreDigestRequest proto, int messageVersion) {
+        return new GetStoreDigestRequest(proto.getNonce(),
+                proto.getStoreName().isEmpty() ? null : proto.getStoreName(),
+                proto.getPrefix().toByteArray(),
+                messageVersion);
+    }
+}
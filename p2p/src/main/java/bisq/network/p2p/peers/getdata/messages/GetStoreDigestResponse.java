@@ -0,0 +1,70 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.peers.getdata.messages;
+
+import bisq.network.p2p.storage.StoreDigest;
+
+import bisq.common.app.Version;
+import bisq.common.proto.network.NetworkEnvelope;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+
+@EqualsAndHashCode(callSuper = true)
+@Value
+public final class GetStoreDigestResponse extends NetworkEnvelope {
+    private final int requestNonce;
+    private final List<StoreDigest> storeDigests;
+
+    public GetStoreDigestResponse(int requestNonce, List<StoreDigest> storeDigests) {
+        this(requestNonce, storeDigests, Version.getP2PMessageVersion());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PROTO BUFFER
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private GetStoreDigestResponse(int requestNonce, List<StoreDigest> storeDigests, int messageVersion) {
+        super(messageVersion);
+        this.requestNonce = requestNonce;
+        this.storeDigests = storeDigests;
+    }
+
+    @Override
+    public protobuf.NetworkEnvelope toProtoNetworkEnvelope() {
+        return getNetworkEnvelopeBuilder()
+                .setGetStoreDigestResponse(protobuf.GetStoreDigestResponse.newBuilder()
+                        .setRequestNonce(requestNonce)
+                        .addAllStoreDigests(storeDigests.stream()
+                                .map(StoreDigest::toProtoMessage)
+                                .collect(Collectors.toList())))
+                .build();
+    }
+
+    public static GetStoreDigestResponse fromProto(protobuf.GetStoreDigestResponse proto, int messageVersion) {
+        return new GetStoreDigestResponse(proto.getRequestNonce(),
+                proto.getStoreDigestsList().stream()
+                        .map(StoreDigest::fromProto)
+                        .collect(Collectors.toList()),
+                messageVersion);
+    }
+}
@@ -25,6 +25,8 @@ import bisq.common.proto.ProtoUtil;
 
 import com.google.protobuf.ByteString;
 
+import java.util.HashSet;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -32,6 +34,8 @@ import lombok.EqualsAndHashCode;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 import static com.google.common.base.Preconditions.checkNotNull;
 
 
@@ -47,12 +51,31 @@ public final class GetUpdatedDataRequest extends GetDataRequest implements Sende
     public GetUpdatedDataRequest(NodeAddress senderNodeAddress,
                                  int nonce,
                                  Set<byte[]> excludedKeys) {
+        this(senderNodeAddress, nonce, excludedKeys, null);
+    }
+
+    public GetUpdatedDataRequest(NodeAddress senderNodeAddress,
+                                 int nonce,
+                                 Set<byte[]> excludedKeys,
+                                 @Nullable byte[] persistableNetworkPayloadSketch) {
         this(senderNodeAddress,
                 nonce,
                 excludedKeys,
+                persistableNetworkPayloadSketch,
+                null,
                 Version.getP2PMessageVersion());
     }
 
+    @Override
+    public GetUpdatedDataRequest withContinuationCursor(byte[] continuationCursor) {
+        return new GetUpdatedDataRequest(senderNodeAddress,
+                nonce,
+                new HashSet<>(),
+                null,
+                continuationCursor,
+                getMessageVersion());
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // PROTO BUFFER
@@ -61,10 +84,14 @@ public final class GetUpdatedDataRequest extends GetDataRequest implements Sende
     private GetUpdatedDataRequest(NodeAddress senderNodeAddress,
                                   int nonce,
                                   Set<byte[]> excludedKeys,
+                                  @Nullable byte[] persistableNetworkPayloadSketch,
+                                  @Nullable byte[] continuationCursor,
                                   int messageVersion) {
         super(messageVersion,
                 nonce,
-                excludedKeys);
+                excludedKeys,
+                persistableNetworkPayloadSketch,
+                continuationCursor);
         checkNotNull(senderNodeAddress, "senderNodeAddress must not be null at GetUpdatedDataRequest");
         this.senderNodeAddress = senderNodeAddress;
     }
@@ -77,6 +104,10 @@ public final class GetUpdatedDataRequest extends GetDataRequest implements Sende
                 .addAllExcludedKeys(excludedKeys.stream()
                         .map(ByteString::copyFrom)
                         .collect(Collectors.toList()));
+        Optional.ofNullable(persistableNetworkPayloadSketch)
+                .ifPresent(e -> builder.setPersistableNetworkPayloadSketch(ByteString.copyFrom(e)));
+        Optional.ofNullable(continuationCursor)
+                .ifPresent(e -> builder.setContinuationCursor(ByteString.copyFrom(e)));
 
         NetworkEnvelope proto = getNetworkEnvelopeBuilder()
                 .setGetUpdatedDataRequest(builder)
@@ -90,6 +121,8 @@ public final class GetUpdatedDataRequest extends GetDataRequest implements Sende
         return new GetUpdatedDataRequest(NodeAddress.fromProto(proto.getSenderNodeAddress()),
                 proto.getNonce(),
                 ProtoUtil.byteSetFromProtoByteStringList(proto.getExcludedKeysList()),
+                ProtoUtil.byteArrayOrNullFromProto(proto.getPersistableNetworkPayloadSketch()),
+                ProtoUtil.byteArrayOrNullFromProto(proto.getContinuationCursor()),
                 messageVersion);
     }
 }
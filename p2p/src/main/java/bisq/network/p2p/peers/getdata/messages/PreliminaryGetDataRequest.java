@@ -26,6 +26,8 @@ import bisq.common.proto.ProtoUtil;
 
 import com.google.protobuf.ByteString;
 
+import java.util.HashSet;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -35,6 +37,8 @@ import lombok.extern.slf4j.Slf4j;
 
 import org.jetbrains.annotations.NotNull;
 
+import javax.annotation.Nullable;
+
 import protobuf.NetworkEnvelope;
 
 @Slf4j
@@ -45,7 +49,28 @@ public final class PreliminaryGetDataRequest extends GetDataRequest implements A
 
     public PreliminaryGetDataRequest(int nonce,
                                      @NotNull Set<byte[]> excludedKeys) {
-        this(nonce, excludedKeys, Capabilities.app, Version.getP2PMessageVersion());
+        this(nonce, excludedKeys, null);
+    }
+
+    public PreliminaryGetDataRequest(int nonce,
+                                     @NotNull Set<byte[]> excludedKeys,
+                                     @Nullable byte[] persistableNetworkPayloadSketch) {
+        this(nonce,
+                excludedKeys,
+                persistableNetworkPayloadSketch,
+                null,
+                Capabilities.app,
+                Version.getP2PMessageVersion());
+    }
+
+    @Override
+    public PreliminaryGetDataRequest withContinuationCursor(byte[] continuationCursor) {
+        return new PreliminaryGetDataRequest(nonce,
+                new HashSet<>(),
+                null,
+                continuationCursor,
+                supportedCapabilities,
+                getMessageVersion());
     }
 
 
@@ -55,9 +80,11 @@ public final class PreliminaryGetDataRequest extends GetDataRequest implements A
 
     private PreliminaryGetDataRequest(int nonce,
                                       @NotNull Set<byte[]> excludedKeys,
+                                      @Nullable byte[] persistableNetworkPayloadSketch,
+                                      @Nullable byte[] continuationCursor,
                                       @NotNull Capabilities supportedCapabilities,
                                       int messageVersion) {
-        super(messageVersion, nonce, excludedKeys);
+        super(messageVersion, nonce, excludedKeys, persistableNetworkPayloadSketch, continuationCursor);
 
         this.supportedCapabilities = supportedCapabilities;
     }
@@ -70,6 +97,10 @@ public final class PreliminaryGetDataRequest extends GetDataRequest implements A
                 .addAllExcludedKeys(excludedKeys.stream()
                         .map(ByteString::copyFrom)
                         .collect(Collectors.toList()));
+        Optional.ofNullable(persistableNetworkPayloadSketch)
+                .ifPresent(e -> builder.setPersistableNetworkPayloadSketch(ByteString.copyFrom(e)));
+        Optional.ofNullable(continuationCursor)
+                .ifPresent(e -> builder.setContinuationCursor(ByteString.copyFrom(e)));
 
         NetworkEnvelope proto = getNetworkEnvelopeBuilder()
                 .setPreliminaryGetDataRequest(builder)
@@ -82,6 +113,8 @@ public final class PreliminaryGetDataRequest extends GetDataRequest implements A
         log.info("Received a PreliminaryGetDataRequest with {} kB", proto.getSerializedSize() / 1000d);
         return new PreliminaryGetDataRequest(proto.getNonce(),
                 ProtoUtil.byteSetFromProtoByteStringList(proto.getExcludedKeysList()),
+                ProtoUtil.byteArrayOrNullFromProto(proto.getPersistableNetworkPayloadSketch()),
+                ProtoUtil.byteArrayOrNullFromProto(proto.getContinuationCursor()),
                 Capabilities.fromIntList(proto.getSupportedCapabilitiesList()),
                 messageVersion);
     }
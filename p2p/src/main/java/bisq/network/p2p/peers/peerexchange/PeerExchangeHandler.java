@@ -74,6 +74,7 @@ class PeerExchangeHandler implements MessageListener {
     private Connection connection;
     private boolean stopped;
     private Timer delayTimer;
+    private long requestTs;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -116,6 +117,7 @@ class PeerExchangeHandler implements MessageListener {
                             TIMEOUT, TimeUnit.SECONDS);
                 }
 
+                requestTs = System.currentTimeMillis();
                 SettableFuture<Connection> future = networkNode.sendMessage(nodeAddress, getPeersRequest);
                 Futures.addCallback(future, new FutureCallback<Connection>() {
                     @Override
@@ -167,6 +169,8 @@ class PeerExchangeHandler implements MessageListener {
 
                 // Check if the response is for our request
                 if (getPeersResponse.getRequestNonce() == nonce) {
+                    connection.getPeersNodeAddressOptional().ifPresent(nodeAddress ->
+                            peerManager.handleConnectionSuccess(nodeAddress, System.currentTimeMillis() - requestTs));
                     peerManager.addToReportedPeers(getPeersResponse.getReportedPeers(), connection);
                     cleanup();
                     listener.onComplete();
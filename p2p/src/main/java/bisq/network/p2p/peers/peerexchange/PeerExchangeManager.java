@@ -57,6 +57,7 @@ public class PeerExchangeManager implements MessageListener, ConnectionListener,
     private static final long RETRY_DELAY_SEC = 10;
     private static final long RETRY_DELAY_AFTER_ALL_CON_LOST_SEC = 3;
     private static final long REQUEST_PERIODICALLY_INTERVAL_MIN = 10;
+    private static final int MAX_CANDIDATES = 50;
 
     private final NetworkNode networkNode;
     private final PeerManager peerManager;
@@ -287,15 +288,9 @@ public class PeerExchangeManager implements MessageListener, ConnectionListener,
         if (!stopped) {
             if (!peerManager.hasSufficientConnections()) {
                 // We create a new list of not connected candidates
-                // 1. shuffled reported peers
-                // 2. shuffled persisted peers
-                // 3. Add as last shuffled seedNodes (least priority)
-                List<NodeAddress> list = getFilteredNonSeedNodeList(getNodeAddresses(peerManager.getReportedPeers()), new ArrayList<>());
-                Collections.shuffle(list);
-
-                List<NodeAddress> filteredPersistedPeers = getFilteredNonSeedNodeList(getNodeAddresses(peerManager.getPersistedPeers()), list);
-                Collections.shuffle(filteredPersistedPeers);
-                list.addAll(filteredPersistedPeers);
+                // 1. peers sampled from the address book of the peer manager
+                // 2. Add as last shuffled seedNodes (least priority)
+                List<NodeAddress> list = new ArrayList<>(peerManager.getConnectionCandidates(MAX_CANDIDATES));
 
                 List<NodeAddress> filteredSeedNodeAddresses = getFilteredList(new ArrayList<>(seedNodeAddresses), list);
                 Collections.shuffle(filteredSeedNodeAddresses);
@@ -357,12 +352,6 @@ public class PeerExchangeManager implements MessageListener, ConnectionListener,
         }
     }
 
-    private List<NodeAddress> getNodeAddresses(Collection<Peer> collection) {
-        return collection.stream()
-                .map(Peer::getNodeAddress)
-                .collect(Collectors.toList());
-    }
-
     private List<NodeAddress> getFilteredList(Collection<NodeAddress> collection, List<NodeAddress> list) {
         return collection.stream()
                 .filter(e -> !list.contains(e) &&
@@ -371,12 +360,6 @@ public class PeerExchangeManager implements MessageListener, ConnectionListener,
                 .collect(Collectors.toList());
     }
 
-    private List<NodeAddress> getFilteredNonSeedNodeList(Collection<NodeAddress> collection, List<NodeAddress> list) {
-        return getFilteredList(collection, list).stream()
-                .filter(e -> !peerManager.isSeedNode(e))
-                .collect(Collectors.toList());
-    }
-
     private void stopPeriodicTimer() {
         stopped = true;
         if (periodicTimer != null) {
@@ -27,25 +27,38 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 
 @EqualsAndHashCode(callSuper = true)
 public class PeerList extends PersistableList<Peer> {
+    // Connection statistics of the peers in our address book
+    @Getter
+    private final List<PeerScore> peerScores;
 
     public PeerList(List<Peer> list) {
+        this(list, new ArrayList<>());
+    }
+
+    public PeerList(List<Peer> list, List<PeerScore> peerScores) {
         super(list);
+        this.peerScores = peerScores;
     }
 
     @Override
     public Message toProtoMessage() {
         return protobuf.PersistableEnvelope.newBuilder()
                 .setPeerList(protobuf.PeerList.newBuilder()
-                        .addAllPeer(getList().stream().map(Peer::toProtoMessage).collect(Collectors.toList())))
+                        .addAllPeer(getList().stream().map(Peer::toProtoMessage).collect(Collectors.toList()))
+                        .addAllPeerScore(peerScores.stream().map(PeerScore::toProtoMessage).collect(Collectors.toList())))
                 .build();
     }
 
     public static PersistableEnvelope fromProto(protobuf.PeerList proto) {
         return new PeerList(new ArrayList<>(proto.getPeerList().stream()
                 .map(Peer::fromProto)
-                .collect(Collectors.toList())));
+                .collect(Collectors.toList())),
+                new ArrayList<>(proto.getPeerScoreList().stream()
+                        .map(PeerScore::fromProto)
+                        .collect(Collectors.toList())));
     }
 }
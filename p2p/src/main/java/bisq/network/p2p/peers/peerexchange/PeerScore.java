@@ -0,0 +1,94 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.peers.peerexchange;
+
+import bisq.network.p2p.NodeAddress;
+
+import bisq.common.proto.persistable.PersistablePayload;
+
+import lombok.Value;
+
+import javax.annotation.Nullable;
+
+/**
+ * Persisted connection statistics of a peer in our address book. Only used locally, never sent to other peers.
+ */
+@Value
+public final class PeerScore implements PersistablePayload {
+    private final NodeAddress nodeAddress;
+    // The peer which reported that address to us, null if not known
+    @Nullable
+    private final NodeAddress source;
+    private final boolean tried;
+    private final int numSuccesses;
+    // Failures since the last success
+    private final int numFailures;
+    private final long lastSuccess;
+    private final long lastAttempt;
+    // Smoothed round trip time in ms, 0 if not measured yet
+    private final long latency;
+
+    public PeerScore(NodeAddress nodeAddress,
+                     @Nullable NodeAddress source,
+                     boolean tried,
+                     int numSuccesses,
+                     int numFailures,
+                     long lastSuccess,
+                     long lastAttempt,
+                     long latency) {
+        this.nodeAddress = nodeAddress;
+        this.source = source;
+        this.tried = tried;
+        this.numSuccesses = numSuccesses;
+        this.numFailures = numFailures;
+        this.lastSuccess = lastSuccess;
+        this.lastAttempt = lastAttempt;
+        this.latency = latency;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PROTO BUFFER
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public protobuf.PeerScore toProtoMessage() {
+        protobuf.PeerScore.Builder builder = protobuf.PeerScore.newBuilder()
+                .setNodeAddress(nodeAddress.toProtoMessage())
+                .setTried(tried)
+                .setNumSuccesses(numSuccesses)
+                .setNumFailures(numFailures)
+                .setLastSuccess(lastSuccess)
+                .setLastAttempt(lastAttempt)
+                .setLatency(latency);
+        if (source != null)
+            builder.setSource(source.toProtoMessage());
+        return builder.build();
+    }
+
+    public static PeerScore fromProto(protobuf.PeerScore proto) {
+        return new PeerScore(NodeAddress.fromProto(proto.getNodeAddress()),
+                proto.hasSource() ? NodeAddress.fromProto(proto.getSource()) : null,
+                proto.getTried(),
+                proto.getNumSuccesses(),
+                proto.getNumFailures(),
+                proto.getLastSuccess(),
+                proto.getLastAttempt(),
+                proto.getLatency());
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage;
+
+import java.nio.ByteBuffer;
+
+import lombok.Value;
+
+/**
+ * Position within a paginated GetDataResponse. The responding node keeps the keys of the entries to send in a session
+ * (see GetDataPageSessions), so the cursor is the id of that session and the position of the next key to send.
+ * The cursor is opaque for the requester which only returns it with the request for the next page.
+ */
+@Value
+class GetDataPageCursor {
+    private static final int SIZE = Long.BYTES + Integer.BYTES;
+
+    private final long sessionId;
+    private final int position;
+
+    byte[] toBytes() {
+        return ByteBuffer.allocate(SIZE).putLong(sessionId).putInt(position).array();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bytes are not a valid cursor
+     */
+    static GetDataPageCursor fromBytes(byte[] bytes) {
+        if (bytes.length != SIZE)
+            throw new IllegalArgumentException("Invalid cursor length " + bytes.length);
+
+        ByteBuffer byteBuffer = ByteBuffer.wrap(bytes);
+        long sessionId = byteBuffer.getLong();
+        int position = byteBuffer.getInt();
+        if (position < 0)
+            throw new IllegalArgumentException("Invalid cursor position " + position);
+
+        return new GetDataPageCursor(sessionId, position);
+    }
+}
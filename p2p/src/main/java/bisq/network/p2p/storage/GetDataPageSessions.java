@@ -0,0 +1,104 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage;
+
+import java.time.Clock;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import lombok.Getter;
+
+import javax.annotation.Nullable;
+
+/**
+ * Keeps the keys of the entries which are sent with the pages of a paginated GetDataResponse. The keys get filtered
+ * and ordered once for the first page, the requests for the following pages only carry the cursor with the session
+ * id and the position. The number of sessions is limited and a session expires if the requester does not continue.
+ * A requester whose session is unknown starts again with a new request for the first page.
+ */
+class GetDataPageSessions {
+    static final int MAX_SESSIONS = 50;
+    static final long SESSION_TTL_MS = TimeUnit.MINUTES.toMillis(5);
+
+    static class Session {
+        // The keys of the ProtectedStorageEntries followed by the keys of the PersistableNetworkPayloads
+        @Getter
+        private final List<P2PDataStorage.ByteArray> keys;
+        @Getter
+        private final int numProtectedStorageEntryKeys;
+        private long lastAccessTs;
+
+        Session(List<P2PDataStorage.ByteArray> keys, int numProtectedStorageEntryKeys) {
+            this.keys = keys;
+            this.numProtectedStorageEntryKeys = numProtectedStorageEntryKeys;
+        }
+    }
+
+    private final Clock clock;
+    private final Random random = new Random();
+    // In access order, so the least recently used session gets removed first
+    private final Map<Long, Session> sessionById = new LinkedHashMap<>(16, 0.75f, true);
+
+    GetDataPageSessions(Clock clock) {
+        this.clock = clock;
+    }
+
+    synchronized long add(Session session) {
+        removeExpiredSessions();
+        if (sessionById.size() >= MAX_SESSIONS) {
+            Iterator<Long> iterator = sessionById.keySet().iterator();
+            iterator.next();
+            iterator.remove();
+        }
+
+        long sessionId;
+        do {
+            sessionId = random.nextLong();
+        } while (sessionById.containsKey(sessionId));
+        session.lastAccessTs = clock.millis();
+        sessionById.put(sessionId, session);
+        return sessionId;
+    }
+
+    @Nullable
+    synchronized Session get(long sessionId) {
+        removeExpiredSessions();
+        Session session = sessionById.get(sessionId);
+        if (session != null)
+            session.lastAccessTs = clock.millis();
+        return session;
+    }
+
+    synchronized void remove(long sessionId) {
+        sessionById.remove(sessionId);
+    }
+
+    synchronized int size() {
+        return sessionById.size();
+    }
+
+    private void removeExpiredSessions() {
+        long now = clock.millis();
+        sessionById.values().removeIf(session -> now - session.lastAccessTs > SESSION_TTL_MS);
+    }
+}
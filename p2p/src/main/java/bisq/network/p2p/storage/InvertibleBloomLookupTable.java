@@ -0,0 +1,278 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.network.p2p.storage;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.common.primitives.Ints;
+
+import java.nio.ByteBuffer;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import lombok.Value;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Invertible Bloom lookup table (IBLT) over payload hashes. Two peers can find the symmetric difference of their
+ * key sets by exchanging a table whose size depends only on the expected size of the difference: the receiver
+ * subtracts the sender's table from a table of its own keys and decodes the keys which are only in one of the sets.
+ * Decoding fails with a high probability if the difference is much larger than about 2/3 of the number of cells, in
+ * that case the caller needs to retry with a larger table or fall back to sending all keys.
+ * <p/>
+ * Keys can have a length of up to MAX_KEY_LENGTH bytes. Each key is added to one cell in each of the
+ * NUM_HASH_FUNCTIONS partitions of the table.
+ */
+public final class InvertibleBloomLookupTable {
+    public static final int MAX_KEY_LENGTH = 32;
+    // Protects against peers which would make us allocate huge tables. That size covers a difference of about
+    // 60000 keys, at that point sending the full key list is cheaper anyway.
+    public static final int MAX_CELLS = 99_999;
+
+    private static final int NUM_HASH_FUNCTIONS = 3;
+    // One byte for the key length followed by the key padded with zeros
+    private static final int KEY_FIELD_LENGTH = 1 + MAX_KEY_LENGTH;
+    private static final int CELL_LENGTH = Integer.BYTES + KEY_FIELD_LENGTH + Long.BYTES;
+    private static final HashFunction INDEX_HASH_FUNCTION = Hashing.murmur3_128(1);
+    private static final HashFunction CHECKSUM_HASH_FUNCTION = Hashing.murmur3_128(2);
+
+    private final int numCells;
+    private final int[] counts;
+    private final byte[] keySums;
+    private final long[] checksums;
+
+    @Value
+    public static class Difference {
+        // Keys which are in the table we subtracted from but not in the subtracted one
+        Set<P2PDataStorage.ByteArray> keysOnlyInThis;
+        Set<P2PDataStorage.ByteArray> keysOnlyInOther;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public InvertibleBloomLookupTable(int minNumCells) {
+        this(roundUpNumCells(minNumCells), null);
+    }
+
+    private InvertibleBloomLookupTable(int numCells, ByteBuffer cells) {
+        checkArgument(numCells > 0 && numCells <= MAX_CELLS && numCells % NUM_HASH_FUNCTIONS == 0,
+                "Invalid number of cells %s", numCells);
+        this.numCells = numCells;
+        counts = new int[numCells];
+        keySums = new byte[numCells * KEY_FIELD_LENGTH];
+        checksums = new long[numCells];
+        if (cells != null) {
+            for (int i = 0; i < numCells; i++) {
+                counts[i] = cells.getInt();
+                cells.get(keySums, i * KEY_FIELD_LENGTH, KEY_FIELD_LENGTH);
+                checksums[i] = cells.getLong();
+            }
+        }
+    }
+
+    public static InvertibleBloomLookupTable fromBytes(byte[] bytes) {
+        checkArgument(bytes.length >= Integer.BYTES, "Sketch too short");
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int numCells = buffer.getInt();
+        checkArgument(numCells > 0 && numCells <= MAX_CELLS, "Invalid number of cells %s", numCells);
+        checkArgument(bytes.length == getSerializedSize(numCells), "Sketch length does not match number of cells");
+        return new InvertibleBloomLookupTable(numCells, buffer);
+    }
+
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(getSerializedSize(numCells));
+        buffer.putInt(numCells);
+        for (int i = 0; i < numCells; i++) {
+            buffer.putInt(counts[i]);
+            buffer.put(keySums, i * KEY_FIELD_LENGTH, KEY_FIELD_LENGTH);
+            buffer.putLong(checksums[i]);
+        }
+        return buffer.array();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public static boolean isSupportedKey(byte[] key) {
+        return key.length > 0 && key.length <= MAX_KEY_LENGTH;
+    }
+
+    public static int getSerializedSize(int minNumCells) {
+        return Integer.BYTES + roundUpNumCells(minNumCells) * CELL_LENGTH;
+    }
+
+    public int getNumCells() {
+        return numCells;
+    }
+
+    public void insert(byte[] key) {
+        checkArgument(isSupportedKey(key), "Unsupported key length %s", key.length);
+        update(encodeKey(key), 1);
+    }
+
+    /**
+     * @return A new table which contains the keys of this table minus the keys of the other table.
+     */
+    public InvertibleBloomLookupTable subtract(InvertibleBloomLookupTable other) {
+        checkArgument(numCells == other.numCells, "Tables must have the same number of cells");
+        InvertibleBloomLookupTable result = new InvertibleBloomLookupTable(numCells, null);
+        for (int i = 0; i < numCells; i++) {
+            result.counts[i] = counts[i] - other.counts[i];
+            result.checksums[i] = checksums[i] ^ other.checksums[i];
+        }
+        for (int i = 0; i < keySums.length; i++) {
+            result.keySums[i] = (byte) (keySums[i] ^ other.keySums[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Lists the keys of a table created with subtract. Does not change this table.
+     *
+     * @return The difference or empty if the table could not be fully decoded.
+     */
+    public Optional<Difference> decode() {
+        InvertibleBloomLookupTable table = new InvertibleBloomLookupTable(numCells, null);
+        System.arraycopy(counts, 0, table.counts, 0, numCells);
+        System.arraycopy(keySums, 0, table.keySums, 0, keySums.length);
+        System.arraycopy(checksums, 0, table.checksums, 0, numCells);
+
+        Set<P2PDataStorage.ByteArray> keysOnlyInThis = new HashSet<>();
+        Set<P2PDataStorage.ByteArray> keysOnlyInOther = new HashSet<>();
+        Deque<Integer> pureCells = new ArrayDeque<>();
+        for (int i = 0; i < numCells; i++) {
+            if (table.isPure(i))
+                pureCells.add(i);
+        }
+
+        while (!pureCells.isEmpty()) {
+            int index = pureCells.poll();
+            // The cell might not be pure anymore after removing other keys
+            if (!table.isPure(index))
+                continue;
+
+            int count = table.counts[index];
+            byte[] encodedKey = Arrays.copyOfRange(table.keySums, index * KEY_FIELD_LENGTH,
+                    (index + 1) * KEY_FIELD_LENGTH);
+            P2PDataStorage.ByteArray key = new P2PDataStorage.ByteArray(decodeKey(encodedKey));
+            // A key which gets decoded twice can only come from a checksum collision
+            if (!(count > 0 ? keysOnlyInThis : keysOnlyInOther).add(key))
+                return Optional.empty();
+
+            for (int cell : table.update(encodedKey, -count)) {
+                if (table.isPure(cell))
+                    pureCells.add(cell);
+            }
+        }
+
+        return table.isEmpty() ?
+                Optional.of(new Difference(keysOnlyInThis, keysOnlyInOther)) :
+                Optional.empty();
+    }
+
+    /**
+     * Estimates the size of the difference of a table created with subtract, e.g. to pick the size of the next table
+     * if decoding failed. Keys in the same cell can cancel each other out so it might be too low.
+     */
+    public int estimateDifferenceSize() {
+        long sum = 0;
+        for (int count : counts) {
+            sum += Math.abs(count);
+        }
+        return (int) Math.min(Integer.MAX_VALUE, (sum + NUM_HASH_FUNCTIONS - 1) / NUM_HASH_FUNCTIONS);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static int roundUpNumCells(int minNumCells) {
+        checkArgument(minNumCells > 0, "Number of cells must be positive");
+        int numCells = Math.min(minNumCells, MAX_CELLS);
+        return (numCells + NUM_HASH_FUNCTIONS - 1) / NUM_HASH_FUNCTIONS * NUM_HASH_FUNCTIONS;
+    }
+
+    private static byte[] encodeKey(byte[] key) {
+        byte[] encodedKey = new byte[KEY_FIELD_LENGTH];
+        encodedKey[0] = (byte) key.length;
+        System.arraycopy(key, 0, encodedKey, 1, key.length);
+        return encodedKey;
+    }
+
+    private static byte[] decodeKey(byte[] encodedKey) {
+        return Arrays.copyOfRange(encodedKey, 1, 1 + encodedKey[0]);
+    }
+
+    // Returns the cells the key got added to
+    private int[] update(byte[] encodedKey, int count) {
+        byte[] hash = INDEX_HASH_FUNCTION.hashBytes(encodedKey).asBytes();
+        long checksum = CHECKSUM_HASH_FUNCTION.hashBytes(encodedKey).asLong();
+        int partitionSize = numCells / NUM_HASH_FUNCTIONS;
+        int[] cells = new int[NUM_HASH_FUNCTIONS];
+        for (int i = 0; i < NUM_HASH_FUNCTIONS; i++) {
+            int hashValue = Ints.fromBytes(hash[i * 4], hash[i * 4 + 1], hash[i * 4 + 2], hash[i * 4 + 3]);
+            int cell = i * partitionSize + Math.floorMod(hashValue, partitionSize);
+            cells[i] = cell;
+            counts[cell] += count;
+            checksums[cell] ^= checksum;
+            int offset = cell * KEY_FIELD_LENGTH;
+            for (int j = 0; j < KEY_FIELD_LENGTH; j++) {
+                keySums[offset + j] ^= encodedKey[j];
+            }
+        }
+        return cells;
+    }
+
+    private boolean isPure(int cell) {
+        if (counts[cell] != 1 && counts[cell] != -1)
+            return false;
+
+        int offset = cell * KEY_FIELD_LENGTH;
+        int keyLength = keySums[offset];
+        if (keyLength <= 0 || keyLength > MAX_KEY_LENGTH)
+            return false;
+
+        byte[] encodedKey = Arrays.copyOfRange(keySums, offset, offset + KEY_FIELD_LENGTH);
+        return CHECKSUM_HASH_FUNCTION.hashBytes(encodedKey).asLong() == checksums[cell];
+    }
+
+    private boolean isEmpty() {
+        for (int i = 0; i < numCells; i++) {
+            if (counts[i] != 0 || checksums[i] != 0)
+                return false;
+        }
+        for (byte b : keySums) {
+            if (b != 0)
+                return false;
+        }
+        return true;
+    }
+}
@@ -27,6 +27,8 @@ import bisq.network.p2p.peers.BroadcastHandler;
 import bisq.network.p2p.peers.Broadcaster;
 import bisq.network.p2p.peers.getdata.messages.GetDataRequest;
 import bisq.network.p2p.peers.getdata.messages.GetDataResponse;
+import bisq.network.p2p.peers.getdata.messages.GetStoreDigestRequest;
+import bisq.network.p2p.peers.getdata.messages.GetStoreDigestResponse;
 import bisq.network.p2p.peers.getdata.messages.GetUpdatedDataRequest;
 import bisq.network.p2p.peers.getdata.messages.PreliminaryGetDataRequest;
 import bisq.network.p2p.storage.messages.AddDataMessage;
@@ -55,9 +57,14 @@ import bisq.network.p2p.storage.persistence.SequenceNumberMap;
 import bisq.common.Timer;
 import bisq.common.UserThread;
 import bisq.common.app.Capabilities;
+import bisq.common.app.Capability;
 import bisq.common.crypto.CryptoException;
 import bisq.common.crypto.Hash;
 import bisq.common.crypto.Sig;
+import bisq.common.metrics.Counter;
+import bisq.common.metrics.Histogram;
+import bisq.common.metrics.MetricFamily;
+import bisq.common.metrics.MetricsRegistry;
 import bisq.common.proto.network.NetworkEnvelope;
 import bisq.common.proto.network.NetworkPayload;
 import bisq.common.proto.persistable.PersistablePayload;
@@ -91,7 +98,9 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.TimeUnit;
@@ -118,6 +127,22 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     @VisibleForTesting
     public static final int CHECK_TTL_INTERVAL_SEC = 60;
 
+    // A 20 byte hash plus the protobuf tag and length
+    private static final int SERIALIZED_EXCLUDED_KEY_SIZE = 22;
+    // Tag and length prefix of an entry in a GetDataResponse
+    private static final int SERIALIZED_PAGE_ENTRY_OVERHEAD = 8;
+
+    private static final MetricFamily<Counter> acceptedBroadcastMessages = MetricsRegistry.getDefault().counterFamily(
+            "bisq_p2p_storage_accepted_broadcasts_total", "Received broadcast messages which changed the storage",
+            "message");
+    private static final MetricFamily<Counter> rejectedBroadcastMessages = MetricsRegistry.getDefault().counterFamily(
+            "bisq_p2p_storage_rejected_broadcasts_total",
+            "Received broadcast messages which were invalid, outdated or already known", "message");
+    private static final Histogram getDataResponseBuildDurations = MetricsRegistry.getDefault().histogram(
+            "bisq_p2p_storage_get_data_response_build_microseconds", "Duration of building a GetDataResponse");
+    private static final Histogram storeDigestBuildDurations = MetricsRegistry.getDefault().histogram(
+            "bisq_p2p_storage_store_digest_build_microseconds", "Duration of building a GetStoreDigestResponse");
+
     private boolean initialRequestApplied = false;
 
     private final Broadcaster broadcaster;
@@ -138,6 +163,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
     private final Set<AppendOnlyDataStoreListener> appendOnlyDataStoreListeners = new CopyOnWriteArraySet<>();
     private final Clock clock;
+    private final GetDataPageSessions getDataPageSessions;
 
     /// The maximum number of items that must exist in the SequenceNumberMap before it is scheduled for a purge
     /// which removes entries after PURGE_AGE_DAYS.
@@ -161,6 +187,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         this.protectedDataStoreService = protectedDataStoreService;
         this.resourceDataStoreService = resourceDataStoreService;
         this.clock = clock;
+        this.getDataPageSessions = new GetDataPageSessions(clock);
         this.maxSequenceNumberMapSizeBeforePurge = maxSequenceNumberBeforePurge;
 
 
@@ -197,14 +224,37 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
      * Returns a PreliminaryGetDataRequest that can be sent to a peer node to request missing Payload data.
      */
     public PreliminaryGetDataRequest buildPreliminaryGetDataRequest(int nonce) {
-        return new PreliminaryGetDataRequest(nonce, this.getKnownPayloadHashes());
+        return buildPreliminaryGetDataRequest(nonce, 0);
+    }
+
+    /**
+     * Returns a PreliminaryGetDataRequest that can be sent to a peer node to request missing Payload data.
+     *
+     * @param sketchCells Minimum number of cells of the sketch for the PersistableNetworkPayload keys or 0 to send
+     *                    the full key list. The full key list is also used if it would be smaller than the sketch.
+     */
+    public PreliminaryGetDataRequest buildPreliminaryGetDataRequest(int nonce, int sketchCells) {
+        Tuple2<Set<byte[]>, byte[]> excludedKeysAndSketch = getKnownPayloadHashesAndSketch(sketchCells);
+        return new PreliminaryGetDataRequest(nonce, excludedKeysAndSketch.first, excludedKeysAndSketch.second);
     }
 
     /**
      * Returns a GetUpdatedDataRequest that can be sent to a peer node to request missing Payload data.
      */
     public GetUpdatedDataRequest buildGetUpdatedDataRequest(NodeAddress senderNodeAddress, int nonce) {
-        return new GetUpdatedDataRequest(senderNodeAddress, nonce, this.getKnownPayloadHashes());
+        return buildGetUpdatedDataRequest(senderNodeAddress, nonce, 0);
+    }
+
+    /**
+     * Returns a GetUpdatedDataRequest that can be sent to a peer node to request missing Payload data.
+     *
+     * @param sketchCells Minimum number of cells of the sketch for the PersistableNetworkPayload keys or 0 to send
+     *                    the full key list. The full key list is also used if it would be smaller than the sketch.
+     */
+    public GetUpdatedDataRequest buildGetUpdatedDataRequest(NodeAddress senderNodeAddress, int nonce, int sketchCells) {
+        Tuple2<Set<byte[]>, byte[]> excludedKeysAndSketch = getKnownPayloadHashesAndSketch(sketchCells);
+        return new GetUpdatedDataRequest(senderNodeAddress, nonce, excludedKeysAndSketch.first,
+                excludedKeysAndSketch.second);
     }
 
     /**
@@ -229,6 +279,30 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         return excludedKeys;
     }
 
+    /**
+     * Returns the excluded keys and the serialized sketch of the PersistableNetworkPayload keys or null if the full
+     * key list is used. The ProtectedStorageEntry keys are always sent in full as that map is small and changes
+     * too much between requests for a sketch to pay off.
+     */
+    private Tuple2<Set<byte[]>, byte[]> getKnownPayloadHashesAndSketch(int sketchCells) {
+        Map<ByteArray, PersistableNetworkPayload> appendOnlyDataStoreMap = this.appendOnlyDataStoreService.getMap();
+        if (sketchCells <= 0 || InvertibleBloomLookupTable.getSerializedSize(sketchCells) >=
+                (long) appendOnlyDataStoreMap.size() * SERIALIZED_EXCLUDED_KEY_SIZE)
+            return new Tuple2<>(getKnownPayloadHashes(), null);
+
+        Set<byte[]> excludedKeys = new HashSet<>();
+        InvertibleBloomLookupTable sketch = new InvertibleBloomLookupTable(sketchCells);
+        appendOnlyDataStoreMap.keySet().forEach(key -> {
+            // Keys which are too long for the sketch are sent in full
+            if (InvertibleBloomLookupTable.isSupportedKey(key.bytes))
+                sketch.insert(key.bytes);
+            else
+                excludedKeys.add(key.bytes);
+        });
+        this.map.keySet().forEach(key -> excludedKeys.add(key.bytes));
+        return new Tuple2<>(excludedKeys, sketch.toBytes());
+    }
+
     /**
      * Generic function that can be used to filter a Map<ByteArray, ProtectedStorageEntry || PersistableNetworkPayload>
      * by a given set of keys and peer capabilities.
@@ -266,13 +340,80 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
             AtomicBoolean outPersistableNetworkPayloadOutputTruncated,
             AtomicBoolean outProtectedStorageEntryOutputTruncated,
             Capabilities peerCapabilities) {
+        return buildGetDataResponse(getDataRequest,
+                maxEntriesPerType,
+                0,
+                outPersistableNetworkPayloadOutputTruncated,
+                outProtectedStorageEntryOutputTruncated,
+                peerCapabilities);
+    }
+
+    /**
+     * Returns a GetDataResponse object that contains the Payloads known locally, but not remotely.
+     *
+     * @param maxPageBytes If larger than 0 and the peer supports pagination the response is a page of about that
+     *                     many bytes of payloads and at most maxEntriesPerType entries per type. Instead of truncating
+     *                     the response it contains a cursor for requesting the next page.
+     */
+    public GetDataResponse buildGetDataResponse(
+            GetDataRequest getDataRequest,
+            int maxEntriesPerType,
+            int maxPageBytes,
+            AtomicBoolean outPersistableNetworkPayloadOutputTruncated,
+            AtomicBoolean outProtectedStorageEntryOutputTruncated,
+            Capabilities peerCapabilities) {
+        long startTs = System.nanoTime();
+        boolean isPaginated = maxPageBytes > 0 && peerCapabilities.containsAll(Capability.GET_DATA_PAGINATION);
+        if (isPaginated && getDataRequest.getContinuationCursor() != null) {
+            GetDataResponse getDataResponse = buildNextGetDataResponsePage(getDataRequest,
+                    maxEntriesPerType,
+                    maxPageBytes);
+            getDataResponseBuildDurations.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startTs));
+            return getDataResponse;
+        }
 
         Set<P2PDataStorage.ByteArray> excludedKeysAsByteArray =
                 P2PDataStorage.ByteArray.convertBytesSetToByteArraySet(getDataRequest.getExcludedKeys());
 
+        Map<ByteArray, PersistableNetworkPayload> persistableNetworkPayloadCandidates =
+                this.appendOnlyDataStoreService.getMap();
+        if (getDataRequest.getPersistableNetworkPayloadSketch() != null) {
+            InvertibleBloomLookupTable sketchDifference = getSketchDifference(getDataRequest);
+            Optional<InvertibleBloomLookupTable.Difference> decoded = sketchDifference != null ?
+                    sketchDifference.decode() :
+                    Optional.empty();
+            if (!decoded.isPresent()) {
+                // The requester repeats the request with a larger sketch or the full key list. For an invalid sketch
+                // we let it fall back to the full key list.
+                int estimatedDifference = sketchDifference != null ?
+                        sketchDifference.estimateDifferenceSize() :
+                        Integer.MAX_VALUE;
+                log.info("Could not decode the sketch of the {}. Estimated difference: {}",
+                        getDataRequest.getClass().getSimpleName(), estimatedDifference);
+                return GetDataResponse.sketchDecodeFailed(getDataRequest.getNonce(),
+                        getDataRequest instanceof GetUpdatedDataRequest,
+                        estimatedDifference);
+            }
+            log.info("Decoded the sketch of the {}: the peer misses {} PersistableNetworkPayloads and has {} we " +
+                            "don't have", getDataRequest.getClass().getSimpleName(),
+                    decoded.get().getKeysOnlyInThis().size(), decoded.get().getKeysOnlyInOther().size());
+            persistableNetworkPayloadCandidates = getPersistableNetworkPayloadsMissingAtPeer(decoded.get());
+        }
+
+        if (isPaginated) {
+            GetDataResponse getDataResponse = buildFirstGetDataResponsePage(getDataRequest,
+                    persistableNetworkPayloadCandidates,
+                    excludedKeysAsByteArray,
+                    peerCapabilities,
+                    maxEntriesPerType,
+                    maxPageBytes);
+            getDataResponseBuildDurations.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startTs));
+            return getDataResponse;
+        }
+
         Set<PersistableNetworkPayload> filteredPersistableNetworkPayloads =
                 filterKnownHashes(
-                        this.appendOnlyDataStoreService.getMap(),
+                        persistableNetworkPayloadCandidates,
                         Function.identity(),
                         excludedKeysAsByteArray,
                         peerCapabilities,
@@ -288,11 +429,199 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                         maxEntriesPerType,
                         outProtectedStorageEntryOutputTruncated);
 
-        return new GetDataResponse(
+        GetDataResponse getDataResponse = new GetDataResponse(
                 filteredProtectedStorageEntries,
                 filteredPersistableNetworkPayloads,
                 getDataRequest.getNonce(),
                 getDataRequest instanceof GetUpdatedDataRequest);
+        getDataResponseBuildDurations.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startTs));
+        return getDataResponse;
+    }
+
+    /**
+     * Returns the digests of the stores for the given request. The stores are the PersistableNetworkPayloads and
+     * the ProtectedStorageEntries grouped by payload class.
+     */
+    public GetStoreDigestResponse buildGetStoreDigestResponse(GetStoreDigestRequest getStoreDigestRequest) {
+        long startTs = System.nanoTime();
+        String storeName = getStoreDigestRequest.getStoreName();
+        byte[] prefix = getStoreDigestRequest.getPrefix();
+        Map<String, StoreDigest.Accumulator> accumulators = new TreeMap<>();
+        Function<String, StoreDigest.Accumulator> accumulatorFunction = name ->
+                accumulators.computeIfAbsent(name, k -> new StoreDigest.Accumulator(k, prefix));
+
+        appendOnlyDataStoreService.getMap().forEach((key, payload) -> {
+            String name = payload.getClass().getSimpleName();
+            if (storeName == null || storeName.equals(name)) {
+                StoreDigest.Accumulator accumulator = accumulatorFunction.apply(name);
+                if (accumulator.covers(key.bytes))
+                    accumulator.add(key.bytes, StoreDigest.getAppendOnlyLeaf(key.bytes));
+            }
+        });
+        map.forEach((key, protectedStorageEntry) -> {
+            String name = protectedStorageEntry.getProtectedStoragePayload().getClass().getSimpleName();
+            if (storeName == null || storeName.equals(name)) {
+                StoreDigest.Accumulator accumulator = accumulatorFunction.apply(name);
+                if (accumulator.covers(key.bytes))
+                    accumulator.add(key.bytes, StoreDigest.getProtectedLeaf(key.bytes,
+                            protectedStorageEntry.getSequenceNumber()));
+            }
+        });
+
+        GetStoreDigestResponse response = new GetStoreDigestResponse(getStoreDigestRequest.getNonce(),
+                accumulators.values().stream()
+                        .map(StoreDigest.Accumulator::build)
+                        .collect(Collectors.toList()));
+        storeDigestBuildDurations.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startTs));
+        return response;
+    }
+
+    private GetDataResponse buildFirstGetDataResponsePage(
+            GetDataRequest getDataRequest,
+            Map<ByteArray, PersistableNetworkPayload> persistableNetworkPayloadCandidates,
+            Set<ByteArray> excludedKeys,
+            Capabilities peerCapabilities,
+            int maxEntriesPerType,
+            int maxPageBytes) {
+        // We filter the keys once for all pages. The pages contain the ProtectedStorageEntries first.
+        List<ByteArray> keys = new ArrayList<>();
+        this.map.forEach((key, protectedStorageEntry) -> {
+            if (!excludedKeys.contains(key) &&
+                    shouldTransmitPayloadToPeer(peerCapabilities, protectedStorageEntry.getProtectedStoragePayload()))
+                keys.add(key);
+        });
+        int numProtectedStorageEntryKeys = keys.size();
+        persistableNetworkPayloadCandidates.forEach((key, persistableNetworkPayload) -> {
+            if (!excludedKeys.contains(key) && shouldTransmitPayloadToPeer(peerCapabilities, persistableNetworkPayload))
+                keys.add(key);
+        });
+
+        GetDataPageSessions.Session session = new GetDataPageSessions.Session(keys, numProtectedStorageEntryKeys);
+        return buildGetDataResponsePage(getDataRequest, session, null, 0, maxEntriesPerType, maxPageBytes);
+    }
+
+    private GetDataResponse buildNextGetDataResponsePage(GetDataRequest getDataRequest,
+                                                         int maxEntriesPerType,
+                                                         int maxPageBytes) {
+        GetDataPageCursor cursor;
+        try {
+            cursor = GetDataPageCursor.fromBytes(getDataRequest.getContinuationCursor());
+        } catch (IllegalArgumentException e) {
+            log.warn("Received an invalid cursor in a {}: {}", getDataRequest.getClass().getSimpleName(),
+                    e.getMessage());
+            return GetDataResponse.continuationExpired(getDataRequest.getNonce(),
+                    getDataRequest instanceof GetUpdatedDataRequest);
+        }
+
+        GetDataPageSessions.Session session = getDataPageSessions.get(cursor.getSessionId());
+        if (session == null || cursor.getPosition() > session.getKeys().size()) {
+            log.info("The session for the next page of a {} has expired. The peer has to start with the first page.",
+                    getDataRequest.getClass().getSimpleName());
+            return GetDataResponse.continuationExpired(getDataRequest.getNonce(),
+                    getDataRequest instanceof GetUpdatedDataRequest);
+        }
+
+        return buildGetDataResponsePage(getDataRequest,
+                session,
+                cursor.getSessionId(),
+                cursor.getPosition(),
+                maxEntriesPerType,
+                maxPageBytes);
+    }
+
+    /**
+     * Adds the entries of the session from the given position on to the page until maxEntriesPerType or the page
+     * size are reached. The first entry is added even if it exceeds the page size, so that every page makes progress.
+     * The session is kept as long as there are entries left.
+     */
+    private GetDataResponse buildGetDataResponsePage(GetDataRequest getDataRequest,
+                                                     GetDataPageSessions.Session session,
+                                                     @Nullable Long sessionId,
+                                                     int position,
+                                                     int maxEntriesPerType,
+                                                     int maxPageBytes) {
+        Map<ByteArray, PersistableNetworkPayload> appendOnlyDataStoreMap = this.appendOnlyDataStoreService.getMap();
+        List<ByteArray> keys = session.getKeys();
+        Set<ProtectedStorageEntry> protectedStorageEntries = new HashSet<>();
+        Set<PersistableNetworkPayload> persistableNetworkPayloads = new HashSet<>();
+        int remainingPageBytes = maxPageBytes;
+        for (; position < keys.size(); position++) {
+            ByteArray key = keys.get(position);
+            boolean isProtectedStorageEntry = position < session.getNumProtectedStorageEntryKeys();
+            // Entries which have been removed since the first page are skipped
+            NetworkPayload payload = isProtectedStorageEntry ? this.map.get(key) : appendOnlyDataStoreMap.get(key);
+            if (payload == null)
+                continue;
+
+            int numEntriesOfType = isProtectedStorageEntry ? protectedStorageEntries.size() :
+                    persistableNetworkPayloads.size();
+            if (numEntriesOfType >= maxEntriesPerType)
+                break;
+
+            int size = payload.toProtoMessage().getSerializedSize() + SERIALIZED_PAGE_ENTRY_OVERHEAD;
+            boolean isFirstOnPage = protectedStorageEntries.isEmpty() && persistableNetworkPayloads.isEmpty();
+            if (size > remainingPageBytes && !isFirstOnPage)
+                break;
+
+            if (isProtectedStorageEntry)
+                protectedStorageEntries.add((ProtectedStorageEntry) payload);
+            else
+                persistableNetworkPayloads.add((PersistableNetworkPayload) payload);
+            remainingPageBytes -= size;
+        }
+
+        byte[] nextCursor = null;
+        if (position < keys.size()) {
+            long nextSessionId = sessionId != null ? sessionId : getDataPageSessions.add(session);
+            nextCursor = new GetDataPageCursor(nextSessionId, position).toBytes();
+        } else if (sessionId != null) {
+            getDataPageSessions.remove(sessionId);
+        }
+
+        return new GetDataResponse(protectedStorageEntries,
+                persistableNetworkPayloads,
+                getDataRequest.getNonce(),
+                getDataRequest instanceof GetUpdatedDataRequest,
+                nextCursor);
+    }
+
+    /**
+     * Returns the payloads which are not in the requester's sketch, plus all payloads with keys which can't be in a
+     * sketch as those get filtered by the excluded keys.
+     */
+    private Map<ByteArray, PersistableNetworkPayload> getPersistableNetworkPayloadsMissingAtPeer(
+            InvertibleBloomLookupTable.Difference sketchDifference) {
+        Map<ByteArray, PersistableNetworkPayload> appendOnlyDataStoreMap = this.appendOnlyDataStoreService.getMap();
+        Map<ByteArray, PersistableNetworkPayload> result = new HashMap<>();
+        sketchDifference.getKeysOnlyInThis().forEach(key -> {
+            PersistableNetworkPayload payload = appendOnlyDataStoreMap.get(key);
+            if (payload != null)
+                result.put(key, payload);
+        });
+        appendOnlyDataStoreMap.forEach((key, payload) -> {
+            if (!InvertibleBloomLookupTable.isSupportedKey(key.bytes))
+                result.put(key, payload);
+        });
+        return result;
+    }
+
+    // Returns our sketch minus the requester's sketch or null if the requester's sketch is invalid
+    @Nullable
+    private InvertibleBloomLookupTable getSketchDifference(GetDataRequest getDataRequest) {
+        InvertibleBloomLookupTable peersSketch;
+        try {
+            peersSketch = InvertibleBloomLookupTable.fromBytes(getDataRequest.getPersistableNetworkPayloadSketch());
+        } catch (IllegalArgumentException e) {
+            log.warn("Received an invalid sketch in a {}: {}", getDataRequest.getClass().getSimpleName(),
+                    e.getMessage());
+            return null;
+        }
+
+        InvertibleBloomLookupTable sketch = new InvertibleBloomLookupTable(peersSketch.getNumCells());
+        this.appendOnlyDataStoreService.getMap().keySet().stream()
+                .filter(key -> InvertibleBloomLookupTable.isSupportedKey(key.bytes))
+                .forEach(key -> sketch.insert(key.bytes));
+        return sketch.subtract(peersSketch);
     }
 
     /**
@@ -359,8 +688,9 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
         // We only process PersistableNetworkPayloads implementing ProcessOncePersistableNetworkPayload once. It can cause performance
         // issues and since the data is rarely out of sync it is not worth it to apply them from multiple peers during
-        // startup.
-        initialRequestApplied = true;
+        // startup. If the response is paginated we apply all pages.
+        if (!getDataResponse.isMoreAvailable())
+            initialRequestApplied = true;
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -413,18 +743,24 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     public void onMessage(NetworkEnvelope networkEnvelope, Connection connection) {
         if (networkEnvelope instanceof BroadcastMessage) {
             connection.getPeersNodeAddressOptional().ifPresent(peersNodeAddress -> {
+                boolean accepted;
                 if (networkEnvelope instanceof AddDataMessage) {
-                    addProtectedStorageEntry(((AddDataMessage) networkEnvelope).getProtectedStorageEntry(), peersNodeAddress, null, true);
+                    accepted = addProtectedStorageEntry(((AddDataMessage) networkEnvelope).getProtectedStorageEntry(), peersNodeAddress, null, true);
                 } else if (networkEnvelope instanceof RemoveDataMessage) {
-                    remove(((RemoveDataMessage) networkEnvelope).getProtectedStorageEntry(), peersNodeAddress);
+                    accepted = remove(((RemoveDataMessage) networkEnvelope).getProtectedStorageEntry(), peersNodeAddress);
                 } else if (networkEnvelope instanceof RemoveMailboxDataMessage) {
-                    remove(((RemoveMailboxDataMessage) networkEnvelope).getProtectedMailboxStorageEntry(), peersNodeAddress);
+                    accepted = remove(((RemoveMailboxDataMessage) networkEnvelope).getProtectedMailboxStorageEntry(), peersNodeAddress);
                 } else if (networkEnvelope instanceof RefreshOfferMessage) {
-                    refreshTTL((RefreshOfferMessage) networkEnvelope, peersNodeAddress);
+                    accepted = refreshTTL((RefreshOfferMessage) networkEnvelope, peersNodeAddress);
                 } else if (networkEnvelope instanceof AddPersistableNetworkPayloadMessage) {
-                    addPersistableNetworkPayload(((AddPersistableNetworkPayloadMessage) networkEnvelope).getPersistableNetworkPayload(),
+                    accepted = addPersistableNetworkPayload(((AddPersistableNetworkPayloadMessage) networkEnvelope).getPersistableNetworkPayload(),
                             peersNodeAddress, true, false, true);
+                } else {
+                    return;
                 }
+                (accepted ? acceptedBroadcastMessages : rejectedBroadcastMessages)
+                        .labels(networkEnvelope.getClass().getSimpleName())
+                        .inc();
             });
         }
     }
@@ -0,0 +1,196 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage;
+
+import bisq.common.crypto.Hash;
+import bisq.common.proto.network.NetworkPayload;
+
+import com.google.protobuf.ByteString;
+
+import com.google.common.primitives.Ints;
+import com.google.common.primitives.UnsignedBytes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import lombok.Value;
+
+/**
+ * Digest over the keys of one data store (all payloads of one class) which start with a given prefix.
+ *
+ * The digest is the XOR of the leaf hashes of the keys, so the digests of the buckets below a prefix combine to the
+ * digest of the prefix and two nodes can narrow down the key ranges in which their stores differ by requesting
+ * the digests of the divergent buckets. Once a range holds only a few keys the keys themselves are delivered, which
+ * is what a repair of the store needs.
+ * XOR digests are meant for auditing nodes we trust to report honestly, a node could craft keys to hide a difference.
+ */
+@Value
+public final class StoreDigest implements NetworkPayload {
+    public static final int DIGEST_LENGTH = 32;
+    // Up to that many keys are delivered instead of the bucket digests
+    public static final int MAX_KEYS = 256;
+
+    private final String storeName;
+    private final byte[] prefix;
+    private final int numEntries;
+    private final byte[] digest;
+    // Non empty buckets of the keys grouped by the byte following the prefix, empty if keys are set
+    private final List<Bucket> buckets;
+    // Sorted keys, only set if there are at most MAX_KEYS
+    private final List<byte[]> keys;
+
+    @Value
+    public static final class Bucket implements NetworkPayload {
+        private final int index;
+        private final int numEntries;
+        private final byte[] digest;
+
+        @Override
+        public protobuf.StoreDigestBucket toProtoMessage() {
+            return protobuf.StoreDigestBucket.newBuilder()
+                    .setIndex(index)
+                    .setNumEntries(numEntries)
+                    .setDigest(ByteString.copyFrom(digest))
+                    .build();
+        }
+
+        public static Bucket fromProto(protobuf.StoreDigestBucket proto) {
+            return new Bucket(proto.getIndex(), proto.getNumEntries(), proto.getDigest().toByteArray());
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PROTO BUFFER
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public protobuf.StoreDigest toProtoMessage() {
+        return protobuf.StoreDigest.newBuilder()
+                .setStoreName(storeName)
+                .setPrefix(ByteString.copyFrom(prefix))
+                .setNumEntries(numEntries)
+                .setDigest(ByteString.copyFrom(digest))
+                .addAllBuckets(buckets.stream().map(Bucket::toProtoMessage).collect(Collectors.toList()))
+                .addAllKeys(keys.stream().map(ByteString::copyFrom).collect(Collectors.toList()))
+                .build();
+    }
+
+    public static StoreDigest fromProto(protobuf.StoreDigest proto) {
+        return new StoreDigest(proto.getStoreName(),
+                proto.getPrefix().toByteArray(),
+                proto.getNumEntries(),
+                proto.getDigest().toByteArray(),
+                proto.getBucketsList().stream().map(Bucket::fromProto).collect(Collectors.toList()),
+                proto.getKeysList().stream().map(ByteString::toByteArray).collect(Collectors.toList()));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Leaves
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Keys of PersistableNetworkPayloads are hashes of the immutable payload already, so we use them as they are
+    public static byte[] getAppendOnlyLeaf(byte[] key) {
+        return Arrays.copyOf(key, DIGEST_LENGTH);
+    }
+
+    // ProtectedStorageEntries can be updated with a higher sequence number under the same key
+    public static byte[] getProtectedLeaf(byte[] key, int sequenceNumber) {
+        byte[] data = Arrays.copyOf(key, key.length + Integer.BYTES);
+        System.arraycopy(Ints.toByteArray(sequenceNumber), 0, data, key.length, Integer.BYTES);
+        return Hash.getSha256Hash(data);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Accumulator
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Collects the leaves of one store for building the digest of a prefix.
+     */
+    public static final class Accumulator {
+        private final String storeName;
+        private final byte[] prefix;
+        private final byte[] digest = new byte[DIGEST_LENGTH];
+        private final int[] bucketSizes = new int[256];
+        private final byte[][] bucketDigests = new byte[256][];
+        private final List<byte[]> keys = new ArrayList<>();
+        private int numEntries;
+
+        public Accumulator(String storeName, byte[] prefix) {
+            this.storeName = storeName;
+            this.prefix = prefix;
+        }
+
+        public boolean covers(byte[] key) {
+            if (key.length < prefix.length)
+                return false;
+
+            for (int i = 0; i < prefix.length; i++) {
+                if (key[i] != prefix[i])
+                    return false;
+            }
+            return true;
+        }
+
+        /**
+         * @param key   A key covered by the prefix
+         * @param leaf  The leaf hash of the key
+         */
+        public void add(byte[] key, byte[] leaf) {
+            numEntries++;
+            xor(digest, leaf);
+            if (key.length > prefix.length) {
+                int index = key[prefix.length] & 0xff;
+                if (bucketDigests[index] == null)
+                    bucketDigests[index] = new byte[DIGEST_LENGTH];
+                xor(bucketDigests[index], leaf);
+                bucketSizes[index]++;
+            }
+            // Once we exceed MAX_KEYS we don't need the keys anymore
+            if (numEntries <= MAX_KEYS)
+                keys.add(key);
+            else
+                keys.clear();
+        }
+
+        public StoreDigest build() {
+            List<Bucket> buckets = new ArrayList<>();
+            List<byte[]> sortedKeys = new ArrayList<>();
+            if (numEntries > MAX_KEYS) {
+                for (int i = 0; i < bucketDigests.length; i++) {
+                    if (bucketDigests[i] != null)
+                        buckets.add(new Bucket(i, bucketSizes[i], bucketDigests[i]));
+                }
+            } else {
+                sortedKeys.addAll(keys);
+                sortedKeys.sort(UnsignedBytes.lexicographicalComparator());
+            }
+            return new StoreDigest(storeName, prefix, numEntries, digest, buckets, sortedKeys);
+        }
+
+        private static void xor(byte[] target, byte[] leaf) {
+            for (int i = 0; i < DIGEST_LENGTH; i++)
+                target[i] ^= leaf[i];
+        }
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.peers;
+
+import bisq.network.p2p.NodeAddress;
+import bisq.network.p2p.peers.peerexchange.Peer;
+import bisq.network.p2p.peers.peerexchange.PeerList;
+import bisq.network.p2p.peers.peerexchange.PeerScore;
+
+import bisq.common.app.Capabilities;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PeerAddressBookTest {
+    private Random random;
+    private long now;
+    private PeerAddressBook addressBook;
+
+    @Before
+    public void setUp() {
+        random = new Random(42);
+        now = System.currentTimeMillis();
+        addressBook = new PeerAddressBook(random, () -> now);
+    }
+
+    private static NodeAddress address(String name) {
+        return new NodeAddress(name + ".onion:9999");
+    }
+
+    private static Peer peer(String name) {
+        return new Peer(address(name), new Capabilities());
+    }
+
+    @Test
+    public void testSingleSourceCannotFloodNewTable() {
+        NodeAddress attacker = address("attacker");
+        for (int i = 0; i < 5000; i++) {
+            addressBook.add(peer("fake" + i), attacker);
+        }
+        int maxPerSource = PeerAddressBook.NEW_BUCKETS_PER_SOURCE_GROUP * PeerAddressBook.BUCKET_SIZE;
+        assertTrue("numNew=" + addressBook.getNumNew(), addressBook.getNumNew() <= maxPerSource);
+
+        // Honest sources still find room for the peers they report
+        int numHonest = 0;
+        for (int source = 0; source < 20; source++) {
+            for (int i = 0; i < 10; i++) {
+                if (addressBook.add(peer("honest" + source + "_" + i), address("source" + source)))
+                    numHonest++;
+            }
+        }
+        assertTrue("numHonest=" + numHonest + " numNew=" + addressBook.getNumNew(), numHonest > 120);
+        assertTrue(addressBook.size() <= PeerAddressBook.NEW_BUCKET_COUNT * PeerAddressBook.BUCKET_SIZE);
+    }
+
+    @Test
+    public void testTriedPeersSurviveFlooding() {
+        List<NodeAddress> good = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Peer peer = peer("good" + i);
+            addressBook.add(peer, address("source" + i));
+            assertTrue(addressBook.markGood(peer.getNodeAddress(), 500));
+            good.add(peer.getNodeAddress());
+        }
+        assertEquals(20, addressBook.getNumTried());
+
+        for (int source = 0; source < 50; source++) {
+            for (int i = 0; i < 200; i++) {
+                addressBook.add(peer("fake" + source + "_" + i), address("attacker" + source));
+            }
+        }
+        good.forEach(nodeAddress -> assertTrue(addressBook.isTried(nodeAddress)));
+        assertTrue(addressBook.size() <= (PeerAddressBook.NEW_BUCKET_COUNT + PeerAddressBook.TRIED_BUCKET_COUNT) *
+                PeerAddressBook.BUCKET_SIZE);
+    }
+
+    @Test
+    public void testFailures() {
+        Peer peer = peer("peer");
+        addressBook.add(peer, null);
+        addressBook.markFailed(peer.getNodeAddress());
+        addressBook.markFailed(peer.getNodeAddress());
+        assertTrue(addressBook.findPeer(peer.getNodeAddress()).isPresent());
+        // A peer we never reached gets removed after too many failures
+        addressBook.markFailed(peer.getNodeAddress());
+        assertFalse(addressBook.findPeer(peer.getNodeAddress()).isPresent());
+
+        // A peer we have reached before is kept
+        Peer triedPeer = peer("tried");
+        addressBook.add(triedPeer, null);
+        addressBook.markGood(triedPeer.getNodeAddress(), 0);
+        for (int i = 0; i < 5; i++) {
+            addressBook.markFailed(triedPeer.getNodeAddress());
+        }
+        PeerAddressBook.Entry entry = addressBook.getEntry(triedPeer.getNodeAddress());
+        assertNotNull(entry);
+        assertEquals(5, entry.getNumFailures());
+
+        assertNotNull(addressBook.remove(triedPeer.getNodeAddress()));
+        assertNull(addressBook.remove(triedPeer.getNodeAddress()));
+        assertTrue(addressBook.isEmpty());
+    }
+
+    @Test
+    public void testSelect() {
+        assertFalse(addressBook.select(nodeAddress -> true).isPresent());
+
+        for (int i = 0; i < 10; i++) {
+            addressBook.add(peer("peer" + i), address("source" + i));
+        }
+        NodeAddress excluded = address("peer3");
+        for (int i = 0; i < 100; i++) {
+            Optional<Peer> selected = addressBook.select(nodeAddress -> !nodeAddress.equals(excluded));
+            assertTrue(selected.isPresent());
+            assertFalse(selected.get().getNodeAddress().equals(excluded));
+        }
+
+        List<NodeAddress> candidates = addressBook.selectCandidates(5, nodeAddress -> true);
+        assertEquals(5, candidates.size());
+        assertEquals(5, new HashSet<>(candidates).size());
+        assertTrue(addressBook.selectCandidates(20, nodeAddress -> true).size() <= 10);
+    }
+
+    @Test
+    public void testPeerListRoundTrip() {
+        Peer peer = peer("peer");
+        Peer triedPeer = peer("tried");
+        addressBook.add(peer, address("source"));
+        addressBook.add(triedPeer, address("source"));
+        addressBook.markGood(triedPeer.getNodeAddress(), 800);
+        addressBook.markFailed(peer.getNodeAddress());
+
+        PeerList peerList = (PeerList) PeerList.fromProto(
+                ((protobuf.PersistableEnvelope) addressBook.toPeerList(10).toProtoMessage()).getPeerList());
+        assertEquals(2, peerList.size());
+        Map<NodeAddress, PeerScore> scores = peerList.getPeerScores().stream()
+                .collect(Collectors.toMap(PeerScore::getNodeAddress, e -> e));
+        assertTrue(scores.get(triedPeer.getNodeAddress()).isTried());
+        assertEquals(800, scores.get(triedPeer.getNodeAddress()).getLatency());
+        assertEquals(address("source"), scores.get(peer.getNodeAddress()).getSource());
+
+        PeerAddressBook restored = new PeerAddressBook(new Random(1), () -> now);
+        peerList.getList().forEach(e -> restored.restore(e, scores.get(e.getNodeAddress())));
+        assertTrue(restored.isTried(triedPeer.getNodeAddress()));
+        assertFalse(restored.isTried(peer.getNodeAddress()));
+        assertEquals(1, restored.getEntry(peer.getNodeAddress()).getNumFailures());
+
+        // Old peer lists without scores are restored to the new table
+        PeerAddressBook fromOldList = new PeerAddressBook(new Random(1), () -> now);
+        new PeerList(peerList.getList()).getList().forEach(e -> fromOldList.restore(e, null));
+        assertEquals(2, fromOldList.getNumNew());
+    }
+
+    // Simulates a network where only a part of the known peers is reachable and compares the connection success
+    // after a restart with picking random peers from the known peers as we did before.
+    @Test
+    public void testConnectionSuccessAfterRestartWithChurn() {
+        Set<NodeAddress> online = new HashSet<>();
+        List<NodeAddress> all = new ArrayList<>();
+        for (int source = 0; source < 40; source++) {
+            for (int i = 0; i < 10; i++) {
+                Peer peer = peer("peer" + source + "_" + i);
+                if (addressBook.add(peer, address("source" + source))) {
+                    all.add(peer.getNodeAddress());
+                    if (random.nextInt(4) == 0)
+                        online.add(peer.getNodeAddress());
+                }
+            }
+        }
+
+        for (int i = 0; i < 300; i++) {
+            now += TimeUnit.MINUTES.toMillis(1);
+            addressBook.select(nodeAddress -> true).ifPresent(peer -> {
+                if (online.contains(peer.getNodeAddress()))
+                    addressBook.markGood(peer.getNodeAddress(), 300 + random.nextInt(2000));
+                else
+                    addressBook.markFailed(peer.getNodeAddress());
+            });
+            // Churn: some peers go offline, others come online
+            NodeAddress changed = all.get(random.nextInt(all.size()));
+            if (random.nextInt(10) == 0 && !online.remove(changed))
+                online.add(changed);
+        }
+        assertTrue(addressBook.getNumTried() > 0);
+
+        PeerList peerList = addressBook.toPeerList(500);
+        Map<NodeAddress, PeerScore> scores = peerList.getPeerScores().stream()
+                .collect(Collectors.toMap(PeerScore::getNodeAddress, e -> e));
+        now += TimeUnit.HOURS.toMillis(1);
+        PeerAddressBook restarted = new PeerAddressBook(new Random(7), () -> now);
+        peerList.getList().forEach(peer -> restarted.restore(peer, scores.get(peer.getNodeAddress())));
+
+        int numSuccess = 0;
+        int numRandomSuccess = 0;
+        for (int i = 0; i < 200; i++) {
+            Optional<Peer> selected = restarted.select(nodeAddress -> true);
+            if (selected.isPresent() && online.contains(selected.get().getNodeAddress()))
+                numSuccess++;
+            if (online.contains(all.get(random.nextInt(all.size()))))
+                numRandomSuccess++;
+        }
+        assertTrue("numSuccess=" + numSuccess + ", numRandomSuccess=" + numRandomSuccess,
+                numSuccess > numRandomSuccess * 1.5);
+    }
+}
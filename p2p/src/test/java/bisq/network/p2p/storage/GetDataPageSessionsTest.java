@@ -0,0 +1,66 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage;
+
+import bisq.network.p2p.storage.mocks.ClockFake;
+
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GetDataPageSessionsTest {
+    @Test
+    public void testLeastRecentlyUsedSessionIsRemovedIfFull() {
+        GetDataPageSessions sessions = new GetDataPageSessions(new ClockFake());
+        long firstSessionId = sessions.add(createSession());
+        long secondSessionId = sessions.add(createSession());
+        // The first session is used again, so the second one is the least recently used
+        Assert.assertNotNull(sessions.get(firstSessionId));
+        for (int i = 2; i < GetDataPageSessions.MAX_SESSIONS; i++) {
+            sessions.add(createSession());
+        }
+        Assert.assertEquals(GetDataPageSessions.MAX_SESSIONS, sessions.size());
+
+        sessions.add(createSession());
+        Assert.assertEquals(GetDataPageSessions.MAX_SESSIONS, sessions.size());
+        Assert.assertNotNull(sessions.get(firstSessionId));
+        Assert.assertNull(sessions.get(secondSessionId));
+    }
+
+    @Test
+    public void testSessionExpires() {
+        ClockFake clock = new ClockFake();
+        GetDataPageSessions sessions = new GetDataPageSessions(clock);
+        long sessionId = sessions.add(createSession());
+
+        clock.increment(GetDataPageSessions.SESSION_TTL_MS);
+        Assert.assertNotNull(sessions.get(sessionId));
+        // Each access extends the session
+        clock.increment(GetDataPageSessions.SESSION_TTL_MS);
+        Assert.assertNotNull(sessions.get(sessionId));
+
+        clock.increment(GetDataPageSessions.SESSION_TTL_MS + 1);
+        Assert.assertNull(sessions.get(sessionId));
+        Assert.assertEquals(0, sessions.size());
+    }
+
+    private static GetDataPageSessions.Session createSession() {
+        return new GetDataPageSessions.Session(Collections.emptyList(), 0);
+    }
+}
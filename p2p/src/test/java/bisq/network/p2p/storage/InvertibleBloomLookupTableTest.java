@@ -0,0 +1,128 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class InvertibleBloomLookupTableTest {
+    private final Random random = new Random(1);
+
+    private byte[] randomKey(int length) {
+        byte[] key = new byte[length];
+        random.nextBytes(key);
+        return key;
+    }
+
+    private Set<P2PDataStorage.ByteArray> randomKeys(int count) {
+        Set<P2PDataStorage.ByteArray> keys = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            // Mix the key lengths used by the different stores
+            keys.add(new P2PDataStorage.ByteArray(randomKey(i % 2 == 0 ? 20 : 32)));
+        }
+        return keys;
+    }
+
+    @SafeVarargs
+    private static InvertibleBloomLookupTable createTable(int numCells, Set<P2PDataStorage.ByteArray>... keySets) {
+        InvertibleBloomLookupTable table = new InvertibleBloomLookupTable(numCells);
+        for (Set<P2PDataStorage.ByteArray> keys : keySets) {
+            keys.forEach(key -> table.insert(key.bytes));
+        }
+        return table;
+    }
+
+    // TESTCASE: The difference of two large sets which differ in a few keys can be decoded from a small table
+    @Test
+    public void decodeDifference() {
+        Set<P2PDataStorage.ByteArray> common = randomKeys(10000);
+        Set<P2PDataStorage.ByteArray> onlyInThis = randomKeys(100);
+        Set<P2PDataStorage.ByteArray> onlyInOther = randomKeys(50);
+
+        InvertibleBloomLookupTable table = createTable(300, common, onlyInThis);
+        InvertibleBloomLookupTable other = createTable(300, common, onlyInOther);
+
+        Optional<InvertibleBloomLookupTable.Difference> difference = table.subtract(other).decode();
+        Assert.assertTrue(difference.isPresent());
+        Assert.assertEquals(onlyInThis, difference.get().getKeysOnlyInThis());
+        Assert.assertEquals(onlyInOther, difference.get().getKeysOnlyInOther());
+    }
+
+    // TESTCASE: Equal sets have an empty difference
+    @Test
+    public void decodeEqualSets() {
+        Set<P2PDataStorage.ByteArray> common = randomKeys(1000);
+        Optional<InvertibleBloomLookupTable.Difference> difference =
+                createTable(30, common).subtract(createTable(30, common)).decode();
+
+        Assert.assertTrue(difference.isPresent());
+        Assert.assertTrue(difference.get().getKeysOnlyInThis().isEmpty());
+        Assert.assertTrue(difference.get().getKeysOnlyInOther().isEmpty());
+    }
+
+    // TESTCASE: A table which is too small for the difference fails to decode and estimates the difference
+    @Test
+    public void decodeFailsIfTableTooSmall() {
+        Set<P2PDataStorage.ByteArray> common = randomKeys(1000);
+        Set<P2PDataStorage.ByteArray> onlyInThis = randomKeys(1000);
+
+        InvertibleBloomLookupTable difference = createTable(99, common, onlyInThis).subtract(createTable(99, common));
+
+        Assert.assertFalse(difference.decode().isPresent());
+        Assert.assertTrue(difference.estimateDifferenceSize() > 99);
+    }
+
+    // TESTCASE: A table survives serialization
+    @Test
+    public void serializationRoundTrip() {
+        Set<P2PDataStorage.ByteArray> common = randomKeys(1000);
+        Set<P2PDataStorage.ByteArray> onlyInOther = randomKeys(10);
+        byte[] bytes = createTable(60, common, onlyInOther).toBytes();
+
+        Assert.assertEquals(InvertibleBloomLookupTable.getSerializedSize(60), bytes.length);
+        InvertibleBloomLookupTable other = InvertibleBloomLookupTable.fromBytes(bytes);
+        Optional<InvertibleBloomLookupTable.Difference> difference = createTable(60, common).subtract(other).decode();
+        Assert.assertTrue(difference.isPresent());
+        Assert.assertEquals(onlyInOther, difference.get().getKeysOnlyInOther());
+    }
+
+    // TESTCASE: Tables of different sizes can't be subtracted
+    @Test(expected = IllegalArgumentException.class)
+    public void subtractDifferentSizes() {
+        new InvertibleBloomLookupTable(30).subtract(new InvertibleBloomLookupTable(60));
+    }
+
+    // TESTCASE: Malformed data from a peer is rejected
+    @Test(expected = IllegalArgumentException.class)
+    public void fromBytesInvalidLength() {
+        byte[] bytes = new InvertibleBloomLookupTable(30).toBytes();
+        InvertibleBloomLookupTable.fromBytes(Arrays.copyOf(bytes, bytes.length - 1));
+    }
+
+    // TESTCASE: Keys longer than MAX_KEY_LENGTH are not supported
+    @Test(expected = IllegalArgumentException.class)
+    public void insertTooLongKey() {
+        new InvertibleBloomLookupTable(30).insert(randomKey(InvertibleBloomLookupTable.MAX_KEY_LENGTH + 1));
+    }
+}
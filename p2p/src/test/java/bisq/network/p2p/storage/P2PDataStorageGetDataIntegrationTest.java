@@ -20,17 +20,27 @@ package bisq.network.p2p.storage;
 import bisq.network.p2p.TestUtils;
 import bisq.network.p2p.peers.getdata.messages.GetDataRequest;
 import bisq.network.p2p.peers.getdata.messages.GetDataResponse;
+import bisq.network.p2p.peers.getdata.messages.PreliminaryGetDataRequest;
 import bisq.network.p2p.storage.mocks.PersistableExpirableProtectedStoragePayloadStub;
+import bisq.network.p2p.storage.mocks.PersistableNetworkPayloadStub;
 import bisq.network.p2p.storage.mocks.ProtectedStoragePayloadStub;
+import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
 import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
 import bisq.network.p2p.storage.payload.ProtectedStoragePayload;
 
 import bisq.common.app.Capabilities;
+import bisq.common.app.Capability;
+import bisq.common.app.Version;
+
+import com.google.protobuf.ByteString;
 
 import java.security.KeyPair;
 import java.security.NoSuchAlgorithmException;
 import java.security.PublicKey;
 
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.Assert;
@@ -67,6 +77,50 @@ public class P2PDataStorageGetDataIntegrationTest {
         return stub;
     }
 
+    // PersistableNetworkPayloadStub does not support protobuf, but pages are sized by the serialized payloads
+    private static class SerializablePersistableNetworkPayloadStub extends PersistableNetworkPayloadStub {
+        SerializablePersistableNetworkPayloadStub(byte[] hash) {
+            super(hash);
+        }
+
+        @Override
+        public protobuf.PersistableNetworkPayload toProtoMessage() {
+            return protobuf.PersistableNetworkPayload.newBuilder()
+                    .setAccountAgeWitness(protobuf.AccountAgeWitness.newBuilder()
+                            .setHash(ByteString.copyFrom(getHash())))
+                    .build();
+        }
+    }
+
+    private static void addSerializablePersistableNetworkPayloads(Random random,
+                                                                  int count,
+                                                                  P2PDataStorage... storages) {
+        for (int i = 0; i < count; i++) {
+            byte[] hash = new byte[20];
+            random.nextBytes(hash);
+            PersistableNetworkPayload payload = new SerializablePersistableNetworkPayloadStub(hash);
+            for (P2PDataStorage storage : storages) {
+                storage.addPersistableNetworkPayload(payload, null, false);
+            }
+        }
+    }
+
+    private static Set<PersistableNetworkPayload> addPersistableNetworkPayloads(Random random,
+                                                                              int count,
+                                                                              P2PDataStorage... storages) {
+        Set<PersistableNetworkPayload> payloads = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            byte[] hash = new byte[20];
+            random.nextBytes(hash);
+            PersistableNetworkPayload payload = new PersistableNetworkPayloadStub(hash);
+            payloads.add(payload);
+            for (P2PDataStorage storage : storages) {
+                storage.addPersistableNetworkPayload(payload, null, false);
+            }
+        }
+        return payloads;
+    }
+
     // TESTCASE: Basic synchronization of a ProtectedStorageEntry works between a seed node and client node
     @Test
     public void basicSynchronizationWorks() throws NoSuchAlgorithmException {
@@ -190,4 +244,221 @@ public class P2PDataStorageGetDataIntegrationTest {
         clientNodeTestState.verifyProtectedStorageRemove(
                 beforeState, onSeedNodeAndClientNode, false, false, false, false);
     }
+
+    // TESTCASE: A seed node sends exactly the PersistableNetworkPayloads missing in the sketch of the client node
+    @Test
+    public void sketchSynchronizationSendsOnlyMissingPayloads() {
+        // The message version is required to serialize the request
+        Version.setBaseCryptoNetworkId(1);
+
+        TestState seedNodeTestState = new TestState();
+        P2PDataStorage seedNode = seedNodeTestState.mockedStorage;
+
+        TestState clientNodeTestState = new TestState();
+        P2PDataStorage clientNode = clientNodeTestState.mockedStorage;
+
+        Random random = new Random(1);
+        addPersistableNetworkPayloads(random, 3000, seedNode, clientNode);
+        Set<PersistableNetworkPayload> onlyOnSeedNode = addPersistableNetworkPayloads(random, 50, seedNode);
+        addPersistableNetworkPayloads(random, 20, clientNode);
+
+        PreliminaryGetDataRequest getDataRequest = clientNode.buildPreliminaryGetDataRequest(1, 600);
+        Assert.assertNotNull(getDataRequest.getPersistableNetworkPayloadSketch());
+        Assert.assertTrue(getDataRequest.getExcludedKeys().isEmpty());
+
+        // The sketch has to survive the wire format
+        int messageVersion = getDataRequest.getMessageVersion();
+        getDataRequest = PreliminaryGetDataRequest.fromProto(
+                getDataRequest.toProtoNetworkEnvelope().getPreliminaryGetDataRequest(), messageVersion);
+
+        GetDataResponse getDataResponse = seedNode.buildGetDataResponse(
+                getDataRequest, 10000, new AtomicBoolean(), new AtomicBoolean(), new Capabilities());
+
+        Assert.assertFalse(getDataResponse.isSketchDecodeFailed());
+        Assert.assertEquals(onlyOnSeedNode, getDataResponse.getPersistableNetworkPayloadSet());
+    }
+
+    // TESTCASE: A sketch which is too small for the difference gets a failure response and a retry with a larger
+    // sketch succeeds
+    @Test
+    public void sketchSynchronizationRetryWithLargerSketch() {
+        TestState seedNodeTestState = new TestState();
+        P2PDataStorage seedNode = seedNodeTestState.mockedStorage;
+
+        TestState clientNodeTestState = new TestState();
+        P2PDataStorage clientNode = clientNodeTestState.mockedStorage;
+
+        Random random = new Random(2);
+        addPersistableNetworkPayloads(random, 3000, seedNode, clientNode);
+        Set<PersistableNetworkPayload> onlyOnSeedNode = addPersistableNetworkPayloads(random, 500, seedNode);
+
+        GetDataRequest getDataRequest = clientNode.buildPreliminaryGetDataRequest(1, 30);
+        GetDataResponse getDataResponse = seedNode.buildGetDataResponse(
+                getDataRequest, 10000, new AtomicBoolean(), new AtomicBoolean(), new Capabilities());
+
+        Assert.assertTrue(getDataResponse.isSketchDecodeFailed());
+        Assert.assertTrue(getDataResponse.getPersistableNetworkPayloadSet().isEmpty());
+        Assert.assertTrue(getDataResponse.getDataSet().isEmpty());
+        int estimatedDifference = getDataResponse.getEstimatedSketchDifference();
+        Assert.assertTrue(estimatedDifference > 30);
+
+        getDataRequest = clientNode.buildPreliminaryGetDataRequest(2, 2 * estimatedDifference);
+        getDataResponse = seedNode.buildGetDataResponse(
+                getDataRequest, 10000, new AtomicBoolean(), new AtomicBoolean(), new Capabilities());
+
+        Assert.assertFalse(getDataResponse.isSketchDecodeFailed());
+        Assert.assertEquals(onlyOnSeedNode, getDataResponse.getPersistableNetworkPayloadSet());
+    }
+
+    // TESTCASE: A large store is synchronized into an empty peer with pages which stay below the page size
+    @Test
+    public void paginatedSynchronizationCompletesStore() {
+        Version.setBaseCryptoNetworkId(1);
+
+        TestState seedNodeTestState = new TestState();
+        P2PDataStorage seedNode = seedNodeTestState.mockedStorage;
+
+        TestState clientNodeTestState = new TestState();
+        P2PDataStorage clientNode = clientNodeTestState.mockedStorage;
+
+        addSerializablePersistableNetworkPayloads(new Random(3), 100000, seedNode);
+
+        int maxPageBytes = 200 * 1024;
+        Capabilities peerCapabilities = new Capabilities(Capability.GET_DATA_PAGINATION);
+        GetDataRequest firstPageRequest = clientNode.buildPreliminaryGetDataRequest(1);
+        GetDataRequest getDataRequest = firstPageRequest;
+        int numPages = 0;
+        GetDataResponse getDataResponse;
+        do {
+            getDataResponse = seedNode.buildGetDataResponse(getDataRequest, 10000, maxPageBytes,
+                    new AtomicBoolean(), new AtomicBoolean(), peerCapabilities);
+            Assert.assertFalse(getDataResponse.getPersistableNetworkPayloadSet().isEmpty());
+            Assert.assertTrue(getDataResponse.toProtoNetworkEnvelope().getSerializedSize() < maxPageBytes);
+            clientNode.processGetDataResponse(getDataResponse, null);
+            numPages++;
+
+            if (getDataResponse.isMoreAvailable()) {
+                // The cursor has to survive the wire format
+                getDataRequest = PreliminaryGetDataRequest.fromProto(firstPageRequest
+                        .withContinuationCursor(getDataResponse.getContinuationCursor())
+                        .toProtoNetworkEnvelope()
+                        .getPreliminaryGetDataRequest(), firstPageRequest.getMessageVersion());
+            }
+        } while (getDataResponse.isMoreAvailable() && numPages < 1000);
+
+        Assert.assertFalse(getDataResponse.isMoreAvailable());
+        Assert.assertTrue(numPages > 10);
+        Assert.assertEquals(seedNode.getAppendOnlyDataStoreMap().keySet(),
+                clientNode.getAppendOnlyDataStoreMap().keySet());
+    }
+
+    // TESTCASE: Pages contain the ProtectedStorageEntries first and continue with the PersistableNetworkPayloads
+    @Test
+    public void paginationContinuesFromProtectedStorageEntriesToPersistableNetworkPayloads()
+            throws NoSuchAlgorithmException {
+        TestState seedNodeTestState = new TestState();
+        P2PDataStorage seedNode = seedNodeTestState.mockedStorage;
+
+        Set<ProtectedStorageEntry> protectedStorageEntries = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            ProtectedStorageEntry protectedStorageEntry = getProtectedStorageEntry();
+            when(protectedStorageEntry.toProtoMessage()).thenReturn(protobuf.ProtectedStorageEntry.getDefaultInstance());
+            seedNode.addProtectedStorageEntry(protectedStorageEntry, null, null);
+            protectedStorageEntries.add(protectedStorageEntry);
+        }
+        addSerializablePersistableNetworkPayloads(new Random(4), 3, seedNode);
+
+        Capabilities peerCapabilities = new Capabilities(Capability.GET_DATA_PAGINATION);
+        GetDataRequest firstPageRequest = new TestState().mockedStorage.buildPreliminaryGetDataRequest(1);
+
+        GetDataResponse firstPage = seedNode.buildGetDataResponse(firstPageRequest, 2, 10000,
+                new AtomicBoolean(), new AtomicBoolean(), peerCapabilities);
+        Assert.assertEquals(2, firstPage.getDataSet().size());
+        Assert.assertTrue(firstPage.getPersistableNetworkPayloadSet().isEmpty());
+        Assert.assertTrue(firstPage.isMoreAvailable());
+
+        GetDataResponse secondPage = seedNode.buildGetDataResponse(
+                firstPageRequest.withContinuationCursor(firstPage.getContinuationCursor()), 2, 10000,
+                new AtomicBoolean(), new AtomicBoolean(), peerCapabilities);
+        Assert.assertEquals(1, secondPage.getDataSet().size());
+        Assert.assertEquals(2, secondPage.getPersistableNetworkPayloadSet().size());
+        Assert.assertTrue(secondPage.isMoreAvailable());
+
+        GetDataResponse thirdPage = seedNode.buildGetDataResponse(
+                firstPageRequest.withContinuationCursor(secondPage.getContinuationCursor()), 2, 10000,
+                new AtomicBoolean(), new AtomicBoolean(), peerCapabilities);
+        Assert.assertTrue(thirdPage.getDataSet().isEmpty());
+        Assert.assertEquals(1, thirdPage.getPersistableNetworkPayloadSet().size());
+        Assert.assertFalse(thirdPage.isMoreAvailable());
+
+        Set<ProtectedStorageEntry> receivedProtectedStorageEntries = new HashSet<>(firstPage.getDataSet());
+        receivedProtectedStorageEntries.addAll(secondPage.getDataSet());
+        Assert.assertEquals(protectedStorageEntries, receivedProtectedStorageEntries);
+
+        Set<PersistableNetworkPayload> receivedPersistableNetworkPayloads =
+                new HashSet<>(secondPage.getPersistableNetworkPayloadSet());
+        receivedPersistableNetworkPayloads.addAll(thirdPage.getPersistableNetworkPayloadSet());
+        Assert.assertEquals(new HashSet<>(seedNode.getAppendOnlyDataStoreMap().values()),
+                receivedPersistableNetworkPayloads);
+    }
+
+    // TESTCASE: The requests for the next pages only carry the cursor. If the session of the cursor has expired the
+    // requester starts again with a first page request which excludes the data it has received already.
+    @Test
+    public void expiredPaginationSessionRequiresNewFirstPage() {
+        TestState seedNodeTestState = new TestState();
+        P2PDataStorage seedNode = seedNodeTestState.mockedStorage;
+
+        TestState clientNodeTestState = new TestState();
+        P2PDataStorage clientNode = clientNodeTestState.mockedStorage;
+
+        Random random = new Random(6);
+        addSerializablePersistableNetworkPayloads(random, 5, seedNode, clientNode);
+        addSerializablePersistableNetworkPayloads(random, 10, seedNode);
+
+        Capabilities peerCapabilities = new Capabilities(Capability.GET_DATA_PAGINATION);
+        GetDataRequest firstPageRequest = clientNode.buildPreliminaryGetDataRequest(1);
+        Assert.assertEquals(5, firstPageRequest.getExcludedKeys().size());
+        GetDataResponse firstPage = seedNode.buildGetDataResponse(firstPageRequest, 4, 10000,
+                new AtomicBoolean(), new AtomicBoolean(), peerCapabilities);
+        Assert.assertEquals(4, firstPage.getPersistableNetworkPayloadSet().size());
+        Assert.assertTrue(firstPage.isMoreAvailable());
+        clientNode.processGetDataResponse(firstPage, null);
+
+        GetDataRequest nextPageRequest = firstPageRequest.withContinuationCursor(firstPage.getContinuationCursor());
+        Assert.assertTrue(nextPageRequest.getExcludedKeys().isEmpty());
+        Assert.assertNull(nextPageRequest.getPersistableNetworkPayloadSketch());
+
+        seedNodeTestState.clockFake.increment(GetDataPageSessions.SESSION_TTL_MS + 1);
+        GetDataResponse expiredPage = seedNode.buildGetDataResponse(nextPageRequest, 4, 10000,
+                new AtomicBoolean(), new AtomicBoolean(), peerCapabilities);
+        Assert.assertTrue(expiredPage.isContinuationExpired());
+        Assert.assertFalse(expiredPage.isMoreAvailable());
+        Assert.assertTrue(expiredPage.getPersistableNetworkPayloadSet().isEmpty());
+
+        GetDataResponse restartedPage = seedNode.buildGetDataResponse(clientNode.buildPreliminaryGetDataRequest(2),
+                10, 10000, new AtomicBoolean(), new AtomicBoolean(), peerCapabilities);
+        Assert.assertEquals(6, restartedPage.getPersistableNetworkPayloadSet().size());
+        Assert.assertFalse(restartedPage.isMoreAvailable());
+        clientNode.processGetDataResponse(restartedPage, null);
+        Assert.assertEquals(seedNode.getAppendOnlyDataStoreMap().keySet(),
+                clientNode.getAppendOnlyDataStoreMap().keySet());
+    }
+
+    // TESTCASE: Peers without pagination support get a truncated response without a cursor
+    @Test
+    public void noPaginationWithoutCapability() {
+        TestState seedNodeTestState = new TestState();
+        P2PDataStorage seedNode = seedNodeTestState.mockedStorage;
+        addSerializablePersistableNetworkPayloads(new Random(5), 10, seedNode);
+
+        AtomicBoolean outPersistableNetworkPayloadOutputTruncated = new AtomicBoolean();
+        GetDataResponse getDataResponse = seedNode.buildGetDataResponse(
+                new TestState().mockedStorage.buildPreliminaryGetDataRequest(1), 5, 10000,
+                outPersistableNetworkPayloadOutputTruncated, new AtomicBoolean(), new Capabilities());
+
+        Assert.assertFalse(getDataResponse.isMoreAvailable());
+        Assert.assertTrue(outPersistableNetworkPayloadOutputTruncated.get());
+        Assert.assertEquals(5, getDataResponse.getPersistableNetworkPayloadSet().size());
+    }
 }
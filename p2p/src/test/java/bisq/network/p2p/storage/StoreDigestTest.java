@@ -0,0 +1,121 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StoreDigestTest {
+    private static final String STORE_NAME = "TradeStatistics2";
+
+    private static List<byte[]> createKeys(int numKeys, long seed) {
+        Random random = new Random(seed);
+        List<byte[]> keys = new ArrayList<>();
+        for (int i = 0; i < numKeys; i++) {
+            byte[] key = new byte[20];
+            random.nextBytes(key);
+            keys.add(key);
+        }
+        return keys;
+    }
+
+    private static StoreDigest buildDigest(List<byte[]> keys, byte[] prefix) {
+        StoreDigest.Accumulator accumulator = new StoreDigest.Accumulator(STORE_NAME, prefix);
+        keys.stream()
+                .filter(accumulator::covers)
+                .forEach(key -> accumulator.add(key, StoreDigest.getAppendOnlyLeaf(key)));
+        return accumulator.build();
+    }
+
+    @Test
+    public void testBucketDigestsCombineToRootDigest() {
+        StoreDigest storeDigest = buildDigest(createKeys(1000, 1), new byte[0]);
+
+        assertEquals(1000, storeDigest.getNumEntries());
+        assertTrue(storeDigest.getKeys().isEmpty());
+
+        byte[] combined = new byte[StoreDigest.DIGEST_LENGTH];
+        int numEntries = 0;
+        for (StoreDigest.Bucket bucket : storeDigest.getBuckets()) {
+            for (int i = 0; i < combined.length; i++)
+                combined[i] ^= bucket.getDigest()[i];
+            numEntries += bucket.getNumEntries();
+        }
+        assertArrayEquals(storeDigest.getDigest(), combined);
+        assertEquals(1000, numEntries);
+    }
+
+    @Test
+    public void testSmallRangeReturnsKeys() {
+        List<byte[]> keys = createKeys(1000, 2);
+        byte[] prefix = new byte[]{keys.get(0)[0]};
+        StoreDigest storeDigest = buildDigest(keys, prefix);
+
+        assertTrue(storeDigest.getNumEntries() <= StoreDigest.MAX_KEYS);
+        assertTrue(storeDigest.getBuckets().isEmpty());
+        assertEquals(storeDigest.getNumEntries(), storeDigest.getKeys().size());
+        assertTrue(storeDigest.getKeys().stream().anyMatch(key -> Arrays.equals(key, keys.get(0))));
+    }
+
+    @Test
+    public void testDivergentKeyIsFoundInBucket() {
+        List<byte[]> keys = createKeys(1000, 3);
+        StoreDigest complete = buildDigest(keys, new byte[0]);
+        byte[] missingKey = keys.remove(42);
+        StoreDigest incomplete = buildDigest(keys, new byte[0]);
+
+        assertFalse(Arrays.equals(complete.getDigest(), incomplete.getDigest()));
+
+        int missingIndex = missingKey[0] & 0xff;
+        for (int i = 0; i < complete.getBuckets().size(); i++) {
+            StoreDigest.Bucket expected = complete.getBuckets().get(i);
+            StoreDigest.Bucket actual = incomplete.getBuckets().stream()
+                    .filter(bucket -> bucket.getIndex() == expected.getIndex())
+                    .findAny()
+                    .orElse(null);
+            boolean equal = actual != null && Arrays.equals(expected.getDigest(), actual.getDigest());
+            assertEquals(expected.getIndex() != missingIndex, equal);
+        }
+
+        // Drilling down into the divergent bucket reveals the missing key
+        StoreDigest drillDown = buildDigest(keys, new byte[]{missingKey[0]});
+        assertFalse(drillDown.getKeys().isEmpty());
+        assertTrue(drillDown.getKeys().stream().noneMatch(key -> Arrays.equals(key, missingKey)));
+    }
+
+    @Test
+    public void testProtoRoundTrip() {
+        StoreDigest storeDigest = buildDigest(createKeys(1000, 4), new byte[0]);
+        StoreDigest fromProto = StoreDigest.fromProto(storeDigest.toProtoMessage());
+
+        assertEquals(storeDigest.getStoreName(), fromProto.getStoreName());
+        assertEquals(storeDigest.getNumEntries(), fromProto.getNumEntries());
+        assertArrayEquals(storeDigest.getDigest(), fromProto.getDigest());
+        assertEquals(storeDigest.getBuckets().size(), fromProto.getBuckets().size());
+        assertArrayEquals(storeDigest.getBuckets().get(0).getDigest(), fromProto.getBuckets().get(0).getDigest());
+    }
+}
@@ -54,6 +54,7 @@ public class SeedNodeMain extends ExecutableForAppWithP2p {
         super.doExecute(options);
 
         checkMemory(bisqEnvironment, this);
+        startMetricsServer(bisqEnvironment);
         startShutDownInterval(this);
         CommonSetup.setup(this);
 
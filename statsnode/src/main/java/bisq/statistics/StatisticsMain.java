@@ -52,6 +52,7 @@ public class StatisticsMain extends ExecutableForAppWithP2p {
         super.doExecute(options);
 
         checkMemory(bisqEnvironment, this);
+        startMetricsServer(bisqEnvironment);
         CommonSetup.setup(this);
 
         keepRunning();